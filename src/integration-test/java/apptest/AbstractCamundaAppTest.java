@@ -16,6 +16,7 @@ import java.util.stream.Stream;
 
 import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import generated.se.sundsvall.camunda.HistoricActivityInstanceDto;
 import se.sundsvall.dept44.test.AbstractAppTest;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
+import se.sundsvall.parkingpermit.integration.camunda.deployment.TenantAwareAutoDeployment;
 
 /**
  * Test class using testcontainer to execute the process.
@@ -47,6 +49,9 @@ abstract class AbstractCamundaAppTest extends AbstractAppTest {
 	@Autowired
 	protected CamundaClient camundaClient;
 
+	@Autowired
+	private TenantAwareAutoDeployment tenantAwareAutoDeployment;
+
 	AbstractCamundaAppTest() {
 		this.logger = LoggerFactory.getLogger(getClass());
 	}
@@ -65,6 +70,14 @@ abstract class AbstractCamundaAppTest extends AbstractAppTest {
 		registry.add("camunda.bpm.client.base-url", () -> camundaBaseUrl);
 	}
 
+	@BeforeEach
+	void awaitDeployment() {
+		// Process models are deployed in the background once the application has started
+		await()
+			.atMost(60, SECONDS)
+			.until(tenantAwareAutoDeployment::isDeployed);
+	}
+
 	@AfterAll
 	static void teardown() {
 		CAMUNDA.stop();
@@ -0,0 +1,118 @@
+package apptest;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Startup benchmark comparing the cold start time of the packaged application with and without an AOT cache, built the
+ * same way as in docker/Dockerfile. Each run refreshes the application context and exits before any lifecycle bean is
+ * started, hence no integration needs to be available. The median start time with the cache must be below the median
+ * without it by the required share, which is kept well below the gain of the cache to not fail on a noisy machine.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StartupTimeIT {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimeIT.class);
+
+	private static final int NUMBER_OF_RUNS = 5;
+	private static final double REQUIRED_SPEEDUP = 0.1;
+	private static final long RUN_TIMEOUT_IN_MINUTES = 2;
+	private static final Path BUILD_DIRECTORY = Path.of("target");
+	private static final Path BENCHMARK_DIRECTORY = BUILD_DIRECTORY.resolve("startup-benchmark");
+	private static final Path TRAINING_CONFIG = Path.of("docker", "training.yaml");
+
+	private final String java = ProcessHandle.current().info().command().orElse("java");
+
+	private Path application;
+
+	@BeforeAll
+	void extractApplication() throws Exception {
+		final Path jar;
+		try (var files = Files.list(BUILD_DIRECTORY)) {
+			jar = files
+				.filter(file -> file.getFileName().toString().matches("pw-parking-permit-.*\\.jar"))
+				.findFirst()
+				.orElseThrow(() -> new IllegalStateException("No packaged application found in " + BUILD_DIRECTORY.toAbsolutePath()));
+		}
+
+		run(List.of(java, "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force", "--destination", BENCHMARK_DIRECTORY.toString()));
+
+		application = BENCHMARK_DIRECTORY.resolve(jar.getFileName());
+	}
+
+	@Test
+	void startupTimeWithAotCache() throws Exception {
+		final var aotCache = BENCHMARK_DIRECTORY.resolve("application.aot");
+		Files.deleteIfExists(aotCache);
+
+		final var withoutCache = measure(List.of());
+		run(startupCommand(List.of("-XX:AOTCacheOutput=" + aotCache)));
+		final var withCache = measure(List.of("-XX:AOTCache=" + aotCache));
+
+		LOGGER.info("Startup time without AOT cache: {}", withoutCache);
+		LOGGER.info("Startup time with AOT cache: {}", withCache);
+
+		assertThat(aotCache).exists();
+		assertThat(median(withCache))
+			.as("Median startup time with AOT cache, compared to %s without it", median(withoutCache))
+			.isLessThan(median(withoutCache).multipliedBy(Math.round((1 - REQUIRED_SPEEDUP) * 100)).dividedBy(100));
+	}
+
+	private static Duration median(List<Duration> durations) {
+		return durations.stream()
+			.sorted()
+			.toList()
+			.get(durations.size() / 2);
+	}
+
+	private List<Duration> measure(List<String> jvmOptions) {
+		return IntStream.range(0, NUMBER_OF_RUNS)
+			.mapToObj(i -> {
+				final var start = System.nanoTime();
+				run(startupCommand(jvmOptions));
+				return Duration.ofNanos(System.nanoTime() - start);
+			})
+			.toList();
+	}
+
+	private List<String> startupCommand(List<String> jvmOptions) {
+		final var command = new ArrayList<String>();
+		command.add(java);
+		command.addAll(jvmOptions);
+		command.addAll(List.of("-Dspring.context.exit=onRefresh", "-jar", application.toString(),
+			"--spring.config.additional-location=file:" + TRAINING_CONFIG.toAbsolutePath()));
+		return command;
+	}
+
+	private static void run(List<String> command) {
+		try {
+			final var process = new ProcessBuilder(command)
+				.redirectErrorStream(true)
+				.redirectOutput(Redirect.appendTo(BUILD_DIRECTORY.resolve("startup-benchmark.log").toFile()))
+				.start();
+
+			assertThat(process.waitFor(RUN_TIMEOUT_IN_MINUTES, MINUTES)).as("%s finished in time", command).isTrue();
+			assertThat(process.exitValue()).as("Exit value of %s", command).isZero();
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package se.sundsvall.parkingpermit.integration.casedata.model;
+
+import generated.se.sundsvall.casedata.Errand;
+import generated.se.sundsvall.casedata.ExtraParameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.apache.commons.collections4.CollectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static java.util.Collections.emptyList;
+import static java.util.Optional.ofNullable;
+import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_APPLICATION_APPLICANT_CAPACITY;
+import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_APPLICATION_APPLICANT_SIGNING_ABILITY;
+import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_APPLICATION_RENEWAL_CHANGED_CIRCUMSTANCES;
+import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_DISABILITY_CAN_BE_ALONE_WHILE_PARKING;
+import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_DISABILITY_DURATION;
+import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_DISABILITY_WALKING_ABILITY;
+import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_DISABILITY_WALKING_DISTANCE_MAX;
+import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_LOST_PERMIT_POLICE_REPORT_NUMBER;
+
+/**
+ * Compares looking up the rule engine keys by streaming the extra parameters of an errand once per key, which is how
+ * the lookups were done before {@link ErrandView}, with building a view and doing hash lookups. The view benchmark
+ * includes the cost of building the index, since a view is built once per fetched errand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrandViewBenchmark {
+
+	private static final List<String> KEYS = List.of(
+		CASEDATA_KEY_APPLICATION_APPLICANT_CAPACITY,
+		CASEDATA_KEY_DISABILITY_DURATION,
+		CASEDATA_KEY_DISABILITY_WALKING_ABILITY,
+		CASEDATA_KEY_DISABILITY_WALKING_DISTANCE_MAX,
+		CASEDATA_KEY_DISABILITY_CAN_BE_ALONE_WHILE_PARKING,
+		CASEDATA_KEY_APPLICATION_RENEWAL_CHANGED_CIRCUMSTANCES,
+		CASEDATA_KEY_LOST_PERMIT_POLICE_REPORT_NUMBER,
+		CASEDATA_KEY_APPLICATION_APPLICANT_SIGNING_ABILITY);
+
+	@Param({
+		"10", "100", "500"
+	})
+	private int numberOfExtraParameters;
+
+	private Errand errand;
+
+	@Setup
+	public void setup() {
+		final var extraParameters = new ArrayList<ExtraParameter>();
+		IntStream.range(0, numberOfExtraParameters - KEYS.size())
+			.mapToObj(index -> new ExtraParameter("filler.parameter." + index).addValuesItem("value" + index))
+			.forEach(extraParameters::add);
+		// Place the looked up keys last, which is the worst case for the linear lookup
+		KEYS.forEach(key -> extraParameters.add(new ExtraParameter(key).addValuesItem("value")));
+
+		errand = new Errand().extraParameters(extraParameters);
+	}
+
+	@Benchmark
+	public void linearLookup(final Blackhole blackhole) {
+		KEYS.forEach(key -> blackhole.consume(ofNullable(errand.getExtraParameters()).orElse(emptyList()).stream()
+			.filter(extraParameter -> key.equals(extraParameter.getKey()))
+			.findFirst()
+			.map(ExtraParameter::getValues)
+			.filter(CollectionUtils::isNotEmpty)
+			.map(List::getFirst)
+			.orElse(null)));
+	}
+
+	@Benchmark
+	public void viewLookup(final Blackhole blackhole) {
+		final var errandView = ErrandView.of(errand);
+		KEYS.forEach(key -> blackhole.consume(errandView.findExtraParameterValue(key).orElse(null)));
+	}
+}
@@ -0,0 +1,101 @@
+package se.sundsvall.parkingpermit.integration.messaging.mapper;
+
+import generated.se.sundsvall.messaging.LetterParty;
+import generated.se.sundsvall.messaging.LetterRequest;
+import generated.se.sundsvall.messaging.LetterSender;
+import generated.se.sundsvall.messaging.LetterSenderSupportInfo;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import se.sundsvall.parkingpermit.util.CommonTextProperties;
+import se.sundsvall.parkingpermit.util.SimplifiedServiceTextProperties;
+import se.sundsvall.parkingpermit.util.TextProperties;
+
+import static generated.se.sundsvall.messaging.LetterRequest.ContentTypeEnum.TEXT_HTML;
+import static java.nio.charset.Charset.defaultCharset;
+
+/**
+ * Compares mapping a batch of simplified service letters by encoding the html body once per letter, which is how the
+ * letters were mapped before {@link MessageTemplates}, with mapping them from the snapshot. Run with {@code -prof gc}
+ * to compare the allocation rate, which is where the difference is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessagingMapperBenchmark {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Param({
+		"1", "100", "1000"
+	})
+	private int batchSize;
+
+	private List<String> partyIds;
+	private CommonTextProperties commonTexts;
+	private SimplifiedServiceTextProperties simplifiedServiceTexts;
+	private MessagingMapper messagingMapper;
+
+	@Setup
+	public void setup() {
+		partyIds = IntStream.range(0, batchSize)
+			.mapToObj(index -> UUID.randomUUID().toString())
+			.toList();
+
+		commonTexts = new CommonTextProperties();
+		commonTexts.setDepartment("SBK(Gatuavdelningen, Trafiksektionen)");
+		commonTexts.setContactInfoEmail("sundsvalls.kommun@sundsvall.se");
+		commonTexts.setContactInfoPhonenumber("+46 60 191000");
+		commonTexts.setContactInfoText("Kontakta oss via epost eller telefon.");
+		commonTexts.setContactInfoUrl("https://sundsvall.se/");
+
+		simplifiedServiceTexts = new SimplifiedServiceTextProperties();
+		simplifiedServiceTexts.setSubject("Kontrollfrågor om förenklad delgivning");
+		// A body of the same size as the configured bodies, which are a few kilobytes of html
+		simplifiedServiceTexts.setHtmlBody("<p>Vi har nyligen delgivit dig ett beslut via brev. Du får nu ett kontrollmeddelande för att säkerställa att du mottagit informationen.</p>".repeat(25));
+
+		final var textProperties = new TextProperties();
+		textProperties.setCommons(Map.of(MUNICIPALITY_ID, commonTexts));
+		textProperties.setSimplifiedServices(Map.of(MUNICIPALITY_ID, simplifiedServiceTexts));
+		messagingMapper = new MessagingMapper(new MessageTemplates(textProperties));
+	}
+
+	@Benchmark
+	public void encodePerMessage(final Blackhole blackhole) {
+		partyIds.forEach(partyId -> blackhole.consume(new LetterRequest()
+			.body(Base64.getEncoder().encodeToString(simplifiedServiceTexts.getHtmlBody().getBytes(defaultCharset())))
+			.contentType(TEXT_HTML)
+			.department(commonTexts.getDepartment())
+			.party(new LetterParty().addPartyIdsItem(UUID.fromString(partyId)))
+			.sender(new LetterSender().supportInfo(new LetterSenderSupportInfo()
+				.emailAddress(commonTexts.getContactInfoEmail())
+				.phoneNumber(commonTexts.getContactInfoPhonenumber())
+				.text(commonTexts.getContactInfoText())
+				.url(commonTexts.getContactInfoUrl())))
+			.subject(simplifiedServiceTexts.getSubject())
+			.attachments(null)));
+	}
+
+	@Benchmark
+	public void snapshot(final Blackhole blackhole) {
+		partyIds.forEach(partyId -> blackhole.consume(messagingMapper.toLetterRequestSimplifiedService(partyId, MUNICIPALITY_ID, null)));
+	}
+}
@@ -6,6 +6,7 @@ import org.camunda.bpm.engine.variable.type.ValueType;
 public final class Constants {
 
 	public static final String PROCESS_KEY = "process-parking-permit"; // Must match ID of process defined in bpmn schema
+	public static final String MESSAGE_UPDATE_AVAILABLE = "updateAvailableMessage"; // Must match name of message defined in the message correlation bpmn schema
 	public static final String TENANTID_TEMPLATE = "PARKING_PERMIT"; // Namespace where process is deployed, a.k.a tenant (must match setting in application.yaml)
 
 	public static final String PARTY_ASSET_ORIGIN = "CASEDATA";
@@ -21,6 +22,8 @@ public final class Constants {
 	public static final String CAMUNDA_VARIABLE_NAMESPACE = "namespace";
 	public static final String CAMUNDA_VARIABLE_MESSAGE_ID = "messageId";
 	public static final String CAMUNDA_VARIABLE_REQUEST_ID = "requestId";
+	public static final String CAMUNDA_VARIABLE_SHARD = "shard";
+	public static final String CAMUNDA_VARIABLE_TASK_PRIORITY = "taskPriority";
 	public static final String CAMUNDA_VARIABLE_UPDATE_AVAILABLE = "updateAvailable";
 	public static final String CAMUNDA_VARIABLE_FINAL_DECISION = "finalDecision";
 	public static final String CAMUNDA_VARIABLE_IS_APPROVED = "isApproved";
@@ -78,6 +81,10 @@ public final class Constants {
 	public static final String PHASE_ACTION_AUTOMATIC = "AUTOMATIC";
 	public static final String PHASE_ACTION_CANCEL = "CANCEL";
 	public static final String PHASE_ACTION_UNKNOWN = "UNKNOWN";
+
+	// The priority of the external tasks of a process, which is evaluated from the taskPriority variable in the bpmn schema
+	public static final long TASK_PRIORITY_DEFAULT = 0;
+	public static final long TASK_PRIORITY_AUTOMATIC = 100;
 	public static final String PHASE_STATUS_COMPLETED = "COMPLETED";
 	public static final String PHASE_STATUS_ONGOING = "ONGOING";
 	public static final String PHASE_STATUS_WAITING = "WAITING";
@@ -39,6 +39,18 @@ public class FailureHandler {
 			emptyMap());
 	}
 
+	/**
+	 * Reports the failure together with the steps recorded in the ledger, so that a retry of the task skips them.
+	 */
+	public void handleException(ExternalTaskService externalTaskService, ExternalTask externalTask, String message, IdempotencyLedger ledger) {
+		externalTaskService.handleFailure(externalTask.getId(), externalTask.getWorkerId(),
+			message,
+			calculateRetries(externalTask),
+			retryTimeout,
+			emptyMap(),
+			ledger.toLocalVariables());
+	}
+
 	private int calculateRetries(ExternalTask externalTask) {
 		return Optional.ofNullable(externalTask.getRetries())
 			.map(retries -> retries - 1)
@@ -0,0 +1,267 @@
+package se.sundsvall.parkingpermit.businesslogic.handler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import static java.util.Objects.isNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Executes fetched tasks in a fair order over the municipalities, so that a peak of tasks in one municipality does not
+ * starve the tasks of the others.
+ *
+ * The tasks are queued per municipality and executed by a fixed number of threads, which pick the municipality of the
+ * next task by smooth weighted round-robin among the municipalities having tasks waiting and executing fewer tasks than
+ * their max concurrency. Dispatching waits while the configured capacity of waiting tasks is reached, which makes the
+ * client wait before fetching more tasks. The number of waiting and executing tasks are published as gauges tagged with
+ * the municipality.
+ *
+ * Tasks with a priority from the configured threshold are queued on a priority lane instead, in the order they were
+ * dispatched. The priority lane is served ahead of the municipalities by every thread, and by a number of threads
+ * reserved for it, which keeps priority tasks from waiting behind a backlog of other tasks. Dispatching priority tasks
+ * waits for the capacity of the priority lane only, as the client fetches tasks in priority order which puts them first
+ * in every fetch, and a backlog of other tasks must not hold them back.
+ *
+ * The lock of a task is held by the {@link LockHeartbeat} from when it is dispatched until it is executed, as the wait
+ * for capacity and the time in the queue are not bounded by the lock duration of the subscription. A task whose lock is
+ * lost while waiting is not executed, as it might already have been fetched by another worker.
+ *
+ * Fairness is limited to the fetched tasks, as the engine decides which tasks are fetched. Tasks still waiting when the
+ * application shuts down are never executed, which leaves them to be fetched again when their locks expire.
+ */
+@Component
+public class FairTaskDispatcher {
+
+	static final String METRIC_QUEUED = "parkingpermit.dispatch.queued";
+	static final String METRIC_ACTIVE = "parkingpermit.dispatch.active";
+	static final String METRIC_PRIORITY_QUEUED = "parkingpermit.dispatch.priority.queued";
+	static final String METRIC_PRIORITY_ACTIVE = "parkingpermit.dispatch.priority.active";
+	static final String TAG_MUNICIPALITY_ID = "municipalityId";
+	static final String UNKNOWN_MUNICIPALITY_ID = "unknown";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(FairTaskDispatcher.class);
+
+	private final FairTaskDispatcherProperties properties;
+	private final LockHeartbeat lockHeartbeat;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Tenant> tenants = new HashMap<>();
+	// The priority lane needs neither weight nor max concurrency, as it is served ahead of the municipalities
+	private final Tenant priorityLane = new Tenant(0, Integer.MAX_VALUE);
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notFull = lock.newCondition();
+	private final Condition priorityNotFull = lock.newCondition();
+	private final Condition dispatchable = lock.newCondition();
+	private final ExecutorService executor;
+	private int queued;
+
+	FairTaskDispatcher(FairTaskDispatcherProperties properties, LockHeartbeat lockHeartbeat, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.lockHeartbeat = lockHeartbeat;
+		this.meterRegistry = meterRegistry;
+		this.executor = properties.enabled() ? startDispatchers(properties.concurrency(), properties.priorityConcurrency()) : null;
+	}
+
+	/**
+	 * Queues the execution of the external task, or executes it right away when dispatching is disabled. The lock of the
+	 * task is extended until the execution starts, and the execution is skipped if the lock has been lost by then.
+	 */
+	public void dispatch(String municipalityId, ExternalTask externalTask, ExternalTaskService externalTaskService, Runnable task) {
+		if (isNull(executor)) {
+			task.run();
+			return;
+		}
+
+		final var beat = lockHeartbeat.start(externalTask, externalTaskService);
+		dispatch(municipalityId, externalTask.getPriority(), () -> {
+			beat.close();
+			if (beat.isLockLost()) {
+				LOGGER.warn("Lock of task with id {} and businesskey {} was lost while waiting, leaving it to be fetched again", externalTask.getId(), externalTask.getBusinessKey());
+				return;
+			}
+			task.run();
+		});
+	}
+
+	/**
+	 * Queues the task for execution, or executes it right away when dispatching is disabled. Waits while the capacity of
+	 * waiting tasks is reached, or the capacity of the priority lane when the task is queued on it.
+	 */
+	void dispatch(String municipalityId, long priority, Runnable task) {
+		if (isNull(executor)) {
+			task.run();
+			return;
+		}
+
+		lock.lock();
+		try {
+			if (properties.isPriority(priority)) {
+				while (priorityLane.tasks.size() >= properties.priorityCapacity()) {
+					priorityNotFull.await();
+				}
+				priorityLane.tasks.add(task);
+				priorityLane.queued.incrementAndGet();
+				dispatchable.signalAll();
+				return;
+			}
+			while (queued >= properties.capacity()) {
+				notFull.await();
+			}
+			final var tenant = tenants.computeIfAbsent(ofNullable(municipalityId).orElse(UNKNOWN_MUNICIPALITY_ID), this::createTenant);
+			tenant.tasks.add(task);
+			tenant.queued.incrementAndGet();
+			queued++;
+			dispatchable.signalAll();
+			return;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn("Interrupted while waiting to dispatch task, executing it right away");
+		} finally {
+			lock.unlock();
+		}
+		task.run();
+	}
+
+	@PreDestroy
+	void shutdown() {
+		if (!isNull(executor)) {
+			executor.shutdownNow();
+		}
+	}
+
+	private ExecutorService startDispatchers(int concurrency, int priorityConcurrency) {
+		Gauge.builder(METRIC_PRIORITY_QUEUED, priorityLane.queued, AtomicInteger::get).register(meterRegistry);
+		Gauge.builder(METRIC_PRIORITY_ACTIVE, priorityLane.active, AtomicInteger::get).register(meterRegistry);
+
+		final var dispatchers = Executors.newFixedThreadPool(concurrency + priorityConcurrency, Thread.ofPlatform()
+			.name("task-dispatch-", 0)
+			.daemon()
+			.factory());
+		for (var i = 0; i < concurrency; i++) {
+			dispatchers.execute(() -> dispatchLoop(false));
+		}
+		for (var i = 0; i < priorityConcurrency; i++) {
+			dispatchers.execute(() -> dispatchLoop(true));
+		}
+		return dispatchers;
+	}
+
+	private void dispatchLoop(boolean priorityOnly) {
+		while (!Thread.currentThread().isInterrupted()) {
+			final Tenant tenant;
+			final Runnable task;
+			lock.lock();
+			try {
+				tenant = awaitNext(priorityOnly);
+				task = tenant.tasks.remove();
+				tenant.queued.decrementAndGet();
+				tenant.active.incrementAndGet();
+				if (tenant == priorityLane) {
+					priorityNotFull.signal();
+				} else {
+					queued--;
+					notFull.signal();
+				}
+			} catch (final InterruptedException e) {
+				return;
+			} finally {
+				lock.unlock();
+			}
+
+			try {
+				task.run();
+			} catch (final RuntimeException e) {
+				LOGGER.error("Dispatched task failed", e);
+			} finally {
+				release(tenant);
+			}
+		}
+	}
+
+	private void release(Tenant tenant) {
+		lock.lock();
+		try {
+			tenant.active.decrementAndGet();
+			// The municipality might have tasks waiting for it to get below its max concurrency
+			dispatchable.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the priority lane if it has tasks waiting, otherwise the municipality of the next task to execute, by smooth
+	 * weighted round-robin. Each selection adds the weight of every eligible municipality to its current weight, and the
+	 * one with the highest current weight is selected and has its current weight reduced by the total weight. To be called
+	 * while holding the lock.
+	 */
+	private Tenant awaitNext(boolean priorityOnly) throws InterruptedException {
+		while (true) {
+			if (!priorityLane.tasks.isEmpty()) {
+				return priorityLane;
+			}
+			if (priorityOnly) {
+				dispatchable.await();
+				continue;
+			}
+
+			Tenant selected = null;
+			var totalWeight = 0;
+			for (final var tenant : tenants.values()) {
+				if (tenant.tasks.isEmpty() || tenant.active.get() >= tenant.maxConcurrency) {
+					continue;
+				}
+				tenant.currentWeight += tenant.weight;
+				totalWeight += tenant.weight;
+				if (isNull(selected) || tenant.currentWeight > selected.currentWeight) {
+					selected = tenant;
+				}
+			}
+			if (!isNull(selected)) {
+				selected.currentWeight -= totalWeight;
+				return selected;
+			}
+			dispatchable.await();
+		}
+	}
+
+	private Tenant createTenant(String municipalityId) {
+		final var tenant = new Tenant(properties.weightFor(municipalityId), properties.maxConcurrencyFor(municipalityId));
+		Gauge.builder(METRIC_QUEUED, tenant.queued, AtomicInteger::get)
+			.tag(TAG_MUNICIPALITY_ID, municipalityId)
+			.register(meterRegistry);
+		Gauge.builder(METRIC_ACTIVE, tenant.active, AtomicInteger::get)
+			.tag(TAG_MUNICIPALITY_ID, municipalityId)
+			.register(meterRegistry);
+		return tenant;
+	}
+
+	private static final class Tenant {
+
+		private final Queue<Runnable> tasks = new ArrayDeque<>();
+		private final AtomicInteger queued = new AtomicInteger();
+		private final AtomicInteger active = new AtomicInteger();
+		private final int weight;
+		private final int maxConcurrency;
+		private int currentWeight;
+
+		private Tenant(int weight, int maxConcurrency) {
+			this.weight = weight;
+			this.maxConcurrency = maxConcurrency;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package se.sundsvall.parkingpermit.businesslogic.handler;
+
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static java.util.Optional.ofNullable;
+import static se.sundsvall.parkingpermit.Constants.TASK_PRIORITY_AUTOMATIC;
+
+/**
+ * Settings for the dispatching of fetched tasks, which are queued per municipality and executed in weighted round-robin
+ * order over the municipalities, except for tasks of a high priority which are executed on a priority lane ahead of them.
+ *
+ * @param enabled             whether fetched tasks are dispatched, otherwise they are executed by the fetching thread in
+ *                            the order they were fetched
+ * @param concurrency         the number of tasks executed at the same time
+ * @param capacity            the number of tasks waiting to be executed that makes fetching wait. Waiting tasks are
+ *                            locked and unavailable to other replicas, which keeps the capacity to a few times the
+ *                            concurrency
+ * @param weights             weights per municipality id, the share of the executions a municipality gets while others
+ *                            have tasks waiting as well. Municipalities not listed have the weight 1
+ * @param maxConcurrency      the max number of tasks executed at the same time per municipality id. Municipalities not
+ *                            listed may use the full concurrency
+ * @param priorityThreshold   the task priority from which tasks are executed on the priority lane
+ * @param priorityConcurrency the number of threads reserved for the priority lane, on top of the concurrency, which keep
+ *                            executing priority tasks while all other threads are busy
+ * @param priorityCapacity    the number of tasks waiting on the priority lane that makes fetching wait, separate from
+ *                            the capacity as priority tasks are fetched first and would otherwise wait behind the
+ *                            municipalities. Defaults to the capacity
+ */
+@ConfigurationProperties("camunda.worker.fair-dispatch")
+public record FairTaskDispatcherProperties(boolean enabled, Integer concurrency, Integer capacity, Map<String, Integer> weights, Map<String, Integer> maxConcurrency, Long priorityThreshold,
+	Integer priorityConcurrency, Integer priorityCapacity) {
+
+	private static final int DEFAULT_CONCURRENCY = 4;
+	private static final int DEFAULT_WEIGHT = 1;
+	private static final int DEFAULT_PRIORITY_CONCURRENCY = 1;
+
+	public FairTaskDispatcherProperties {
+		concurrency = ofNullable(concurrency).orElse(DEFAULT_CONCURRENCY);
+		capacity = ofNullable(capacity).orElse(concurrency * 2);
+		weights = Map.copyOf(ofNullable(weights).orElse(Map.of()));
+		maxConcurrency = Map.copyOf(ofNullable(maxConcurrency).orElse(Map.of()));
+		priorityThreshold = ofNullable(priorityThreshold).orElse(TASK_PRIORITY_AUTOMATIC);
+		priorityConcurrency = ofNullable(priorityConcurrency).orElse(DEFAULT_PRIORITY_CONCURRENCY);
+		priorityCapacity = ofNullable(priorityCapacity).orElse(capacity);
+
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("Concurrency must be at least 1");
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		}
+		if (weights.values().stream().anyMatch(weight -> weight < 1)) {
+			throw new IllegalArgumentException("Weights must be at least 1");
+		}
+		if (maxConcurrency.values().stream().anyMatch(max -> max < 1)) {
+			throw new IllegalArgumentException("Max concurrency must be at least 1");
+		}
+		if (priorityConcurrency < 0) {
+			throw new IllegalArgumentException("Priority concurrency must not be negative");
+		}
+		if (priorityCapacity < 1) {
+			throw new IllegalArgumentException("Priority capacity must be at least 1");
+		}
+	}
+
+	public int weightFor(String municipalityId) {
+		return weights.getOrDefault(municipalityId, DEFAULT_WEIGHT);
+	}
+
+	public int maxConcurrencyFor(String municipalityId) {
+		return Math.min(maxConcurrency.getOrDefault(municipalityId, concurrency), concurrency);
+	}
+
+	public boolean isPriority(long taskPriority) {
+		return taskPriority >= priorityThreshold;
+	}
+}
@@ -0,0 +1,132 @@
+package se.sundsvall.parkingpermit.businesslogic.handler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.camunda.bpm.client.task.ExternalTask;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Keeps track of the side effecting steps of a task that have been completed, so that a retry of the task skips them.
+ *
+ * Each completed step is stored as two local variables, one holding the result of the step and one holding the id of
+ * the activity instance that completed it. The variables are handed to the engine together with the failure of the task
+ * (see
+ * {@link FailureHandler#handleException(org.camunda.bpm.client.task.ExternalTaskService, ExternalTask, String, IdempotencyLedger)}),
+ * and are read back from the task when it is fetched again. The service tasks are not scopes, which means that the
+ * variables are stored on the execution of the enclosing (sub)process and outlive the task. A step therefore only counts
+ * as completed for the activity instance that completed it: a retry of the task keeps its activity instance, while the
+ * same activity executed again, e.g. by a loop of the process, gets a new one. The variables are also cleared when the
+ * task completes (see {@link #toClearedLocalVariables()}).
+ *
+ * Steps completed by an execution that fails without reporting the failure, e.g. when the lock of the task is lost, are
+ * not recorded.
+ */
+public final class IdempotencyLedger {
+
+	static final String VARIABLE_PREFIX = "completedStep_";
+	static final String ACTIVITY_INSTANCE_VARIABLE_PREFIX = "completedStepActivityInstance_";
+
+	private final String activityInstanceId;
+	private final Map<String, Object> previousVariables;
+	private final Map<String, Object> completedSteps = new HashMap<>();
+
+	private IdempotencyLedger(ExternalTask externalTask) {
+		this.activityInstanceId = externalTask.getActivityInstanceId();
+		this.previousVariables = ofNullable(externalTask.getAllVariables()).orElse(emptyMap());
+	}
+
+	public static IdempotencyLedger of(ExternalTask externalTask) {
+		return new IdempotencyLedger(externalTask);
+	}
+
+	public boolean isCompleted(String step) {
+		return completedSteps.containsKey(toVariableName(step)) || isCompletedBefore(step);
+	}
+
+	/**
+	 * Returns the result of a completed step, or null if the step has not been completed or had no result.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getResult(String step) {
+		final var variableName = toVariableName(step);
+		if (completedSteps.containsKey(variableName)) {
+			return (T) completedSteps.get(variableName);
+		}
+		return isCompletedBefore(step) ? (T) previousVariables.get(variableName) : null;
+	}
+
+	/**
+	 * Executes the action unless the step has been completed before, and records the step as completed.
+	 */
+	public void run(String step, Runnable action) {
+		call(step, () -> {
+			action.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Executes the action unless the step has been completed before, and records its result. The result must be of a type
+	 * that can be stored as a process variable. When the step has been completed before, the recorded result is returned
+	 * without executing the action.
+	 */
+	public <T> T call(String step, Supplier<T> action) {
+		if (isCompleted(step)) {
+			return getResult(step);
+		}
+
+		final var result = action.get();
+		completedSteps.put(toVariableName(step), result);
+		return result;
+	}
+
+	/**
+	 * Returns the steps completed by this execution, as local variables to store on the task when it fails.
+	 */
+	public Map<String, Object> toLocalVariables() {
+		final var variables = new HashMap<String, Object>();
+		completedSteps.forEach((variableName, result) -> {
+			variables.put(variableName, result);
+			variables.put(ACTIVITY_INSTANCE_VARIABLE_PREFIX + variableName.substring(VARIABLE_PREFIX.length()), activityInstanceId);
+		});
+		return unmodifiableMap(variables);
+	}
+
+	/**
+	 * Returns the checkpoints stored by previous executions of the task, as local variables cleared of their values, to
+	 * store on the task when it completes.
+	 */
+	public Map<String, Object> toClearedLocalVariables() {
+		final var variables = new HashMap<String, Object>();
+		previousVariables.keySet().stream()
+			.filter(name -> name.startsWith(VARIABLE_PREFIX) || name.startsWith(ACTIVITY_INSTANCE_VARIABLE_PREFIX))
+			.forEach(name -> variables.put(name, null));
+		return unmodifiableMap(variables);
+	}
+
+	/**
+	 * Returns the name of the local variable holding the result of the step.
+	 */
+	public static String toVariableName(String step) {
+		return VARIABLE_PREFIX + step;
+	}
+
+	/**
+	 * Returns the names of the local variables holding the checkpoints of the steps.
+	 */
+	public static Stream<String> toVariableNames(String... steps) {
+		return Arrays.stream(steps)
+			.flatMap(step -> Stream.of(toVariableName(step), ACTIVITY_INSTANCE_VARIABLE_PREFIX + step));
+	}
+
+	private boolean isCompletedBefore(String step) {
+		return nonNull(activityInstanceId) && activityInstanceId.equals(previousVariables.get(ACTIVITY_INSTANCE_VARIABLE_PREFIX + step));
+	}
+}
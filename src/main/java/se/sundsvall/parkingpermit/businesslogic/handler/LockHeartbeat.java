@@ -0,0 +1,184 @@
+package se.sundsvall.parkingpermit.businesslogic.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.camunda.bpm.client.exception.BadRequestException;
+import org.camunda.bpm.client.exception.NotFoundException;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Keeps the lock of a task while it is being executed, by extending it periodically until the returned {@link Beat} is
+ * closed. The heartbeat is the one mechanism extending locks, which workers query through
+ * {@link #isLockLost(ExternalTask)} before steps with side effects.
+ *
+ * An extension rejected because the task no longer exists, is locked by another worker or has an expired lock means that
+ * the lock is lost. The heartbeat of the task then stops, and the lost lock is counted and logged. Other failures, e.g.
+ * an unavailable engine, are counted and retried by the next beat, which the extension outlasts. Extensions, failed
+ * extensions and lost locks are published as counters tagged with the topic of the task.
+ *
+ * The scheduler thread only times the beats. Each extension is a blocking call to the engine and runs on a virtual
+ * thread of its own, so a slow engine answer for one task does not delay the beats of other tasks. A beat that is due
+ * while the previous extension of its task is still in flight is skipped.
+ */
+@Component
+public class LockHeartbeat {
+
+	static final String METRIC_EXTENSIONS = "parkingpermit.lock.extensions";
+	static final String METRIC_FAILED = "parkingpermit.lock.extension-failures";
+	static final String METRIC_LOST = "parkingpermit.lock.lost";
+	static final String TAG_TOPIC = "topic";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LockHeartbeat.class);
+
+	private final LockHeartbeatProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Beat> beats = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+		.name("lock-heartbeat")
+		.daemon()
+		.factory());
+	private final ExecutorService extender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+		.name("lock-heartbeat-extend-", 0)
+		.factory());
+
+	LockHeartbeat(LockHeartbeatProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	public Beat start(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+		final var beat = new Beat(externalTask, externalTaskService);
+		final var interval = properties.interval().toMillis();
+		beat.future = scheduler.scheduleWithFixedDelay(beat::trigger, interval, interval, MILLISECONDS);
+		beats.put(externalTask.getId(), beat);
+		return beat;
+	}
+
+	/**
+	 * Returns whether the heartbeat of the task has lost its lock. A task without a running heartbeat has not.
+	 */
+	public boolean isLockLost(ExternalTask externalTask) {
+		return Optional.ofNullable(beats.get(externalTask.getId()))
+			.map(Beat::isLockLost)
+			.orElse(false);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		scheduler.shutdownNow();
+		extender.shutdownNow();
+	}
+
+	private Counter counter(String name, String topicName) {
+		return Counter.builder(name)
+			.tag(TAG_TOPIC, topicName)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * The heartbeat of one task execution, to be closed when the execution has finished.
+	 */
+	public final class Beat implements AutoCloseable {
+
+		private final ExternalTask externalTask;
+		private final ExternalTaskService externalTaskService;
+		private final AtomicBoolean inFlight = new AtomicBoolean();
+
+		private volatile ScheduledFuture<?> future;
+		private volatile boolean closed;
+		private volatile boolean lockLost;
+
+		private Beat(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+			this.externalTask = externalTask;
+			this.externalTaskService = externalTaskService;
+		}
+
+		public boolean isLockLost() {
+			return lockLost;
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+			future.cancel(false);
+			beats.remove(externalTask.getId(), this);
+		}
+
+		/**
+		 * Hands the extension over to its own thread, unless the previous extension of the task is still running.
+		 */
+		void trigger() {
+			if (closed || !inFlight.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				extender.execute(() -> {
+					try {
+						extend();
+					} finally {
+						inFlight.set(false);
+					}
+				});
+			} catch (final RejectedExecutionException e) {
+				inFlight.set(false);
+			}
+		}
+
+		void extend() {
+			try {
+				externalTaskService.extendLock(externalTask, properties.extension().toMillis());
+				counter(METRIC_EXTENSIONS, externalTask.getTopicName()).increment();
+			} catch (final RuntimeException e) {
+				// An extension racing with the completion of the task fails as well, which is not a lost lock
+				if (closed) {
+					return;
+				}
+				if (!isLockLostBy(e)) {
+					counter(METRIC_FAILED, externalTask.getTopicName()).increment();
+					LOGGER.warn("Failed to extend lock of task with id {} and businesskey {} in topic '{}', retrying with next beat", externalTask.getId(), externalTask.getBusinessKey(), externalTask.getTopicName(), e);
+					return;
+				}
+				lockLost = true;
+				future.cancel(false);
+				counter(METRIC_LOST, externalTask.getTopicName()).increment();
+				LOGGER.warn("Lost lock of task with id {} and businesskey {} in topic '{}'", externalTask.getId(), externalTask.getBusinessKey(), externalTask.getTopicName(), e);
+			}
+		}
+
+		/**
+		 * The engine answers 404 when the task no longer exists, e.g. as it has been completed by another worker, and 400
+		 * when the task is locked by another worker or its lock has expired.
+		 */
+		private static boolean isLockLostBy(RuntimeException e) {
+			if (e instanceof NotFoundException) {
+				return true;
+			}
+			if (!(e instanceof BadRequestException)) {
+				return false;
+			}
+			for (Throwable cause = e; nonNull(cause); cause = cause.getCause()) {
+				if (nonNull(cause.getMessage()) && (cause.getMessage().contains("cannot be extended by worker") || cause.getMessage().contains("lock that expired"))) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package se.sundsvall.parkingpermit.businesslogic.handler;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Settings for the lock heartbeat of long-running tasks.
+ *
+ * @param interval  how often the lock of a running task is extended
+ * @param extension the time from each extension until the lock expires, must be longer than the interval
+ */
+@ConfigurationProperties("camunda.worker.lock-heartbeat")
+public record LockHeartbeatProperties(Duration interval, Duration extension) {
+
+	private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+	private static final Duration DEFAULT_EXTENSION = Duration.ofSeconds(30);
+
+	public LockHeartbeatProperties {
+		interval = ofNullable(interval).orElse(DEFAULT_INTERVAL);
+		extension = ofNullable(extension).orElse(DEFAULT_EXTENSION);
+
+		if (extension.compareTo(interval) <= 0) {
+			throw new IllegalArgumentException("Lock extension must be longer than the heartbeat interval");
+		}
+	}
+}
@@ -3,6 +3,7 @@ package se.sundsvall.parkingpermit.businesslogic.util;
 import com.google.re2j.Pattern;
 import generated.se.sundsvall.businessrules.Result;
 import generated.se.sundsvall.businessrules.ResultDetail;
+import generated.se.sundsvall.businessrules.RuleEngineResponse;
 import generated.se.sundsvall.casedata.Decision;
 import generated.se.sundsvall.casedata.Decision.DecisionOutcomeEnum;
 import generated.se.sundsvall.casedata.Decision.DecisionTypeEnum;
@@ -11,13 +12,17 @@ import java.time.ZoneId;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import tools.jackson.databind.ObjectMapper;
 
+import static generated.se.sundsvall.businessrules.ResultValue.NOT_APPLICABLE;
 import static generated.se.sundsvall.businessrules.ResultValue.PASS;
 import static generated.se.sundsvall.casedata.Decision.DecisionOutcomeEnum.APPROVAL;
 import static generated.se.sundsvall.casedata.Decision.DecisionOutcomeEnum.REJECTION;
 import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.FINAL;
 import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.RECOMMENDED;
 import static java.util.Collections.emptyList;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.StringUtils.capitalize;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -32,6 +37,13 @@ public final class BusinessRulesUtil {
 
 	private static final String REGEXP_LAST_COMMA = "^(.*)(, )(.*)$";
 
+	/**
+	 * The longest string the engine stores in the text column of a variable, a longer string would have to be stored as a
+	 * byte array.
+	 */
+	private static final int MAX_STRING_VARIABLE_LENGTH = 4000;
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
 	private BusinessRulesUtil() {}
 
 	public static Decision constructDecision(Result resultFromRuleEngine, boolean isAutomatic) {
@@ -44,6 +56,42 @@ public final class BusinessRulesUtil {
 		return createDecision(decisionType, decisionOutcome, prefix.formatted(concatDescriptions(toDetails(resultFromRuleEngine))), isAutomatic);
 	}
 
+	/**
+	 * Returns the rule engine response in the form it is stored as process variable, which is the response reduced to the
+	 * first applicable result as a json string. That is the only result a decision is constructed from, and a string is
+	 * stored in the variable row itself instead of as a serialized object in a separate byte array. A response without
+	 * applicable results is kept as is, for the construction of the decision to report, and so is a response too large
+	 * for a string variable.
+	 */
+	public static Object toRuleEngineResponseVariable(RuleEngineResponse ruleEngineResponse) {
+		if (isNull(ruleEngineResponse)) {
+			return null;
+		}
+
+		final var applicableResult = ofNullable(ruleEngineResponse.getResults()).orElse(emptyList()).stream()
+			.filter(result -> nonNull(result) && !NOT_APPLICABLE.equals(result.getValue()))
+			.findFirst();
+		if (applicableResult.isEmpty()) {
+			return ruleEngineResponse;
+		}
+
+		final var json = OBJECT_MAPPER.writeValueAsString(new RuleEngineResponse()
+			.context(ruleEngineResponse.getContext())
+			.results(List.of(applicableResult.get())));
+		return json.length() <= MAX_STRING_VARIABLE_LENGTH ? json : ruleEngineResponse;
+	}
+
+	/**
+	 * Returns the rule engine response stored as process variable, either as a json string or, by process instances
+	 * started before the response was stored as json, as a serialized object.
+	 */
+	public static RuleEngineResponse fromRuleEngineResponseVariable(Object variable) {
+		if (variable instanceof final String json) {
+			return OBJECT_MAPPER.readValue(json, RuleEngineResponse.class);
+		}
+		return (RuleEngineResponse) variable;
+	}
+
 	private static String getDescriptionPrefix(boolean isAutomatic, boolean isApproved) {
 		if (isAutomatic) {
 			return isApproved ? AUTOMATIC_PREFIX_APPROVAL : AUTOMATIC_PREFIX_REJECT;
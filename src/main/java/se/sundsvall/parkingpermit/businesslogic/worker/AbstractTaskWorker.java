@@ -4,23 +4,35 @@ import generated.se.sundsvall.camunda.VariableValueDto;
 import generated.se.sundsvall.casedata.Attachment;
 import generated.se.sundsvall.casedata.Decision;
 import generated.se.sundsvall.casedata.Errand;
-import generated.se.sundsvall.casedata.ExtraParameter;
+import generated.se.sundsvall.casedata.Note;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import org.apache.commons.collections4.CollectionUtils;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskHandler;
 import org.camunda.bpm.client.task.ExternalTaskService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotationUtils;
 import se.sundsvall.dept44.requestid.RequestId;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.FairTaskDispatcher;
+import se.sundsvall.parkingpermit.businesslogic.handler.IdempotencyLedger;
+import se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.CaseDataSingleFlight;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandSummary;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandView;
+import tools.jackson.core.type.TypeReference;
 
 import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.FINAL;
-import static java.util.Collections.emptyList;
-import static java.util.Optional.ofNullable;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_CASE_NUMBER;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_MUNICIPALITY_ID;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_NAMESPACE;
@@ -34,17 +46,75 @@ import static se.sundsvall.parkingpermit.Constants.PHASE_ACTION_UNKNOWN;
 
 public abstract class AbstractTaskWorker implements ExternalTaskHandler {
 
+	/**
+	 * The process variables read by this class, which are fetched with the tasks of every worker.
+	 */
+	static final List<String> VARIABLE_NAMES = List.of(CAMUNDA_VARIABLE_REQUEST_ID, CAMUNDA_VARIABLE_MUNICIPALITY_ID, CAMUNDA_VARIABLE_NAMESPACE, CAMUNDA_VARIABLE_CASE_NUMBER);
+
+	private static final TypeReference<Errand> ERRAND_TYPE = new TypeReference<>() {};
+	private static final TypeReference<ErrandSummary> ERRAND_SUMMARY_TYPE = new TypeReference<>() {};
+	private static final TypeReference<List<Attachment>> ATTACHMENTS_TYPE = new TypeReference<>() {};
+	private static final TypeReference<List<Note>> NOTES_TYPE = new TypeReference<>() {};
+
 	private final Logger logger;
 
 	private final CamundaClient camundaClient;
 	protected final CaseDataClient caseDataClient;
 	protected final FailureHandler failureHandler;
+	private final LockHeartbeat lockHeartbeat;
+	private FairTaskDispatcher taskDispatcher;
+	private CaseDataSingleFlight caseDataSingleFlight;
 
 	protected AbstractTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler) {
+		this(camundaClient, caseDataClient, failureHandler, null);
+	}
+
+	/**
+	 * Creates a worker whose lock is extended by the provided heartbeat while the business logic executes. To be used by
+	 * workers that might run for longer than the lock duration of the subscription.
+	 */
+	protected AbstractTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler, LockHeartbeat lockHeartbeat) {
 		this.logger = LoggerFactory.getLogger(getClass());
 		this.camundaClient = camundaClient;
 		this.caseDataClient = caseDataClient;
 		this.failureHandler = failureHandler;
+		this.lockHeartbeat = lockHeartbeat;
+	}
+
+	/**
+	 * Sets the dispatcher executing the tasks of the worker. Injected by setter, as it applies to every worker and does not
+	 * concern their business logic. Without a dispatcher, tasks are executed by the thread fetching them.
+	 */
+	@Autowired
+	void setTaskDispatcher(FairTaskDispatcher taskDispatcher) {
+		this.taskDispatcher = taskDispatcher;
+	}
+
+	/**
+	 * Sets the single-flight collapsing identical concurrent reads from CaseData made through this class. Without it,
+	 * every read is requested from CaseData.
+	 */
+	@Autowired
+	void setCaseDataSingleFlight(CaseDataSingleFlight caseDataSingleFlight) {
+		this.caseDataSingleFlight = caseDataSingleFlight;
+	}
+
+	/**
+	 * Returns the names of the variables to fetch with the tasks of the worker, which are the variables read by this class
+	 * together with the variables and ledger checkpoints declared by the {@link TaskVariables} annotation of the worker.
+	 * Throws an exception if the worker is not annotated, as fetching no more than the declared variables is then not
+	 * possible.
+	 */
+	public List<String> getVariableNames() {
+		final var taskVariables = AnnotationUtils.findAnnotation(getClass(), TaskVariables.class);
+		if (isNull(taskVariables)) {
+			throw new IllegalStateException("Worker %s does not declare the variables it reads".formatted(getClass().getSimpleName()));
+		}
+
+		return Stream.of(VARIABLE_NAMES.stream(), Arrays.stream(taskVariables.value()), IdempotencyLedger.toVariableNames(taskVariables.steps()))
+			.flatMap(names -> names)
+			.distinct()
+			.toList();
 	}
 
 	protected void clearUpdateAvailable(ExternalTask externalTask) {
@@ -59,12 +129,77 @@ public abstract class AbstractTaskWorker implements ExternalTaskHandler {
 		camundaClient.setProcessInstanceVariable(externalTask.getProcessInstanceId(), variableName, variableValue);
 	}
 
+	/**
+	 * Verifies that the lock of the task is held, to be called by workers before steps with side effects. Fails if the
+	 * heartbeat of the task has lost the lock, as the task then might be executed by another worker, which prevents the step
+	 * from being executed twice.
+	 */
+	protected void verifyLockHeld(ExternalTask externalTask) {
+		if (nonNull(lockHeartbeat) && lockHeartbeat.isLockLost(externalTask)) {
+			throw new IllegalStateException("Lock of task with id %s has been lost".formatted(externalTask.getId()));
+		}
+	}
+
+	/**
+	 * Starts a heartbeat holding the lock of the task until the returned beat is closed. To be used by workers completing
+	 * the task asynchronously, as the heartbeat of the execution stops when the business logic returns.
+	 */
+	protected LockHeartbeat.Beat holdLock(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+		return lockHeartbeat.start(externalTask, externalTaskService);
+	}
+
+	/**
+	 * Returns the ledger of the task, holding the checkpoints of previous executions of the task that have failed. Steps
+	 * executed through the ledger are checkpointed together with their results when the failure of the task is reported
+	 * through {@link FailureHandler#handleException(ExternalTaskService, ExternalTask, String, IdempotencyLedger)}, which
+	 * makes a retry resume at the step that failed.
+	 */
+	protected IdempotencyLedger getLedger(ExternalTask externalTask) {
+		return IdempotencyLedger.of(externalTask);
+	}
+
+	/**
+	 * Completes the task and clears the checkpoints that previous, failed, executions of the task have stored in its ledger.
+	 * To be used by workers executing steps through a ledger, as the checkpoints otherwise would remain on the process.
+	 */
+	protected void complete(ExternalTaskService externalTaskService, ExternalTask externalTask, IdempotencyLedger ledger, Map<String, Object> variables) {
+		externalTaskService.complete(externalTask, variables, ledger.toClearedLocalVariables());
+	}
+
 	protected Errand getErrand(String municipalityId, String namespace, Long caseNumber) {
-		return caseDataClient.getErrandById(municipalityId, namespace, caseNumber);
+		return read("getErrandById", () -> caseDataClient.getErrandById(municipalityId, namespace, caseNumber), ERRAND_TYPE, municipalityId, namespace, caseNumber);
+	}
+
+	/**
+	 * Fetches the errand and wraps it in an indexed {@link ErrandView}. To be used by workers doing several lookups of
+	 * extra parameters, stakeholders or decisions on the same errand.
+	 */
+	protected ErrandView getErrandView(String municipalityId, String namespace, Long caseNumber) {
+		return ErrandView.of(getErrand(municipalityId, namespace, caseNumber));
+	}
+
+	/**
+	 * Fetches a summary of the errand. To be used instead of {@link #getErrand(String, String, Long)} when the worker only
+	 * needs the attributes present in {@link ErrandSummary}, to avoid decoding the complete errand.
+	 */
+	protected ErrandSummary getErrandSummary(String municipalityId, String namespace, Long caseNumber) {
+		return read("getErrandSummaryById", () -> caseDataClient.getErrandSummaryById(municipalityId, namespace, caseNumber), ERRAND_SUMMARY_TYPE, municipalityId, namespace, caseNumber);
 	}
 
 	protected List<Attachment> getErrandAttachments(String municipalityId, String namespace, Long caseNumber) {
-		return caseDataClient.getErrandAttachments(municipalityId, namespace, caseNumber);
+		return read("getErrandAttachments", () -> caseDataClient.getErrandAttachments(municipalityId, namespace, caseNumber), ATTACHMENTS_TYPE, municipalityId, namespace, caseNumber);
+	}
+
+	protected List<Note> getNotes(String municipalityId, String namespace, Long caseNumber, String noteType) {
+		return read("getNotesByErrandId", () -> caseDataClient.getNotesByErrandId(municipalityId, namespace, caseNumber, noteType), NOTES_TYPE, municipalityId, namespace, caseNumber, noteType);
+	}
+
+	/**
+	 * Reads from CaseData through the single-flight, which shares the response with identical reads in flight. Each caller
+	 * of a shared response gets a copy of its own, of the provided type.
+	 */
+	private <T> T read(String operation, Supplier<T> request, TypeReference<T> type, Object... arguments) {
+		return isNull(caseDataSingleFlight) ? request.get() : caseDataSingleFlight.get(operation, request, type, arguments);
 	}
 
 	protected void logInfo(String msg, Object... arguments) {
@@ -79,26 +214,38 @@ public abstract class AbstractTaskWorker implements ExternalTaskHandler {
 
 	@Override
 	public void execute(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+		if (isNull(taskDispatcher)) {
+			executeTask(externalTask, externalTaskService);
+			return;
+		}
+		taskDispatcher.dispatch(getMunicipalityId(externalTask), externalTask, externalTaskService, () -> executeTask(externalTask, externalTaskService));
+	}
+
+	private void executeTask(ExternalTask externalTask, ExternalTaskService externalTaskService) {
 		/*
 		 * RequestId.init() only writes to the MDC when the thread local counter is zero and increments it afterwards.
 		 * Without a matching reset() the counter never returns to zero, which would make every task after the first one on
 		 * a given worker thread log under the request id of that first task.
 		 */
 		RequestId.init(externalTask.getVariable(CAMUNDA_VARIABLE_REQUEST_ID));
-		try {
+		try (var beat = startHeartbeat(externalTask, externalTaskService)) {
 			executeBusinessLogic(externalTask, externalTaskService);
 		} finally {
 			RequestId.reset();
 		}
 	}
 
-	protected boolean isCancel(Errand errand) {
+	private LockHeartbeat.Beat startHeartbeat(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+		return isNull(lockHeartbeat) ? null : lockHeartbeat.start(externalTask, externalTaskService);
+	}
+
+	protected boolean isCancel(ErrandView errand) {
 		return findExtraParameterValue(errand, CASEDATA_KEY_PHASE_ACTION)
 			.filter(PHASE_ACTION_CANCEL::equals)
 			.isPresent();
 	}
 
-	protected boolean isAutomatic(Errand errand) {
+	protected boolean isAutomatic(ErrandView errand) {
 		return findExtraParameterValue(errand, CASEDATA_KEY_PHASE_ACTION)
 			.filter(PHASE_ACTION_AUTOMATIC::equals)
 			.isPresent();
@@ -116,14 +263,11 @@ public abstract class AbstractTaskWorker implements ExternalTaskHandler {
 		return externalTask.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 	}
 
-	protected Decision getFinalDecision(final Errand errand) {
-		return ofNullable(errand.getDecisions()).orElse(emptyList()).stream()
-			.filter(decision -> FINAL.equals(decision.getDecisionType()))
-			.findFirst()
-			.orElse(null);
+	protected Decision getFinalDecision(final ErrandView errand) {
+		return errand.findDecision(FINAL).orElse(null);
 	}
 
-	protected String getPhaseAction(final Errand errand) {
+	protected String getPhaseAction(final ErrandView errand) {
 		return findExtraParameterValue(errand, CASEDATA_KEY_PHASE_ACTION)
 			.orElse(PHASE_ACTION_UNKNOWN);
 	}
@@ -132,12 +276,7 @@ public abstract class AbstractTaskWorker implements ExternalTaskHandler {
 	 * Returns the first value of the extra parameter matching the provided key, or an empty optional if the parameter is
 	 * absent or holds no values.
 	 */
-	protected Optional<String> findExtraParameterValue(final Errand errand, final String key) {
-		return ofNullable(errand.getExtraParameters()).orElse(emptyList()).stream()
-			.filter(extraParameter -> key.equals(extraParameter.getKey()))
-			.findFirst()
-			.map(ExtraParameter::getValues)
-			.filter(CollectionUtils::isNotEmpty)
-			.map(List::getFirst);
+	protected Optional<String> findExtraParameterValue(final ErrandView errand, final String key) {
+		return errand.findExtraParameterValue(key);
 	}
 }
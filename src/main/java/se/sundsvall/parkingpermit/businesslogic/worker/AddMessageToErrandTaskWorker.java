@@ -21,6 +21,7 @@ import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMap
 
 @Component
 @ExternalTaskSubscription("AddMessageToErrandTask")
+@TaskVariables(CAMUNDA_VARIABLE_MESSAGE_ID)
 public class AddMessageToErrandTaskWorker extends AbstractTaskWorker {
 
 	private final MessagingService messagingService;
@@ -9,9 +9,11 @@ import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 import se.sundsvall.parkingpermit.service.MessagingService;
+import se.sundsvall.parkingpermit.util.ControlMessageTimer;
 import se.sundsvall.parkingpermit.util.TextProvider;
 
 import static generated.se.sundsvall.casedata.Decision.DecisionOutcomeEnum.DISMISSAL;
@@ -34,26 +36,35 @@ import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMap
 import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMapper.toLaw;
 import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMapper.toStakeholder;
 import static se.sundsvall.parkingpermit.util.LocationUtil.extractIdFromLocation;
-import static se.sundsvall.parkingpermit.util.TimerUtil.getControlMessageTime;
 
 @Component
 @ExternalTaskSubscription("AutomaticDenialDecisionTask")
+@TaskVariables(steps = {
+	AutomaticDenialDecisionTaskWorker.STEP_CREATE_DECISION,
+	AutomaticDenialDecisionTaskWorker.STEP_ADD_DECISION_ATTACHMENT
+})
 public class AutomaticDenialDecisionTaskWorker extends AbstractTaskWorker {
 
 	private static final String PROCESS_ENGINE_FIRST_NAME = "Process";
 	private static final String PROCESS_ENGINE_LAST_NAME = "Engine";
+	static final String STEP_CREATE_DECISION = "createDecision";
+	static final String STEP_ADD_DECISION_ATTACHMENT = "addDecisionAttachment";
 
 	private final MessagingService messagingService;
 	private final TextProvider textProvider;
+	private final ControlMessageTimer controlMessageTimer;
 
-	AutomaticDenialDecisionTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler, MessagingService messagingService, TextProvider textProvider) {
-		super(camundaClient, caseDataClient, failureHandler);
+	AutomaticDenialDecisionTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler, LockHeartbeat lockHeartbeat, MessagingService messagingService, TextProvider textProvider,
+		ControlMessageTimer controlMessageTimer) {
+		super(camundaClient, caseDataClient, failureHandler, lockHeartbeat);
 		this.messagingService = messagingService;
 		this.textProvider = textProvider;
+		this.controlMessageTimer = controlMessageTimer;
 	}
 
 	@Override
 	public void executeBusinessLogic(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+		final var ledger = getLedger(externalTask);
 		try {
 			final String municipalityId = getMunicipalityId(externalTask);
 			final String namespace = getNamespace(externalTask);
@@ -69,28 +80,33 @@ public class AutomaticDenialDecisionTaskWorker extends AbstractTaskWorker {
 				.findAny()
 				.orElseGet(() -> createProcessEngineStakeholder(errand.getId(), municipalityId, namespace));
 
-			final var pdf = messagingService.renderPdfDecision(municipalityId, errand, textProvider.getDenialTexts(municipalityId).getTemplateId());
+			// The document is rendered again by a retry rather than being checkpointed, as it would otherwise remain on the
+			// process. It is only needed as long as the attachment remains to be uploaded.
+			final var pdf = ledger.isCompleted(STEP_ADD_DECISION_ATTACHMENT)
+				? null
+				: messagingService.renderPdfDecision(municipalityId, errand, textProvider.getDenialTexts(municipalityId).getTemplateId());
 			final var decision = toDecision(FINAL, DISMISSAL, textProvider.getDenialTexts(municipalityId).getDescription())
 				.decidedBy(stakeholder)
 				.decidedAt(OffsetDateTime.now(ZoneId.systemDefault()))
 				.addLawItem(toLaw(LAW_HEADING, LAW_SFS, LAW_CHAPTER, LAW_ARTICLE));
 
 			// The decision has to exist before its attachment can be uploaded, since CaseData rejects attachments sent as part
-			// of the decision payload
-			final var decisionId = extractIdFromLocation(caseDataClient.patchNewDecision(municipalityId, namespace, errand.getId(), decision), "decision");
+			// of the decision payload. A decision created by a previous, failed, execution is reused.
+			final Long decisionId = ledger.call(STEP_CREATE_DECISION,
+				() -> extractIdFromLocation(caseDataClient.patchNewDecision(municipalityId, namespace, errand.getId(), decision), "decision"));
 
 			final var filename = textProvider.getCommonTexts(municipalityId).getFilename();
-			caseDataClient.postDecisionAttachment(municipalityId, namespace, errand.getId(), decisionId,
+			ledger.run(STEP_ADD_DECISION_ATTACHMENT, () -> caseDataClient.postDecisionAttachment(municipalityId, namespace, errand.getId(), decisionId,
 				toAttachmentMetadataPart(toAttachment(CATEGORY_BESLUT, filename, "pdf", APPLICATION_PDF_VALUE)),
-				toAttachmentFilePart(filename, APPLICATION_PDF_VALUE, pdf));
+				toAttachmentFilePart(filename, APPLICATION_PDF_VALUE, pdf)));
 
 			final var variables = new HashMap<String, Object>();
-			variables.put(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE, getControlMessageTime(decision, textProvider.getSimplifiedServiceTexts(municipalityId).getDelay()));
+			variables.put(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE, controlMessageTimer.getControlMessageTime(municipalityId, errand.getId(), decision, textProvider.getSimplifiedServiceTexts(municipalityId).getDelay()));
 
-			externalTaskService.complete(externalTask, variables);
+			complete(externalTaskService, externalTask, ledger, variables);
 		} catch (final Exception exception) {
 			logException(externalTask, exception);
-			failureHandler.handleException(externalTaskService, externalTask, exception.getMessage());
+			failureHandler.handleException(externalTaskService, externalTask, exception.getMessage(), ledger);
 		}
 	}
 
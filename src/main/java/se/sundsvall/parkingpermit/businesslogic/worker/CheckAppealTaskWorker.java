@@ -1,6 +1,5 @@
 package se.sundsvall.parkingpermit.businesslogic.worker;
 
-import generated.se.sundsvall.casedata.Errand;
 import java.util.HashMap;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
 import org.camunda.bpm.client.task.ExternalTask;
@@ -9,12 +8,14 @@ import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandSummary;
 
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_IS_APPEAL;
 import static se.sundsvall.parkingpermit.Constants.CASE_TYPE_APPEAL;
 
 @Component
 @ExternalTaskSubscription("CheckAppealTask")
+@TaskVariables
 public class CheckAppealTaskWorker extends AbstractTaskWorker {
 
 	CheckAppealTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler) {
@@ -28,8 +29,8 @@ public class CheckAppealTaskWorker extends AbstractTaskWorker {
 			final String namespace = getNamespace(externalTask);
 			final Long caseNumber = getCaseNumber(externalTask);
 
-			final var errand = getErrand(municipalityId, namespace, caseNumber);
-			logInfo("Check if errand is an appeal for errand with id {}", errand.getId());
+			final var errand = getErrandSummary(municipalityId, namespace, caseNumber);
+			logInfo("Check if errand is an appeal for errand with id {}", errand.id());
 
 			final var isAppeal = isAppeal(errand);
 
@@ -43,7 +44,7 @@ public class CheckAppealTaskWorker extends AbstractTaskWorker {
 		}
 	}
 
-	private boolean isAppeal(Errand errand) {
-		return CASE_TYPE_APPEAL.equals(errand.getCaseType());
+	private boolean isAppeal(ErrandSummary errand) {
+		return CASE_TYPE_APPEAL.equals(errand.caseType());
 	}
 }
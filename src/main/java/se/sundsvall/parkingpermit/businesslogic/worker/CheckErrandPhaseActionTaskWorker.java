@@ -1,6 +1,5 @@
 package se.sundsvall.parkingpermit.businesslogic.worker;
 
-import generated.se.sundsvall.casedata.Errand;
 import java.util.HashMap;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
 import org.camunda.bpm.client.task.ExternalTask;
@@ -9,8 +8,10 @@ import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandView;
 
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_PHASE_ACTION;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_TASK_PRIORITY;
 import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_DISPLAY_PHASE;
 import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_PHASE_ACTION;
 import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_PHASE_STATUS;
@@ -21,11 +22,14 @@ import static se.sundsvall.parkingpermit.Constants.PHASE_ACTION_UNKNOWN;
 import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_CANCELED;
 import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_COMPLETED;
 import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_WAITING;
+import static se.sundsvall.parkingpermit.Constants.TASK_PRIORITY_AUTOMATIC;
+import static se.sundsvall.parkingpermit.Constants.TASK_PRIORITY_DEFAULT;
 import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMapper.toExtraParameterList;
 import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMapper.toPatchErrand;
 
 @Component
 @ExternalTaskSubscription("CheckErrandPhaseActionTask")
+@TaskVariables
 public class CheckErrandPhaseActionTaskWorker extends AbstractTaskWorker {
 
 	CheckErrandPhaseActionTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler) {
@@ -40,7 +44,7 @@ public class CheckErrandPhaseActionTaskWorker extends AbstractTaskWorker {
 			final var namespace = getNamespace(externalTask);
 			final var caseNumber = getCaseNumber(externalTask);
 
-			final var errand = getErrand(municipalityId, namespace, caseNumber);
+			final var errand = getErrandView(municipalityId, namespace, caseNumber);
 			logInfo("Check phase action for errand with id {}", errand.getId());
 
 			final var phaseAction = findExtraParameterValue(errand, CASEDATA_KEY_PHASE_ACTION).orElse(PHASE_ACTION_UNKNOWN);
@@ -68,6 +72,8 @@ public class CheckErrandPhaseActionTaskWorker extends AbstractTaskWorker {
 
 			final var variables = new HashMap<String, Object>();
 			variables.put(CAMUNDA_VARIABLE_PHASE_ACTION, phaseAction);
+			// Tasks of automatically decided errands are fetched and executed ahead of the others from here on
+			variables.put(CAMUNDA_VARIABLE_TASK_PRIORITY, PHASE_ACTION_AUTOMATIC.equals(phaseAction) ? TASK_PRIORITY_AUTOMATIC : TASK_PRIORITY_DEFAULT);
 
 			externalTaskService.complete(externalTask, variables);
 		} catch (final Exception exception) {
@@ -76,7 +82,7 @@ public class CheckErrandPhaseActionTaskWorker extends AbstractTaskWorker {
 		}
 	}
 
-	private boolean isPhaseStatusNotWaiting(Errand errand) {
+	private boolean isPhaseStatusNotWaiting(ErrandView errand) {
 		return findExtraParameterValue(errand, CASEDATA_KEY_PHASE_STATUS)
 			.filter(PHASE_STATUS_WAITING::equals)
 			.isEmpty();
@@ -6,6 +6,7 @@ import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 import se.sundsvall.parkingpermit.service.MessagingService;
@@ -15,14 +16,15 @@ import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_MESSAGE_ID;
 
 @Component
 @ExternalTaskSubscription("SendDenialDecisionTask")
+@TaskVariables
 public class SendDenialDecisionTaskWorker extends AbstractTaskWorker {
 
 	private final MessagingService messagingService;
 	private final TextProvider textProvider;
 
-	SendDenialDecisionTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler, MessagingService messagingService,
+	SendDenialDecisionTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler, LockHeartbeat lockHeartbeat, MessagingService messagingService,
 		TextProvider textProvider) {
-		super(camundaClient, caseDataClient, failureHandler);
+		super(camundaClient, caseDataClient, failureHandler, lockHeartbeat);
 		this.messagingService = messagingService;
 		this.textProvider = textProvider;
 	}
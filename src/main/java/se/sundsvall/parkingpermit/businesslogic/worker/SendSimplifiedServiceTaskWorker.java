@@ -19,6 +19,7 @@ import static se.sundsvall.parkingpermit.Constants.MUNICIPALITY_ID_ANGE;
 
 @Component
 @ExternalTaskSubscription("SendSimplifiedServiceTask")
+@TaskVariables
 public class SendSimplifiedServiceTaskWorker extends AbstractTaskWorker {
 
 	private final MessagingService messagingService;
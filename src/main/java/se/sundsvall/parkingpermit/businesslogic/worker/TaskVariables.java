@@ -0,0 +1,30 @@
+package se.sundsvall.parkingpermit.businesslogic.worker;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the process variables a worker reads, which are the only variables fetched with its tasks. The variables
+ * read by {@link AbstractTaskWorker} itself are always fetched and are not to be declared.
+ *
+ * Every worker must be annotated, also those reading no variables of their own, as the subscription of a worker
+ * without the annotation fails when the application starts.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TaskVariables {
+
+	/**
+	 * The process variables read by the worker.
+	 */
+	String[] value() default {};
+
+	/**
+	 * The steps executed through the idempotency ledger of the worker, whose checkpoints are fetched with the task.
+	 */
+	String[] steps() default {};
+}
@@ -1,8 +1,6 @@
 package se.sundsvall.parkingpermit.businesslogic.worker;
 
-import generated.se.sundsvall.casedata.Errand;
 import java.util.HashMap;
-import java.util.Optional;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
 import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
@@ -10,8 +8,8 @@ import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandView;
 
-import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_DISPLAY_PHASE;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_PHASE;
@@ -26,6 +24,7 @@ import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMap
 
 @Component
 @ExternalTaskSubscription("UpdateErrandPhaseTask")
+@TaskVariables({ CAMUNDA_VARIABLE_PHASE, CAMUNDA_VARIABLE_DISPLAY_PHASE })
 public class UpdateErrandPhaseTaskWorker extends AbstractTaskWorker {
 
 	UpdateErrandPhaseTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler) {
@@ -41,7 +40,7 @@ public class UpdateErrandPhaseTaskWorker extends AbstractTaskWorker {
 			final String phase = externalTask.getVariable(CAMUNDA_VARIABLE_PHASE);
 			final String displayPhase = externalTask.getVariable(CAMUNDA_VARIABLE_DISPLAY_PHASE);
 
-			final var errand = getErrand(municipalityId, namespace, caseNumber);
+			final var errand = getErrandView(municipalityId, namespace, caseNumber);
 			logInfo("Executing update of phase for errand with id {}", errand.getId());
 
 			// If action is "AUTOMATIC" it should not be changed
@@ -70,8 +69,7 @@ public class UpdateErrandPhaseTaskWorker extends AbstractTaskWorker {
 		}
 	}
 
-	private boolean isErrandFinalized(Errand errand) {
-		return Optional.ofNullable(errand.getStatuses()).orElse(emptyList()).stream()
-			.anyMatch(status -> CASEDATA_STATUS_CASE_FINALIZED.equals(status.getStatusType()));
+	private boolean isErrandFinalized(ErrandView errand) {
+		return errand.hasStatus(CASEDATA_STATUS_CASE_FINALIZED);
 	}
 }
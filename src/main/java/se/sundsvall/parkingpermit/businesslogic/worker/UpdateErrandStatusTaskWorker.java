@@ -15,6 +15,7 @@ import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMap
 
 @Component
 @ExternalTaskSubscription("UpdateErrandStatusTask")
+@TaskVariables({ CAMUNDA_VARIABLE_STATUS, CAMUNDA_VARIABLE_STATUS_DESCRIPTION })
 public class UpdateErrandStatusTaskWorker extends AbstractTaskWorker {
 
 	UpdateErrandStatusTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler) {
@@ -28,14 +29,14 @@ public class UpdateErrandStatusTaskWorker extends AbstractTaskWorker {
 			final String namespace = getNamespace(externalTask);
 			final Long caseNumber = getCaseNumber(externalTask);
 
-			final var errand = getErrand(municipalityId, namespace, caseNumber);
-			logInfo("Executing update of status for errand with id {}", errand.getId());
+			final var errand = getErrandSummary(municipalityId, namespace, caseNumber);
+			logInfo("Executing update of status for errand with id {}", errand.id());
 
 			final var status = Optional.ofNullable(externalTask.getVariable(CAMUNDA_VARIABLE_STATUS))
 				.map(Object::toString)
 				.orElseThrow(() -> new IllegalStateException("Process variable '%s' is not set".formatted(CAMUNDA_VARIABLE_STATUS)));
 			final var statusDescription = Optional.ofNullable(externalTask.getVariable(CAMUNDA_VARIABLE_STATUS_DESCRIPTION)).map(Object::toString).orElse(status);
-			caseDataClient.patchStatus(municipalityId, namespace, errand.getId(), toStatus(status, statusDescription));
+			caseDataClient.patchStatus(municipalityId, namespace, errand.id(), toStatus(status, statusDescription));
 
 			externalTaskService.complete(externalTask);
 		} catch (final Exception exception) {
@@ -1,7 +1,5 @@
 package se.sundsvall.parkingpermit.businesslogic.worker.actualization;
 
-import generated.se.sundsvall.casedata.Errand;
-import generated.se.sundsvall.casedata.Stakeholder;
 import java.util.HashMap;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
 import org.camunda.bpm.client.task.ExternalTask;
@@ -9,11 +7,11 @@ import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandView;
 
-import static java.util.Collections.emptyList;
-import static java.util.Optional.ofNullable;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_ASSIGNED_TO_ADMINISTRATOR;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_PHASE_ACTION;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_PHASE_STATUS;
@@ -24,10 +22,12 @@ import static se.sundsvall.parkingpermit.Constants.PHASE_ACTION_UNKNOWN;
 import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_CANCELED;
 import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_COMPLETED;
 import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_WAITING;
+import static se.sundsvall.parkingpermit.Constants.ROLE_ADMINISTRATOR;
 import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMapper.toExtraParameterList;
 
 @Component
 @ExternalTaskSubscription("VerifyAdministratorStakeholderExists")
+@TaskVariables
 public class VerifyAdministratorStakeholderExistsTaskWorker extends AbstractTaskWorker {
 
 	VerifyAdministratorStakeholderExistsTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler) {
@@ -43,7 +43,7 @@ public class VerifyAdministratorStakeholderExistsTaskWorker extends AbstractTask
 			final var municipalityId = getMunicipalityId(externalTask);
 			final var namespace = getNamespace(externalTask);
 			final var caseNumber = getCaseNumber(externalTask);
-			final var errand = getErrand(municipalityId, namespace, caseNumber);
+			final var errand = getErrandView(municipalityId, namespace, caseNumber);
 
 			final var administratorIsAssigned = isAdministratorAssigned(errand);
 			final var variables = new HashMap<String, Object>();
@@ -73,10 +73,8 @@ public class VerifyAdministratorStakeholderExistsTaskWorker extends AbstractTask
 		}
 	}
 
-	private boolean isAdministratorAssigned(Errand errand) {
-		final var isControlOfficialAssigned = ofNullable(errand.getStakeholders()).orElse(emptyList()).stream()
-			.map(Stakeholder::getRoles)
-			.anyMatch(roles -> roles.contains("ADMINISTRATOR"));
+	private boolean isAdministratorAssigned(ErrandView errand) {
+		final var isControlOfficialAssigned = !errand.getStakeholders(ROLE_ADMINISTRATOR).isEmpty();
 
 		logInfo("Errand with id {} {} been assigned to a control official", errand.getId(), isControlOfficialAssigned ? "has" : "has not yet");
 		return isControlOfficialAssigned;
@@ -12,6 +12,7 @@ import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 import se.sundsvall.parkingpermit.integration.citizen.CitizenClient;
@@ -26,6 +27,7 @@ import static se.sundsvall.parkingpermit.util.ErrandUtil.getOptionalStakeholder;
 
 @Component
 @ExternalTaskSubscription("VerifyResidentOfMunicipalityTask")
+@TaskVariables
 public class VerifyResidentOfMunicipalityTaskWorker extends AbstractTaskWorker {
 
 	static final String MAIN_ADDRESS_TYPE = "POPULATION_REGISTRATION_ADDRESS";
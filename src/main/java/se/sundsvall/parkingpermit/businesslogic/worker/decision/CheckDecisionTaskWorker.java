@@ -1,23 +1,23 @@
 package se.sundsvall.parkingpermit.businesslogic.worker.decision;
 
 import generated.se.sundsvall.casedata.Decision;
-import generated.se.sundsvall.casedata.Errand;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
 import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandView;
+import se.sundsvall.parkingpermit.util.ControlMessageTimer;
 import se.sundsvall.parkingpermit.util.TextProvider;
 
 import static generated.se.sundsvall.casedata.Decision.DecisionOutcomeEnum.APPROVAL;
 import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.FINAL;
-import static java.util.Collections.emptyList;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_FINAL_DECISION;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_IS_APPROVED;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_PHASE_ACTION;
@@ -32,17 +32,19 @@ import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_CANCELED;
 import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_WAITING;
 import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMapper.toExtraParameterList;
 import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMapper.toPatchErrand;
-import static se.sundsvall.parkingpermit.util.TimerUtil.getControlMessageTime;
 
 @Component
 @ExternalTaskSubscription("CheckDecisionTask")
+@TaskVariables
 public class CheckDecisionTaskWorker extends AbstractTaskWorker {
 
 	private final TextProvider textProvider;
+	private final ControlMessageTimer controlMessageTimer;
 
-	CheckDecisionTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler, TextProvider textProvider) {
+	CheckDecisionTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler, TextProvider textProvider, ControlMessageTimer controlMessageTimer) {
 		super(camundaClient, caseDataClient, failureHandler);
 		this.textProvider = textProvider;
+		this.controlMessageTimer = controlMessageTimer;
 
 	}
 
@@ -55,7 +57,7 @@ public class CheckDecisionTaskWorker extends AbstractTaskWorker {
 			final var namespace = getNamespace(externalTask);
 			final var caseNumber = getCaseNumber(externalTask);
 
-			final var errand = getErrand(municipalityId, namespace, caseNumber);
+			final var errand = getErrandView(municipalityId, namespace, caseNumber);
 
 			final var variables = new HashMap<String, Object>();
 
@@ -78,16 +80,14 @@ public class CheckDecisionTaskWorker extends AbstractTaskWorker {
 		}
 	}
 
-	private void handleDecisionStatus(Errand errand, String municipalityId, String namespace, Map<String, Object> variables) {
-		boolean hasDecisionStatus = Optional.ofNullable(errand.getStatuses()).orElse(emptyList()).stream()
-			.anyMatch(status -> CASEDATA_STATUS_CASE_DECIDED.equals(status.getStatusType())
-				|| CASEDATA_STATUS_DECISION_EXECUTED.equals(status.getStatusType()));
+	private void handleDecisionStatus(ErrandView errand, String municipalityId, String namespace, Map<String, Object> variables) {
+		boolean hasDecisionStatus = errand.hasStatus(CASEDATA_STATUS_CASE_DECIDED) || errand.hasStatus(CASEDATA_STATUS_DECISION_EXECUTED);
 
 		if (hasDecisionStatus && isFinalDecision(errand)) {
 			variables.put(CAMUNDA_VARIABLE_FINAL_DECISION, true);
 			logInfo("Decision is made.");
 			variables.put(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE,
-				getControlMessageTime(getFinalDecision(errand), textProvider.getSimplifiedServiceTexts(municipalityId).getDelay()));
+				controlMessageTimer.getControlMessageTime(municipalityId, errand.getId(), getFinalDecision(errand), textProvider.getSimplifiedServiceTexts(municipalityId).getDelay()));
 		} else {
 			variables.put(CAMUNDA_VARIABLE_FINAL_DECISION, false);
 			variables.put(CAMUNDA_VARIABLE_PHASE_STATUS, PHASE_STATUS_WAITING);
@@ -96,14 +96,13 @@ public class CheckDecisionTaskWorker extends AbstractTaskWorker {
 		}
 	}
 
-	private void handleApprovalStatus(Errand errand, Map<String, Object> variables) {
-		boolean isApproved = Optional.ofNullable(errand.getDecisions()).orElse(emptyList()).stream()
-			.filter(decision -> FINAL.equals(decision.getDecisionType()))
+	private void handleApprovalStatus(ErrandView errand, Map<String, Object> variables) {
+		boolean isApproved = errand.getDecisions(FINAL).stream()
 			.anyMatch(decision -> isApproved(decision.getDecisionOutcome()));
 		variables.put(CAMUNDA_VARIABLE_IS_APPROVED, isApproved);
 	}
 
-	private void patchErrandToWaiting(String municipalityId, String namespace, Errand errand) {
+	private void patchErrandToWaiting(String municipalityId, String namespace, ErrandView errand) {
 		caseDataClient.patchErrand(municipalityId, errand.getNamespace(), errand.getId(),
 			toPatchErrand(errand.getExternalCaseId(), CASEDATA_PHASE_DECISION));
 		caseDataClient.patchErrandExtraParameters(municipalityId, namespace, errand.getId(),
@@ -114,8 +113,7 @@ public class CheckDecisionTaskWorker extends AbstractTaskWorker {
 		return APPROVAL.equals(decisionOutcome);
 	}
 
-	private boolean isFinalDecision(Errand errand) {
-		return Optional.ofNullable(errand.getDecisions()).orElse(emptyList()).stream()
-			.anyMatch(decision -> FINAL.equals(decision.getDecisionType()));
+	private boolean isFinalDecision(ErrandView errand) {
+		return !errand.getDecisions(FINAL).isEmpty();
 	}
 }
@@ -11,16 +11,19 @@ import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.IdempotencyLedger;
+import se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandView;
 import se.sundsvall.parkingpermit.service.MessagingService;
 import se.sundsvall.parkingpermit.service.SupportManagementService;
 import se.sundsvall.parkingpermit.util.TextProvider;
 
 import static generated.se.sundsvall.casedata.Decision.DecisionOutcomeEnum.APPROVAL;
 import static generated.se.sundsvall.casedata.Decision.DecisionOutcomeEnum.REJECTION;
-import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_MESSAGE_ID;
@@ -33,15 +36,28 @@ import static se.sundsvall.parkingpermit.integration.supportmanagement.mapper.Su
 
 @Component
 @ExternalTaskSubscription("DecisionHandlingTask")
+@TaskVariables(steps = {
+	DecisionHandlingTaskWorker.STEP_SEND_WEB_MESSAGE,
+	DecisionHandlingTaskWorker.STEP_SEND_DIGITAL_MAIL,
+	DecisionHandlingTaskWorker.STEP_CREATE_MAILING_ERRAND,
+	DecisionHandlingTaskWorker.STEP_ADD_MAILING_ATTACHMENT,
+	DecisionHandlingTaskWorker.STEP_CREATE_CARD_ERRAND
+})
 public class DecisionHandlingTaskWorker extends AbstractTaskWorker {
 
+	static final String STEP_SEND_WEB_MESSAGE = "sendWebMessage";
+	static final String STEP_SEND_DIGITAL_MAIL = "sendDigitalMail";
+	static final String STEP_CREATE_MAILING_ERRAND = "createMailingErrand";
+	static final String STEP_ADD_MAILING_ATTACHMENT = "addMailingAttachment";
+	static final String STEP_CREATE_CARD_ERRAND = "createCardErrand";
+
 	private final TextProvider textProvider;
 	private final MessagingService messagingService;
 	private final SupportManagementService supportManagementService;
 
-	DecisionHandlingTaskWorker(final CamundaClient camundaClient, final CaseDataClient caseDataClient, final FailureHandler failureHandler,
+	DecisionHandlingTaskWorker(final CamundaClient camundaClient, final CaseDataClient caseDataClient, final FailureHandler failureHandler, final LockHeartbeat lockHeartbeat,
 		final TextProvider textProvider, final MessagingService messagingService, final SupportManagementService supportManagementService) {
-		super(camundaClient, caseDataClient, failureHandler);
+		super(camundaClient, caseDataClient, failureHandler, lockHeartbeat);
 		this.textProvider = textProvider;
 		this.messagingService = messagingService;
 		this.supportManagementService = supportManagementService;
@@ -49,6 +65,8 @@ public class DecisionHandlingTaskWorker extends AbstractTaskWorker {
 
 	@Override
 	public void executeBusinessLogic(final ExternalTask externalTask, final ExternalTaskService externalTaskService) {
+		// Steps completed by a previous, failed, execution are skipped, so that a retry does not send the decision twice
+		final var ledger = getLedger(externalTask);
 		try {
 			logInfo("Execute Worker for DecisionHandlingTask");
 			final String municipalityId = getMunicipalityId(externalTask);
@@ -56,43 +74,48 @@ public class DecisionHandlingTaskWorker extends AbstractTaskWorker {
 			final Long caseNumber = getCaseNumber(externalTask);
 
 			final var errand = getErrand(municipalityId, namespace, caseNumber);
+			final var errandView = ErrandView.of(errand);
+			final var approved = isApproved(errandView);
+			final var automatic = isAutomatic(errandView);
 
-			final var pdf = messagingService.renderPdfDecision(municipalityId, errand, getTemplateId(errand));
+			final var pdf = messagingService.renderPdfDecision(municipalityId, errand, getTemplateId(errandView));
+			// The decision must not be sent if the lock has been lost while rendering, as another worker might send it as well
+			verifyLockHeld(externalTask);
 			final boolean sendDigitalMail = textProvider.getCommonTexts(municipalityId).getSendDigitalMail();
 			String messageId = null;
 
 			if (isNotEmpty(errand.getExternalCaseId())) {
 				// If the errand has an externalCaseId we will try to send a web message
-				messageId = Optional.ofNullable(messagingService.sendDecisionWebMessage(municipalityId, errand, pdf, getFinalDecision(errand)))
+				messageId = ledger.call(STEP_SEND_WEB_MESSAGE, () -> Optional.ofNullable(messagingService.sendDecisionWebMessage(municipalityId, errand, pdf, getFinalDecision(errandView)))
 					.map(UUID::toString)
-					.orElse(null);
+					.orElse(null));
 			}
 			if (sendDigitalMail && isNull(messageId)) {
 				// Try to send digital mail if configured to do so and if the errand does not have an externalCaseId
-				messageId = sendDigitalMail(errand, municipalityId, pdf);
+				messageId = ledger.call(STEP_SEND_DIGITAL_MAIL, () -> sendDigitalMail(errand, approved, municipalityId, pdf));
 			}
 			// If messageId is null here we have failed to send both web message and digital mail, and will create a support
 			// management errand instead
 			if (isNull(messageId)) {
-				createSupportManagementMailingErrand(errand, municipalityId, SM_NAMESPACE_CONTACTANGE, pdf);
-				createSupportManagementCardErrand(errand, municipalityId, SM_NAMESPACE_CONTACTANGE);
+				createSupportManagementMailingErrand(errand, automatic, municipalityId, SM_NAMESPACE_CONTACTANGE, pdf, ledger);
+				createSupportManagementCardErrand(errand, approved, automatic, municipalityId, SM_NAMESPACE_CONTACTANGE, ledger);
 			} else {
-				createSupportManagementCardErrand(errand, municipalityId, SM_NAMESPACE_CONTACTANGE);
-				externalTaskService.complete(externalTask, Map.of(CAMUNDA_VARIABLE_MESSAGE_ID, messageId));
+				createSupportManagementCardErrand(errand, approved, automatic, municipalityId, SM_NAMESPACE_CONTACTANGE, ledger);
+				complete(externalTaskService, externalTask, ledger, Map.of(CAMUNDA_VARIABLE_MESSAGE_ID, messageId));
 				return;
 			}
 
-			externalTaskService.complete(externalTask);
+			complete(externalTaskService, externalTask, ledger, Map.of());
 		} catch (final Exception exception) {
 			logException(externalTask, exception);
-			failureHandler.handleException(externalTaskService, externalTask, exception.getMessage());
+			failureHandler.handleException(externalTaskService, externalTask, exception.getMessage(), ledger);
 		}
 	}
 
-	private String sendDigitalMail(final Errand errand, final String municipalityId, final RenderResponse pdf) {
+	private String sendDigitalMail(final Errand errand, final boolean approved, final String municipalityId, final RenderResponse pdf) {
 		UUID messageId = null;
 		try {
-			messageId = messagingService.sendDecisionMessage(municipalityId, errand, pdf, isApproved(errand));
+			messageId = messagingService.sendDecisionMessage(municipalityId, errand, pdf, approved);
 		} catch (final Exception e) {
 			logInfo("Failed to send decision message");
 		}
@@ -101,16 +124,21 @@ public class DecisionHandlingTaskWorker extends AbstractTaskWorker {
 			.orElse(null);
 	}
 
-	private void createSupportManagementMailingErrand(final Errand errand, final String municipalityId, final String namespace, final RenderResponse pdf) {
-		final var labels = supportManagementService.getMetadataLabels(municipalityId, namespace);
-		final var mailingErrandId = supportManagementService.createErrand(municipalityId, namespace, toSupportManagementMailingErrand(errand, isAutomatic(errand), labels));
-		mailingErrandId.ifPresent(errandId -> supportManagementService.createAttachment(municipalityId, namespace, errandId, getFilename(errand), pdf.getOutput()));
+	private void createSupportManagementMailingErrand(final Errand errand, final boolean automatic, final String municipalityId, final String namespace, final RenderResponse pdf, final IdempotencyLedger ledger) {
+		final String mailingErrandId = ledger.call(STEP_CREATE_MAILING_ERRAND, () -> {
+			final var labels = supportManagementService.getMetadataLabels(municipalityId, namespace);
+			return supportManagementService.createErrand(municipalityId, namespace, toSupportManagementMailingErrand(errand, automatic, labels)).orElse(null);
+		});
+		Optional.ofNullable(mailingErrandId).ifPresent(errandId -> ledger.run(STEP_ADD_MAILING_ATTACHMENT,
+			() -> supportManagementService.createAttachment(municipalityId, namespace, errandId, getFilename(errand), pdf.getOutput())));
 	}
 
-	private void createSupportManagementCardErrand(final Errand errand, final String municipalityId, final String namespace) {
-		if (isApproved(errand)) {
-			final var labels = supportManagementService.getMetadataLabels(municipalityId, namespace);
-			supportManagementService.createErrand(municipalityId, namespace, toSupportManagementCardManagementErrand(errand, isAutomatic(errand), labels));
+	private void createSupportManagementCardErrand(final Errand errand, final boolean approved, final boolean automatic, final String municipalityId, final String namespace, final IdempotencyLedger ledger) {
+		if (approved) {
+			ledger.run(STEP_CREATE_CARD_ERRAND, () -> {
+				final var labels = supportManagementService.getMetadataLabels(municipalityId, namespace);
+				supportManagementService.createErrand(municipalityId, namespace, toSupportManagementCardManagementErrand(errand, automatic, labels));
+			});
 		}
 	}
 
@@ -118,14 +146,9 @@ public class DecisionHandlingTaskWorker extends AbstractTaskWorker {
 		return textProvider.getCommonTexts(errand.getMunicipalityId()).getFilename();
 	}
 
-	private String getTemplateId(final Errand errand) {
+	private String getTemplateId(final ErrandView errand) {
 		StringBuilder templateId = new StringBuilder("sbk.rph.decision");
-		final var capacity = Optional.ofNullable(errand.getExtraParameters()).orElse(emptyList())
-			.stream()
-			.filter(param -> CASEDATA_KEY_APPLICATION_APPLICANT_CAPACITY.equals(param.getKey()))
-			.findFirst()
-			.map(generated.se.sundsvall.casedata.ExtraParameter::getValues)
-			.flatMap(values -> values.stream().findFirst())
+		final var capacity = findExtraParameterValue(errand, CASEDATA_KEY_APPLICATION_APPLICANT_CAPACITY)
 			.orElse(null);
 
 		if (CAPACITY_PASSENGER.equalsIgnoreCase(capacity)) {
@@ -149,7 +172,7 @@ public class DecisionHandlingTaskWorker extends AbstractTaskWorker {
 		return templateId.toString();
 	}
 
-	private boolean isApproved(final Errand errand) {
+	private boolean isApproved(final ErrandView errand) {
 		final var decisionOutCome = Optional.ofNullable(getFinalDecision(errand))
 			.map(Decision::getDecisionOutcome)
 			.orElse(REJECTION);
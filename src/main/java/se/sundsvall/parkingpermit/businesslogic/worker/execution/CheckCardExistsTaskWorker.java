@@ -1,6 +1,5 @@
 package se.sundsvall.parkingpermit.businesslogic.worker.execution;
 
-import generated.se.sundsvall.casedata.Errand;
 import generated.se.sundsvall.casedata.ExtraParameter;
 import java.util.List;
 import java.util.Map;
@@ -11,16 +10,17 @@ import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandSummary;
 
-import static java.util.Collections.emptyList;
-import static java.util.Optional.ofNullable;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_CARD_EXISTS;
 import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_ARTEFACT_PERMIT_NUMBER;
 
 @Component
 @ExternalTaskSubscription("CardExistsTask")
+@TaskVariables
 public class CheckCardExistsTaskWorker extends AbstractTaskWorker {
 
 	CheckCardExistsTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler) {
@@ -36,7 +36,7 @@ public class CheckCardExistsTaskWorker extends AbstractTaskWorker {
 			final var namespace = getNamespace(externalTask);
 			final var caseNumber = getCaseNumber(externalTask);
 
-			final var errand = getErrand(municipalityId, namespace, caseNumber);
+			final var errand = getErrandSummary(municipalityId, namespace, caseNumber);
 
 			final var cardExists = isCardCreated(errand);
 
@@ -47,8 +47,8 @@ public class CheckCardExistsTaskWorker extends AbstractTaskWorker {
 		}
 	}
 
-	private boolean isCardCreated(Errand errand) {
-		return ofNullable(errand.getExtraParameters()).orElse(emptyList()).stream()
+	private boolean isCardCreated(ErrandSummary errand) {
+		return errand.extraParameters().stream()
 			.filter(extraParameter -> CASEDATA_KEY_ARTEFACT_PERMIT_NUMBER.equals(extraParameter.getKey()))
 			.map(ExtraParameter::getValues)
 			.map(List::getFirst)
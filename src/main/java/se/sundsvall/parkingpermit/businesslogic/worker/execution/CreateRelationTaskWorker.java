@@ -1,18 +1,18 @@
 package se.sundsvall.parkingpermit.businesslogic.worker.execution;
 
 import generated.se.sundsvall.casedata.Errand;
-import generated.se.sundsvall.casedata.ExtraParameter;
 import generated.se.sundsvall.casedata.RelatedErrand;
 import generated.se.sundsvall.casedata.Stakeholder;
-import java.util.List;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
 import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandView;
 import se.sundsvall.parkingpermit.service.PartyAssetsService;
 import se.sundsvall.parkingpermit.service.RelationService;
 
@@ -26,6 +26,7 @@ import static se.sundsvall.parkingpermit.Constants.ROLE_APPLICANT;
 
 @Component
 @ExternalTaskSubscription("CreateRelationTask")
+@TaskVariables
 public class CreateRelationTaskWorker extends AbstractTaskWorker {
 
 	private final PartyAssetsService partyAssetsService;
@@ -51,7 +52,7 @@ public class CreateRelationTaskWorker extends AbstractTaskWorker {
 			final var relatedErrand = getAppealedErrand(errand);
 
 			if (!isNull(relatedErrand)) {
-				final var appealedErrand = getErrand(municipalityId, namespace, relatedErrand.getErrandId());
+				final var appealedErrand = getErrandView(municipalityId, namespace, relatedErrand.getErrandId());
 
 				final var assets = partyAssetsService.getAssets(municipalityId, getAssetId(appealedErrand), getStakeholderPersonIdOfApplicant(appealedErrand), PARTY_ASSET_STATUS_ACTIVE);
 
@@ -71,21 +72,14 @@ public class CreateRelationTaskWorker extends AbstractTaskWorker {
 		}
 	}
 
-	private String getStakeholderPersonIdOfApplicant(Errand errand) {
-		return ofNullable(errand.getStakeholders()).orElse(emptyList()).stream()
-			.filter(stakeholder -> stakeholder.getRoles().contains(ROLE_APPLICANT))
-			.findFirst()
+	private String getStakeholderPersonIdOfApplicant(ErrandView errand) {
+		return errand.findStakeholder(ROLE_APPLICANT)
 			.map(Stakeholder::getPersonId)
 			.orElse(null);
 	}
 
-	private String getAssetId(Errand errand) {
-		return ofNullable(errand.getExtraParameters()).orElse(emptyList()).stream()
-			.filter(extraParameter -> CASEDATA_KEY_ARTEFACT_PERMIT_NUMBER.equals(extraParameter.getKey()))
-			.findFirst()
-			.map(ExtraParameter::getValues)
-			.filter(values -> !values.isEmpty())
-			.map(List::getFirst)
+	private String getAssetId(ErrandView errand) {
+		return findExtraParameterValue(errand, CASEDATA_KEY_ARTEFACT_PERMIT_NUMBER)
 			.orElse(null);
 	}
 
@@ -7,6 +7,8 @@ import generated.se.sundsvall.casedata.PatchErrand;
 import generated.se.sundsvall.casedata.Stakeholder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
 import org.camunda.bpm.client.task.ExternalTask;
@@ -14,6 +16,7 @@ import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 import se.sundsvall.parkingpermit.service.PartyAssetsService;
@@ -29,11 +32,19 @@ import static se.sundsvall.parkingpermit.Constants.ROLE_APPLICANT;
 
 @Component
 @ExternalTaskSubscription("HandleLostCardTask")
+@TaskVariables(steps = {
+	HandleLostCardTaskWorker.STEP_BLOCK_ASSET,
+	HandleLostCardTaskWorker.STEP_PATCH_ERRAND,
+	HandleLostCardTaskWorker.STEP_ADD_NOTE
+})
 public class HandleLostCardTaskWorker extends AbstractTaskWorker {
 
 	private static final String NOTE_TEXT = "The asset with ID %s has been blocked.";
 	private static final String NOTE_TITLE = "Asset blocked";
 	private static final String PARTY_ASSET_STATUS_REASON = "LOST";
+	static final String STEP_BLOCK_ASSET = "blockAsset";
+	static final String STEP_PATCH_ERRAND = "patchErrand";
+	static final String STEP_ADD_NOTE = "addNote";
 
 	private final PartyAssetsService partyAssetsService;
 
@@ -44,6 +55,7 @@ public class HandleLostCardTaskWorker extends AbstractTaskWorker {
 
 	@Override
 	public void executeBusinessLogic(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+		final var ledger = getLedger(externalTask);
 		try {
 			final String municipalityId = getMunicipalityId(externalTask);
 			final String namespace = getNamespace(externalTask);
@@ -52,45 +64,58 @@ public class HandleLostCardTaskWorker extends AbstractTaskWorker {
 			final var errand = getErrand(municipalityId, namespace, caseNumber);
 
 			if (CASE_TYPE_LOST_PARKING_PERMIT.equals(errand.getCaseType())) {
-				final var assets = partyAssetsService.getAssets(municipalityId, getStakeholderPersonIdOfApplicant(errand), PARTY_ASSET_STATUS_ACTIVE);
+				// An asset blocked by a previous, failed, execution is no longer active and is looked up among the blocked assets
+				final var blockedBefore = ledger.isCompleted(STEP_BLOCK_ASSET);
+				final var assets = partyAssetsService.getAssets(municipalityId, getStakeholderPersonIdOfApplicant(errand), blockedBefore ? BLOCKED.getValue() : PARTY_ASSET_STATUS_ACTIVE);
 
 				final var existingAsset = Optional.ofNullable(assets).orElse(emptyList()).stream()
 					.filter(asset -> PARTY_ASSET_TYPE.equals(asset.getType()))
+					.filter(asset -> !blockedBefore || Objects.equals(asset.getId(), ledger.getResult(STEP_BLOCK_ASSET)))
 					.findFirst();
 
 				existingAsset.ifPresent(asset -> {
-					partyAssetsService.updateAssetWithNewStatus(municipalityId,
-						asset.getId(), BLOCKED, PARTY_ASSET_STATUS_REASON);
+					ledger.call(STEP_BLOCK_ASSET, () -> {
+						partyAssetsService.updateAssetWithNewStatus(municipalityId,
+							asset.getId(), BLOCKED, PARTY_ASSET_STATUS_REASON);
+						return asset.getId();
+					});
 
-					final var extraParameters = Optional.ofNullable(errand.getExtraParameters()).orElse(new ArrayList<>());
+					final var extraParameters = new ArrayList<>(Optional.ofNullable(errand.getExtraParameters()).orElse(emptyList()));
 
 					if (extraParameters.stream().noneMatch(extraParameter -> CASEDATA_KEY_ARTEFACT_LOST_PERMIT_NUMBER.equals(extraParameter.getKey()))) {
 						extraParameters.add(new ExtraParameter().key(CASEDATA_KEY_ARTEFACT_LOST_PERMIT_NUMBER).values(List.of(asset.getAssetId())));
 					} else {
-						extraParameters.stream()
-							.filter(extraParameter -> CASEDATA_KEY_ARTEFACT_LOST_PERMIT_NUMBER.equals(extraParameter.getKey()))
-							.findFirst()
-							.ifPresent(extraParameter -> extraParameter.setValues(List.of(asset.getAssetId())));
+						extraParameters.replaceAll(extraParameter -> CASEDATA_KEY_ARTEFACT_LOST_PERMIT_NUMBER.equals(extraParameter.getKey())
+							? withValues(extraParameter, List.of(asset.getAssetId()))
+							: extraParameter);
 					}
 
-					caseDataClient.patchErrand(municipalityId, namespace, errand.getId(), new PatchErrand().extraParameters(extraParameters));
+					ledger.run(STEP_PATCH_ERRAND, () -> caseDataClient.patchErrand(municipalityId, namespace, errand.getId(), new PatchErrand().extraParameters(extraParameters)));
 
-					caseDataClient.addNoteToErrand(municipalityId, namespace, errand.getId(),
+					ledger.run(STEP_ADD_NOTE, () -> caseDataClient.addNoteToErrand(municipalityId, namespace, errand.getId(),
 						new Note()
 							.municipalityId(municipalityId)
 							.namespace(namespace)
 							.noteType(PUBLIC)
 							.title(NOTE_TITLE)
-							.text(String.format(NOTE_TEXT, asset.getId())));
+							.text(String.format(NOTE_TEXT, asset.getId()))));
 				});
 			}
-			externalTaskService.complete(externalTask);
+			complete(externalTaskService, externalTask, ledger, Map.of());
 		} catch (final Exception exception) {
 			logException(externalTask, exception);
-			failureHandler.handleException(externalTaskService, externalTask, exception.getMessage());
+			failureHandler.handleException(externalTaskService, externalTask, exception.getMessage(), ledger);
 		}
 	}
 
+	private static ExtraParameter withValues(ExtraParameter extraParameter, List<String> values) {
+		return new ExtraParameter()
+			.id(extraParameter.getId())
+			.key(extraParameter.getKey())
+			.displayName(extraParameter.getDisplayName())
+			.values(values);
+	}
+
 	private String getStakeholderPersonIdOfApplicant(Errand errand) {
 		return Optional.ofNullable(errand.getStakeholders()).orElse(emptyList()).stream()
 			.filter(stakeholder -> stakeholder.getRoles().contains(ROLE_APPLICANT))
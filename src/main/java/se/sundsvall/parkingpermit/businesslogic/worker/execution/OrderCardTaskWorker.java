@@ -2,20 +2,26 @@ package se.sundsvall.parkingpermit.businesslogic.worker.execution;
 
 import generated.se.sundsvall.casedata.Errand;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
 import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.requestid.RequestId;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
-import se.sundsvall.parkingpermit.service.RpaService;
+import se.sundsvall.parkingpermit.service.RpaQueueItemAggregator;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
-import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_MUNICIPALITY_ID;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_REQUEST_ID;
 import static se.sundsvall.parkingpermit.Constants.CASEDATA_STATUS_DECISION_EXECUTED;
 import static se.sundsvall.parkingpermit.Constants.CASE_TYPE_LOST_PARKING_PERMIT;
 import static se.sundsvall.parkingpermit.Constants.CASE_TYPE_PARKING_PERMIT;
@@ -24,17 +30,18 @@ import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMap
 
 @Component
 @ExternalTaskSubscription("OrderCardTask")
+@TaskVariables
 public class OrderCardTaskWorker extends AbstractTaskWorker {
 
 	private static final String NO_CASE_TYPE = "Errand has no CaseType";
 	private static final String UNSUPPORTED_CASE_TYPE = "CaseType '%s' is not supported";
 	private static final String QUEUE_PARKING_PERMITS = "ParkingPermits";
 
-	private final RpaService rpaService;
+	private final RpaQueueItemAggregator rpaQueueItemAggregator;
 
-	OrderCardTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler, RpaService rpaService) {
-		super(camundaClient, caseDataClient, failureHandler);
-		this.rpaService = rpaService;
+	OrderCardTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler, LockHeartbeat lockHeartbeat, RpaQueueItemAggregator rpaQueueItemAggregator) {
+		super(camundaClient, caseDataClient, failureHandler, lockHeartbeat);
+		this.rpaQueueItemAggregator = rpaQueueItemAggregator;
 	}
 
 	@Override
@@ -45,16 +52,56 @@ public class OrderCardTaskWorker extends AbstractTaskWorker {
 			final Long caseNumber = getCaseNumber(externalTask);
 
 			final var errand = getErrand(municipalityId, namespace, caseNumber);
-			rpaService.addQueueItems(getQueueNames(errand), errand.getId(), municipalityId);
-			caseDataClient.patchStatus(externalTask.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID), namespace, errand.getId(), toStatus(CASEDATA_STATUS_DECISION_EXECUTED, CASEDATA_STATUS_DECISION_EXECUTED));
+			final var queueNames = getQueueNames(errand);
+			// The task is completed when the queue items of its errand have been added together with those of other errands,
+			// which lets the next task be fetched meanwhile
+			final var queueItemsAdded = CompletableFuture.allOf(queueNames.stream()
+				.map(queueName -> rpaQueueItemAggregator.submit(municipalityId, queueName, errand.getId()))
+				.toArray(CompletableFuture[]::new));
+
+			// The lock is held until the queue items have been added, as the heartbeat of the execution stops when the task has
+			// been handed over to the aggregator
+			final var beat = holdLock(externalTask, externalTaskService);
+			queueItemsAdded.whenComplete((result, failure) -> onQueueItemsAdded(externalTask, externalTaskService, beat, municipalityId, namespace, errand.getId(), failure));
+		} catch (final Exception exception) {
+			handleFailure(externalTask, externalTaskService, exception);
+		}
+	}
+
+	private void onQueueItemsAdded(ExternalTask externalTask, ExternalTaskService externalTaskService, LockHeartbeat.Beat beat, String municipalityId, String namespace, Long errandId,
+		Throwable failure) {
+		// Executed on a sender thread of the aggregator, which has no request id of its own
+		RequestId.init(externalTask.getVariable(CAMUNDA_VARIABLE_REQUEST_ID));
+		try (beat) {
+			if (nonNull(failure)) {
+				handleFailure(externalTask, externalTaskService, toException(failure));
+				return;
+			}
+			// A task whose lock has been lost is left to the worker that has fetched it since
+			if (beat.isLockLost()) {
+				logInfo("Lock of task with id {} lost while adding queue items, leaving the task to be completed by another worker", externalTask.getId());
+				return;
+			}
+			caseDataClient.patchStatus(municipalityId, namespace, errandId, toStatus(CASEDATA_STATUS_DECISION_EXECUTED, CASEDATA_STATUS_DECISION_EXECUTED));
 
 			externalTaskService.complete(externalTask);
 		} catch (final Exception exception) {
-			logException(externalTask, exception);
-			failureHandler.handleException(externalTaskService, externalTask, exception.getMessage());
+			handleFailure(externalTask, externalTaskService, exception);
+		} finally {
+			RequestId.reset();
 		}
 	}
 
+	private void handleFailure(ExternalTask externalTask, ExternalTaskService externalTaskService, Exception exception) {
+		logException(externalTask, exception);
+		failureHandler.handleException(externalTaskService, externalTask, exception.getMessage());
+	}
+
+	private static Exception toException(Throwable failure) {
+		final var cause = failure instanceof CompletionException && nonNull(failure.getCause()) ? failure.getCause() : failure;
+		return cause instanceof final Exception exception ? exception : new IllegalStateException(cause);
+	}
+
 	private List<String> getQueueNames(final Errand errand) {
 
 		final var caseType = errand.getCaseType();
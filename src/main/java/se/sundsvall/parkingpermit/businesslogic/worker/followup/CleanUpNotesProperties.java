@@ -0,0 +1,20 @@
+package se.sundsvall.parkingpermit.businesslogic.worker.followup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the clean up of internal notes.
+ *
+ * @param maxConcurrentDeletions the maximum number of notes of an errand that are deleted concurrently, which has to
+ *                               leave room for other calls within the CaseData bulkhead
+ */
+@ConfigurationProperties("camunda.worker.clean-up-notes")
+public record CleanUpNotesProperties(@DefaultValue("5") int maxConcurrentDeletions) {
+
+	public CleanUpNotesProperties {
+		if (maxConcurrentDeletions < 1) {
+			throw new IllegalArgumentException("Max concurrent deletions must be at least 1");
+		}
+	}
+}
@@ -1,24 +1,37 @@
 package se.sundsvall.parkingpermit.businesslogic.worker.followup;
 
+import generated.se.sundsvall.casedata.Note;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
 import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.requestid.RequestId;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 
 import static generated.se.sundsvall.casedata.NoteType.INTERNAL;
 import static java.util.Collections.emptyList;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
 
 @Component
 @ExternalTaskSubscription("CleanUpNotesTask")
+@TaskVariables
 public class CleanUpNotesTaskWorker extends AbstractTaskWorker {
 
-	CleanUpNotesTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler) {
+	private final CleanUpNotesProperties properties;
+
+	CleanUpNotesTaskWorker(CamundaClient camundaClient, CaseDataClient caseDataClient, FailureHandler failureHandler, CleanUpNotesProperties properties) {
 		super(camundaClient, caseDataClient, failureHandler);
+		this.properties = properties;
 	}
 
 	@Override
@@ -30,9 +43,13 @@ public class CleanUpNotesTaskWorker extends AbstractTaskWorker {
 			final String namespace = getNamespace(externalTask);
 			final String municipalityId = getMunicipalityId(externalTask);
 
-			final var notes = caseDataClient.getNotesByErrandId(municipalityId, namespace, caseNumber, INTERNAL.getValue());
+			final var notes = Optional.ofNullable(getNotes(municipalityId, namespace, caseNumber, INTERNAL.getValue())).orElse(emptyList());
 
-			Optional.ofNullable(notes).orElse(emptyList()).forEach(internalNote -> caseDataClient.deleteNoteById(municipalityId, namespace, caseNumber, internalNote.getId()));
+			// Notes that could not be deleted are left on the errand, and are the only ones fetched when the task is retried
+			final var failures = deleteNotes(municipalityId, namespace, caseNumber, notes);
+			if (!failures.isEmpty()) {
+				throw Problem.valueOf(BAD_GATEWAY, "Failed to delete %s of %s internal notes: %s".formatted(failures.size(), notes.size(), failures.values().iterator().next().getMessage()));
+			}
 
 			externalTaskService.complete(externalTask);
 		} catch (final Exception exception) {
@@ -40,4 +57,40 @@ public class CleanUpNotesTaskWorker extends AbstractTaskWorker {
 			failureHandler.handleException(externalTaskService, externalTask, exception.getMessage());
 		}
 	}
+
+	/**
+	 * Deletes the notes concurrently, with at most the configured number of deletions in flight. All notes are attempted
+	 * also when some of the deletions fail.
+	 *
+	 * @return the failures, per note id
+	 */
+	private Map<Long, Exception> deleteNotes(String municipalityId, String namespace, Long caseNumber, Iterable<Note> notes) {
+		final var requestId = RequestId.get();
+		final var permits = new Semaphore(properties.maxConcurrentDeletions());
+		final var failures = new ConcurrentHashMap<Long, Exception>();
+
+		// Closing the executor waits for all started deletions
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			notes.forEach(note -> executor.execute(() -> {
+				// The request id is kept per thread and has to be carried over to the thread doing the call
+				RequestId.init(requestId);
+				try {
+					permits.acquire();
+					try {
+						caseDataClient.deleteNoteById(municipalityId, namespace, caseNumber, note.getId());
+					} finally {
+						permits.release();
+					}
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					failures.put(note.getId(), e);
+				} catch (final Exception e) {
+					failures.put(note.getId(), e);
+				} finally {
+					RequestId.reset();
+				}
+			}));
+		}
+		return failures;
+	}
 }
@@ -3,13 +3,12 @@ package se.sundsvall.parkingpermit.businesslogic.worker.investigation;
 import generated.se.sundsvall.businessrules.RuleEngineResponse;
 import generated.se.sundsvall.casedata.Decision;
 import generated.se.sundsvall.casedata.Errand;
-import generated.se.sundsvall.casedata.ExtraParameter;
 import generated.se.sundsvall.templating.RenderResponse;
 import java.time.OffsetDateTime;
 import java.time.Period;
 import java.time.ZoneId;
 import java.util.Comparator;
-import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
@@ -18,15 +17,17 @@ import org.camunda.bpm.client.task.ExternalTaskService;
 import org.springframework.stereotype.Component;
 import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat;
 import se.sundsvall.parkingpermit.businesslogic.util.BusinessRulesUtil;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandView;
 import se.sundsvall.parkingpermit.service.MessagingService;
 
 import static generated.se.sundsvall.businessrules.ResultValue.NOT_APPLICABLE;
 import static generated.se.sundsvall.casedata.Decision.DecisionOutcomeEnum.APPROVAL;
-import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
 import static java.util.Optional.ofNullable;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
@@ -34,6 +35,7 @@ import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.MediaType.APPLICATION_PDF_VALUE;
 import static org.springframework.util.CollectionUtils.isEmpty;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE;
+import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_APPLICATION_APPLICANT_CAPACITY;
 import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_DISABILITY_DURATION;
 import static se.sundsvall.parkingpermit.Constants.CASEDATA_STATUS_CASE_DECIDED;
 import static se.sundsvall.parkingpermit.Constants.CATEGORY_BESLUT;
@@ -42,6 +44,7 @@ import static se.sundsvall.parkingpermit.Constants.LAW_CHAPTER;
 import static se.sundsvall.parkingpermit.Constants.LAW_HEADING;
 import static se.sundsvall.parkingpermit.Constants.LAW_SFS;
 import static se.sundsvall.parkingpermit.Constants.ROLE_ADMINISTRATOR;
+import static se.sundsvall.parkingpermit.businesslogic.util.BusinessRulesUtil.fromRuleEngineResponseVariable;
 import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMapper.toAttachment;
 import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMapper.toAttachmentFilePart;
 import static se.sundsvall.parkingpermit.integration.casedata.mapper.CaseDataMapper.toAttachmentMetadataPart;
@@ -52,19 +55,26 @@ import static se.sundsvall.parkingpermit.util.LocationUtil.extractIdFromLocation
 
 @Component
 @ExternalTaskSubscription("InvestigationConstructDecisionTask")
+@TaskVariables(value = CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE, steps = {
+	ConstructDecisionTaskWorker.STEP_CREATE_DECISION,
+	ConstructDecisionTaskWorker.STEP_ADD_DECISION_ATTACHMENT
+})
 public class ConstructDecisionTaskWorker extends AbstractTaskWorker {
 
 	private static final Period VALIDITY_PERIOD_ONE_YEAR = Period.parse("P1Y");
 	private static final String DECISION_FILENAME = "beslut.pdf";
+	static final String STEP_CREATE_DECISION = "createDecision";
+	static final String STEP_ADD_DECISION_ATTACHMENT = "addDecisionAttachment";
 	private final MessagingService messagingService;
 
-	ConstructDecisionTaskWorker(final CamundaClient camundaClient, final CaseDataClient caseDataClient, final FailureHandler failureHandler, final MessagingService messagingService) {
-		super(camundaClient, caseDataClient, failureHandler);
+	ConstructDecisionTaskWorker(final CamundaClient camundaClient, final CaseDataClient caseDataClient, final FailureHandler failureHandler, final LockHeartbeat lockHeartbeat, final MessagingService messagingService) {
+		super(camundaClient, caseDataClient, failureHandler, lockHeartbeat);
 		this.messagingService = messagingService;
 	}
 
 	@Override
 	protected void executeBusinessLogic(final ExternalTask externalTask, final ExternalTaskService externalTaskService) {
+		final var ledger = getLedger(externalTask);
 		try {
 			logInfo("Execute Worker for ConstructDecisionTaskWorker");
 			final String municipalityId = getMunicipalityId(externalTask);
@@ -72,37 +82,43 @@ public class ConstructDecisionTaskWorker extends AbstractTaskWorker {
 			final Long caseNumber = getCaseNumber(externalTask);
 
 			final var errand = getErrand(municipalityId, namespace, caseNumber);
+			final var errandView = ErrandView.of(errand);
 			final var latestDecision = errand.getDecisions().stream()
 				.max(Comparator.comparingInt(Decision::getVersion)).orElse(null);
 
-			final RuleEngineResponse ruleEngineResponse = externalTask.getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE);
+			final var ruleEngineResponse = fromRuleEngineResponseVariable(externalTask.getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE));
 			validateResponse(ruleEngineResponse);
 
-			final var isAutomatic = isAutomatic(errand);
+			final var isAutomatic = isAutomatic(errandView);
 
-			var decision = ruleEngineResponse.getResults().stream()
+			final var constructedDecision = ruleEngineResponse.getResults().stream()
 				.filter(result -> !NOT_APPLICABLE.equals(result.getValue()))
 				.findFirst()
 				.map(result -> BusinessRulesUtil.constructDecision(result, isAutomatic))
 				.orElseThrow(() -> Problem.valueOf(CONFLICT, "No applicable result found in rule engine response"));
+			final var decision = isAutomatic ? decorateDecisionForAutomatic(errand, errandView, constructedDecision) : constructedDecision;
 
 			// The document is rendered before the decision is created, so that a failing rendering does not leave a decision
-			// without its document behind
-			RenderResponse decisionPdf = null;
-			if (isAutomatic) {
-				decision = decorateDecisionForAutomatic(errand, decision);
-				decisionPdf = messagingService.renderPdfDecision(errand.getMunicipalityId(), errand, getTemplateId(errand, decision));
-			}
-
-			if (isDecisionsNotEqual(latestDecision, decision)) {
-				final var response = caseDataClient.patchNewDecision(
-					municipalityId,
-					errand.getNamespace(),
-					caseNumber,
-					decision.version(Optional.ofNullable(latestDecision).map(theDecision -> theDecision.getVersion() + 1).orElse(0)));
+			// without its document behind. It is rendered again by a retry, as long as the attachment remains to be uploaded,
+			// rather than being checkpointed.
+			final var decisionPdf = isAutomatic && !ledger.isCompleted(STEP_ADD_DECISION_ATTACHMENT)
+				? messagingService.renderPdfDecision(errand.getMunicipalityId(), errand, getTemplateId(errandView, decision))
+				: null;
+
+			// A decision created by a previous, failed, execution is the latest decision of the errand by now, hence the
+			// checkpoint decides whether its attachment remains to be uploaded
+			if (ledger.isCompleted(STEP_CREATE_DECISION) || isDecisionsNotEqual(latestDecision, decision)) {
+				final Long decisionId = ledger.call(STEP_CREATE_DECISION, () -> {
+					final var response = caseDataClient.patchNewDecision(
+						municipalityId,
+						errand.getNamespace(),
+						caseNumber,
+						decision.version(Optional.ofNullable(latestDecision).map(theDecision -> theDecision.getVersion() + 1).orElse(0)));
+					return isAutomatic ? extractIdFromLocation(response, "decision") : null;
+				});
 
 				if (isAutomatic) {
-					addDecisionAttachment(municipalityId, errand, caseNumber, extractIdFromLocation(response, "decision"), decisionPdf);
+					ledger.run(STEP_ADD_DECISION_ATTACHMENT, () -> addDecisionAttachment(municipalityId, errand, caseNumber, decisionId, decisionPdf));
 				}
 			}
 
@@ -110,10 +126,10 @@ public class ConstructDecisionTaskWorker extends AbstractTaskWorker {
 				caseDataClient.patchStatus(errand.getMunicipalityId(), errand.getNamespace(), errand.getId(), toStatus(CASEDATA_STATUS_CASE_DECIDED, CASEDATA_STATUS_CASE_DECIDED));
 			}
 
-			externalTaskService.complete(externalTask);
+			complete(externalTaskService, externalTask, ledger, Map.of());
 		} catch (final Exception exception) {
 			logException(externalTask, exception);
-			failureHandler.handleException(externalTaskService, externalTask, exception.getMessage());
+			failureHandler.handleException(externalTaskService, externalTask, exception.getMessage(), ledger);
 		}
 	}
 
@@ -155,16 +171,12 @@ public class ConstructDecisionTaskWorker extends AbstractTaskWorker {
 		return VALIDITY_PERIOD_ONE_YEAR.getYears() <= disabilityDuration.getYears() || disabilityDuration.isZero();
 	}
 
-	private Decision decorateDecisionForAutomatic(Errand errand, Decision decision) {
+	private Decision decorateDecisionForAutomatic(Errand errand, ErrandView errandView, Decision decision) {
 
 		if (APPROVAL.equals(decision.getDecisionOutcome())) {
 			decision.setValidFrom(OffsetDateTime.now(ZoneId.systemDefault()));
 
-			final var disabilityDuration = ofNullable(errand.getExtraParameters()).orElse(emptyList()).stream()
-				.filter(extraParameters -> CASEDATA_KEY_DISABILITY_DURATION.equals(extraParameters.getKey()))
-				.findFirst()
-				.map(ExtraParameter::getValues)
-				.map(List::getFirst)
+			final var disabilityDuration = errandView.findExtraParameterValue(CASEDATA_KEY_DISABILITY_DURATION)
 				.map(Period::parse)
 				.orElseThrow(() -> Problem.valueOf(CONFLICT, "No disability duration found in errand"));
 
@@ -187,14 +199,9 @@ public class ConstructDecisionTaskWorker extends AbstractTaskWorker {
 			toAttachmentFilePart(DECISION_FILENAME, APPLICATION_PDF_VALUE, pdf));
 	}
 
-	private String getTemplateId(final Errand errand, final Decision decision) {
+	private String getTemplateId(final ErrandView errand, final Decision decision) {
 		final var templateId = new StringBuilder("sbk.rph.decision");
-		final var capacity = Optional.ofNullable(errand.getExtraParameters()).orElse(emptyList())
-			.stream()
-			.filter(param -> "application.applicant.capacity".equals(param.getKey()))
-			.findFirst()
-			.map(generated.se.sundsvall.casedata.ExtraParameter::getValues)
-			.flatMap(values -> values.stream().findFirst())
+		final var capacity = errand.findExtraParameterValue(CASEDATA_KEY_APPLICATION_APPLICANT_CAPACITY)
 			.orElse(null);
 
 		if ("passenger".equalsIgnoreCase(capacity)) {
@@ -8,14 +8,17 @@ import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.Constants;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
 import se.sundsvall.parkingpermit.integration.businessrules.BusinessRulesClient;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 
+import static se.sundsvall.parkingpermit.businesslogic.util.BusinessRulesUtil.toRuleEngineResponseVariable;
 import static se.sundsvall.parkingpermit.integration.businessrules.mapper.BusinessRulesMapper.toRuleEngineRequest;
 
 @Component
 @ExternalTaskSubscription("InvestigationExecuteRulesTask")
+@TaskVariables
 public class ExecuteRulesTaskWorker extends AbstractTaskWorker {
 
 	private final BusinessRulesClient businessRulesClient;
@@ -39,7 +42,7 @@ public class ExecuteRulesTaskWorker extends AbstractTaskWorker {
 			final var ruleEngineResponse = businessRulesClient.runRuleEngine(municipalityId, toRuleEngineRequest(errand, attachments));
 
 			final var variables = new HashMap<String, Object>();
-			variables.put(Constants.CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE, ruleEngineResponse);
+			variables.put(Constants.CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE, toRuleEngineResponseVariable(ruleEngineResponse));
 
 			externalTaskService.complete(externalTask, variables);
 		} catch (final Exception exception) {
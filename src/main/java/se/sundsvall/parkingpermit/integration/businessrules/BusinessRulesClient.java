@@ -2,6 +2,7 @@ package se.sundsvall.parkingpermit.integration.businessrules;
 
 import generated.se.sundsvall.businessrules.RuleEngineRequest;
 import generated.se.sundsvall.businessrules.RuleEngineResponse;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,6 +14,7 @@ import static se.sundsvall.parkingpermit.integration.businessrules.configuration
 
 @FeignClient(name = CLIENT_ID, url = "${integration.businessrules.url}", configuration = BusinessRulesConfiguration.class)
 @CircuitBreaker(name = CLIENT_ID)
+@Bulkhead(name = CLIENT_ID)
 public interface BusinessRulesClient {
 
 	/**
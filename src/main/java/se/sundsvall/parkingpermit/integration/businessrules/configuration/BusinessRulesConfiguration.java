@@ -3,10 +3,10 @@ package se.sundsvall.parkingpermit.integration.businessrules.configuration;
 import org.springframework.cloud.openfeign.FeignBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
-import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import se.sundsvall.dept44.configuration.feign.FeignConfiguration;
 import se.sundsvall.dept44.configuration.feign.FeignMultiCustomizer;
 import se.sundsvall.dept44.configuration.feign.decoder.ProblemErrorDecoder;
+import se.sundsvall.parkingpermit.integration.oauth2.OAuth2TokenManager;
 
 @Import(FeignConfiguration.class)
 public class BusinessRulesConfiguration {
@@ -14,11 +14,11 @@ public class BusinessRulesConfiguration {
 	public static final String CLIENT_ID = "businessrules";
 
 	@Bean
-	FeignBuilderCustomizer feignBuilderCustomizer(ClientRegistrationRepository clientRepository, BusinessRulesProperties businessRulesProperties) {
+	FeignBuilderCustomizer feignBuilderCustomizer(OAuth2TokenManager oAuth2TokenManager, BusinessRulesProperties businessRulesProperties) {
 		return FeignMultiCustomizer.create()
 			.withErrorDecoder(new ProblemErrorDecoder(CLIENT_ID))
 			.withRequestTimeoutsInSeconds(businessRulesProperties.connectTimeout(), businessRulesProperties.readTimeout())
-			.withRetryableOAuth2InterceptorForClientRegistration(clientRepository.findByRegistrationId(CLIENT_ID))
+			.withCustomizer(builder -> oAuth2TokenManager.customize(CLIENT_ID, builder))
 			.composeCustomizersToOne();
 	}
 }
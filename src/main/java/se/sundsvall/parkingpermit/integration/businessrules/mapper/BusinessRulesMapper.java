@@ -4,13 +4,11 @@ import generated.se.sundsvall.businessrules.Fact;
 import generated.se.sundsvall.businessrules.RuleEngineRequest;
 import generated.se.sundsvall.casedata.Attachment;
 import generated.se.sundsvall.casedata.Errand;
-import generated.se.sundsvall.casedata.ExtraParameter;
 import generated.se.sundsvall.casedata.Stakeholder;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
-import org.apache.commons.collections4.CollectionUtils;
 import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandView;
 
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
@@ -68,8 +66,9 @@ public final class BusinessRulesMapper {
 			default -> throw Problem.valueOf(BAD_REQUEST, "Unsupported case type " + errand.getCaseType());
 		}
 
-		ruleEngineRequest.addFactsItem(toFact(BUSINESS_RULES_KEY_STAKEHOLDERS_APPLICANT_PERSON_ID, getApplicantPersonId(errand)));
-		toFactsFromExtraParameter(KEYS_PARKING_PERMIT, errand).forEach(ruleEngineRequest::addFactsItem);
+		final var errandView = ErrandView.of(errand);
+		ruleEngineRequest.addFactsItem(toFact(BUSINESS_RULES_KEY_STAKEHOLDERS_APPLICANT_PERSON_ID, getApplicantPersonId(errandView)));
+		toFactsFromExtraParameter(KEYS_PARKING_PERMIT, errandView).forEach(ruleEngineRequest::addFactsItem);
 		toFactsFromAttachments(attachments).forEach(ruleEngineRequest::addFactsItem);
 		return ruleEngineRequest;
 	}
@@ -85,9 +84,9 @@ public final class BusinessRulesMapper {
 		return ofNullable(attachments).orElse(emptyList()).stream().anyMatch(attachment -> category.equals(attachment.getCategory()));
 	}
 
-	private static List<Fact> toFactsFromExtraParameter(List<String> keys, Errand errand) {
+	private static List<Fact> toFactsFromExtraParameter(List<String> keys, ErrandView errand) {
 		return keys.stream()
-			.map(key -> toFact(key, getExtraParameterValue(errand, key)))
+			.map(key -> toFact(key, errand.findExtraParameterValue(key).orElse(null)))
 			.filter(Objects::nonNull)
 			.toList();
 	}
@@ -99,20 +98,8 @@ public final class BusinessRulesMapper {
 		return new Fact().key(key).value(value);
 	}
 
-	private static String getExtraParameterValue(Errand errand, String key) {
-		return ofNullable(errand.getExtraParameters()).orElse(emptyList()).stream()
-			.filter(extraParameters -> key.equals(extraParameters.getKey()))
-			.findFirst()
-			.map(ExtraParameter::getValues)
-			.filter(CollectionUtils::isNotEmpty)
-			.map(List::getFirst)
-			.orElse(null);
-	}
-
-	private static String getApplicantPersonId(Errand errand) {
-		return Optional.ofNullable(errand.getStakeholders()).orElse(emptyList()).stream()
-			.filter(stakeholder -> ofNullable(stakeholder.getRoles()).orElse(emptyList()).stream().anyMatch(ROLE_APPLICANT::equals))
-			.findFirst()
+	private static String getApplicantPersonId(ErrandView errand) {
+		return errand.findStakeholder(ROLE_APPLICANT)
 			.map(Stakeholder::getPersonId)
 			.orElseThrow(() -> Problem.valueOf(BAD_REQUEST, "No applicant found in errand: " + errand.getErrandNumber()));
 	}
@@ -1,7 +1,7 @@
 package se.sundsvall.parkingpermit.integration.camunda;
 
-import feign.form.FormData;
 import generated.se.sundsvall.camunda.ActivityInstanceDto;
+import generated.se.sundsvall.camunda.CorrelationMessageDto;
 import generated.se.sundsvall.camunda.DeploymentDto;
 import generated.se.sundsvall.camunda.DeploymentWithDefinitionsDto;
 import generated.se.sundsvall.camunda.EventSubscriptionDto;
@@ -13,9 +13,10 @@ import generated.se.sundsvall.camunda.PatchVariablesDto;
 import generated.se.sundsvall.camunda.ProcessInstanceDto;
 import generated.se.sundsvall.camunda.ProcessInstanceWithVariablesDto;
 import generated.se.sundsvall.camunda.StartProcessInstanceDto;
+import generated.se.sundsvall.camunda.VariableInstanceDto;
 import generated.se.sundsvall.camunda.VariableValueDto;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +34,7 @@ import static se.sundsvall.parkingpermit.integration.camunda.configuration.Camun
 
 @FeignClient(name = CLIENT_ID, url = "${integration.camunda.url}", configuration = CamundaConfiguration.class, dismiss404 = true)
 @CircuitBreaker(name = CLIENT_ID)
+@Bulkhead(name = CLIENT_ID)
 public interface CamundaClient {
 
 	@PostMapping(path = "process-definition/key/{key}/start", produces = APPLICATION_JSON_VALUE, consumes = APPLICATION_JSON_VALUE)
@@ -47,15 +49,25 @@ public interface CamundaClient {
 	@PutMapping(path = "process-instance/{id}/variables/{varName}", consumes = APPLICATION_JSON_VALUE)
 	void setProcessInstanceVariable(@PathVariable("id") String id, @PathVariable("varName") String variableName, VariableValueDto variableValueDto);
 
+	/**
+	 * Correlates a message to the executions waiting for it. A message correlated to all matching executions does not fail
+	 * when no execution is waiting for it.
+	 *
+	 * @param correlationMessageDto the message and the executions to correlate it to
+	 */
+	@PostMapping(path = "message", consumes = APPLICATION_JSON_VALUE)
+	void correlateMessage(CorrelationMessageDto correlationMessageDto);
+
+	/**
+	 * Creates a deployment. Besides the deployment options (deployment-name, deployment-source, tenant-id etc.) the form
+	 * holds one {@link feign.form.FormData} entry per resource, which makes it possible to deploy several resources in one
+	 * request.
+	 *
+	 * @param  form deployment options and resources, keyed by form field name
+	 * @return      the created deployment
+	 */
 	@PostMapping(path = "deployment/create", produces = APPLICATION_JSON_VALUE, consumes = MULTIPART_FORM_DATA_VALUE)
-	DeploymentWithDefinitionsDto deploy(
-		@PathVariable("tenant-id") String tenantId,
-		@PathVariable("deployment-source") String deploymentSource,
-		@PathVariable("deploy-changed-only") Boolean deployChangedOnly,
-		@PathVariable("enable-duplicate-filtering") Boolean enableDuplicateFiltering,
-		@PathVariable("deployment-name") String deploymentName,
-		@PathVariable("deployment-activation-time") OffsetDateTime deploymentActivationTime,
-		@PathVariable("data") FormData data);
+	DeploymentWithDefinitionsDto createDeployment(Map<String, ?> form);
 
 	@GetMapping(path = "deployment", produces = APPLICATION_JSON_VALUE, consumes = MULTIPART_FORM_DATA_VALUE)
 	List<DeploymentDto> getDeployments(@RequestParam("source") String source, @RequestParam("nameLike") String nameLike, @RequestParam("tenantIdIn") String tenantIdIn);
@@ -69,6 +81,9 @@ public interface CamundaClient {
 	@GetMapping(path = "process-instance/{id}/variables", produces = APPLICATION_JSON_VALUE, consumes = APPLICATION_JSON_VALUE)
 	Map<String, VariableValueDto> getProcessInstanceVariables(@PathVariable("id") String id);
 
+	@GetMapping(path = "variable-instance", produces = APPLICATION_JSON_VALUE)
+	List<VariableInstanceDto> getVariableInstances(@RequestParam("variableName") String variableName, @RequestParam("tenantIdIn") String tenantIdIn);
+
 	@GetMapping(path = "history/external-task-log", produces = APPLICATION_JSON_VALUE, consumes = APPLICATION_JSON_VALUE)
 	List<HistoricExternalTaskLogDto> getHistoricExternalTaskLog(
 		@RequestParam("processInstanceId") String processInstanceId,
@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Import;
 import se.sundsvall.dept44.configuration.feign.FeignConfiguration;
 import se.sundsvall.dept44.configuration.feign.FeignMultiCustomizer;
 import se.sundsvall.dept44.configuration.feign.decoder.ProblemErrorDecoder;
+import se.sundsvall.parkingpermit.integration.http.PooledHttpClientFactory;
 
 @Import(FeignConfiguration.class)
 public class CamundaConfiguration {
@@ -13,10 +14,13 @@ public class CamundaConfiguration {
 	public static final String CLIENT_ID = "camunda";
 
 	@Bean
-	FeignBuilderCustomizer feignBuilderCustomizer(CamundaProperties camundaProperties) {
+	FeignBuilderCustomizer feignBuilderCustomizer(CamundaProperties camundaProperties, PooledHttpClientFactory pooledHttpClientFactory) {
+		final var client = pooledHttpClientFactory.create(CLIENT_ID, camundaProperties.pool());
+
 		return FeignMultiCustomizer.create()
 			.withErrorDecoder(new ProblemErrorDecoder(CLIENT_ID))
 			.withRequestTimeoutsInSeconds(camundaProperties.connectTimeout(), camundaProperties.readTimeout())
+			.withCustomizer(builder -> builder.client(client))
 			.composeCustomizersToOne();
 	}
 }
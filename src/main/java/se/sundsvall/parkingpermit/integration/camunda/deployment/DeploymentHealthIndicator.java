@@ -0,0 +1,35 @@
+package se.sundsvall.parkingpermit.integration.camunda.deployment;
+
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Reports DOWN until the process models have been deployed. Included in the readiness group, which keeps traffic away
+ * from the application while the deployment is pending or being retried.
+ */
+@Component
+public class DeploymentHealthIndicator implements HealthIndicator {
+
+	static final String DETAIL_FAILED_ATTEMPTS = "failedAttempts";
+	static final String DETAIL_LAST_FAILURE = "lastFailure";
+
+	private final TenantAwareAutoDeployment deployment;
+
+	DeploymentHealthIndicator(TenantAwareAutoDeployment deployment) {
+		this.deployment = deployment;
+	}
+
+	@Override
+	public Health health() {
+		if (deployment.isDeployed()) {
+			return Health.up().build();
+		}
+
+		final var builder = Health.down().withDetail(DETAIL_FAILED_ATTEMPTS, deployment.getFailedAttempts());
+		ofNullable(deployment.getLastFailure()).ifPresent(lastFailure -> builder.withDetail(DETAIL_LAST_FAILURE, lastFailure));
+		return builder.build();
+	}
+}
@@ -1,5 +1,6 @@
 package se.sundsvall.parkingpermit.integration.camunda.deployment;
 
+import java.time.Duration;
 import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -8,6 +9,27 @@ public class DeploymentProperties {
 
 	private boolean autoDeployEnabled = true;
 
+	/**
+	 * Whether the external task client shall be started (i.e. start fetching tasks) when the deployment has succeeded.
+	 * Requires camunda.bpm.client.disable-auto-fetching to be set, otherwise the client is started by the Camunda starter.
+	 */
+	private boolean startExternalTaskClient = true;
+
+	/**
+	 * Delay before the first retry of a failed deployment.
+	 */
+	private Duration retryInitialBackoff = Duration.ofSeconds(1);
+
+	/**
+	 * Upper limit of the delay between retries of a failed deployment.
+	 */
+	private Duration retryMaxBackoff = Duration.ofMinutes(1);
+
+	/**
+	 * Factor to multiply the delay with after each failed deployment.
+	 */
+	private double retryBackoffMultiplier = 2;
+
 	private List<ProcessArchive> processes;
 
 	public boolean isAutoDeployEnabled() {
@@ -18,6 +40,38 @@ public class DeploymentProperties {
 		this.autoDeployEnabled = autoDeployEnabled;
 	}
 
+	public boolean isStartExternalTaskClient() {
+		return startExternalTaskClient;
+	}
+
+	public void setStartExternalTaskClient(boolean startExternalTaskClient) {
+		this.startExternalTaskClient = startExternalTaskClient;
+	}
+
+	public Duration getRetryInitialBackoff() {
+		return retryInitialBackoff;
+	}
+
+	public void setRetryInitialBackoff(Duration retryInitialBackoff) {
+		this.retryInitialBackoff = retryInitialBackoff;
+	}
+
+	public Duration getRetryMaxBackoff() {
+		return retryMaxBackoff;
+	}
+
+	public void setRetryMaxBackoff(Duration retryMaxBackoff) {
+		this.retryMaxBackoff = retryMaxBackoff;
+	}
+
+	public double getRetryBackoffMultiplier() {
+		return retryBackoffMultiplier;
+	}
+
+	public void setRetryBackoffMultiplier(double retryBackoffMultiplier) {
+		this.retryBackoffMultiplier = retryBackoffMultiplier;
+	}
+
 	public List<ProcessArchive> getProcesses() {
 		return this.processes;
 	}
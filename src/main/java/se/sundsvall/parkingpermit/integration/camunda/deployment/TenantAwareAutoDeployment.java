@@ -1,31 +1,71 @@
 package se.sundsvall.parkingpermit.integration.camunda.deployment;
 
 import feign.form.FormData;
-import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.camunda.bpm.client.ExternalTaskClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.camunda.deployment.DeploymentProperties.ProcessArchive;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
 import static java.util.Optional.ofNullable;
 import static org.springframework.util.DigestUtils.md5DigestAsHex;
 import static se.sundsvall.dept44.util.ResourceUtils.requireNotBlank;
 
+/**
+ * Deploys the BPMN, DMN and form resources of each configured process archive to the tenant of the archive.
+ *
+ * All resources of an archive are sent as one deployment, with a deployment source derived from a hash of the resource
+ * names and contents. Before deploying, the engine is asked for deployments with that source in the tenant, and the
+ * archive is skipped when one exists, i.e. when nothing has changed since the last deployment. Archives are deployed in
+ * parallel.
+ *
+ * Deployment runs in the background once the application has started, so that an unavailable engine does not hold up
+ * the application context. A failed deployment is retried with exponential backoff until it succeeds. The external task
+ * client is started first when the deployment has succeeded, and until then the deployment health indicator (part of the
+ * readiness group) reports the application as not ready.
+ */
 @Configuration
 public class TenantAwareAutoDeployment {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(TenantAwareAutoDeployment.class);
+
 	private static final String DEFAULT_PATTERN_PREFIX = "classpath*:**/*.";
 	private static final String FILETYPE_BPMN = "bpmn";
 	private static final String FILETYPE_DMN = "dmn";
 	private static final String FILETYPE_FORM = "form";
 	private static final Resource[] NO_RESOURCES = {};
 	private static final String DEPLOYMENT_CONTENT_TYPE = "application/octet-stream";
+	private static final String DEPLOYMENT_SOURCE_PREFIX = "sha256:";
+
+	static final String FIELD_DEPLOYMENT_NAME = "deployment-name";
+	static final String FIELD_DEPLOYMENT_SOURCE = "deployment-source";
+	static final String FIELD_DEPLOY_CHANGED_ONLY = "deploy-changed-only";
+	static final String FIELD_ENABLE_DUPLICATE_FILTERING = "enable-duplicate-filtering";
+	static final String FIELD_TENANT_ID = "tenant-id";
 
 	private final CamundaClient camundaClient;
 
@@ -33,52 +73,188 @@ public class TenantAwareAutoDeployment {
 
 	private final ResourcePatternResolver patternResolver;
 
-	TenantAwareAutoDeployment(CamundaClient camundaClient, DeploymentProperties deployments, ResourcePatternResolver patternResolver) {
+	private final ObjectProvider<ExternalTaskClient> externalTaskClientProvider;
+
+	private final AtomicInteger failedAttempts = new AtomicInteger();
+
+	private volatile boolean deployed;
+
+	private volatile String lastFailure;
+
+	private volatile Thread deploymentThread;
+
+	TenantAwareAutoDeployment(CamundaClient camundaClient, DeploymentProperties deployments, ResourcePatternResolver patternResolver,
+		ObjectProvider<ExternalTaskClient> externalTaskClientProvider) {
 		this.camundaClient = camundaClient;
 		this.deployments = deployments;
 		this.patternResolver = patternResolver;
+		this.externalTaskClientProvider = externalTaskClientProvider;
+	}
+
+	@EventListener(ApplicationStartedEvent.class)
+	public void onApplicationStarted() {
+		deploymentThread = Thread.ofVirtual()
+			.name("camunda-deployment")
+			.start(this::deployWithRetry);
+	}
+
+	@PreDestroy
+	public void stop() {
+		ofNullable(deploymentThread).ifPresent(Thread::interrupt);
+	}
+
+	public boolean isDeployed() {
+		return deployed;
+	}
+
+	public int getFailedAttempts() {
+		return failedAttempts.get();
+	}
+
+	public String getLastFailure() {
+		return lastFailure;
+	}
+
+	void deployWithRetry() {
+		var backoff = deployments.getRetryInitialBackoff();
+
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				deployCamundaResources();
+				deployed = true;
+				lastFailure = null;
+				LOGGER.info("Deployment of process models completed after {} failed attempt(s)", failedAttempts.get());
+				startExternalTaskClient();
+				return;
+			} catch (final IllegalArgumentException e) {
+				// Invalid configuration, which will not be solved by retrying
+				lastFailure = e.getMessage();
+				LOGGER.error("Deployment of process models failed due to invalid configuration", e);
+				return;
+			} catch (final RuntimeException e) {
+				lastFailure = e.getMessage();
+				LOGGER.warn("Deployment of process models failed (attempt {}), retrying in {}", failedAttempts.incrementAndGet(), backoff, e);
+				if (!sleep(backoff)) {
+					return;
+				}
+				backoff = nextBackoff(backoff);
+			}
+		}
+	}
+
+	private Duration nextBackoff(Duration backoff) {
+		final var next = Duration.ofMillis((long) (backoff.toMillis() * deployments.getRetryBackoffMultiplier()));
+		return next.compareTo(deployments.getRetryMaxBackoff()) > 0 ? deployments.getRetryMaxBackoff() : next;
+	}
+
+	private static boolean sleep(Duration duration) {
+		try {
+			Thread.sleep(duration);
+			return true;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void startExternalTaskClient() {
+		if (isNull(deployments) || deployments.isStartExternalTaskClient()) {
+			externalTaskClientProvider.ifAvailable(ExternalTaskClient::start);
+		}
 	}
 
-	@PostConstruct
 	public void deployCamundaResources() {
 		if (isNull(deployments) || !deployments.isAutoDeployEnabled()) {
 			return;
 		}
 
-		ofNullable(deployments.getProcesses()).orElse(emptyList()).forEach(processArchive -> {
-			deployResources(processArchive, getResources(isNull(processArchive.bpmnResourcePattern()) ? DEFAULT_PATTERN_PREFIX + FILETYPE_BPMN : processArchive.bpmnResourcePattern()), FILETYPE_BPMN);
-			deployResources(processArchive, getResources(isNull(processArchive.dmnResourcePattern()) ? DEFAULT_PATTERN_PREFIX + FILETYPE_DMN : processArchive.dmnResourcePattern()), FILETYPE_DMN);
-			deployResources(processArchive, getResources(isNull(processArchive.formResourcePattern()) ? DEFAULT_PATTERN_PREFIX + FILETYPE_FORM : processArchive.formResourcePattern()), FILETYPE_FORM);
-		});
+		final var processArchives = ofNullable(deployments.getProcesses()).orElse(emptyList());
+
+		// Closing the executor waits for all started deployments, also when one of them has failed
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			processArchives.stream()
+				.map(processArchive -> CompletableFuture.runAsync(() -> deployProcessArchive(processArchive), executor))
+				.toList()
+				.forEach(TenantAwareAutoDeployment::awaitDeployment);
+		}
 	}
 
-	private void deployResources(ProcessArchive processArchive, List<Resource> resourcesToDeploy, String type) {
+	private static void awaitDeployment(CompletableFuture<Void> deployment) {
+		try {
+			deployment.join();
+		} catch (final CompletionException e) {
+			if (e.getCause() instanceof final RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new DeploymentException(e);
+		}
+	}
+
+	private void deployProcessArchive(ProcessArchive processArchive) {
+		final var resourcesToDeploy = new ArrayList<DeploymentResource>();
+		resourcesToDeploy.addAll(readResources(getResources(isNull(processArchive.bpmnResourcePattern()) ? DEFAULT_PATTERN_PREFIX + FILETYPE_BPMN : processArchive.bpmnResourcePattern()), FILETYPE_BPMN));
+		resourcesToDeploy.addAll(readResources(getResources(isNull(processArchive.dmnResourcePattern()) ? DEFAULT_PATTERN_PREFIX + FILETYPE_DMN : processArchive.dmnResourcePattern()), FILETYPE_DMN));
+		resourcesToDeploy.addAll(readResources(getResources(isNull(processArchive.formResourcePattern()) ? DEFAULT_PATTERN_PREFIX + FILETYPE_FORM : processArchive.formResourcePattern()), FILETYPE_FORM));
+
 		// Validate that name is present
 		requireNotBlank(processArchive.name(), "Processname must be set");
 
-		for (final Resource camundaResource : resourcesToDeploy) {
-			try {
-				/*
-				 * The resource is read through an InputStream so that deployment also works from a jar-packed environment, and
-				 * is handed to the client as in memory form data. The file name has to carry the correct extension, since that
-				 * is what the deployer uses to recognize the resource as e.g. a BPMN file.
-				 */
-				final var content = readContent(camundaResource);
-
-				camundaClient.deploy(
-					processArchive.tenant(), // tenantId
-					camundaResource.getFilename(),
-					true, // changedOnly
-					true, // duplicateFiltering
-					processArchive.name() + " (" + processArchive.tenant() + ") - " + camundaResource.getFilename(), // deploymentName
-					null,
-					new FormData(DEPLOYMENT_CONTENT_TYPE, getResourceFilename(camundaResource, type), content));
-			} catch (final Exception e) {
-				throw new DeploymentException(e);
+		if (resourcesToDeploy.isEmpty()) {
+			return;
+		}
+
+		// Sorting makes the source independent of the order in which the pattern resolver returns the resources
+		resourcesToDeploy.sort(Comparator.comparing(DeploymentResource::filename));
+		final var deploymentName = processArchive.name() + " (" + processArchive.tenant() + ")";
+		final var deploymentSource = toDeploymentSource(resourcesToDeploy);
+
+		try {
+			if (isDeployed(processArchive.tenant(), deploymentSource)) {
+				LOGGER.info("Resources of '{}' are unchanged since last deployment, skipping deployment", deploymentName);
+				return;
 			}
+
+			final var form = new LinkedHashMap<String, Object>();
+			form.put(FIELD_DEPLOYMENT_NAME, deploymentName);
+			form.put(FIELD_DEPLOYMENT_SOURCE, deploymentSource);
+			// Makes the engine filter out resources in concurrent deployments of the same source, e.g. from another instance
+			form.put(FIELD_DEPLOY_CHANGED_ONLY, Boolean.TRUE.toString());
+			form.put(FIELD_ENABLE_DUPLICATE_FILTERING, Boolean.TRUE.toString());
+			ofNullable(processArchive.tenant()).ifPresent(tenant -> form.put(FIELD_TENANT_ID, tenant));
+			/*
+			 * The file name has to carry the correct extension, since that is what the deployer uses to recognize the resource
+			 * as e.g. a BPMN file.
+			 */
+			resourcesToDeploy.forEach(resource -> form.put(resource.filename(), new FormData(DEPLOYMENT_CONTENT_TYPE, resource.filename(), resource.content())));
+
+			camundaClient.createDeployment(form);
+			LOGGER.info("Deployed {} resource(s) of '{}'", resourcesToDeploy.size(), deploymentName);
+		} catch (final Exception e) {
+			throw new DeploymentException(e);
 		}
 	}
 
+	private boolean isDeployed(String tenant, String deploymentSource) {
+		return !ofNullable(camundaClient.getDeployments(deploymentSource, null, tenant)).orElse(emptyList()).isEmpty();
+	}
+
+	private List<DeploymentResource> readResources(List<Resource> resources, String type) {
+		return resources.stream()
+			.map(resource -> {
+				try {
+					/*
+					 * The resource is read through an InputStream so that deployment also works from a jar-packed environment, and
+					 * is handed to the client as in memory form data.
+					 */
+					final var content = readContent(resource);
+					return new DeploymentResource(getResourceFilename(resource, content, type), content);
+				} catch (final IOException e) {
+					throw new DeploymentException(e);
+				}
+			})
+			.toList();
+	}
+
 	private byte[] readContent(Resource camundaResource) throws IOException {
 		try (var inputStream = camundaResource.getInputStream()) {
 			return inputStream.readAllBytes();
@@ -93,11 +269,29 @@ public class TenantAwareAutoDeployment {
 		}
 	}
 
-	private String getResourceFilename(Resource camundaResource, String type) throws IOException {
+	private String getResourceFilename(Resource camundaResource, byte[] content, String type) {
 		if (camundaResource.getFilename() != null) {
 			return camundaResource.getFilename();
 		}
 
-		return md5DigestAsHex(camundaResource.getInputStream()) + '.' + type;
+		return md5DigestAsHex(content) + '.' + type;
+	}
+
+	static String toDeploymentSource(List<DeploymentResource> resources) {
+		try {
+			final var digest = MessageDigest.getInstance("SHA-256");
+			resources.forEach(resource -> {
+				digest.update(resource.filename().getBytes(UTF_8));
+				digest.update((byte) 0);
+				digest.update(resource.content());
+				digest.update((byte) 0);
+			});
+			return DEPLOYMENT_SOURCE_PREFIX + HexFormat.of().formatHex(digest.digest());
+		} catch (final NoSuchAlgorithmException e) {
+			throw new DeploymentException(e);
+		}
+	}
+
+	record DeploymentResource(String filename, byte[] content) {
 	}
 }
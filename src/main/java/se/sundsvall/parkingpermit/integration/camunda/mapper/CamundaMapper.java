@@ -1,5 +1,6 @@
 package se.sundsvall.parkingpermit.integration.camunda.mapper;
 
+import generated.se.sundsvall.camunda.CorrelationMessageDto;
 import generated.se.sundsvall.camunda.PatchVariablesDto;
 import generated.se.sundsvall.camunda.StartProcessInstanceDto;
 import generated.se.sundsvall.camunda.VariableValueDto;
@@ -11,19 +12,25 @@ import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_CASE_NUMBER;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_MUNICIPALITY_ID;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_NAMESPACE;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_REQUEST_ID;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_SHARD;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_TASK_PRIORITY;
+import static se.sundsvall.parkingpermit.Constants.TASK_PRIORITY_DEFAULT;
 
 public final class CamundaMapper {
 
 	private CamundaMapper() {}
 
-	public static StartProcessInstanceDto toStartProcessInstanceDto(String municipalityId, String namespace, Long caseNumber) {
+	public static StartProcessInstanceDto toStartProcessInstanceDto(String municipalityId, String namespace, Long caseNumber, int shard) {
 		return new StartProcessInstanceDto()
 			.businessKey(Long.toString(caseNumber))
 			.variables(Map.of(
 				CAMUNDA_VARIABLE_MUNICIPALITY_ID, toVariableValueDto(ValueType.STRING, municipalityId),
 				CAMUNDA_VARIABLE_NAMESPACE, toVariableValueDto(ValueType.STRING, namespace),
 				CAMUNDA_VARIABLE_CASE_NUMBER, toVariableValueDto(ValueType.LONG, caseNumber),
-				CAMUNDA_VARIABLE_REQUEST_ID, toVariableValueDto(ValueType.STRING, RequestId.get())));
+				CAMUNDA_VARIABLE_REQUEST_ID, toVariableValueDto(ValueType.STRING, RequestId.get()),
+				CAMUNDA_VARIABLE_SHARD, toVariableValueDto(ValueType.INTEGER, shard),
+				// Raised by CheckErrandPhaseActionTask when the errand turns out to be decided automatically
+				CAMUNDA_VARIABLE_TASK_PRIORITY, toVariableValueDto(ValueType.LONG, TASK_PRIORITY_DEFAULT)));
 	}
 
 	public static VariableValueDto toVariableValueDto(ValueType valueType, Object value) {
@@ -36,4 +43,12 @@ public final class CamundaMapper {
 		return new PatchVariablesDto()
 			.modifications(variablesToUpdate);
 	}
+
+	public static CorrelationMessageDto toCorrelationMessageDto(String messageName, String processInstanceId) {
+		return new CorrelationMessageDto()
+			.messageName(messageName)
+			.processInstanceId(processInstanceId)
+			// Correlating to all waiting executions does not fail when there are none
+			.all(true);
+	}
 }
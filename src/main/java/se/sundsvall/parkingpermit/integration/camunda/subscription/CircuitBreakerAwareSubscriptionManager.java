@@ -0,0 +1,109 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnStateTransitionEvent;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.camunda.bpm.client.spring.SpringTopicSubscription;
+import org.camunda.bpm.client.spring.event.SubscriptionInitializedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static io.github.resilience4j.circuitbreaker.CircuitBreaker.State.FORCED_OPEN;
+import static io.github.resilience4j.circuitbreaker.CircuitBreaker.State.OPEN;
+import static java.util.Objects.isNull;
+import static org.springframework.core.Ordered.LOWEST_PRECEDENCE;
+
+/**
+ * Suspends fetching of external tasks for topics whose integrations are unavailable.
+ *
+ * When a circuit breaker that a topic depends on opens, the subscription for the topic is closed so that the client
+ * stops fetching and locking tasks that would only fail and consume retries. The subscription is opened again as soon
+ * as all circuit breakers that the topic depends on have left the open state (i.e. are half open or closed), which lets
+ * the trial calls of the half open state decide whether the integration has recovered.
+ *
+ * Other components reopening a subscription, e.g. to apply a changed configuration, do so through
+ * {@link #reopen(SpringTopicSubscription)}, which serializes the reopen with pausing and resuming and leaves a paused
+ * subscription closed. The subscriptions are registered after the configuring listeners have run.
+ */
+@Component
+public class CircuitBreakerAwareSubscriptionManager {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreakerAwareSubscriptionManager.class);
+
+	private final Map<String, SpringTopicSubscription> subscriptions = new ConcurrentHashMap<>();
+	private final Set<String> pausedTopics = ConcurrentHashMap.newKeySet();
+
+	private final CircuitBreakerRegistry circuitBreakerRegistry;
+	private final SubscriptionDependencyProperties properties;
+
+	CircuitBreakerAwareSubscriptionManager(CircuitBreakerRegistry circuitBreakerRegistry, SubscriptionDependencyProperties properties) {
+		this.circuitBreakerRegistry = circuitBreakerRegistry;
+		this.properties = properties;
+
+		properties.allDependencies().forEach(name -> circuitBreakerRegistry.circuitBreaker(name)
+			.getEventPublisher()
+			.onStateTransition(this::onStateTransition));
+	}
+
+	@Order(LOWEST_PRECEDENCE)
+	@EventListener
+	public void onSubscriptionInitialized(SubscriptionInitializedEvent event) {
+		final var subscription = event.getSource();
+		subscriptions.put(subscription.getTopicName(), subscription);
+
+		// A circuit breaker might already be open when the subscription is initialized
+		evaluate(subscription.getTopicName());
+	}
+
+	public boolean isPaused(String topicName) {
+		return pausedTopics.contains(topicName);
+	}
+
+	/**
+	 * Closes and opens the subscription for its changed configuration to be applied. A subscription that is closed, or
+	 * paused, is left closed, as the configuration is applied when it is opened.
+	 */
+	public synchronized void reopen(SpringTopicSubscription subscription) {
+		if (isPaused(subscription.getTopicName()) || !subscription.isOpen()) {
+			return;
+		}
+		subscription.close();
+		subscription.open();
+	}
+
+	void onStateTransition(CircuitBreakerOnStateTransitionEvent event) {
+		subscriptions.keySet().stream()
+			.filter(topicName -> properties.dependenciesForTopic(topicName).contains(event.getCircuitBreakerName()))
+			.forEach(this::evaluate);
+	}
+
+	synchronized void evaluate(String topicName) {
+		final var subscription = subscriptions.get(topicName);
+		if (isNull(subscription)) {
+			return;
+		}
+
+		if (isAvailable(topicName)) {
+			if (pausedTopics.remove(topicName)) {
+				subscription.open();
+				LOGGER.info("Resumed fetching of tasks for topic '{}' as its dependencies are available again", topicName);
+			}
+		} else if (pausedTopics.add(topicName)) {
+			subscription.close();
+			LOGGER.warn("Paused fetching of tasks for topic '{}' as one or more of its dependencies {} are unavailable", topicName, properties.dependenciesForTopic(topicName));
+		}
+	}
+
+	private boolean isAvailable(String topicName) {
+		return properties.dependenciesForTopic(topicName).stream()
+			.map(circuitBreakerRegistry::circuitBreaker)
+			.map(CircuitBreaker::getState)
+			.noneMatch(state -> state == OPEN || state == FORCED_OPEN);
+	}
+}
@@ -0,0 +1,71 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import generated.se.sundsvall.camunda.VariableInstanceDto;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.camunda.bpm.engine.variable.type.ValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
+
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_CASE_NUMBER;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_SHARD;
+import static se.sundsvall.parkingpermit.Constants.TENANTID_TEMPLATE;
+import static se.sundsvall.parkingpermit.integration.camunda.mapper.CamundaMapper.toVariableValueDto;
+
+/**
+ * Assigns a shard to running process instances started before shards were assigned, which the shard filter of the
+ * subscriptions would otherwise never fetch tasks of. Each replica assigns the instances of its own shard when it has
+ * started with sharding enabled, from the case number of the instance, which makes the assignment safe to repeat and
+ * spreads it over the replicas.
+ *
+ * Instances are only started without a shard by versions of the service preceding sharding, which is why sharding is to
+ * be enabled once every replica runs a version assigning shards.
+ */
+@Component
+public class ShardAssignment {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ShardAssignment.class);
+
+	private final CamundaClient camundaClient;
+	private final ShardingProperties properties;
+
+	ShardAssignment(CamundaClient camundaClient, ShardingProperties properties) {
+		this.camundaClient = camundaClient;
+		this.properties = properties;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void assignMissingShards() {
+		if (!properties.enabled()) {
+			return;
+		}
+
+		try {
+			final Set<String> assigned = camundaClient.getVariableInstances(CAMUNDA_VARIABLE_SHARD, TENANTID_TEMPLATE).stream()
+				.map(VariableInstanceDto::getProcessInstanceId)
+				.collect(Collectors.toSet());
+
+			final var unassigned = camundaClient.getVariableInstances(CAMUNDA_VARIABLE_CASE_NUMBER, TENANTID_TEMPLATE).stream()
+				.filter(variable -> !assigned.contains(variable.getProcessInstanceId()))
+				.filter(variable -> variable.getValue() instanceof Number)
+				.filter(variable -> properties.shardFor(((Number) variable.getValue()).longValue()) == properties.shard())
+				.map(VariableInstanceDto::getProcessInstanceId)
+				.filter(Objects::nonNull)
+				.distinct()
+				.toList();
+
+			unassigned.forEach(processInstanceId -> camundaClient.setProcessInstanceVariable(processInstanceId, CAMUNDA_VARIABLE_SHARD, toVariableValueDto(ValueType.INTEGER, properties.shard())));
+			if (!unassigned.isEmpty()) {
+				LOGGER.info("Assigned shard {} to {} process instance(s) started without a shard", properties.shard(), unassigned.size());
+			}
+		} catch (final RuntimeException e) {
+			// The instances are assigned when a replica of the shard starts next, and are not fetched until then
+			LOGGER.error("Failed to assign shard {} to process instances started without a shard", properties.shard(), e);
+		}
+	}
+}
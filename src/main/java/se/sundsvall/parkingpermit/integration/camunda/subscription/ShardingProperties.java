@@ -0,0 +1,36 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for sharding the process instances between the replicas of the service.
+ *
+ * Every started process instance is assigned a shard from its case number, regardless of whether sharding is enabled,
+ * so that instances started before sharding is enabled are still fetched by the replica owning their shard. The shard
+ * count must therefore be the same for all replicas and must not be changed while process instances are running.
+ *
+ * Instances started by versions preceding the assignment of shards have no shard, and are assigned one by
+ * {@link ShardAssignment} when the replicas start with sharding enabled. Sharding is to be enabled once every replica
+ * runs a version assigning shards, as instances started by older replicas meanwhile are otherwise left without one.
+ *
+ * @param enabled    whether this replica only fetches tasks of process instances assigned to its shard
+ * @param shardCount the number of shards that process instances are distributed over
+ * @param shard      the shard owned by this replica, between 0 (inclusive) and the shard count (exclusive)
+ */
+@ConfigurationProperties("camunda.worker.sharding")
+public record ShardingProperties(boolean enabled, @DefaultValue("1") int shardCount, int shard) {
+
+	public ShardingProperties {
+		if (shardCount < 1) {
+			throw new IllegalArgumentException("Shard count must be at least 1");
+		}
+		if (shard < 0 || shard >= shardCount) {
+			throw new IllegalArgumentException("Shard must be between 0 and %s".formatted(shardCount - 1));
+		}
+	}
+
+	public int shardFor(Long caseNumber) {
+		return Math.floorMod(caseNumber, shardCount);
+	}
+}
@@ -0,0 +1,55 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import java.util.HashMap;
+import org.camunda.bpm.client.spring.event.SubscriptionInitializedEvent;
+import org.camunda.bpm.client.spring.impl.subscription.SpringTopicSubscriptionImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Optional.ofNullable;
+import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_SHARD;
+
+/**
+ * Restricts the subscriptions of this replica to process instances assigned to its shard when sharding is enabled, by
+ * adding the shard of the replica to the process variables filter of each subscription.
+ */
+@Component
+public class ShardingSubscriptionConfigurer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ShardingSubscriptionConfigurer.class);
+
+	private final ShardingProperties properties;
+	private final CircuitBreakerAwareSubscriptionManager subscriptionManager;
+
+	ShardingSubscriptionConfigurer(ShardingProperties properties, CircuitBreakerAwareSubscriptionManager subscriptionManager) {
+		this.properties = properties;
+		this.subscriptionManager = subscriptionManager;
+	}
+
+	@Order(HIGHEST_PRECEDENCE)
+	@EventListener
+	public void onSubscriptionInitialized(SubscriptionInitializedEvent event) {
+		if (!properties.enabled()) {
+			return;
+		}
+
+		if (!(event.getSource() instanceof final SpringTopicSubscriptionImpl subscription)) {
+			LOGGER.warn("Unable to apply shard filter to subscription of type {}", event.getSource().getClass().getName());
+			return;
+		}
+
+		final var configuration = subscription.getSubscriptionConfiguration();
+		final var processVariables = new HashMap<String, Object>(ofNullable(configuration.getProcessVariables()).orElse(emptyMap()));
+		processVariables.put(CAMUNDA_VARIABLE_SHARD, properties.shard());
+		configuration.setProcessVariables(processVariables);
+
+		// The filter is applied when the subscription is opened
+		subscriptionManager.reopen(subscription);
+		LOGGER.info("Fetching tasks for topic '{}' in shard {} of {}", subscription.getTopicName(), properties.shard(), properties.shardCount());
+	}
+}
@@ -0,0 +1,37 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Maps each topic to the integrations (circuit breaker names) that the worker subscribing to the topic depends on.
+ *
+ * @param commonDependencies circuit breakers that every topic depends on
+ * @param dependencies       circuit breakers that a specific topic depends on in addition to the common ones
+ */
+@ConfigurationProperties("camunda.worker.subscription")
+public record SubscriptionDependencyProperties(List<String> commonDependencies, Map<String, List<String>> dependencies) {
+
+	public SubscriptionDependencyProperties {
+		commonDependencies = ofNullable(commonDependencies).orElse(emptyList());
+		dependencies = ofNullable(dependencies).orElse(emptyMap());
+	}
+
+	public List<String> dependenciesForTopic(String topicName) {
+		return Stream.concat(commonDependencies.stream(), dependencies.getOrDefault(topicName, emptyList()).stream())
+			.distinct()
+			.toList();
+	}
+
+	public List<String> allDependencies() {
+		return Stream.concat(commonDependencies.stream(), dependencies.values().stream().flatMap(List::stream))
+			.distinct()
+			.toList();
+	}
+}
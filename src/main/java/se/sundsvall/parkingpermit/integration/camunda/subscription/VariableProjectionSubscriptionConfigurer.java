@@ -0,0 +1,58 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.camunda.bpm.client.spring.event.SubscriptionInitializedEvent;
+import org.camunda.bpm.client.spring.impl.subscription.SpringTopicSubscriptionImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+import se.sundsvall.parkingpermit.businesslogic.worker.TaskVariables;
+
+import static java.util.Optional.ofNullable;
+import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
+
+/**
+ * Restricts the variables fetched with the tasks of each subscription to those read by its worker, as declared by the
+ * {@link TaskVariables} annotation of the worker. Without it, every task is fetched with all variables of its process
+ * instance. Variable names already configured for the subscription are fetched as well.
+ *
+ * A worker without the annotation makes the application fail to start, rather than its tasks being fetched without the
+ * variables it reads.
+ */
+@Component
+public class VariableProjectionSubscriptionConfigurer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(VariableProjectionSubscriptionConfigurer.class);
+
+	private final CircuitBreakerAwareSubscriptionManager subscriptionManager;
+
+	VariableProjectionSubscriptionConfigurer(CircuitBreakerAwareSubscriptionManager subscriptionManager) {
+		this.subscriptionManager = subscriptionManager;
+	}
+
+	@Order(HIGHEST_PRECEDENCE + 1)
+	@EventListener
+	public void onSubscriptionInitialized(SubscriptionInitializedEvent event) {
+		if (!(event.getSource() instanceof final SpringTopicSubscriptionImpl subscription)) {
+			LOGGER.warn("Unable to apply variable projection to subscription of type {}", event.getSource().getClass().getName());
+			return;
+		}
+		if (!(subscription.getExternalTaskHandler() instanceof final AbstractTaskWorker worker)) {
+			LOGGER.warn("Fetching all variables for topic '{}', as its handler does not declare the variables it reads", subscription.getTopicName());
+			return;
+		}
+
+		final var configuration = subscription.getSubscriptionConfiguration();
+		final var variableNames = new LinkedHashSet<>(worker.getVariableNames());
+		ofNullable(configuration.getVariableNames()).ifPresent(variableNames::addAll);
+		configuration.setVariableNames(List.copyOf(variableNames));
+
+		// The projection is applied when the subscription is opened
+		subscriptionManager.reopen(subscription);
+		LOGGER.info("Fetching variables {} for topic '{}'", variableNames, subscription.getTopicName());
+	}
+}
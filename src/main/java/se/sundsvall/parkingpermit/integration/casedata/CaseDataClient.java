@@ -10,6 +10,7 @@ import generated.se.sundsvall.casedata.Note;
 import generated.se.sundsvall.casedata.PatchErrand;
 import generated.se.sundsvall.casedata.Stakeholder;
 import generated.se.sundsvall.casedata.Status;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import java.util.List;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -23,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import se.sundsvall.parkingpermit.integration.casedata.configuration.CaseDataConfiguration;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandSummary;
 
 import static org.springframework.http.MediaType.ALL_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
@@ -31,6 +33,7 @@ import static se.sundsvall.parkingpermit.integration.casedata.configuration.Case
 
 @FeignClient(name = CLIENT_ID, url = "${integration.casedata.url}", configuration = CaseDataConfiguration.class)
 @CircuitBreaker(name = CLIENT_ID)
+@Bulkhead(name = CLIENT_ID)
 public interface CaseDataClient {
 
 	/**
@@ -78,6 +81,19 @@ public interface CaseDataClient {
 		@PathVariable String namespace,
 		@PathVariable Long errandId);
 
+	/**
+	 * Gets a summary of an errand by id. The full errand is returned by CaseData, but only the attributes present in
+	 * {@link ErrandSummary} are decoded.
+	 *
+	 * @param  errandId                                     of errand to get
+	 * @throws se.sundsvall.dept44.problem.ThrowableProblem on error
+	 */
+	@GetMapping(path = "/{municipalityId}/{namespace}/errands/{errandId}", produces = APPLICATION_JSON_VALUE)
+	ErrandSummary getErrandSummaryById(
+		@PathVariable String municipalityId,
+		@PathVariable String namespace,
+		@PathVariable Long errandId);
+
 	/**
 	 * Gets attachment metadata by errand id. The metadata does not carry the binary content.
 	 *
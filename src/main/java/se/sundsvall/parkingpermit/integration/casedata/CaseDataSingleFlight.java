@@ -0,0 +1,124 @@
+package se.sundsvall.parkingpermit.integration.casedata;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Collapses identical concurrent reads from CaseData into one request, whose response is shared by every caller that
+ * asked for it while it was in flight. Nothing is kept once the request has completed, which bounds the staleness of a
+ * response to the duration of one request. A caller joining a request in flight still gets what CaseData returned to
+ * a request made before its call, which might miss a write that its own process made just before the call.
+ *
+ * A response shared by several callers is handed to each of them as a copy of its own, made by a json round trip, so
+ * that a caller modifying its response does not affect the others. A response that was not shared is returned as it is,
+ * without copying. A failed request fails all of its callers with the same exception. Requests are published as counters tagged with the operation, and whether the
+ * call was executed or collapsed into a request already in flight.
+ */
+@Component
+public class CaseDataSingleFlight {
+
+	static final String METRIC_CALLS = "parkingpermit.casedata.single-flight.calls";
+	static final String TAG_OPERATION = "operation";
+	static final String TAG_OUTCOME = "outcome";
+	static final String OUTCOME_EXECUTED = "executed";
+	static final String OUTCOME_COLLAPSED = "collapsed";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private final MeterRegistry meterRegistry;
+	private final Map<List<Object>, Flight> inFlight = new ConcurrentHashMap<>();
+
+	CaseDataSingleFlight(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Returns the response of the request in flight for the same operation and arguments, or executes the request when
+	 * there is none.
+	 *
+	 * @param  operation the name of the read, which together with the arguments identifies identical requests
+	 * @param  request   the read to execute when there is no identical request in flight
+	 * @param  type      the type of the response, used to copy a shared response for each of its callers
+	 * @param  arguments the arguments of the read
+	 * @return           the response of the request, or a copy of it when the response is shared
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String operation, Supplier<T> request, TypeReference<T> type, Object... arguments) {
+		final var key = Stream.concat(Stream.of(operation), Arrays.stream(arguments)).toList();
+		final var own = new Flight();
+		// Joining happens atomically with the removal below, which makes the number of joiners final once removed
+		final var flight = inFlight.compute(key, (k, existing) -> {
+			if (isNull(existing)) {
+				return own;
+			}
+			existing.joiners.incrementAndGet();
+			return existing;
+		});
+
+		if (flight != own) {
+			counter(operation, OUTCOME_COLLAPSED).increment();
+			return copy((T) await(flight.response), type);
+		}
+
+		counter(operation, OUTCOME_EXECUTED).increment();
+		final T response;
+		try {
+			response = request.get();
+		} catch (final RuntimeException | Error e) {
+			inFlight.remove(key, own);
+			own.response.completeExceptionally(e);
+			throw e;
+		}
+		inFlight.remove(key, own);
+		own.response.complete(response);
+
+		// The joiners copy the response while this caller uses it, so this caller needs a copy of its own as well
+		return own.joiners.get() == 0 ? response : copy(response, type);
+	}
+
+	private static <T> T copy(T response, TypeReference<T> type) {
+		return isNull(response) ? null : OBJECT_MAPPER.readValue(OBJECT_MAPPER.writeValueAsBytes(response), type);
+	}
+
+	private static Object await(CompletableFuture<Object> future) {
+		try {
+			return future.join();
+		} catch (final CompletionException e) {
+			// Rethrow what the request threw, for callers to handle it as if they had made the request themselves
+			if (e.getCause() instanceof final RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof final Error cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private Counter counter(String operation, String outcome) {
+		return Counter.builder(METRIC_CALLS)
+			.tag(TAG_OPERATION, operation)
+			.tag(TAG_OUTCOME, outcome)
+			.register(meterRegistry);
+	}
+
+	private static final class Flight {
+
+		private final CompletableFuture<Object> response = new CompletableFuture<>();
+		private final AtomicInteger joiners = new AtomicInteger();
+	}
+}
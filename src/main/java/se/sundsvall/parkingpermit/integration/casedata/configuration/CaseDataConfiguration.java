@@ -3,10 +3,11 @@ package se.sundsvall.parkingpermit.integration.casedata.configuration;
 import org.springframework.cloud.openfeign.FeignBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
-import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import se.sundsvall.dept44.configuration.feign.FeignConfiguration;
 import se.sundsvall.dept44.configuration.feign.FeignMultiCustomizer;
 import se.sundsvall.dept44.configuration.feign.decoder.ProblemErrorDecoder;
+import se.sundsvall.parkingpermit.integration.http.PooledHttpClientFactory;
+import se.sundsvall.parkingpermit.integration.oauth2.OAuth2TokenManager;
 
 @Import(FeignConfiguration.class)
 public class CaseDataConfiguration {
@@ -14,11 +15,14 @@ public class CaseDataConfiguration {
 	public static final String CLIENT_ID = "casedata";
 
 	@Bean
-	FeignBuilderCustomizer feignBuilderCustomizer(ClientRegistrationRepository clientRepository, CaseDataProperties caseDataProperties) {
+	FeignBuilderCustomizer feignBuilderCustomizer(OAuth2TokenManager oAuth2TokenManager, CaseDataProperties caseDataProperties, PooledHttpClientFactory pooledHttpClientFactory) {
+		final var client = pooledHttpClientFactory.create(CLIENT_ID, caseDataProperties.pool());
+
 		return FeignMultiCustomizer.create()
 			.withErrorDecoder(new ProblemErrorDecoder(CLIENT_ID))
 			.withRequestTimeoutsInSeconds(caseDataProperties.connectTimeout(), caseDataProperties.readTimeout())
-			.withRetryableOAuth2InterceptorForClientRegistration(clientRepository.findByRegistrationId(CLIENT_ID))
+			.withCustomizer(builder -> oAuth2TokenManager.customize(CLIENT_ID, builder))
+			.withCustomizer(builder -> builder.client(client))
 			.composeCustomizersToOne();
 	}
 }
@@ -1,6 +1,8 @@
 package se.sundsvall.parkingpermit.integration.casedata.configuration;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import se.sundsvall.parkingpermit.integration.http.HttpClientPoolProperties;
 
 @ConfigurationProperties("integration.casedata")
-public record CaseDataProperties(int connectTimeout, int readTimeout) {}
+public record CaseDataProperties(int connectTimeout, int readTimeout, @DefaultValue HttpClientPoolProperties pool) {}
@@ -0,0 +1,22 @@
+package se.sundsvall.parkingpermit.integration.casedata.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import generated.se.sundsvall.casedata.ExtraParameter;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Lightweight projection of an errand, used by workers that only need a few top level attributes.
+ *
+ * Attributes not declared here (stakeholders, decisions with law items, notes, statuses etc.) are ignored by the
+ * parser, which skips over them in the token stream without building any objects for them.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ErrandSummary(Long id, String caseType, String phase, String externalCaseId, List<ExtraParameter> extraParameters) {
+
+	public ErrandSummary {
+		extraParameters = ofNullable(extraParameters).orElse(emptyList());
+	}
+}
@@ -0,0 +1,153 @@
+package se.sundsvall.parkingpermit.integration.casedata.model;
+
+import generated.se.sundsvall.casedata.Decision;
+import generated.se.sundsvall.casedata.Decision.DecisionTypeEnum;
+import generated.se.sundsvall.casedata.Errand;
+import generated.se.sundsvall.casedata.ExtraParameter;
+import generated.se.sundsvall.casedata.Stakeholder;
+import generated.se.sundsvall.casedata.Status;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Read only view of an errand, indexing extra parameters by key, stakeholders by role, decisions by type and statuses
+ * by type.
+ *
+ * The view is meant to be created once per fetched errand, after which each lookup is a hash lookup instead of a linear
+ * scan over the errand lists. When an errand holds several extra parameters with the same key the first one is indexed,
+ * which matches the previous stream based lookups. The view copies what it indexes into unmodifiable collections and
+ * does not expose the errand it was created from, so a change to that errand afterwards is not reflected in the view.
+ * Workers needing the errand itself, e.g. to map it to a request, keep the errand they fetched.
+ */
+public final class ErrandView {
+
+	private final Long id;
+	private final String errandNumber;
+	private final String namespace;
+	private final String externalCaseId;
+	private final String phase;
+	private final Map<String, List<String>> extraParameterValues;
+	private final Map<String, List<Stakeholder>> stakeholdersByRole;
+	private final Map<DecisionTypeEnum, List<Decision>> decisionsByType;
+	private final Set<String> statusTypes;
+
+	private ErrandView(Errand errand) {
+		Objects.requireNonNull(errand, "errand must not be null");
+		this.id = errand.getId();
+		this.errandNumber = errand.getErrandNumber();
+		this.namespace = errand.getNamespace();
+		this.externalCaseId = errand.getExternalCaseId();
+		this.phase = errand.getPhase();
+		this.extraParameterValues = indexExtraParameters(errand.getExtraParameters());
+		this.stakeholdersByRole = indexStakeholders(errand.getStakeholders());
+		this.decisionsByType = indexDecisions(errand.getDecisions());
+		this.statusTypes = indexStatuses(errand.getStatuses());
+	}
+
+	public static ErrandView of(Errand errand) {
+		return new ErrandView(errand);
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getErrandNumber() {
+		return errandNumber;
+	}
+
+	public String getNamespace() {
+		return namespace;
+	}
+
+	public String getExternalCaseId() {
+		return externalCaseId;
+	}
+
+	public String getPhase() {
+		return phase;
+	}
+
+	/**
+	 * Returns the values of the extra parameter matching the provided key, or an empty list if the parameter is absent or
+	 * holds no values.
+	 */
+	public List<String> getExtraParameterValues(String key) {
+		return extraParameterValues.getOrDefault(key, emptyList());
+	}
+
+	/**
+	 * Returns the first value of the extra parameter matching the provided key, or an empty optional if the parameter is
+	 * absent or holds no values.
+	 */
+	public Optional<String> findExtraParameterValue(String key) {
+		return getExtraParameterValues(key).stream().findFirst();
+	}
+
+	public List<Stakeholder> getStakeholders(String role) {
+		return stakeholdersByRole.getOrDefault(role, emptyList());
+	}
+
+	public Optional<Stakeholder> findStakeholder(String role) {
+		return getStakeholders(role).stream().findFirst();
+	}
+
+	public List<Decision> getDecisions(DecisionTypeEnum type) {
+		return decisionsByType.getOrDefault(type, emptyList());
+	}
+
+	public Optional<Decision> findDecision(DecisionTypeEnum type) {
+		return getDecisions(type).stream().findFirst();
+	}
+
+	public boolean hasStatus(String statusType) {
+		return statusTypes.contains(statusType);
+	}
+
+	private static Map<String, List<String>> indexExtraParameters(List<ExtraParameter> extraParameters) {
+		final var index = HashMap.<String, List<String>>newHashMap(ofNullable(extraParameters).map(List::size).orElse(0));
+		ofNullable(extraParameters).orElse(emptyList()).stream()
+			.filter(extraParameter -> Objects.nonNull(extraParameter.getKey()))
+			.forEach(extraParameter -> index.putIfAbsent(extraParameter.getKey(), ofNullable(extraParameter.getValues()).orElse(emptyList()).stream()
+				.filter(Objects::nonNull)
+				.toList()));
+		return unmodifiableMap(index);
+	}
+
+	private static Map<String, List<Stakeholder>> indexStakeholders(List<Stakeholder> stakeholders) {
+		final var index = new HashMap<String, List<Stakeholder>>();
+		ofNullable(stakeholders).orElse(emptyList())
+			.forEach(stakeholder -> ofNullable(stakeholder.getRoles()).orElse(emptyList()).stream()
+				.distinct()
+				.forEach(role -> index.computeIfAbsent(role, key -> new ArrayList<>()).add(stakeholder)));
+		index.replaceAll((key, list) -> List.copyOf(list));
+		return unmodifiableMap(index);
+	}
+
+	private static Map<DecisionTypeEnum, List<Decision>> indexDecisions(List<Decision> decisions) {
+		final var index = new EnumMap<DecisionTypeEnum, List<Decision>>(DecisionTypeEnum.class);
+		ofNullable(decisions).orElse(emptyList()).stream()
+			.filter(decision -> Objects.nonNull(decision.getDecisionType()))
+			.forEach(decision -> index.computeIfAbsent(decision.getDecisionType(), key -> new ArrayList<>()).add(decision));
+		index.replaceAll((key, list) -> List.copyOf(list));
+		return unmodifiableMap(index);
+	}
+
+	private static Set<String> indexStatuses(List<Status> statuses) {
+		return ofNullable(statuses).orElse(emptyList()).stream()
+			.map(Status::getStatusType)
+			.filter(Objects::nonNull)
+			.collect(Collectors.toUnmodifiableSet());
+	}
+}
@@ -1,6 +1,7 @@
 package se.sundsvall.parkingpermit.integration.citizen;
 
 import generated.se.sundsvall.citizen.CitizenExtended;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import java.util.Optional;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -13,6 +14,7 @@ import static se.sundsvall.parkingpermit.integration.citizen.configuration.Citiz
 
 @FeignClient(name = CLIENT_ID, url = "${integration.citizen.url}", configuration = CitizenConfiguration.class)
 @CircuitBreaker(name = CLIENT_ID)
+@Bulkhead(name = CLIENT_ID)
 public interface CitizenClient {
 
 	/**
@@ -3,10 +3,10 @@ package se.sundsvall.parkingpermit.integration.citizen.configuration;
 import org.springframework.cloud.openfeign.FeignBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
-import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import se.sundsvall.dept44.configuration.feign.FeignConfiguration;
 import se.sundsvall.dept44.configuration.feign.FeignMultiCustomizer;
 import se.sundsvall.dept44.configuration.feign.decoder.ProblemErrorDecoder;
+import se.sundsvall.parkingpermit.integration.oauth2.OAuth2TokenManager;
 
 @Import(FeignConfiguration.class)
 public class CitizenConfiguration {
@@ -14,11 +14,11 @@ public class CitizenConfiguration {
 	public static final String CLIENT_ID = "citizen";
 
 	@Bean
-	FeignBuilderCustomizer feignBuilderCustomizer(ClientRegistrationRepository clientRepository, CitizenProperties citizenProperties) {
+	FeignBuilderCustomizer feignBuilderCustomizer(OAuth2TokenManager oAuth2TokenManager, CitizenProperties citizenProperties) {
 		return FeignMultiCustomizer.create()
 			.withErrorDecoder(new ProblemErrorDecoder(CLIENT_ID))
 			.withRequestTimeoutsInSeconds(citizenProperties.connectTimeout(), citizenProperties.readTimeout())
-			.withRetryableOAuth2InterceptorForClientRegistration(clientRepository.findByRegistrationId(CLIENT_ID))
+			.withCustomizer(builder -> oAuth2TokenManager.customize(CLIENT_ID, builder))
 			.composeCustomizersToOne();
 	}
 }
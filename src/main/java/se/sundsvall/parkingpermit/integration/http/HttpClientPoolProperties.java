@@ -0,0 +1,28 @@
+package se.sundsvall.parkingpermit.integration.http;
+
+import java.time.Duration;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Settings for the pooled http client used by an integration.
+ *
+ * @param maxConnections maximum number of connections kept in the pool
+ * @param keepAlive      how long an idle connection may be reused before it is considered stale
+ * @param idleEviction   connections idle for longer than this are evicted by a background thread
+ * @param timeToLive     total time to live for a connection, regardless of activity
+ */
+public record HttpClientPoolProperties(int maxConnections, Duration keepAlive, Duration idleEviction, Duration timeToLive) {
+
+	private static final int DEFAULT_MAX_CONNECTIONS = 20;
+	private static final Duration DEFAULT_KEEP_ALIVE = Duration.ofSeconds(30);
+	private static final Duration DEFAULT_IDLE_EVICTION = Duration.ofSeconds(60);
+	private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+	public HttpClientPoolProperties {
+		maxConnections = maxConnections > 0 ? maxConnections : DEFAULT_MAX_CONNECTIONS;
+		keepAlive = ofNullable(keepAlive).orElse(DEFAULT_KEEP_ALIVE);
+		idleEviction = ofNullable(idleEviction).orElse(DEFAULT_IDLE_EVICTION);
+		timeToLive = ofNullable(timeToLive).orElse(DEFAULT_TIME_TO_LIVE);
+	}
+}
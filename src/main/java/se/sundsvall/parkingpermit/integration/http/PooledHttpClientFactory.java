@@ -0,0 +1,106 @@
+package se.sundsvall.parkingpermit.integration.http;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToDoubleFunction;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates Feign clients backed by a pooled Apache http client, keeping connections (and their TLS sessions) alive
+ * between calls instead of setting up a new connection per request. Each created pool publishes gauges for leased,
+ * pending and available connections tagged with the client id. Created http clients are closed when the application
+ * context shuts down.
+ *
+ * Content compression is kept enabled (the http client default), meaning that gzip and deflate are advertised in the
+ * Accept-Encoding header and compressed responses are transparently decompressed.
+ */
+@Component
+public class PooledHttpClientFactory implements DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PooledHttpClientFactory.class);
+
+	static final String METRIC_CONNECTIONS = "parkingpermit.http.pool.connections";
+	static final String METRIC_MAX_CONNECTIONS = "parkingpermit.http.pool.connections.max";
+	static final String TAG_CLIENT = "client";
+	static final String TAG_STATE = "state";
+
+	private final List<CloseableHttpClient> httpClients = new CopyOnWriteArrayList<>();
+
+	private final MeterRegistry meterRegistry;
+
+	PooledHttpClientFactory(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	public Client create(String clientId, HttpClientPoolProperties properties) {
+		final var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+			.setMaxConnTotal(properties.maxConnections())
+			.setMaxConnPerRoute(properties.maxConnections())
+			.setDefaultConnectionConfig(ConnectionConfig.custom()
+				.setTimeToLive(toTimeValue(properties.timeToLive().toMillis()))
+				.build())
+			.build();
+
+		final var httpClient = HttpClients.custom()
+			.setConnectionManager(connectionManager)
+			.setKeepAliveStrategy((response, context) -> toTimeValue(properties.keepAlive().toMillis()))
+			.evictIdleConnections(toTimeValue(properties.idleEviction().toMillis()))
+			.evictExpiredConnections()
+			.build();
+
+		httpClients.add(httpClient);
+		bindMetrics(clientId, connectionManager);
+
+		return new ApacheHttp5Client(httpClient);
+	}
+
+	@Override
+	public void destroy() {
+		httpClients.forEach(httpClient -> {
+			try {
+				httpClient.close();
+			} catch (final IOException e) {
+				LOGGER.warn("Failed to close pooled http client", e);
+			}
+		});
+	}
+
+	private void bindMetrics(String clientId, PoolingHttpClientConnectionManager connectionManager) {
+		gauge(METRIC_CONNECTIONS, clientId, "leased", connectionManager, manager -> stats(manager).getLeased());
+		gauge(METRIC_CONNECTIONS, clientId, "pending", connectionManager, manager -> stats(manager).getPending());
+		gauge(METRIC_CONNECTIONS, clientId, "available", connectionManager, manager -> stats(manager).getAvailable());
+		Gauge.builder(METRIC_MAX_CONNECTIONS, connectionManager, manager -> stats(manager).getMax())
+			.tag(TAG_CLIENT, clientId)
+			.register(meterRegistry);
+	}
+
+	private void gauge(String name, String clientId, String state, PoolingHttpClientConnectionManager connectionManager, ToDoubleFunction<PoolingHttpClientConnectionManager> function) {
+		Gauge.builder(name, connectionManager, function)
+			.tag(TAG_CLIENT, clientId)
+			.tag(TAG_STATE, state)
+			.register(meterRegistry);
+	}
+
+	private static PoolStats stats(PoolingHttpClientConnectionManager connectionManager) {
+		return connectionManager.getTotalStats();
+	}
+
+	private static TimeValue toTimeValue(long milliseconds) {
+		return TimeValue.ofMilliseconds(milliseconds);
+	}
+}
@@ -0,0 +1,128 @@
+package se.sundsvall.parkingpermit.integration.messaging.mapper;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Component;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.parkingpermit.util.ApprovalTextProperties;
+import se.sundsvall.parkingpermit.util.CommonTextProperties;
+import se.sundsvall.parkingpermit.util.DenialTextProperties;
+import se.sundsvall.parkingpermit.util.SimplifiedServiceTextProperties;
+import se.sundsvall.parkingpermit.util.TextProperties;
+
+import static java.nio.charset.Charset.defaultCharset;
+import static java.util.Objects.isNull;
+import static java.util.Optional.ofNullable;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+/**
+ * Immutable snapshot of the configured texts, per municipality, in the form they are sent to Messaging. The snapshot is
+ * taken once when the application starts, which means that the html bodies are base64 encoded once instead of once per
+ * sent message.
+ */
+@Component
+public class MessageTemplates {
+
+	private final Map<String, Template> templates;
+
+	MessageTemplates(final TextProperties textProperties) {
+		final var municipalityIds = new HashSet<String>();
+		Stream.of(textProperties.getApprovals(), textProperties.getCommons(), textProperties.getDenials(), textProperties.getSimplifiedServices())
+			.map(texts -> ofNullable(texts).map(Map::keySet).orElse(Set.of()))
+			.forEach(municipalityIds::addAll);
+
+		final var snapshot = new HashMap<String, Template>();
+		municipalityIds.forEach(municipalityId -> snapshot.put(municipalityId, Template.of(municipalityId,
+			get(textProperties.getCommons(), municipalityId),
+			get(textProperties.getApprovals(), municipalityId),
+			get(textProperties.getDenials(), municipalityId),
+			get(textProperties.getSimplifiedServices(), municipalityId))));
+		this.templates = Map.copyOf(snapshot);
+	}
+
+	/**
+	 * Returns the template of the municipality, or throws a problem if no texts are configured for the municipality.
+	 */
+	public Template get(final String municipalityId) {
+		return ofNullable(municipalityId)
+			.map(templates::get)
+			.orElseThrow(() -> Problem.valueOf(INTERNAL_SERVER_ERROR, "No message texts are configured for municipality '%s'".formatted(municipalityId)));
+	}
+
+	private static <T> T get(final Map<String, T> texts, final String municipalityId) {
+		return isNull(texts) ? null : texts.get(municipalityId);
+	}
+
+	/**
+	 * The texts of a municipality. Reading a text type that is not configured for the municipality, or the common texts if
+	 * those are not configured, throws a problem naming what is missing.
+	 */
+	public record Template(String municipalityId, Common common, Text approval, Text denial, Text simplifiedService) {
+
+		static Template of(final String municipalityId, final CommonTextProperties common, final ApprovalTextProperties approval, final DenialTextProperties denial,
+			final SimplifiedServiceTextProperties simplifiedService) {
+			return new Template(
+				municipalityId,
+				isNull(common) ? null : new Common(common.getDepartment(), common.getFilename(),
+					new SupportInfo(common.getContactInfoEmail(), common.getContactInfoPhonenumber(), common.getContactInfoText(), common.getContactInfoUrl())),
+				isNull(approval) ? null : new Text(approval.getSubject(), null, encode(approval.getHtmlBody())),
+				isNull(denial) ? null : new Text(denial.getSubject(), denial.getMessage(), encode(denial.getHtmlBody())),
+				// The plain body is what is sent as message when the simplified service is delivered as a web message
+				isNull(simplifiedService) ? null : new Text(simplifiedService.getSubject(), simplifiedService.getPlainBody(), encode(simplifiedService.getHtmlBody())));
+		}
+
+		@Override
+		public Common common() {
+			return require(common, "common");
+		}
+
+		@Override
+		public Text approval() {
+			return require(approval, "approval");
+		}
+
+		@Override
+		public Text denial() {
+			return require(denial, "denial");
+		}
+
+		@Override
+		public Text simplifiedService() {
+			return require(simplifiedService, "simplified service");
+		}
+
+		public String department() {
+			return common().department();
+		}
+
+		public String filename() {
+			return common().filename();
+		}
+
+		public SupportInfo supportInfo() {
+			return common().supportInfo();
+		}
+
+		private <T> T require(final T texts, final String textType) {
+			return ofNullable(texts)
+				.orElseThrow(() -> Problem.valueOf(INTERNAL_SERVER_ERROR, "No %s texts are configured for municipality '%s'".formatted(textType, municipalityId)));
+		}
+
+		private static String encode(final String htmlBody) {
+			return isNull(htmlBody) ? null : Base64.getEncoder().encodeToString(htmlBody.getBytes(defaultCharset()));
+		}
+	}
+
+	public record Common(String department, String filename, SupportInfo supportInfo) {
+	}
+
+	public record SupportInfo(String emailAddress, String phoneNumber, String text, String url) {
+	}
+
+	public record Text(String subject, String message, String encodedHtmlBody) {
+	}
+}
@@ -16,32 +16,33 @@ import generated.se.sundsvall.messaging.WebMessageAttachment;
 import generated.se.sundsvall.messaging.WebMessageParty;
 import generated.se.sundsvall.messaging.WebMessageRequest;
 import generated.se.sundsvall.templating.RenderResponse;
-import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
-import se.sundsvall.parkingpermit.util.TextProvider;
+import se.sundsvall.parkingpermit.integration.messaging.mapper.MessageTemplates.SupportInfo;
+import se.sundsvall.parkingpermit.integration.messaging.mapper.MessageTemplates.Template;
 
 import static generated.se.sundsvall.messaging.LetterAttachment.ContentTypeEnum.APPLICATION_PDF;
 import static generated.se.sundsvall.messaging.LetterAttachment.DeliveryModeEnum.ANY;
 import static generated.se.sundsvall.messaging.LetterRequest.ContentTypeEnum.TEXT_HTML;
 import static generated.se.sundsvall.messaging.WebMessageRequest.OepInstanceEnum.EXTERNAL;
-import static java.nio.charset.Charset.defaultCharset;
 import static se.sundsvall.parkingpermit.Constants.MESSAGING_KEY_FLOW_INSTANCE_ID;
 
 @Service
 public class MessagingMapper {
 
-	private final TextProvider textProvider;
+	private final MessageTemplates messageTemplates;
 
-	MessagingMapper(TextProvider textProvider) {
-		this.textProvider = textProvider;
+	MessagingMapper(MessageTemplates messageTemplates) {
+		this.messageTemplates = messageTemplates;
 	}
 
 	public WebMessageRequest toWebMessageRequestDenial(RenderResponse renderResponse, String partyId, String externalCaseId, String municipalityId) {
+		final var template = messageTemplates.get(municipalityId);
+
 		return new WebMessageRequest()
-			.addAttachmentsItem(toWebMessageAttachment(renderResponse, municipalityId))
-			.message(textProvider.getDenialTexts(municipalityId).getMessage())
+			.addAttachmentsItem(toWebMessageAttachment(renderResponse, template))
+			.message(template.denial().message())
 			.oepInstance(EXTERNAL)
 			.party(new WebMessageParty()
 				.partyId(UUID.fromString(partyId))
@@ -50,7 +51,7 @@ public class MessagingMapper {
 
 	public WebMessageRequest toWebMessageRequestDecision(RenderResponse renderResponse, String partyId, String externalCaseId, String municipalityId, Decision decision) {
 		return new WebMessageRequest()
-			.addAttachmentsItem(toWebMessageAttachment(renderResponse, municipalityId))
+			.addAttachmentsItem(toWebMessageAttachment(renderResponse, messageTemplates.get(municipalityId)))
 			.message(decision.getDescription())
 			.oepInstance(EXTERNAL)
 			.party(new WebMessageParty()
@@ -60,7 +61,7 @@ public class MessagingMapper {
 
 	public WebMessageRequest toWebMessageRequestSimplifiedService(String partyId, String externalCaseId, String municipalityId) {
 		return new WebMessageRequest()
-			.message(textProvider.getSimplifiedServiceTexts(municipalityId).getPlainBody())
+			.message(messageTemplates.get(municipalityId).simplifiedService().message())
 			.attachments(null)
 			.oepInstance(EXTERNAL)
 			.party(new WebMessageParty()
@@ -68,92 +69,93 @@ public class MessagingMapper {
 				.addExternalReferencesItem(new ExternalReference().key(MESSAGING_KEY_FLOW_INSTANCE_ID).value(externalCaseId)));
 	}
 
-	private WebMessageAttachment toWebMessageAttachment(RenderResponse renderResponse, String municipalityId) {
+	private WebMessageAttachment toWebMessageAttachment(RenderResponse renderResponse, Template template) {
 		return new WebMessageAttachment()
 			.base64Data(renderResponse.getOutput())
-			.fileName(textProvider.getCommonTexts(municipalityId).getFilename())
+			.fileName(template.filename())
 			.mimeType(APPLICATION_PDF.getValue());
 	}
 
 	public LetterRequest toLetterRequestDenial(RenderResponse renderResponse, String partyId, String municipalityId) {
+		final var template = messageTemplates.get(municipalityId);
+
 		return new LetterRequest()
-			.addAttachmentsItem(toLetterAttachment(renderResponse, municipalityId))
-			.body(Base64.getEncoder().encodeToString(textProvider.getDenialTexts(municipalityId).getHtmlBody().getBytes(defaultCharset())))
+			.addAttachmentsItem(toLetterAttachment(renderResponse, template))
+			.body(template.denial().encodedHtmlBody())
 			.contentType(TEXT_HTML)
-			.department(textProvider.getCommonTexts(municipalityId).getDepartment())
+			.department(template.department())
 			.party(new LetterParty().addPartyIdsItem(UUID.fromString(partyId)))
-			.sender(toLetterSender(municipalityId))
-			.subject(textProvider.getDenialTexts(municipalityId).getSubject());
+			.sender(toLetterSender(template))
+			.subject(template.denial().subject());
 	}
 
 	public LetterRequest toLetterRequestSimplifiedService(String partyId, String municipalityId, List<LetterAttachment> attachments) {
+		final var template = messageTemplates.get(municipalityId);
+
 		return new LetterRequest()
-			.body(Base64.getEncoder().encodeToString(textProvider.getSimplifiedServiceTexts(municipalityId).getHtmlBody().getBytes(defaultCharset())))
+			.body(template.simplifiedService().encodedHtmlBody())
 			.contentType(TEXT_HTML)
-			.department(textProvider.getCommonTexts(municipalityId).getDepartment())
+			.department(template.department())
 			.party(new LetterParty().addPartyIdsItem(UUID.fromString(partyId)))
-			.sender(toLetterSender(municipalityId))
-			.subject(textProvider.getSimplifiedServiceTexts(municipalityId).getSubject())
+			.sender(toLetterSender(template))
+			.subject(template.simplifiedService().subject())
 			.attachments(attachments);
 	}
 
 	public DigitalMailRequest toDigitalMailRequestSimplifiedService(String partyId, String municipalityId) {
+		final var template = messageTemplates.get(municipalityId);
+
 		return new DigitalMailRequest()
-			.body(Base64.getEncoder().encodeToString(textProvider.getSimplifiedServiceTexts(municipalityId).getHtmlBody().getBytes(defaultCharset())))
+			.body(template.simplifiedService().encodedHtmlBody())
 			.contentType(DigitalMailRequest.ContentTypeEnum.TEXT_HTML)
-			.department(textProvider.getCommonTexts(municipalityId).getDepartment())
+			.department(template.department())
 			.party(new DigitalMailParty().addPartyIdsItem(UUID.fromString(partyId)))
-			.sender(toDigitalMailSender(municipalityId))
-			.subject(textProvider.getSimplifiedServiceTexts(municipalityId).getSubject())
+			.sender(toDigitalMailSender(template))
+			.subject(template.simplifiedService().subject())
 			.attachments(null);
 	}
 
 	public DigitalMailRequest toDigitalMailRequest(RenderResponse renderResponse, String partyId, String municipalityId, boolean isApproval) {
-		final var htmlBody = isApproval
-			? textProvider.getApprovalTexts(municipalityId).getHtmlBody()
-			: textProvider.getDenialTexts(municipalityId).getHtmlBody();
-		final var subject = isApproval
-			? textProvider.getApprovalTexts(municipalityId).getSubject()
-			: textProvider.getDenialTexts(municipalityId).getSubject();
-		final var filename = textProvider.getCommonTexts(municipalityId).getFilename();
+		final var template = messageTemplates.get(municipalityId);
+		final var text = isApproval ? template.approval() : template.denial();
 
 		return new DigitalMailRequest()
-			.addAttachmentsItem(toDigitalMailAttachment(renderResponse, filename))
-			.body(Base64.getEncoder().encodeToString(htmlBody.getBytes(defaultCharset())))
+			.addAttachmentsItem(toDigitalMailAttachment(renderResponse, template.filename()))
+			.body(text.encodedHtmlBody())
 			.contentType(DigitalMailRequest.ContentTypeEnum.TEXT_HTML)
-			.department(textProvider.getCommonTexts(municipalityId).getDepartment())
+			.department(template.department())
 			.party(new DigitalMailParty().addPartyIdsItem(UUID.fromString(partyId)))
-			.sender(toDigitalMailSender(municipalityId))
-			.subject(subject);
+			.sender(toDigitalMailSender(template))
+			.subject(text.subject());
 	}
 
-	private LetterSender toLetterSender(String municipalityId) {
+	private LetterSender toLetterSender(Template template) {
 		return new LetterSender()
-			.supportInfo(toLetterSenderSupportInfo(municipalityId));
+			.supportInfo(toLetterSenderSupportInfo(template.supportInfo()));
 	}
 
-	private LetterSenderSupportInfo toLetterSenderSupportInfo(String municipalityId) {
+	private LetterSenderSupportInfo toLetterSenderSupportInfo(SupportInfo supportInfo) {
 		return new LetterSenderSupportInfo()
-			.emailAddress(textProvider.getCommonTexts(municipalityId).getContactInfoEmail())
-			.phoneNumber(textProvider.getCommonTexts(municipalityId).getContactInfoPhonenumber())
-			.text(textProvider.getCommonTexts(municipalityId).getContactInfoText())
-			.url(textProvider.getCommonTexts(municipalityId).getContactInfoUrl());
+			.emailAddress(supportInfo.emailAddress())
+			.phoneNumber(supportInfo.phoneNumber())
+			.text(supportInfo.text())
+			.url(supportInfo.url());
 	}
 
-	private DigitalMailSenderSupportInfo toDigitalMailSenderSupportInfo(String municipalityId) {
+	private DigitalMailSenderSupportInfo toDigitalMailSenderSupportInfo(SupportInfo supportInfo) {
 		return new DigitalMailSenderSupportInfo()
-			.emailAddress(textProvider.getCommonTexts(municipalityId).getContactInfoEmail())
-			.phoneNumber(textProvider.getCommonTexts(municipalityId).getContactInfoPhonenumber())
-			.text(textProvider.getCommonTexts(municipalityId).getContactInfoText())
-			.url(textProvider.getCommonTexts(municipalityId).getContactInfoUrl());
+			.emailAddress(supportInfo.emailAddress())
+			.phoneNumber(supportInfo.phoneNumber())
+			.text(supportInfo.text())
+			.url(supportInfo.url());
 	}
 
-	private LetterAttachment toLetterAttachment(RenderResponse renderResponse, String municipalityId) {
+	private LetterAttachment toLetterAttachment(RenderResponse renderResponse, Template template) {
 		return new LetterAttachment()
 			.content(renderResponse.getOutput())
 			.contentType(APPLICATION_PDF)
 			.deliveryMode(ANY)
-			.filename(textProvider.getCommonTexts(municipalityId).getFilename());
+			.filename(template.filename());
 	}
 
 	private DigitalMailAttachment toDigitalMailAttachment(RenderResponse renderResponse, String filename) {
@@ -163,8 +165,8 @@ public class MessagingMapper {
 			.filename(filename);
 	}
 
-	private DigitalMailSender toDigitalMailSender(String municipalityId) {
+	private DigitalMailSender toDigitalMailSender(Template template) {
 		return new DigitalMailSender()
-			.supportInfo(toDigitalMailSenderSupportInfo(municipalityId));
+			.supportInfo(toDigitalMailSenderSupportInfo(template.supportInfo()));
 	}
 }
@@ -0,0 +1,16 @@
+package se.sundsvall.parkingpermit.integration.oauth2;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.endpoint.RestClientClientCredentialsTokenResponseClient;
+
+@Configuration
+public class OAuth2TokenConfiguration {
+
+	@Bean
+	OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> clientCredentialsTokenResponseClient() {
+		return new RestClientClientCredentialsTokenResponseClient();
+	}
+}
@@ -0,0 +1,32 @@
+package se.sundsvall.parkingpermit.integration.oauth2;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+/**
+ * Adds a bearer token, served from the shared {@link OAuth2TokenManager}, to each request.
+ */
+public class OAuth2TokenInterceptor implements RequestInterceptor {
+
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private final OAuth2TokenManager tokenManager;
+	private final String registrationId;
+
+	OAuth2TokenInterceptor(OAuth2TokenManager tokenManager, String registrationId) {
+		this.tokenManager = tokenManager;
+		this.registrationId = registrationId;
+	}
+
+	@Override
+	public void apply(RequestTemplate template) {
+		template.removeHeader(AUTHORIZATION);
+		template.header(AUTHORIZATION, BEARER_PREFIX + tokenManager.getToken(registrationId));
+	}
+
+	public void removeToken() {
+		tokenManager.invalidate(registrationId);
+	}
+}
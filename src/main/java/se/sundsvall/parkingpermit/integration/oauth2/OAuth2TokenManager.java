@@ -0,0 +1,194 @@
+package se.sundsvall.parkingpermit.integration.oauth2;
+
+import feign.Feign;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.stereotype.Component;
+import se.sundsvall.dept44.configuration.feign.retryer.ActionRetryer;
+import se.sundsvall.dept44.problem.Problem;
+
+import static java.time.Duration.ZERO;
+import static java.util.Objects.isNull;
+import static java.util.Optional.ofNullable;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+/**
+ * Keeps one client credentials access token per OAuth2 client registration, shared by all threads using the
+ * corresponding integration.
+ *
+ * Tokens are read from a concurrent map without any locking. A background job refreshes tokens that are about to
+ * expire, which means a request only has to wait for the token endpoint when no valid token exists at all, i.e. before
+ * the first refresh has finished or after a token has been invalidated due to a 401 response. Tokens are fetched under
+ * a lock per client registration, so a slow token endpoint of one registration never holds back the others.
+ *
+ * The application scheduler only triggers the refresh. The refresh itself calls the token endpoints, which blocks, and
+ * runs on a thread of its own so that it never holds up other scheduled tasks. A trigger arriving while the previous
+ * refresh is still running is skipped.
+ */
+@Component
+public class OAuth2TokenManager implements SchedulingConfigurer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OAuth2TokenManager.class);
+
+	static final String METRIC_TOKEN_FETCH = "parkingpermit.oauth2.token.fetch";
+	static final String TAG_REGISTRATION = "registration";
+	static final String TAG_OUTCOME = "outcome";
+
+	private final Map<String, OAuth2AccessToken> tokens = new ConcurrentHashMap<>();
+	private final Set<String> registrationIds = ConcurrentHashMap.newKeySet();
+	private final Map<String, ReentrantLock> fetchLocks = new ConcurrentHashMap<>();
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+		.name("oauth2-token-refresh")
+		.daemon()
+		.factory());
+
+	private final ClientRegistrationRepository clientRegistrationRepository;
+	private final OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClient;
+	private final TokenManagerProperties properties;
+	private final MeterRegistry meterRegistry;
+
+	OAuth2TokenManager(ClientRegistrationRepository clientRegistrationRepository, OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClient,
+		TokenManagerProperties properties, MeterRegistry meterRegistry) {
+		this.clientRegistrationRepository = clientRegistrationRepository;
+		this.tokenResponseClient = tokenResponseClient;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Adds a request interceptor, using tokens from this manager, to the builder. A retryer that invalidates the token
+	 * and retries the request once is added as well, to recover from tokens that have been revoked before expiry.
+	 *
+	 * @param registrationId the id of the client registration to use
+	 * @param builder        the builder to customize
+	 */
+	public void customize(String registrationId, Feign.Builder builder) {
+		registrationIds.add(registrationId);
+
+		final var interceptor = new OAuth2TokenInterceptor(this, registrationId);
+		builder.requestInterceptor(interceptor);
+		builder.retryer(new ActionRetryer(interceptor::removeToken, 1));
+	}
+
+	public String getToken(String registrationId) {
+		final var token = tokens.get(registrationId);
+		if (isValid(token, Instant.now())) {
+			return token.getTokenValue();
+		}
+		return fetchToken(registrationId).getTokenValue();
+	}
+
+	public void invalidate(String registrationId) {
+		tokens.remove(registrationId);
+	}
+
+	/**
+	 * Schedules the refresh of tokens at the configured refresh interval, starting right away.
+	 */
+	@Override
+	public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+		taskRegistrar.addFixedDelayTask(new FixedDelayTask(this::triggerRefresh, properties.refreshInterval(), ZERO));
+	}
+
+	/**
+	 * Hands the refresh over to the refresh thread, unless the previous refresh is still running.
+	 */
+	void triggerRefresh() {
+		if (!refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			refreshExecutor.execute(() -> {
+				try {
+					refreshTokens();
+				} finally {
+					refreshing.set(false);
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			refreshing.set(false);
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		refreshExecutor.shutdownNow();
+	}
+
+	public void refreshTokens() {
+		final var refreshLimit = Instant.now().plus(properties.refreshBeforeExpiry());
+
+		registrationIds.stream()
+			.filter(registrationId -> !isValid(tokens.get(registrationId), refreshLimit))
+			.forEach(registrationId -> {
+				try {
+					fetchToken(registrationId);
+				} catch (final Exception e) {
+					// Current token (if any) is kept and the refresh is retried on next run
+					LOGGER.warn("Failed to refresh access token for client registration '{}'", registrationId, e);
+				}
+			});
+	}
+
+	private OAuth2AccessToken fetchToken(String registrationId) {
+		final var lock = fetchLocks.computeIfAbsent(registrationId, id -> new ReentrantLock());
+		lock.lock();
+		try {
+			// Another thread might have fetched a token while this thread was waiting for the lock
+			final var existing = tokens.get(registrationId);
+			if (isValid(existing, Instant.now().plus(properties.refreshBeforeExpiry()))) {
+				return existing;
+			}
+			return requestToken(registrationId);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private OAuth2AccessToken requestToken(String registrationId) {
+		final var clientRegistration = ofNullable(clientRegistrationRepository.findByRegistrationId(registrationId))
+			.orElseThrow(() -> Problem.valueOf(INTERNAL_SERVER_ERROR, "No client registration found for id: " + registrationId));
+
+		final var sample = Timer.start(meterRegistry);
+		try {
+			final var token = tokenResponseClient.getTokenResponse(new OAuth2ClientCredentialsGrantRequest(clientRegistration)).getAccessToken();
+			sample.stop(timer(registrationId, "success"));
+			tokens.put(registrationId, token);
+			return token;
+		} catch (final RuntimeException e) {
+			sample.stop(timer(registrationId, "failure"));
+			throw e;
+		}
+	}
+
+	private Timer timer(String registrationId, String outcome) {
+		return Timer.builder(METRIC_TOKEN_FETCH)
+			.tag(TAG_REGISTRATION, registrationId)
+			.tag(TAG_OUTCOME, outcome)
+			.register(meterRegistry);
+	}
+
+	private static boolean isValid(OAuth2AccessToken token, Instant instant) {
+		return !isNull(token) && (isNull(token.getExpiresAt()) || token.getExpiresAt().isAfter(instant));
+	}
+}
@@ -0,0 +1,24 @@
+package se.sundsvall.parkingpermit.integration.oauth2;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Settings for the proactive refresh of OAuth2 access tokens.
+ *
+ * @param refreshBeforeExpiry tokens that expire within this period are refreshed by the background scheduler
+ * @param refreshInterval     how often the background scheduler checks for tokens to refresh
+ */
+@ConfigurationProperties("integration.oauth2.token-manager")
+public record TokenManagerProperties(Duration refreshBeforeExpiry, Duration refreshInterval) {
+
+	private static final Duration DEFAULT_REFRESH_BEFORE_EXPIRY = Duration.ofMinutes(2);
+	private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(15);
+
+	public TokenManagerProperties {
+		refreshBeforeExpiry = ofNullable(refreshBeforeExpiry).orElse(DEFAULT_REFRESH_BEFORE_EXPIRY);
+		refreshInterval = ofNullable(refreshInterval).orElse(DEFAULT_REFRESH_INTERVAL);
+	}
+}
@@ -0,0 +1,32 @@
+package se.sundsvall.parkingpermit.integration.partyassets.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Settings for the cache of party asset lookups.
+ *
+ * @param timeToLive how long a lookup is kept, zero disables the cache. Invalidation on writes is local to each replica,
+ *                   which makes this the time until assets written by other replicas or other services are seen
+ * @param maxSize    the number of lookups kept, where the least recently used lookup is evicted first
+ */
+@ConfigurationProperties("integration.partyassets.cache")
+public record PartyAssetsCacheProperties(Duration timeToLive, Integer maxSize) {
+
+	private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(1);
+	private static final int DEFAULT_MAX_SIZE = 1000;
+
+	public PartyAssetsCacheProperties {
+		timeToLive = ofNullable(timeToLive).orElse(DEFAULT_TIME_TO_LIVE);
+		maxSize = ofNullable(maxSize).orElse(DEFAULT_MAX_SIZE);
+
+		if (timeToLive.isNegative()) {
+			throw new IllegalArgumentException("Cache time to live must not be negative");
+		}
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache max size must be at least 1");
+		}
+	}
+}
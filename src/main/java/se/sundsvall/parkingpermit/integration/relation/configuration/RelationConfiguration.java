@@ -4,10 +4,10 @@ import java.util.List;
 import org.springframework.cloud.openfeign.FeignBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
-import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import se.sundsvall.dept44.configuration.feign.FeignConfiguration;
 import se.sundsvall.dept44.configuration.feign.FeignMultiCustomizer;
 import se.sundsvall.dept44.configuration.feign.decoder.ProblemErrorDecoder;
+import se.sundsvall.parkingpermit.integration.oauth2.OAuth2TokenManager;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
@@ -17,11 +17,11 @@ public class RelationConfiguration {
 	public static final String CLIENT_ID = "relation";
 
 	@Bean
-	FeignBuilderCustomizer feignBuilderCustomizer(final ClientRegistrationRepository clientRepository, final RelationProperties relationProperties) {
+	FeignBuilderCustomizer feignBuilderCustomizer(final OAuth2TokenManager oAuth2TokenManager, final RelationProperties relationProperties) {
 		return FeignMultiCustomizer.create()
 			.withErrorDecoder(new ProblemErrorDecoder(CLIENT_ID, List.of(NOT_FOUND.value())))
 			.withRequestTimeoutsInSeconds(relationProperties.connectTimeout(), relationProperties.readTimeout())
-			.withRetryableOAuth2InterceptorForClientRegistration(clientRepository.findByRegistrationId(CLIENT_ID))
+			.withCustomizer(builder -> oAuth2TokenManager.customize(CLIENT_ID, builder))
 			.composeCustomizersToOne();
 	}
 }
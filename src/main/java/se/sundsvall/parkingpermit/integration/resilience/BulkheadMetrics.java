@@ -0,0 +1,39 @@
+package se.sundsvall.parkingpermit.integration.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the calls rejected by the bulkheads guarding the integration clients. Each bulkhead present in the registry,
+ * as well as each bulkhead added to it later on, gets a counter of its own.
+ *
+ * The available and maximum concurrent calls of each bulkhead are already published by resilience4j as
+ * resilience4j.bulkhead.available.concurrent.calls and resilience4j.bulkhead.max.allowed.concurrent.calls, which have
+ * no counterpart for rejected calls.
+ */
+@Component
+public class BulkheadMetrics {
+
+	static final String METRIC_REJECTED_CALLS = "parkingpermit.bulkhead.calls.rejected";
+	static final String TAG_NAME = "name";
+
+	private final MeterRegistry meterRegistry;
+
+	BulkheadMetrics(BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+
+		bulkheadRegistry.getAllBulkheads().forEach(this::bind);
+		bulkheadRegistry.getEventPublisher().onEntryAdded(event -> bind(event.getAddedEntry()));
+	}
+
+	private void bind(Bulkhead bulkhead) {
+		final var rejected = Counter.builder(METRIC_REJECTED_CALLS)
+			.tag(TAG_NAME, bulkhead.getName())
+			.register(meterRegistry);
+
+		bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+	}
+}
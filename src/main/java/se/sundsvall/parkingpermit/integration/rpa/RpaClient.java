@@ -1,7 +1,10 @@
 package se.sundsvall.parkingpermit.integration.rpa;
 
+import generated.se.sundsvall.rpa.BulkOperationResponseDtoOfFailedQueueItemDto;
 import generated.se.sundsvall.rpa.QueueItemDto;
 import generated.se.sundsvall.rpa.QueuesAddQueueItemParameters;
+import generated.se.sundsvall.rpa.QueuesBulkAddQueueItemsParameters;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,8 +17,12 @@ import static se.sundsvall.parkingpermit.integration.rpa.configuration.RpaConfig
 
 @FeignClient(name = CLIENT_ID, url = "${integration.rpa.url}", configuration = RpaConfiguration.class)
 @CircuitBreaker(name = CLIENT_ID)
+@Bulkhead(name = CLIENT_ID)
 public interface RpaClient {
 
 	@PostMapping(path = "/odata/Queues/UiPathODataSvc.AddQueueItem", produces = APPLICATION_JSON_VALUE, consumes = APPLICATION_JSON_VALUE)
 	QueueItemDto addQueueItem(@RequestHeader("X-UIPATH-OrganizationUnitId") String folderId, @RequestBody QueuesAddQueueItemParameters queueItem);
+
+	@PostMapping(path = "/odata/Queues/UiPathODataSvc.BulkAddQueueItems", produces = APPLICATION_JSON_VALUE, consumes = APPLICATION_JSON_VALUE)
+	BulkOperationResponseDtoOfFailedQueueItemDto bulkAddQueueItems(@RequestHeader("X-UIPATH-OrganizationUnitId") String folderId, @RequestBody QueuesBulkAddQueueItemsParameters queueItems);
 }
@@ -0,0 +1,37 @@
+package se.sundsvall.parkingpermit.integration.rpa.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Settings for the coalescing of queue items into bulk calls to Orchestrator.
+ *
+ * @param window      how long a batch collects items after its first item before it is sent
+ * @param maxSize     the number of items that makes a batch be sent before its window has passed
+ * @param concurrency the number of threads sending batches and running the callbacks of their items
+ */
+@ConfigurationProperties("integration.rpa.batch")
+public record RpaBatchProperties(Duration window, Integer maxSize, Integer concurrency) {
+
+	private static final Duration DEFAULT_WINDOW = Duration.ofMillis(500);
+	private static final int DEFAULT_MAX_SIZE = 100;
+	private static final int DEFAULT_CONCURRENCY = 2;
+
+	public RpaBatchProperties {
+		window = ofNullable(window).orElse(DEFAULT_WINDOW);
+		maxSize = ofNullable(maxSize).orElse(DEFAULT_MAX_SIZE);
+		concurrency = ofNullable(concurrency).orElse(DEFAULT_CONCURRENCY);
+
+		if (window.isNegative()) {
+			throw new IllegalArgumentException("Batch window must not be negative");
+		}
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Batch max size must be at least 1");
+		}
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("Batch concurrency must be at least 1");
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package se.sundsvall.parkingpermit.service;
+
+import generated.se.sundsvall.partyassets.Asset;
+import generated.se.sundsvall.partyassets.AssetJsonParameter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import se.sundsvall.parkingpermit.integration.partyassets.configuration.PartyAssetsCacheProperties;
+
+import static java.util.Collections.emptyList;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Bounded cache of asset lookups, keyed by municipality, party, status and (optionally) asset id.
+ *
+ * Lookups expire after the configured time to live, and the least recently used lookup is evicted when the cache is
+ * full. Writes through {@link PartyAssetsService} invalidate the lookups of the affected party in this replica only, so
+ * writes made by other replicas or outside of the service are seen first when the cached lookup has expired. A lookup
+ * that was loaded while the cache was invalidated is not stored, as it might have been read before the write. Hits,
+ * misses, evictions, invalidations and the size are published as metrics.
+ *
+ * Every caller gets assets of its own, copied from the cached ones, which keeps a caller modifying its assets from
+ * changing the lookups of others.
+ */
+final class PartyAssetsCache {
+
+	static final String METRIC_GETS = "parkingpermit.partyassets.cache.gets";
+	static final String METRIC_EVICTIONS = "parkingpermit.partyassets.cache.evictions";
+	static final String METRIC_INVALIDATIONS = "parkingpermit.partyassets.cache.invalidations";
+	static final String METRIC_SIZE = "parkingpermit.partyassets.cache.size";
+	static final String TAG_RESULT = "result";
+
+	private final PartyAssetsCacheProperties properties;
+	private final Clock clock;
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Counter hits;
+	private final Counter misses;
+	private final Counter evictions;
+	private final Counter invalidations;
+
+	private long generation;
+
+	PartyAssetsCache(PartyAssetsCacheProperties properties, MeterRegistry meterRegistry, Clock clock) {
+		this.properties = properties;
+		this.clock = clock;
+		this.hits = Counter.builder(METRIC_GETS).tag(TAG_RESULT, "hit").register(meterRegistry);
+		this.misses = Counter.builder(METRIC_GETS).tag(TAG_RESULT, "miss").register(meterRegistry);
+		this.evictions = Counter.builder(METRIC_EVICTIONS).register(meterRegistry);
+		this.invalidations = Counter.builder(METRIC_INVALIDATIONS).register(meterRegistry);
+		Gauge.builder(METRIC_SIZE, this, PartyAssetsCache::size).register(meterRegistry);
+	}
+
+	List<Asset> get(Key key, Supplier<List<Asset>> loader) {
+		final long loadedGeneration;
+		synchronized (this) {
+			final var entry = entries.get(key);
+			if (entry != null && clock.instant().isBefore(entry.expires())) {
+				hits.increment();
+				return copyOf(entry.assets());
+			}
+			entries.remove(key);
+			loadedGeneration = generation;
+		}
+
+		misses.increment();
+		final var assets = List.copyOf(ofNullable(loader.get()).orElse(emptyList()));
+
+		synchronized (this) {
+			if (loadedGeneration == generation && properties.timeToLive().isPositive()) {
+				entries.put(key, new Entry(copyOf(assets), clock.instant().plus(properties.timeToLive())));
+				evictOverflow();
+			}
+		}
+		return assets;
+	}
+
+	synchronized void invalidateParty(String municipalityId, String partyId) {
+		generation++;
+		invalidations.increment();
+		entries.keySet().removeIf(key -> Objects.equals(key.municipalityId(), municipalityId) && Objects.equals(key.partyId(), partyId));
+	}
+
+	/**
+	 * Invalidates the lookups of the party owning the asset. Lookups of the party might not hold the asset (e.g. a lookup
+	 * of blocked assets before the asset is blocked), hence all lookups of the municipality are invalidated when no cached
+	 * lookup reveals the owner.
+	 */
+	synchronized void invalidateAsset(String municipalityId, String id) {
+		generation++;
+		invalidations.increment();
+		final Set<String> partyIds = entries.entrySet().stream()
+			.filter(entry -> Objects.equals(entry.getKey().municipalityId(), municipalityId))
+			.filter(entry -> entry.getValue().assets().stream().anyMatch(asset -> Objects.equals(asset.getId(), id)))
+			.map(entry -> entry.getKey().partyId())
+			.collect(Collectors.toSet());
+
+		entries.keySet().removeIf(key -> Objects.equals(key.municipalityId(), municipalityId) && (partyIds.isEmpty() || partyIds.contains(key.partyId())));
+	}
+
+	synchronized int size() {
+		return entries.size();
+	}
+
+	private void evictOverflow() {
+		final var iterator = entries.keySet().iterator();
+		while (entries.size() > properties.maxSize() && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+			evictions.increment();
+		}
+	}
+
+	private static List<Asset> copyOf(List<Asset> assets) {
+		return assets.stream()
+			.map(PartyAssetsCache::copyOf)
+			.toList();
+	}
+
+	/**
+	 * Copies the asset and its parameters. The values of the JSON parameters are shared, as they are never modified.
+	 */
+	private static Asset copyOf(Asset asset) {
+		return new Asset()
+			.id(asset.getId())
+			.assetId(asset.getAssetId())
+			.origin(asset.getOrigin())
+			.partyId(asset.getPartyId())
+			.type(asset.getType())
+			.issued(asset.getIssued())
+			.validTo(asset.getValidTo())
+			.status(asset.getStatus())
+			.statusReason(asset.getStatusReason())
+			.description(asset.getDescription())
+			.additionalParameters(ofNullable(asset.getAdditionalParameters()).map(HashMap::new).orElse(null))
+			.jsonParameters(ofNullable(asset.getJsonParameters())
+				.map(parameters -> parameters.stream()
+					.map(parameter -> new AssetJsonParameter()
+						.key(parameter.getKey())
+						.value(parameter.getValue())
+						.schemaId(parameter.getSchemaId()))
+					.toList())
+				.orElse(null));
+	}
+
+	record Key(String municipalityId, String partyId, String status, String assetId) {
+	}
+
+	private record Entry(List<Asset> assets, Instant expires) {
+	}
+}
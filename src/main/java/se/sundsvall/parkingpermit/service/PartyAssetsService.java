@@ -4,10 +4,13 @@ import generated.se.sundsvall.casedata.Errand;
 import generated.se.sundsvall.partyassets.Asset;
 import generated.se.sundsvall.partyassets.AssetUpdateRequest;
 import generated.se.sundsvall.partyassets.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
 import java.util.List;
 import org.springframework.stereotype.Service;
 import se.sundsvall.dept44.support.Relation;
 import se.sundsvall.parkingpermit.integration.partyassets.PartyAssetsClient;
+import se.sundsvall.parkingpermit.integration.partyassets.configuration.PartyAssetsCacheProperties;
 
 import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
@@ -22,33 +25,54 @@ public class PartyAssetsService {
 
 	private final PartyAssetsClient partyAssetsClient;
 
-	public PartyAssetsService(PartyAssetsClient partyAssetsClient) {
+	private final PartyAssetsCache cache;
+
+	public PartyAssetsService(PartyAssetsClient partyAssetsClient, PartyAssetsCacheProperties cacheProperties, MeterRegistry meterRegistry) {
 		this.partyAssetsClient = partyAssetsClient;
+		this.cache = new PartyAssetsCache(cacheProperties, meterRegistry, Clock.systemUTC());
 	}
 
 	public void createAsset(String municipalityId, String namespace, Errand errand) {
-		partyAssetsClient.createAsset(municipalityId, toSourceReference(namespace, errand.getId()), toAssetCreateRequest(errand));
+		final var assetCreateRequest = toAssetCreateRequest(errand);
+		try {
+			partyAssetsClient.createAsset(municipalityId, toSourceReference(namespace, errand.getId()), assetCreateRequest);
+		} finally {
+			// Also a failed request might have created the asset
+			cache.invalidateParty(municipalityId, assetCreateRequest.getPartyId());
+		}
 	}
 
+	/**
+	 * Returns the assets of the party matching the asset id and status. Lookups are cached, see {@link PartyAssetsCache}.
+	 */
 	public List<Asset> getAssets(String municipalityId, String assetId, String partyId, String status) {
 		if (isNull(assetId) || isNull(partyId)) {
 			return emptyList();
 		}
-		return partyAssetsClient.getAssets(municipalityId, assetId, partyId, status).getBody();
+		return cache.get(new PartyAssetsCache.Key(municipalityId, partyId, status, assetId),
+			() -> partyAssetsClient.getAssets(municipalityId, assetId, partyId, status).getBody());
 	}
 
+	/**
+	 * Returns the assets of the party matching the status. Lookups are cached, see {@link PartyAssetsCache}.
+	 */
 	public List<Asset> getAssets(String municipalityId, String partyId, String status) {
 		if (isNull(partyId)) {
 			return emptyList();
 		}
-		return partyAssetsClient.getAssets(municipalityId, partyId, status).getBody();
+		return cache.get(new PartyAssetsCache.Key(municipalityId, partyId, status, null),
+			() -> partyAssetsClient.getAssets(municipalityId, partyId, status).getBody());
 	}
 
 	public void updateAssetWithNewStatus(String municipalityId, String id, Status status, String statusReason) {
 		if (isNull(id) || isNull(status)) {
 			return;
 		}
-		partyAssetsClient.updateAsset(municipalityId, id, new AssetUpdateRequest().status(status).statusReason(statusReason));
+		try {
+			partyAssetsClient.updateAsset(municipalityId, id, new AssetUpdateRequest().status(status).statusReason(statusReason));
+		} finally {
+			cache.invalidateAsset(municipalityId, id);
+		}
 	}
 
 	public String toSourceReference(String namespace, Long caseNumber) {
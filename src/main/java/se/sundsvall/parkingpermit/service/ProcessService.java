@@ -6,8 +6,10 @@ import org.springframework.stereotype.Service;
 import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.dept44.requestid.RequestId;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
+import se.sundsvall.parkingpermit.integration.camunda.subscription.ShardingProperties;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static se.sundsvall.parkingpermit.Constants.MESSAGE_UPDATE_AVAILABLE;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_MUNICIPALITY_ID;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_NAMESPACE;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_REQUEST_ID;
@@ -15,6 +17,7 @@ import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_UPDATE_AVAIL
 import static se.sundsvall.parkingpermit.Constants.PROCESS_KEY;
 import static se.sundsvall.parkingpermit.Constants.TENANTID_TEMPLATE;
 import static se.sundsvall.parkingpermit.Constants.TRUE;
+import static se.sundsvall.parkingpermit.integration.camunda.mapper.CamundaMapper.toCorrelationMessageDto;
 import static se.sundsvall.parkingpermit.integration.camunda.mapper.CamundaMapper.toPatchVariablesDto;
 import static se.sundsvall.parkingpermit.integration.camunda.mapper.CamundaMapper.toStartProcessInstanceDto;
 import static se.sundsvall.parkingpermit.integration.camunda.mapper.CamundaMapper.toVariableValueDto;
@@ -24,12 +27,18 @@ public class ProcessService {
 
 	private final CamundaClient camundaClient;
 
-	ProcessService(CamundaClient camundaClient) {
+	private final ShardingProperties shardingProperties;
+
+	private final UpdateMessageProperties updateMessageProperties;
+
+	ProcessService(CamundaClient camundaClient, ShardingProperties shardingProperties, UpdateMessageProperties updateMessageProperties) {
 		this.camundaClient = camundaClient;
+		this.shardingProperties = shardingProperties;
+		this.updateMessageProperties = updateMessageProperties;
 	}
 
 	public String startProcess(String municipalityId, String namespace, Long caseNumber) {
-		return camundaClient.startProcessWithTenant(PROCESS_KEY, TENANTID_TEMPLATE, toStartProcessInstanceDto(municipalityId, namespace, caseNumber)).getId();
+		return camundaClient.startProcessWithTenant(PROCESS_KEY, TENANTID_TEMPLATE, toStartProcessInstanceDto(municipalityId, namespace, caseNumber, shardingProperties.shardFor(caseNumber))).getId();
 	}
 
 	public void updateProcess(String municipalityId, String namespace, String processInstanceId) {
@@ -43,6 +52,14 @@ public class ProcessService {
 			CAMUNDA_VARIABLE_REQUEST_ID, toVariableValueDto(ValueType.STRING, RequestId.get()));
 
 		camundaClient.setProcessInstanceVariables(processInstanceId, toPatchVariablesDto(variablesToUpdate));
+
+		/*
+		 * The variable is set first, as it holds the update until the instance waits for it. The message only reaches an
+		 * instance that is already waiting, an instance that is busy skips the wait when it finds the variable set.
+		 */
+		if (updateMessageProperties.enabled()) {
+			camundaClient.correlateMessage(toCorrelationMessageDto(MESSAGE_UPDATE_AVAILABLE, processInstanceId));
+		}
 	}
 
 	private void verifyExistingProcessInstance(String processInstanceId) {
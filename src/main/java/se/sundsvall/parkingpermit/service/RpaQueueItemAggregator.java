@@ -0,0 +1,120 @@
+package se.sundsvall.parkingpermit.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.springframework.stereotype.Component;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.parkingpermit.integration.rpa.configuration.RpaBatchProperties;
+
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
+
+/**
+ * Coalesces queue items submitted by many errands into bulk calls to Orchestrator, one per municipality and queue.
+ *
+ * A batch is sent when its window has passed since its first item was submitted, or as soon as it has reached the max
+ * size. The scheduler only keeps the windows, while the batches are sent by a pool of sender threads, which also complete
+ * the returned futures one by one. Callbacks of the futures thereby run on the sender threads, and neither a slow
+ * Orchestrator nor a slow callback delays the windows of other batches. Items still waiting when the application shuts
+ * down are never sent, which leaves their tasks to be fetched again when the locks expire.
+ */
+@Component
+public class RpaQueueItemAggregator {
+
+	private final RpaService rpaService;
+	private final RpaBatchProperties properties;
+	private final Map<BatchKey, List<PendingItem>> batches = new HashMap<>();
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+		.name("rpa-batch")
+		.daemon()
+		.factory());
+	private final ExecutorService sender;
+
+	RpaQueueItemAggregator(RpaService rpaService, RpaBatchProperties properties) {
+		this.rpaService = rpaService;
+		this.properties = properties;
+		this.sender = Executors.newFixedThreadPool(properties.concurrency(), Thread.ofPlatform()
+			.name("rpa-batch-send-", 0)
+			.daemon()
+			.factory());
+	}
+
+	public CompletableFuture<Void> submit(String municipalityId, String queueName, Long caseId) {
+		final var key = new BatchKey(municipalityId, queueName);
+		final var item = new PendingItem(caseId, new CompletableFuture<>());
+
+		synchronized (batches) {
+			final var batch = batches.computeIfAbsent(key, k -> new ArrayList<>());
+			batch.add(item);
+
+			if (batch.size() >= properties.maxSize()) {
+				batches.remove(key);
+				sender.execute(() -> send(key, batch));
+			} else if (batch.size() == 1) {
+				scheduler.schedule(() -> flush(key, batch), properties.window().toMillis(), MILLISECONDS);
+			}
+		}
+		return item.future();
+	}
+
+	@PreDestroy
+	void shutdown() {
+		scheduler.shutdownNow();
+		sender.shutdownNow();
+	}
+
+	private void flush(BatchKey key, List<PendingItem> batch) {
+		final boolean pending;
+		synchronized (batches) {
+			// The batch has already been sent if it reached the max size within the window
+			pending = batches.remove(key, batch);
+		}
+		if (pending) {
+			sender.execute(() -> send(key, batch));
+		}
+	}
+
+	private void send(BatchKey key, List<PendingItem> batch) {
+		final var caseIds = batch.stream()
+			.map(PendingItem::caseId)
+			.distinct()
+			.toList();
+
+		try {
+			final var failures = rpaService.bulkAddQueueItems(key.queueName(), caseIds, key.municipalityId());
+			batch.forEach(item -> ofNullable(failures.get(item.caseId())).ifPresentOrElse(
+				reason -> complete(item, Problem.valueOf(BAD_GATEWAY, "Failed to add queue item for case %s: %s".formatted(item.caseId(), reason))),
+				() -> complete(item, null)));
+		} catch (final Exception e) {
+			batch.forEach(item -> complete(item, e));
+		}
+	}
+
+	/**
+	 * Completes the future of the item on a sender thread of its own, which runs its callbacks apart from the callbacks of
+	 * the other items in the batch.
+	 */
+	private void complete(PendingItem item, Throwable failure) {
+		sender.execute(() -> {
+			if (failure == null) {
+				item.future().complete(null);
+			} else {
+				item.future().completeExceptionally(failure);
+			}
+		});
+	}
+
+	private record BatchKey(String municipalityId, String queueName) {
+	}
+
+	private record PendingItem(Long caseId, CompletableFuture<Void> future) {
+	}
+}
@@ -1,6 +1,10 @@
 package se.sundsvall.parkingpermit.service;
 
+import generated.se.sundsvall.rpa.BulkOperationResponseDtoOfFailedQueueItemDto;
+import generated.se.sundsvall.rpa.FailedQueueItemDto;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,11 +15,16 @@ import se.sundsvall.dept44.problem.ThrowableProblem;
 import se.sundsvall.parkingpermit.integration.rpa.RpaClient;
 import se.sundsvall.parkingpermit.integration.rpa.configuration.RpaProperties;
 
+import static generated.se.sundsvall.rpa.FailedQueueItemDto.ErrorCodeEnum.DUPLICATE_REFERENCE;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Objects.isNull;
 import static java.util.Optional.ofNullable;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.util.ObjectUtils.nullSafeEquals;
 import static se.sundsvall.parkingpermit.service.mapper.RpaMapper.toQueuesAddQueueItemParameters;
+import static se.sundsvall.parkingpermit.service.mapper.RpaMapper.toQueuesBulkAddQueueItemsParameters;
 
 @Service
 public class RpaService {
@@ -35,8 +44,7 @@ public class RpaService {
 	}
 
 	public void addQueueItems(List<String> queueNames, Long caseId, String municipalityId) {
-		final var folderId = Optional.ofNullable(rpaProperties.folderIds().get(municipalityId))
-			.orElseThrow(() -> Problem.valueOf(INTERNAL_SERVER_ERROR, "No folder ID found for municipality ID: " + municipalityId));
+		final var folderId = getFolderId(municipalityId);
 
 		ofNullable(queueNames).orElse(emptyList())
 			.forEach(queueName -> {
@@ -53,6 +61,48 @@ public class RpaService {
 			});
 	}
 
+	/**
+	 * Adds one item per case to the queue. Several cases are added in one bulk call, where each item is processed
+	 * independently of the others. Items that already exist are not regarded as failures.
+	 *
+	 * @return the reason of failure per case whose item could not be added
+	 */
+	public Map<Long, String> bulkAddQueueItems(String queueName, List<Long> caseIds, String municipalityId) {
+		if (caseIds.size() == 1) {
+			addQueueItems(List.of(queueName), caseIds.getFirst(), municipalityId);
+			return emptyMap();
+		}
+
+		final var response = rpaClient.bulkAddQueueItems(getFolderId(municipalityId), toQueuesBulkAddQueueItemsParameters(queueName, caseIds));
+		final var failures = new HashMap<Long, String>();
+
+		ofNullable(response).map(BulkOperationResponseDtoOfFailedQueueItemDto::getFailedItems).orElse(emptyList())
+			.forEach(failedItem -> {
+				if (DUPLICATE_REFERENCE.equals(failedItem.getErrorCode())) {
+					// Queue item already exists
+					LOGGER.warn(DUPLICATE_MESSAGE, failedItem.getErrorMessage());
+					return;
+				}
+				failures.put(getCaseId(caseIds, failedItem, response), failedItem.getErrorMessage());
+			});
+
+		return failures;
+	}
+
+	private Long getCaseId(List<Long> caseIds, FailedQueueItemDto failedItem, BulkOperationResponseDtoOfFailedQueueItemDto response) {
+		// The failed item is unknown when the ordinal is missing, which leaves the outcome of every item unknown
+		final var ordinal = failedItem.getOrdinal();
+		if (isNull(ordinal) || ordinal < 0 || ordinal >= caseIds.size()) {
+			throw Problem.valueOf(BAD_GATEWAY, "Bulk add of queue items failed: " + ofNullable(failedItem.getErrorMessage()).orElse(response.getMessage()));
+		}
+		return caseIds.get(ordinal);
+	}
+
+	private String getFolderId(String municipalityId) {
+		return Optional.ofNullable(rpaProperties.folderIds().get(municipalityId))
+			.orElseThrow(() -> Problem.valueOf(INTERNAL_SERVER_ERROR, "No folder ID found for municipality ID: " + municipalityId));
+	}
+
 	private boolean isDuplicateMessageCode(String message) {
 		return ofNullable(message).orElse("").contains(DUPLICATE_MESSAGE_CODE);
 	}
@@ -0,0 +1,19 @@
+package se.sundsvall.parkingpermit.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for signalling updates of errands to their process instances through message correlation.
+ *
+ * An update is always signalled by setting the updateAvailable variable, which the process model of
+ * processmodels/process-parking-permit.bpmn waits for through conditional events. The model of
+ * processmodels/message-correlation/process-parking-permit.bpmn waits for a message instead, which spares the engine the
+ * evaluation of conditions, and only reads the variable when entering a wait to skip it when an update arrived while
+ * the instance was busy. Enabling the message requires the latter model to be deployed, see
+ * camunda.bpm.deployment.processes. Instances started from it are not signalled once the message is disabled again.
+ *
+ * @param enabled whether updates are signalled by correlating a message to the process instance as well
+ */
+@ConfigurationProperties("camunda.worker.update-message")
+public record UpdateMessageProperties(boolean enabled) {
+}
@@ -2,7 +2,10 @@ package se.sundsvall.parkingpermit.service.mapper;
 
 import generated.se.sundsvall.rpa.QueueItemDataDto;
 import generated.se.sundsvall.rpa.QueuesAddQueueItemParameters;
+import generated.se.sundsvall.rpa.QueuesBulkAddQueueItemsParameters;
+import java.util.List;
 
+import static generated.se.sundsvall.rpa.QueuesBulkAddQueueItemsParameters.CommitTypeEnum.PROCESS_ALL_INDEPENDENTLY;
 import static java.util.Optional.ofNullable;
 
 public final class RpaMapper {
@@ -14,4 +17,13 @@ public final class RpaMapper {
 			.name(queueName)
 			.reference(ofNullable(caseId).map(String::valueOf).orElse(null)));
 	}
+
+	public static QueuesBulkAddQueueItemsParameters toQueuesBulkAddQueueItemsParameters(String queueName, List<Long> caseIds) {
+		return new QueuesBulkAddQueueItemsParameters()
+			.queueName(queueName)
+			.commitType(PROCESS_ALL_INDEPENDENTLY)
+			.queueItems(ofNullable(caseIds).orElse(List.of()).stream()
+				.map(caseId -> toQueuesAddQueueItemParameters(queueName, caseId).getItemData())
+				.toList());
+	}
 }
@@ -0,0 +1,62 @@
+package se.sundsvall.parkingpermit.util;
+
+import generated.se.sundsvall.casedata.Decision;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.SplittableRandom;
+import org.springframework.stereotype.Component;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Computes when the control message of a decision is sent. Decisions made together, e.g. in a morning batch, would
+ * otherwise have their control messages sent within the same minute the day after, which is spread over the configured
+ * window instead.
+ *
+ * A timer due outside of the business hours is moved to the start of the next business hours, and every timer is spread
+ * within the business hours of the day it fires. The offset within the window is derived from the errand id, so that a
+ * task executed again computes the same time.
+ */
+@Component
+public class ControlMessageTimer {
+
+	private final ControlMessageTimerProperties properties;
+
+	ControlMessageTimer(ControlMessageTimerProperties properties) {
+		this.properties = properties;
+	}
+
+	public Date getControlMessageTime(String municipalityId, Long errandId, Decision decision, String controlMessageDelay) {
+		final var due = TimerUtil.getControlMessageTime(decision, controlMessageDelay);
+		if (!properties.enabled()) {
+			return due;
+		}
+
+		final var earliest = toBusinessHours(due.toInstant().atZone(properties.zone()));
+		final var room = Duration.between(earliest, earliest.with(properties.businessHoursEnd()));
+		final var jitterWindow = properties.jitterWindowFor(municipalityId);
+		final var window = room.compareTo(jitterWindow) < 0 ? room : jitterWindow;
+		if (isNull(errandId) || !window.isPositive()) {
+			return Date.from(earliest.toInstant());
+		}
+
+		final var offset = new SplittableRandom(errandId).nextLong(window.toSeconds() + 1);
+		return Date.from(earliest.plusSeconds(offset).toInstant());
+	}
+
+	/**
+	 * Returns the time within the business hours that a timer due at the provided time fires at the earliest, which is the
+	 * due time itself within the business hours, and otherwise the start of the next business hours.
+	 */
+	private ZonedDateTime toBusinessHours(ZonedDateTime due) {
+		final var time = due.toLocalTime();
+		if (time.isBefore(properties.businessHoursStart())) {
+			return due.with(properties.businessHoursStart());
+		}
+		if (time.isBefore(properties.businessHoursEnd())) {
+			return due;
+		}
+		return due.toLocalDate().plusDays(1).atTime(properties.businessHoursStart()).atZone(due.getZone());
+	}
+}
@@ -0,0 +1,55 @@
+package se.sundsvall.parkingpermit.util;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Settings for the spreading of the control message timers, which otherwise fire at the same time for all decisions
+ * made together. A timer is never moved earlier than its delay, and fires within the business hours. Business hours
+ * are the same every day of the week.
+ *
+ * @param enabled            whether the timers are spread, otherwise they fire exactly when the delay has passed
+ * @param jitterWindow       the longest time a timer is postponed beyond the time it is due within the business hours
+ * @param businessHoursStart timers due before this time of day are postponed to it
+ * @param businessHoursEnd   timers due before this time of day are not postponed past it, and timers due after it are
+ *                           postponed to the start of the business hours the day after
+ * @param jitterWindows      jitter windows per municipality id, overriding the jitter window. A municipality sending
+ *                           many control messages is given a longer window, to keep the rate at which its timers fire
+ *                           down
+ * @param zone               the time zone of the business hours
+ */
+@ConfigurationProperties("camunda.worker.control-message-timer")
+public record ControlMessageTimerProperties(boolean enabled, Duration jitterWindow, LocalTime businessHoursStart, LocalTime businessHoursEnd, Map<String, Duration> jitterWindows,
+	ZoneId zone) {
+
+	private static final Duration DEFAULT_JITTER_WINDOW = Duration.ofHours(2);
+	private static final LocalTime DEFAULT_BUSINESS_HOURS_START = LocalTime.of(8, 0);
+	private static final LocalTime DEFAULT_BUSINESS_HOURS_END = LocalTime.of(17, 0);
+	private static final ZoneId DEFAULT_ZONE = ZoneId.of("Europe/Stockholm");
+
+	public ControlMessageTimerProperties {
+		jitterWindow = ofNullable(jitterWindow).orElse(DEFAULT_JITTER_WINDOW);
+		businessHoursStart = ofNullable(businessHoursStart).orElse(DEFAULT_BUSINESS_HOURS_START);
+		businessHoursEnd = ofNullable(businessHoursEnd).orElse(DEFAULT_BUSINESS_HOURS_END);
+		jitterWindows = Map.copyOf(ofNullable(jitterWindows).orElse(Map.of()));
+		zone = ofNullable(zone).orElse(DEFAULT_ZONE);
+
+		if (jitterWindow.isNegative() || jitterWindows.values().stream().anyMatch(Duration::isNegative)) {
+			throw new IllegalArgumentException("Jitter window must not be negative");
+		}
+		if (!businessHoursStart.isBefore(businessHoursEnd)) {
+			throw new IllegalArgumentException("Business hours must start before they end");
+		}
+	}
+
+	public Duration jitterWindowFor(String municipalityId) {
+		return ofNullable(municipalityId)
+			.map(jitterWindows::get)
+			.orElse(jitterWindow);
+	}
+}
@@ -53,6 +53,33 @@ class FailureHandlerTest {
 		verifyNoMoreInteractions(externalTaskServiceMock);
 	}
 
+	@Test
+	void handlehandleExceptionWithLedger() {
+		// Setup
+		final var message = "message";
+		final var id = UUID.randomUUID().toString();
+		final var workerId = UUID.randomUUID().toString();
+		final var retriesLeft = 2;
+
+		// Mock
+		when(externalTaskMock.getId()).thenReturn(id);
+		when(externalTaskMock.getWorkerId()).thenReturn(workerId);
+		when(externalTaskMock.getRetries()).thenReturn(retriesLeft);
+		when(externalTaskMock.getAllVariables()).thenReturn(Collections.emptyMap());
+
+		final var ledger = IdempotencyLedger.of(externalTaskMock);
+		ledger.run("step", () -> {});
+
+		// Act
+		failureHandler.handleException(externalTaskServiceMock, externalTaskMock, message, ledger);
+
+		// Assert and verify
+		verify(externalTaskMock).getId();
+		verify(externalTaskMock).getWorkerId();
+		verify(externalTaskServiceMock).handleFailure(id, workerId, message, retriesLeft - 1, 10, Collections.emptyMap(), ledger.toLocalVariables());
+		verifyNoMoreInteractions(externalTaskServiceMock);
+	}
+
 	@Test
 	void handlehandleExceptionWithoutVariables() {
 		// Setup
@@ -0,0 +1,85 @@
+package se.sundsvall.parkingpermit.businesslogic.handler;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.parkingpermit.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
+
+@SpringBootTest(classes = Application.class, webEnvironment = MOCK)
+@ActiveProfiles("junit")
+class FairTaskDispatcherPropertiesTest {
+
+	@Autowired
+	private FairTaskDispatcherProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isTrue();
+		assertThat(properties.concurrency()).isEqualTo(3);
+		assertThat(properties.capacity()).isEqualTo(5);
+		assertThat(properties.weights()).containsExactly(Map.entry("2281", 2));
+		assertThat(properties.maxConcurrency()).containsExactly(Map.entry("2260", 1));
+		assertThat(properties.weightFor("2281")).isEqualTo(2);
+		assertThat(properties.weightFor("2260")).isEqualTo(1);
+		assertThat(properties.maxConcurrencyFor("2260")).isEqualTo(1);
+		assertThat(properties.maxConcurrencyFor("2281")).isEqualTo(3);
+		assertThat(properties.priorityThreshold()).isEqualTo(50);
+		assertThat(properties.priorityConcurrency()).isEqualTo(2);
+		assertThat(properties.priorityCapacity()).isEqualTo(3);
+		assertThat(properties.isPriority(50)).isTrue();
+		assertThat(properties.isPriority(49)).isFalse();
+	}
+
+	@Test
+	void testDefaultValues() {
+		final var bean = new FairTaskDispatcherProperties(false, null, null, null, null, null, null, null);
+
+		assertThat(bean.enabled()).isFalse();
+		assertThat(bean.concurrency()).isEqualTo(4);
+		assertThat(bean.capacity()).isEqualTo(8);
+		assertThat(bean.weights()).isEmpty();
+		assertThat(bean.maxConcurrency()).isEmpty();
+		assertThat(bean.priorityThreshold()).isEqualTo(100);
+		assertThat(bean.priorityConcurrency()).isEqualTo(1);
+		assertThat(bean.priorityCapacity()).isEqualTo(8);
+	}
+
+	@Test
+	void maxConcurrencyIsLimitedByConcurrency() {
+		final var bean = new FairTaskDispatcherProperties(true, 2, null, null, Map.of("2281", 5), null, null, null);
+
+		assertThat(bean.capacity()).isEqualTo(4);
+		assertThat(bean.maxConcurrencyFor("2281")).isEqualTo(2);
+	}
+
+	@Test
+	void invalidValues() {
+		final var weights = Map.of("2281", 0);
+		final var maxConcurrency = Map.of("2281", 0);
+
+		assertThatThrownBy(() -> new FairTaskDispatcherProperties(true, 0, null, null, null, null, null, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Concurrency must be at least 1");
+		assertThatThrownBy(() -> new FairTaskDispatcherProperties(true, null, 0, null, null, null, null, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Capacity must be at least 1");
+		assertThatThrownBy(() -> new FairTaskDispatcherProperties(true, null, null, weights, null, null, null, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Weights must be at least 1");
+		assertThatThrownBy(() -> new FairTaskDispatcherProperties(true, null, null, null, maxConcurrency, null, null, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Max concurrency must be at least 1");
+		assertThatThrownBy(() -> new FairTaskDispatcherProperties(true, null, null, null, null, null, -1, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Priority concurrency must not be negative");
+		assertThatThrownBy(() -> new FairTaskDispatcherProperties(true, null, null, null, null, null, null, 0))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Priority capacity must be at least 1");
+	}
+}
@@ -0,0 +1,316 @@
+package se.sundsvall.parkingpermit.businesslogic.handler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.parkingpermit.Constants.TASK_PRIORITY_AUTOMATIC;
+import static se.sundsvall.parkingpermit.Constants.TASK_PRIORITY_DEFAULT;
+import static se.sundsvall.parkingpermit.businesslogic.handler.FairTaskDispatcher.METRIC_ACTIVE;
+import static se.sundsvall.parkingpermit.businesslogic.handler.FairTaskDispatcher.METRIC_PRIORITY_ACTIVE;
+import static se.sundsvall.parkingpermit.businesslogic.handler.FairTaskDispatcher.METRIC_PRIORITY_QUEUED;
+import static se.sundsvall.parkingpermit.businesslogic.handler.FairTaskDispatcher.METRIC_QUEUED;
+import static se.sundsvall.parkingpermit.businesslogic.handler.FairTaskDispatcher.TAG_MUNICIPALITY_ID;
+import static se.sundsvall.parkingpermit.businesslogic.handler.FairTaskDispatcher.UNKNOWN_MUNICIPALITY_ID;
+
+@ExtendWith(MockitoExtension.class)
+class FairTaskDispatcherTest {
+
+	private static final String SUNDSVALL = "2281";
+	private static final String ANGE = "2260";
+	private static final long NORMAL = TASK_PRIORITY_DEFAULT;
+	private static final long PRIORITY = TASK_PRIORITY_AUTOMATIC;
+
+	private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Mock
+	private LockHeartbeat lockHeartbeatMock;
+
+	@Mock
+	private LockHeartbeat.Beat beatMock;
+
+	@Mock
+	private ExternalTask externalTaskMock;
+
+	@Mock
+	private ExternalTaskService externalTaskServiceMock;
+
+	private SimpleMeterRegistry meterRegistry;
+	private FairTaskDispatcher dispatcher;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void shutdown() {
+		release.countDown();
+		if (dispatcher != null) {
+			dispatcher.shutdown();
+		}
+	}
+
+	@Test
+	void executeRightAwayWhenDisabled() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(false, null, null, null, null, null, 0, null), lockHeartbeatMock, meterRegistry);
+		final var thread = new ArrayList<Thread>();
+
+		// Act
+		dispatcher.dispatch(SUNDSVALL, NORMAL, () -> thread.add(Thread.currentThread()));
+
+		// Assert
+		assertThat(thread).containsExactly(Thread.currentThread());
+		assertThat(meterRegistry.getMeters()).isEmpty();
+	}
+
+	@Test
+	void executeExternalTaskRightAwayWhenDisabled() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(false, null, null, null, null, null, 0, null), lockHeartbeatMock, meterRegistry);
+
+		// Act
+		dispatcher.dispatch(SUNDSVALL, externalTaskMock, externalTaskServiceMock, record("s1"));
+
+		// Assert and verify
+		assertThat(executed).containsExactly("s1");
+		verifyNoInteractions(lockHeartbeatMock);
+	}
+
+	@Test
+	void holdLockOfExternalTaskUntilExecuted() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(true, 1, 10, null, null, null, 0, null), lockHeartbeatMock, meterRegistry);
+		when(externalTaskMock.getPriority()).thenReturn(NORMAL);
+		when(lockHeartbeatMock.start(externalTaskMock, externalTaskServiceMock)).thenReturn(beatMock);
+		dispatchBlocker(SUNDSVALL);
+
+		// Act
+		dispatcher.dispatch(SUNDSVALL, externalTaskMock, externalTaskServiceMock, record("s1"));
+
+		// Assert and verify
+		assertThat(queued(SUNDSVALL)).isEqualTo(1);
+		verify(lockHeartbeatMock).start(externalTaskMock, externalTaskServiceMock);
+
+		release.countDown();
+		await().atMost(5, SECONDS).until(() -> executed.contains("s1"));
+		final InOrder inOrder = inOrder(beatMock);
+		inOrder.verify(beatMock).close();
+		inOrder.verify(beatMock).isLockLost();
+	}
+
+	@Test
+	void skipExternalTaskWhoseLockIsLostWhileWaiting() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(true, 1, 10, null, null, null, 0, null), lockHeartbeatMock, meterRegistry);
+		when(externalTaskMock.getPriority()).thenReturn(NORMAL);
+		when(lockHeartbeatMock.start(externalTaskMock, externalTaskServiceMock)).thenReturn(beatMock);
+		when(beatMock.isLockLost()).thenReturn(true);
+		dispatchBlocker(SUNDSVALL);
+
+		// Act
+		dispatcher.dispatch(SUNDSVALL, externalTaskMock, externalTaskServiceMock, record("s1"));
+		dispatcher.dispatch(SUNDSVALL, NORMAL, record("s2"));
+		release.countDown();
+
+		// Assert and verify
+		await().atMost(5, SECONDS).until(() -> executed.contains("s2"));
+		assertThat(executed).containsExactly("blocker", "s2");
+		verify(beatMock).close();
+	}
+
+	@Test
+	void executeInWeightedRoundRobinOrder() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(true, 1, 10, Map.of(SUNDSVALL, 2), null, null, 0, null), lockHeartbeatMock, meterRegistry);
+		dispatchBlocker(SUNDSVALL);
+
+		// Act
+		List.of("s1", "s2", "s3", "s4").forEach(name -> dispatcher.dispatch(SUNDSVALL, NORMAL, record(name)));
+		List.of("a1", "a2").forEach(name -> dispatcher.dispatch(ANGE, NORMAL, record(name)));
+
+		assertThat(queued(SUNDSVALL)).isEqualTo(4);
+		assertThat(queued(ANGE)).isEqualTo(2);
+		release.countDown();
+
+		// Assert
+		await().atMost(5, SECONDS).until(() -> executed.size() == 7);
+		assertThat(executed).containsExactly("blocker", "s1", "a1", "s2", "s3", "a2", "s4");
+		assertThat(queued(SUNDSVALL)).isZero();
+		assertThat(queued(ANGE)).isZero();
+	}
+
+	@Test
+	void keepMaxConcurrencyOfMunicipality() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(true, 2, 10, null, Map.of(SUNDSVALL, 1), null, 0, null), lockHeartbeatMock, meterRegistry);
+		dispatchBlocker(SUNDSVALL);
+
+		// Act
+		dispatcher.dispatch(SUNDSVALL, NORMAL, record("s1"));
+		dispatcher.dispatch(ANGE, NORMAL, record("a1"));
+
+		// Assert
+		await().atMost(5, SECONDS).until(() -> executed.contains("a1"));
+		assertThat(executed).containsExactly("blocker", "a1");
+		assertThat(queued(SUNDSVALL)).isEqualTo(1);
+		assertThat(active(SUNDSVALL)).isEqualTo(1);
+
+		release.countDown();
+		await().atMost(5, SECONDS).until(() -> executed.contains("s1"));
+	}
+
+	@Test
+	void waitWhenCapacityIsReached() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(true, 1, 1, null, null, null, 0, null), lockHeartbeatMock, meterRegistry);
+		dispatchBlocker(SUNDSVALL);
+		dispatcher.dispatch(ANGE, NORMAL, record("a1"));
+
+		// Act
+		final var waiting = CompletableFuture.runAsync(() -> dispatcher.dispatch(ANGE, NORMAL, record("a2")));
+
+		// Assert
+		await().pollDelay(100, MILLISECONDS).atMost(5, SECONDS).until(() -> true);
+		assertThat(waiting).isNotDone();
+
+		release.countDown();
+		await().atMost(5, SECONDS).until(() -> executed.size() == 3);
+		assertThat(waiting).isDone();
+		assertThat(executed).containsExactly("blocker", "a1", "a2");
+	}
+
+	@Test
+	void continueAfterFailedTask() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(true, 1, 10, null, null, null, 0, null), lockHeartbeatMock, meterRegistry);
+
+		// Act
+		dispatcher.dispatch(null, NORMAL, () -> {
+			throw new IllegalStateException("Failure");
+		});
+		dispatcher.dispatch(null, NORMAL, record("u1"));
+
+		// Assert
+		await().atMost(5, SECONDS).until(() -> executed.contains("u1") && active(UNKNOWN_MUNICIPALITY_ID) == 0);
+		assertThat(queued(UNKNOWN_MUNICIPALITY_ID)).isZero();
+	}
+
+	@Test
+	void executePriorityTasksAheadOfQueuedTasks() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(true, 1, 10, null, null, null, 0, null), lockHeartbeatMock, meterRegistry);
+		dispatchBlocker(SUNDSVALL);
+
+		// Act
+		dispatcher.dispatch(SUNDSVALL, NORMAL, record("s1"));
+		dispatcher.dispatch(ANGE, NORMAL, record("a1"));
+		dispatcher.dispatch(SUNDSVALL, PRIORITY, record("p1"));
+		dispatcher.dispatch(ANGE, PRIORITY + 1, record("p2"));
+
+		assertThat(meterRegistry.find(METRIC_PRIORITY_QUEUED).gauge().value()).isEqualTo(2);
+		release.countDown();
+
+		// Assert
+		await().atMost(5, SECONDS).until(() -> executed.size() == 5);
+		assertThat(executed).containsExactly("blocker", "p1", "p2", "s1", "a1");
+		assertThat(meterRegistry.find(METRIC_PRIORITY_QUEUED).gauge().value()).isZero();
+	}
+
+	@Test
+	void waitWhenPriorityCapacityIsReached() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(true, 1, 10, null, null, null, 0, 1), lockHeartbeatMock, meterRegistry);
+		dispatchBlocker(SUNDSVALL);
+		dispatcher.dispatch(SUNDSVALL, PRIORITY, record("p1"));
+
+		// Act
+		final var waiting = CompletableFuture.runAsync(() -> dispatcher.dispatch(SUNDSVALL, PRIORITY, record("p2")));
+		dispatcher.dispatch(ANGE, NORMAL, record("a1"));
+
+		// Assert
+		await().pollDelay(100, MILLISECONDS).atMost(5, SECONDS).until(() -> true);
+		assertThat(waiting).isNotDone();
+		assertThat(meterRegistry.find(METRIC_PRIORITY_QUEUED).gauge().value()).isEqualTo(1);
+		assertThat(queued(ANGE)).isEqualTo(1);
+
+		release.countDown();
+		await().atMost(5, SECONDS).until(() -> executed.size() == 4);
+		assertThat(waiting).isDone();
+		assertThat(executed).startsWith("blocker", "p1").contains("p2", "a1");
+	}
+
+	@Test
+	void executePriorityTasksOnReservedThreadsWhenAllOtherThreadsAreBusy() {
+		// Arrange
+		dispatcher = new FairTaskDispatcher(new FairTaskDispatcherProperties(true, 1, 1, null, null, null, 1, null), lockHeartbeatMock, meterRegistry);
+		dispatchBlocker(SUNDSVALL);
+		dispatcher.dispatch(ANGE, NORMAL, record("a1"));
+
+		// Act
+		dispatcher.dispatch(ANGE, PRIORITY, () -> {
+			executed.add("p1");
+			try {
+				release.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		// Assert
+		await().atMost(5, SECONDS).until(() -> executed.contains("p1"));
+		assertThat(executed).containsExactly("blocker", "p1");
+		assertThat(meterRegistry.find(METRIC_PRIORITY_ACTIVE).gauge().value()).isEqualTo(1);
+		assertThat(queued(ANGE)).isEqualTo(1);
+
+		release.countDown();
+		await().atMost(5, SECONDS).until(() -> executed.contains("a1"));
+	}
+
+	private void dispatchBlocker(String municipalityId) {
+		dispatcher.dispatch(municipalityId, NORMAL, () -> {
+			executed.add("blocker");
+			try {
+				release.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		await().atMost(5, SECONDS).until(() -> executed.contains("blocker"));
+	}
+
+	private Runnable record(String name) {
+		return () -> executed.add(name);
+	}
+
+	private double queued(String municipalityId) {
+		return meterRegistry.find(METRIC_QUEUED).tag(TAG_MUNICIPALITY_ID, municipalityId).gauge().value();
+	}
+
+	private double active(String municipalityId) {
+		return meterRegistry.find(METRIC_ACTIVE).tag(TAG_MUNICIPALITY_ID, municipalityId).gauge().value();
+	}
+}
@@ -0,0 +1,145 @@
+package se.sundsvall.parkingpermit.businesslogic.handler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyLedgerTest {
+
+	private static final String ACTIVITY_INSTANCE_ID = "activityInstanceId";
+
+	@Mock
+	private ExternalTask externalTaskMock;
+
+	@Mock
+	private Runnable actionMock;
+
+	@Test
+	void recordCompletedSteps() {
+		// Arrange
+		when(externalTaskMock.getActivityInstanceId()).thenReturn(ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getAllVariables()).thenReturn(Map.of("otherVariable", "value"));
+		final var ledger = IdempotencyLedger.of(externalTaskMock);
+
+		// Act
+		ledger.run("run", actionMock);
+		final var result = ledger.call("call", () -> 123L);
+
+		// Assert and verify
+		verify(actionMock).run();
+		assertThat(result).isEqualTo(123L);
+		assertThat(ledger.isCompleted("run")).isTrue();
+		assertThat(ledger.isCompleted("call")).isTrue();
+		assertThat(ledger.isCompleted("other")).isFalse();
+		assertThat(ledger.<Long>getResult("call")).isEqualTo(123L);
+		assertThat(ledger.toLocalVariables()).containsOnly(
+			entry("completedStep_run", null),
+			entry("completedStepActivityInstance_run", ACTIVITY_INSTANCE_ID),
+			entry("completedStep_call", 123L),
+			entry("completedStepActivityInstance_call", ACTIVITY_INSTANCE_ID));
+		assertThat(ledger.toClearedLocalVariables()).isEmpty();
+	}
+
+	@Test
+	void skipStepsCompletedByPreviousExecution() {
+		// Arrange
+		final var variables = new HashMap<String, Object>();
+		variables.put("completedStep_run", null);
+		variables.put("completedStepActivityInstance_run", ACTIVITY_INSTANCE_ID);
+		variables.put("completedStep_call", "messageId");
+		variables.put("completedStepActivityInstance_call", ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getActivityInstanceId()).thenReturn(ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getAllVariables()).thenReturn(variables);
+		@SuppressWarnings("unchecked")
+		final Supplier<String> supplierMock = mock(Supplier.class);
+		final var ledger = IdempotencyLedger.of(externalTaskMock);
+
+		// Act
+		ledger.run("run", actionMock);
+		final var result = ledger.call("call", supplierMock);
+
+		// Assert and verify
+		assertThat(result).isEqualTo("messageId");
+		assertThat(ledger.isCompleted("run")).isTrue();
+		assertThat(ledger.toLocalVariables()).isEmpty();
+		assertThat(ledger.toClearedLocalVariables()).containsOnlyKeys(variables.keySet()).containsValues((Object) null);
+		verifyNoInteractions(actionMock, supplierMock);
+	}
+
+	@Test
+	void executeStepsCompletedByOtherActivityInstance() {
+		// Arrange
+		final var variables = new HashMap<String, Object>();
+		variables.put("completedStep_run", null);
+		variables.put("completedStepActivityInstance_run", "previousActivityInstanceId");
+		variables.put("completedStep_call", "previousMessageId");
+		variables.put("completedStepActivityInstance_call", "previousActivityInstanceId");
+		variables.put("completedStep_cleared", null);
+		variables.put("completedStepActivityInstance_cleared", null);
+		when(externalTaskMock.getActivityInstanceId()).thenReturn(ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getAllVariables()).thenReturn(variables);
+		final var ledger = IdempotencyLedger.of(externalTaskMock);
+
+		// Act
+		ledger.run("run", actionMock);
+		final var result = ledger.call("call", () -> "messageId");
+
+		// Assert and verify
+		verify(actionMock).run();
+		assertThat(result).isEqualTo("messageId");
+		assertThat(ledger.isCompleted("cleared")).isFalse();
+		assertThat(ledger.<Object>getResult("cleared")).isNull();
+		assertThat(ledger.toLocalVariables()).containsOnly(
+			entry("completedStep_run", null),
+			entry("completedStepActivityInstance_run", ACTIVITY_INSTANCE_ID),
+			entry("completedStep_call", "messageId"),
+			entry("completedStepActivityInstance_call", ACTIVITY_INSTANCE_ID));
+	}
+
+	@Test
+	void toVariableNames() {
+		assertThat(IdempotencyLedger.toVariableNames("first", "second")).containsExactly(
+			"completedStep_first", "completedStepActivityInstance_first", "completedStep_second", "completedStepActivityInstance_second");
+	}
+
+	@Test
+	void failedStepIsNotRecorded() {
+		// Arrange
+		final var ledger = IdempotencyLedger.of(externalTaskMock);
+
+		// Act and assert
+		assertThatThrownBy(() -> ledger.run("run", () -> {
+			throw new IllegalStateException("Failure");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(ledger.isCompleted("run")).isFalse();
+		assertThat(ledger.toLocalVariables()).isEmpty();
+	}
+
+	@Test
+	void nullVariables() {
+		// Arrange
+		when(externalTaskMock.getAllVariables()).thenReturn(null);
+
+		// Act
+		final var ledger = IdempotencyLedger.of(externalTaskMock);
+
+		// Assert
+		assertThat(ledger.isCompleted("step")).isFalse();
+		assertThat(ledger.<Object>getResult("step")).isNull();
+	}
+}
@@ -0,0 +1,43 @@
+package se.sundsvall.parkingpermit.businesslogic.handler;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.parkingpermit.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
+
+@SpringBootTest(classes = Application.class, webEnvironment = MOCK)
+@ActiveProfiles("junit")
+class LockHeartbeatPropertiesTest {
+
+	@Autowired
+	private LockHeartbeatProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.interval()).isEqualTo(Duration.ofSeconds(10));
+		assertThat(properties.extension()).isEqualTo(Duration.ofSeconds(30));
+	}
+
+	@Test
+	void testDefaultValues() {
+		final var bean = new LockHeartbeatProperties(null, null);
+
+		assertThat(bean.interval()).isEqualTo(Duration.ofSeconds(10));
+		assertThat(bean.extension()).isEqualTo(Duration.ofSeconds(30));
+	}
+
+	@Test
+	void extensionNotLongerThanInterval() {
+		final var interval = Duration.ofSeconds(10);
+
+		assertThatThrownBy(() -> new LockHeartbeatProperties(interval, interval))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Lock extension must be longer than the heartbeat interval");
+	}
+}
@@ -0,0 +1,177 @@
+package se.sundsvall.parkingpermit.businesslogic.handler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import org.camunda.bpm.client.exception.BadRequestException;
+import org.camunda.bpm.client.exception.EngineException;
+import org.camunda.bpm.client.exception.NotFoundException;
+import org.camunda.bpm.client.exception.RestException;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat.METRIC_EXTENSIONS;
+import static se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat.METRIC_FAILED;
+import static se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat.METRIC_LOST;
+import static se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat.TAG_TOPIC;
+
+@ExtendWith(MockitoExtension.class)
+class LockHeartbeatTest {
+
+	private static final String TOPIC = "DecisionHandlingTask";
+	private static final String TASK_ID = "taskId";
+	private static final long EXTENSION_IN_MILLIS = 100L;
+
+	@Mock
+	private ExternalTask externalTaskMock;
+
+	@Mock
+	private ExternalTask slowExternalTaskMock;
+
+	@Mock
+	private ExternalTaskService externalTaskServiceMock;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private LockHeartbeat lockHeartbeat;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		lockHeartbeat = new LockHeartbeat(new LockHeartbeatProperties(Duration.ofMillis(20), Duration.ofMillis(EXTENSION_IN_MILLIS)), meterRegistry);
+		lenient().when(externalTaskMock.getTopicName()).thenReturn(TOPIC);
+		lenient().when(externalTaskMock.getId()).thenReturn(TASK_ID);
+	}
+
+	@AfterEach
+	void shutdown() {
+		lockHeartbeat.shutdown();
+	}
+
+	@Test
+	void extendLockUntilClosed() {
+		// Act
+		try (var beat = lockHeartbeat.start(externalTaskMock, externalTaskServiceMock)) {
+			await().atMost(5, SECONDS).until(() -> extensions() >= 2);
+
+			// Assert
+			assertThat(beat.isLockLost()).isFalse();
+		}
+
+		final var extensionsWhenClosed = extensions();
+		await().pollDelay(Duration.ofMillis(100)).atMost(5, SECONDS).until(() -> true);
+
+		// Assert and verify
+		assertThat(extensions()).isEqualTo(extensionsWhenClosed);
+		assertThat(meterRegistry.find(METRIC_LOST).counter()).isNull();
+		verify(externalTaskServiceMock, atLeast(2)).extendLock(externalTaskMock, EXTENSION_IN_MILLIS);
+	}
+
+	@Test
+	void slowExtensionDoesNotDelayOtherBeats() {
+		// Arrange
+		final var release = new CountDownLatch(1);
+		when(slowExternalTaskMock.getId()).thenReturn("slowTaskId");
+		lenient().when(slowExternalTaskMock.getTopicName()).thenReturn("SlowTopic");
+		doAnswer(invocation -> {
+			release.await();
+			return null;
+		}).when(externalTaskServiceMock).extendLock(slowExternalTaskMock, EXTENSION_IN_MILLIS);
+
+		// Act
+		try (var slowBeat = lockHeartbeat.start(slowExternalTaskMock, externalTaskServiceMock);
+			var beat = lockHeartbeat.start(externalTaskMock, externalTaskServiceMock)) {
+			await().atMost(5, SECONDS).until(() -> extensions() >= 5);
+
+			// Assert and verify
+			verify(externalTaskServiceMock).extendLock(slowExternalTaskMock, EXTENSION_IN_MILLIS);
+			assertThat(slowBeat.isLockLost()).isFalse();
+			assertThat(beat.isLockLost()).isFalse();
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void stopAndCountWhenLockIsLost() {
+		// Arrange
+		doThrow(new NotFoundException("Lock lost", new RestException("message", "type", 404)))
+			.when(externalTaskServiceMock).extendLock(externalTaskMock, EXTENSION_IN_MILLIS);
+
+		// Act
+		try (var beat = lockHeartbeat.start(externalTaskMock, externalTaskServiceMock)) {
+			await().atMost(5, SECONDS).until(beat::isLockLost);
+			await().pollDelay(Duration.ofMillis(100)).atMost(5, SECONDS).until(() -> true);
+
+			// Assert
+			assertThat(lockHeartbeat.isLockLost(externalTaskMock)).isTrue();
+		}
+
+		// Assert and verify
+		assertThat(lockHeartbeat.isLockLost(externalTaskMock)).isFalse();
+		assertThat(meterRegistry.get(METRIC_LOST).tag(TAG_TOPIC, TOPIC).counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.find(METRIC_EXTENSIONS).counter()).isNull();
+		verify(externalTaskServiceMock).extendLock(externalTaskMock, EXTENSION_IN_MILLIS);
+		verifyNoMoreInteractions(externalTaskServiceMock);
+	}
+
+	@Test
+	void stopWhenLockIsHeldByAnotherWorker() {
+		// Arrange
+		doThrow(new BadRequestException("Extend lock failed", new RestException("The lock of the External Task taskId cannot be extended by worker 'worker'", "type", 400)))
+			.when(externalTaskServiceMock).extendLock(externalTaskMock, EXTENSION_IN_MILLIS);
+
+		// Act
+		try (var beat = lockHeartbeat.start(externalTaskMock, externalTaskServiceMock)) {
+			await().atMost(5, SECONDS).until(beat::isLockLost);
+		}
+
+		// Assert and verify
+		assertThat(meterRegistry.get(METRIC_LOST).tag(TAG_TOPIC, TOPIC).counter().count()).isEqualTo(1);
+		verify(externalTaskServiceMock).extendLock(externalTaskMock, EXTENSION_IN_MILLIS);
+	}
+
+	@Test
+	void retryWhenExtensionFails() {
+		// Arrange
+		doThrow(new EngineException("Service unavailable", new RestException("message", "type", 503)))
+			.doThrow(new BadRequestException("Bad request", new RestException("Invalid request", "type", 400)))
+			.doNothing()
+			.when(externalTaskServiceMock).extendLock(externalTaskMock, EXTENSION_IN_MILLIS);
+
+		// Act
+		try (var beat = lockHeartbeat.start(externalTaskMock, externalTaskServiceMock)) {
+			await().atMost(5, SECONDS).until(() -> extensions() >= 1);
+
+			// Assert
+			assertThat(beat.isLockLost()).isFalse();
+			assertThat(lockHeartbeat.isLockLost(externalTaskMock)).isFalse();
+		}
+
+		// Assert and verify
+		assertThat(meterRegistry.get(METRIC_FAILED).tag(TAG_TOPIC, TOPIC).counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.find(METRIC_LOST).counter()).isNull();
+		verify(externalTaskServiceMock, atLeast(3)).extendLock(externalTaskMock, EXTENSION_IN_MILLIS);
+	}
+
+	private double extensions() {
+		final var counter = meterRegistry.find(METRIC_EXTENSIONS).tag(TAG_TOPIC, TOPIC).counter();
+		return counter == null ? 0 : counter.count();
+	}
+}
@@ -3,10 +3,12 @@ package se.sundsvall.parkingpermit.businesslogic.util;
 import generated.se.sundsvall.businessrules.Result;
 import generated.se.sundsvall.businessrules.ResultDetail;
 import generated.se.sundsvall.businessrules.ResultValue;
+import generated.se.sundsvall.businessrules.RuleEngineResponse;
 import generated.se.sundsvall.casedata.Decision;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -58,6 +60,45 @@ class BusinessRulesUtilTest {
 				.created(OffsetDateTime.now())));
 	}
 
+	@Test
+	void toRuleEngineResponseVariable() {
+		final var applicableResult = createRuleEngineResult("FAIL");
+		final var ruleEngineResponse = new RuleEngineResponse()
+			.context("PARKING_PERMIT")
+			.results(List.of(createRuleEngineResult("NOT_APPLICABLE"), applicableResult, createRuleEngineResult("PASS")));
+
+		final var variable = BusinessRulesUtil.toRuleEngineResponseVariable(ruleEngineResponse);
+
+		assertThat(variable).isInstanceOf(String.class);
+		assertThat(BusinessRulesUtil.fromRuleEngineResponseVariable(variable))
+			.isEqualTo(new RuleEngineResponse().context("PARKING_PERMIT").results(List.of(applicableResult)));
+	}
+
+	@Test
+	void toRuleEngineResponseVariableWithoutApplicableResult() {
+		final var ruleEngineResponse = new RuleEngineResponse().results(List.of(createRuleEngineResult("NOT_APPLICABLE")));
+
+		assertThat(BusinessRulesUtil.toRuleEngineResponseVariable(ruleEngineResponse)).isSameAs(ruleEngineResponse);
+		assertThat(BusinessRulesUtil.toRuleEngineResponseVariable(new RuleEngineResponse())).isEqualTo(new RuleEngineResponse());
+		assertThat(BusinessRulesUtil.toRuleEngineResponseVariable(null)).isNull();
+	}
+
+	@Test
+	void toRuleEngineResponseVariableWhenTooLargeForString() {
+		final var ruleEngineResponse = new RuleEngineResponse().results(List.of(new Result().value(ResultValue.PASS)
+			.details(List.of(new ResultDetail().description("a".repeat(4000))))));
+
+		assertThat(BusinessRulesUtil.toRuleEngineResponseVariable(ruleEngineResponse)).isSameAs(ruleEngineResponse);
+	}
+
+	@Test
+	void fromRuleEngineResponseVariableStoredAsObject() {
+		final var ruleEngineResponse = new RuleEngineResponse().results(List.of(createRuleEngineResult("PASS")));
+
+		assertThat(BusinessRulesUtil.fromRuleEngineResponseVariable(ruleEngineResponse)).isSameAs(ruleEngineResponse);
+		assertThat(BusinessRulesUtil.fromRuleEngineResponseVariable(null)).isNull();
+	}
+
 	private static Result createRuleEngineResult(String resultValue) {
 		return new Result().value(ResultValue.fromValue(resultValue))
 			.details(List.of(new ResultDetail().description("description1"), new ResultDetail().description("description2"), new ResultDetail().description("description3")));
@@ -2,14 +2,21 @@ package se.sundsvall.parkingpermit.businesslogic.worker;
 
 import generated.se.sundsvall.camunda.VariableValueDto;
 import generated.se.sundsvall.casedata.Attachment;
+import generated.se.sundsvall.casedata.Errand;
+import generated.se.sundsvall.casedata.Note;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
 import org.camunda.bpm.engine.variable.type.ValueType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -17,14 +24,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import se.sundsvall.dept44.requestid.RequestId;
 import se.sundsvall.parkingpermit.Constants;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.FairTaskDispatcher;
+import se.sundsvall.parkingpermit.businesslogic.handler.IdempotencyLedger;
+import se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.CaseDataSingleFlight;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandSummary;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -43,6 +60,26 @@ class AbstractTaskWorkerTest {
 		}
 	}
 
+	private static class HeartbeatWorker extends AbstractTaskWorker {
+
+		HeartbeatWorker(LockHeartbeat lockHeartbeat) {
+			super(null, null, null, lockHeartbeat);
+		}
+
+		@Override
+		public void executeBusinessLogic(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+			// Do nothing
+		}
+	}
+
+	@TaskVariables(value = { "phase", "caseNumber" }, steps = "step")
+	private static class AnnotatedWorker extends Worker {
+
+		AnnotatedWorker() {
+			super(null, null, null);
+		}
+	}
+
 	@Mock
 	private CamundaClient camundaClientMock;
 
@@ -58,6 +95,9 @@ class AbstractTaskWorkerTest {
 	@Mock
 	private FailureHandler failureHandlerMock;
 
+	@Captor
+	private ArgumentCaptor<Runnable> taskCaptor;
+
 	@InjectMocks
 	private Worker worker;
 
@@ -79,6 +119,62 @@ class AbstractTaskWorkerTest {
 		verifyNoMoreInteractions(camundaClientMock);
 	}
 
+	@Test
+	void verifyLockHeld() {
+		// Arrange
+		final var lockHeartbeatMock = mock(LockHeartbeat.class);
+		final var heartbeatWorker = new HeartbeatWorker(lockHeartbeatMock);
+
+		when(lockHeartbeatMock.isLockLost(externalTaskMock)).thenReturn(false);
+
+		// Act
+		heartbeatWorker.verifyLockHeld(externalTaskMock);
+
+		// Assert and verify
+		verify(lockHeartbeatMock).isLockLost(externalTaskMock);
+		verifyNoInteractions(externalTaskServiceMock);
+	}
+
+	@Test
+	void verifyLockHeldWhenLockIsLost() {
+		// Arrange
+		final var lockHeartbeatMock = mock(LockHeartbeat.class);
+		final var heartbeatWorker = new HeartbeatWorker(lockHeartbeatMock);
+
+		when(externalTaskMock.getId()).thenReturn("taskId");
+		when(lockHeartbeatMock.isLockLost(externalTaskMock)).thenReturn(true);
+
+		// Act and assert
+		assertThatThrownBy(() -> heartbeatWorker.verifyLockHeld(externalTaskMock))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("Lock of task with id taskId has been lost");
+	}
+
+	@Test
+	void verifyLockHeldWithoutHeartbeat() {
+		// Act
+		worker.verifyLockHeld(externalTaskMock);
+
+		// Verify
+		verifyNoInteractions(externalTaskMock, externalTaskServiceMock);
+	}
+
+	@Test
+	void holdLock() {
+		// Arrange
+		final var lockHeartbeatMock = mock(LockHeartbeat.class);
+		final var beatMock = mock(LockHeartbeat.Beat.class);
+		final var heartbeatWorker = new HeartbeatWorker(lockHeartbeatMock);
+
+		when(lockHeartbeatMock.start(externalTaskMock, externalTaskServiceMock)).thenReturn(beatMock);
+
+		// Act
+		final var result = heartbeatWorker.holdLock(externalTaskMock, externalTaskServiceMock);
+
+		// Assert
+		assertThat(result).isSameAs(beatMock);
+	}
+
 	@BeforeEach
 	void clearRequestId() {
 		// Guard against request id state leaking in from another test on this thread
@@ -104,6 +200,30 @@ class AbstractTaskWorkerTest {
 		}
 	}
 
+	@Test
+	void executeThroughTaskDispatcher() {
+		// Arrange
+		final var taskDispatcherMock = mock(FairTaskDispatcher.class);
+		final var requestId = UUID.randomUUID().toString();
+		worker.setTaskDispatcher(taskDispatcherMock);
+
+		when(externalTaskMock.getVariable(Constants.CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn("2281");
+		when(externalTaskMock.getVariable(Constants.CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(requestId);
+
+		try (MockedStatic<RequestId> requestIdMock = mockStatic(RequestId.class)) {
+			// Act
+			worker.execute(externalTaskMock, externalTaskServiceMock);
+
+			// Assert and verify
+			requestIdMock.verifyNoInteractions();
+			verify(taskDispatcherMock).dispatch(eq("2281"), same(externalTaskMock), same(externalTaskServiceMock), taskCaptor.capture());
+
+			taskCaptor.getValue().run();
+			requestIdMock.verify(() -> RequestId.init(requestId));
+			requestIdMock.verify(RequestId::reset);
+		}
+	}
+
 	/**
 	 * RequestId.init() only writes to the MDC when the thread local counter is zero. Without a matching reset() every task
 	 * after the first one on a worker thread would keep logging under the request id of that first task.
@@ -154,6 +274,31 @@ class AbstractTaskWorkerTest {
 		assertThat(RequestId.get()).isNull();
 	}
 
+	@Test
+	void executeKeepsLockWithHeartbeat() {
+		// Arrange
+		final var lockHeartbeatMock = mock(LockHeartbeat.class);
+		final var beatMock = mock(LockHeartbeat.Beat.class);
+		final var businessLogic = mock(Runnable.class);
+		final var heartbeatWorker = new AbstractTaskWorker(camundaClientMock, caseDataClientMock, failureHandlerMock, lockHeartbeatMock) {
+			@Override
+			protected void executeBusinessLogic(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+				businessLogic.run();
+			}
+		};
+
+		when(lockHeartbeatMock.start(externalTaskMock, externalTaskServiceMock)).thenReturn(beatMock);
+
+		// Act
+		heartbeatWorker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		final var inOrder = inOrder(lockHeartbeatMock, businessLogic, beatMock);
+		inOrder.verify(lockHeartbeatMock).start(externalTaskMock, externalTaskServiceMock);
+		inOrder.verify(businessLogic).run();
+		inOrder.verify(beatMock).close();
+	}
+
 	@Test
 	void getErrandAttachments() {
 		final var list = new ArrayList<Attachment>();
@@ -167,4 +312,103 @@ class AbstractTaskWorkerTest {
 		assertThat(result).isSameAs(list);
 		verify(caseDataClientMock).getErrandAttachments(municipalityId, namespace, caseNumber);
 	}
+
+	@Test
+	void getErrandView() {
+		final var errand = new Errand().id(1L);
+		final var municipalityId = "municipalityId";
+		final var namespace = "namespace";
+		final var caseNumber = 1L;
+		when(caseDataClientMock.getErrandById(any(), any(), any())).thenReturn(errand);
+
+		final var result = worker.getErrandView(municipalityId, namespace, caseNumber);
+
+		assertThat(result.getId()).isEqualTo(1L);
+		verify(caseDataClientMock).getErrandById(municipalityId, namespace, caseNumber);
+	}
+
+	@Test
+	void getErrandSummary() {
+		final var summary = new ErrandSummary(1L, "PARKING_PERMIT", "Actualization", "externalCaseId", null);
+		final var municipalityId = "municipalityId";
+		final var namespace = "namespace";
+		final var caseNumber = 1L;
+		when(caseDataClientMock.getErrandSummaryById(any(), any(), any())).thenReturn(summary);
+
+		final var result = worker.getErrandSummary(municipalityId, namespace, caseNumber);
+
+		assertThat(result).isSameAs(summary);
+		verify(caseDataClientMock).getErrandSummaryById(municipalityId, namespace, caseNumber);
+	}
+
+	@Test
+	void getNotes() {
+		final var notes = new ArrayList<Note>();
+		final var municipalityId = "municipalityId";
+		final var namespace = "namespace";
+		final var caseNumber = 1L;
+		when(caseDataClientMock.getNotesByErrandId(any(), any(), any(), any())).thenReturn(notes);
+
+		final var result = worker.getNotes(municipalityId, namespace, caseNumber, "INTERNAL");
+
+		assertThat(result).isSameAs(notes);
+		verify(caseDataClientMock).getNotesByErrandId(municipalityId, namespace, caseNumber, "INTERNAL");
+	}
+
+	@Test
+	void getErrandThroughCaseDataSingleFlight() {
+		// Arrange
+		final var singleFlightMock = mock(CaseDataSingleFlight.class);
+		final var errand = new Errand().id(1L);
+		final var municipalityId = "municipalityId";
+		final var namespace = "namespace";
+		final var caseNumber = 1L;
+		worker.setCaseDataSingleFlight(singleFlightMock);
+
+		when(caseDataClientMock.getErrandById(any(), any(), any())).thenReturn(errand);
+		when(singleFlightMock.get(eq("getErrandById"), any(), any(), eq(municipalityId), eq(namespace), eq(caseNumber)))
+			.thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+
+		// Act
+		final var result = worker.getErrand(municipalityId, namespace, caseNumber);
+
+		// Assert and verify
+		assertThat(result).isSameAs(errand);
+		verify(caseDataClientMock).getErrandById(municipalityId, namespace, caseNumber);
+	}
+
+	@Test
+	void completeClearsLedgerCheckpoints() {
+		// Arrange
+		final var variables = new HashMap<String, Object>();
+		variables.put("completedStep_step", 1L);
+		variables.put("completedStepActivityInstance_step", "previousActivityInstanceId");
+		variables.put("otherVariable", "value");
+		when(externalTaskMock.getActivityInstanceId()).thenReturn("activityInstanceId");
+		when(externalTaskMock.getAllVariables()).thenReturn(variables);
+		final var ledger = IdempotencyLedger.of(externalTaskMock);
+
+		// Act
+		worker.complete(externalTaskServiceMock, externalTaskMock, ledger, Map.of("key", "value"));
+
+		// Assert and verify
+		final var localVariables = new HashMap<String, Object>();
+		localVariables.put("completedStep_step", null);
+		localVariables.put("completedStepActivityInstance_step", null);
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of("key", "value"), localVariables);
+	}
+
+	@Test
+	void getVariableNames() {
+		final var result = new AnnotatedWorker().getVariableNames();
+
+		assertThat(result).containsExactly("requestId", "municipalityId", "namespace", "caseNumber", "phase", "completedStep_step", "completedStepActivityInstance_step");
+	}
+
+	@Test
+	void getVariableNamesWhenNotDeclared() {
+		assertThatThrownBy(() -> worker.getVariableNames())
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("Worker Worker does not declare the variables it reads");
+	}
 }
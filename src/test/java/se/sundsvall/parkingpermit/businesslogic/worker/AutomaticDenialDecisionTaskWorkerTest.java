@@ -26,10 +26,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.IdempotencyLedger;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 import se.sundsvall.parkingpermit.service.MessagingService;
 import se.sundsvall.parkingpermit.util.CommonTextProperties;
+import se.sundsvall.parkingpermit.util.ControlMessageTimer;
 import se.sundsvall.parkingpermit.util.DenialTextProperties;
 import se.sundsvall.parkingpermit.util.SimplifiedServiceTextProperties;
 import se.sundsvall.parkingpermit.util.TextProvider;
@@ -70,7 +72,9 @@ class AutomaticDenialDecisionTaskWorkerTest {
 	private static final String ROLE_DOCTOR = "DOCTOR";
 	private static final String TEMPLATE_ID = "sbk.prh.decision.all.rejection.municipality";
 	private static final String BASE64_CONTENT = "ZmlsZW91dHB1dCBhcyBiYXNlNjQgc3RyaW5n";
+	private static final String ACTIVITY_INSTANCE_ID = "activityInstanceId";
 	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	private static final Date CONTROL_MESSAGE_TIME = new Date();
 
 	@Mock
 	private CamundaClient camundaClientMock;
@@ -105,6 +109,9 @@ class AutomaticDenialDecisionTaskWorkerTest {
 	@Mock
 	private SimplifiedServiceTextProperties simplifiedServiceTextPropertiesMock;
 
+	@Mock
+	private ControlMessageTimer controlMessageTimerMock;
+
 	@InjectMocks
 	private AutomaticDenialDecisionTaskWorker worker;
 
@@ -117,6 +124,9 @@ class AutomaticDenialDecisionTaskWorkerTest {
 	@Captor
 	private ArgumentCaptor<Map<String, Object>> mapCaptor;
 
+	@Captor
+	private ArgumentCaptor<Map<String, Object>> localVariablesCaptor;
+
 	@Captor
 	private ArgumentCaptor<FormData> attachmentMetadataCaptor;
 
@@ -156,6 +166,7 @@ class AutomaticDenialDecisionTaskWorkerTest {
 		when(denialTextPropertiesMock.getTemplateId()).thenReturn(TEMPLATE_ID);
 		when(textProviderMock.getSimplifiedServiceTexts(MUNICIPALITY_ID)).thenReturn(simplifiedServiceTextPropertiesMock);
 		when(simplifiedServiceTextPropertiesMock.getDelay()).thenReturn("P1D");
+		when(controlMessageTimerMock.getControlMessageTime(eq(MUNICIPALITY_ID), any(), any(Decision.class), eq("P1D"))).thenReturn(CONTROL_MESSAGE_TIME);
 
 		// Act
 		worker.execute(externalTaskMock, externalTaskServiceMock);
@@ -174,11 +185,11 @@ class AutomaticDenialDecisionTaskWorkerTest {
 		verify(messagingServiceMock).renderPdfDecision(MUNICIPALITY_ID, errandMock, TEMPLATE_ID);
 		verify(caseDataClientMock).patchNewDecision(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), decisionCaptor.capture());
 		verify(caseDataClientMock).postDecisionAttachment(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), eq(decisionId), attachmentMetadataCaptor.capture(), attachmentFileCaptor.capture());
-		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture());
+		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture(), eq(Map.of()));
 		verifyNoInteractions(failureHandlerMock, camundaClientMock);
 
 		assertThat(mapCaptor.getValue()).containsOnlyKeys(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE);
-		assertThat(((Date) mapCaptor.getValue().get(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE))).isCloseTo(now().plusDays(1).toInstant(), 2000);
+		assertThat(mapCaptor.getValue()).containsEntry(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE, CONTROL_MESSAGE_TIME);
 
 		assertThat(stakeholderCaptor.getValue())
 			.extracting(Stakeholder::getType, Stakeholder::getFirstName, Stakeholder::getLastName, Stakeholder::getRoles)
@@ -236,6 +247,7 @@ class AutomaticDenialDecisionTaskWorkerTest {
 		when(denialTextPropertiesMock.getTemplateId()).thenReturn(TEMPLATE_ID);
 		when(textProviderMock.getSimplifiedServiceTexts(MUNICIPALITY_ID)).thenReturn(simplifiedServiceTextPropertiesMock);
 		when(simplifiedServiceTextPropertiesMock.getDelay()).thenReturn("P1D");
+		when(controlMessageTimerMock.getControlMessageTime(eq(MUNICIPALITY_ID), any(), any(Decision.class), eq("P1D"))).thenReturn(CONTROL_MESSAGE_TIME);
 
 		// Act
 		worker.execute(externalTaskMock, externalTaskServiceMock);
@@ -254,11 +266,11 @@ class AutomaticDenialDecisionTaskWorkerTest {
 		verify(simplifiedServiceTextPropertiesMock).getDelay();
 		verify(caseDataClientMock).patchNewDecision(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), decisionCaptor.capture());
 		verify(caseDataClientMock).postDecisionAttachment(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), eq(decisionId), attachmentMetadataCaptor.capture(), attachmentFileCaptor.capture());
-		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture());
+		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture(), eq(Map.of()));
 		verifyNoInteractions(failureHandlerMock, camundaClientMock);
 
 		assertThat(mapCaptor.getValue()).containsOnlyKeys(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE);
-		assertThat(((Date) mapCaptor.getValue().get(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE))).isCloseTo(now().plusDays(1).toInstant(), 2000);
+		assertThat(mapCaptor.getValue()).containsEntry(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE, CONTROL_MESSAGE_TIME);
 		assertThat(decisionCaptor.getValue().getCreated()).isCloseTo(now(), within(2, SECONDS));
 		assertThat(decisionCaptor.getValue().getDecisionType()).isEqualTo(FINAL);
 		assertThat(decisionCaptor.getValue().getDecisionOutcome()).isEqualTo(DISMISSAL);
@@ -280,6 +292,87 @@ class AutomaticDenialDecisionTaskWorkerTest {
 		assertAttachmentParts(attachmentMetadataCaptor.getValue(), attachmentFileCaptor.getValue(), filename);
 	}
 
+	@Test
+	void executeResumesFromCheckpoints() {
+		// Setup
+		final var filename = "filename";
+		final var processEngineStakeholder = createStakeholder(new Random().nextLong(), ROLE_ADMINISTRATOR, "Process", "Engine");
+		final var decisionId = new Random().nextLong();
+
+		// Mock
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(externalTaskMock.getActivityInstanceId()).thenReturn(ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getAllVariables()).thenReturn(Map.of(
+			"completedStep_createDecision", decisionId,
+			"completedStepActivityInstance_createDecision", ACTIVITY_INSTANCE_ID));
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getId()).thenReturn(ERRAND_ID);
+		when(errandMock.getStakeholders()).thenReturn(List.of(processEngineStakeholder));
+		when(textProviderMock.getDenialTexts(MUNICIPALITY_ID)).thenReturn(denialTextPropertiesMock);
+		when(textProviderMock.getCommonTexts(MUNICIPALITY_ID)).thenReturn(commonTextPropertiesMock);
+		when(commonTextPropertiesMock.getFilename()).thenReturn(filename);
+		when(denialTextPropertiesMock.getTemplateId()).thenReturn(TEMPLATE_ID);
+		// The document is not checkpointed, but rendered again
+		when(messagingServiceMock.renderPdfDecision(MUNICIPALITY_ID, errandMock, TEMPLATE_ID)).thenReturn(new RenderResponse().output(BASE64_CONTENT));
+		when(textProviderMock.getSimplifiedServiceTexts(MUNICIPALITY_ID)).thenReturn(simplifiedServiceTextPropertiesMock);
+		when(simplifiedServiceTextPropertiesMock.getDelay()).thenReturn("P1D");
+		when(controlMessageTimerMock.getControlMessageTime(eq(MUNICIPALITY_ID), any(), any(Decision.class), eq("P1D"))).thenReturn(CONTROL_MESSAGE_TIME);
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Verify and assert
+		verify(caseDataClientMock, never()).patchNewDecision(any(), any(), any(), any());
+		verify(messagingServiceMock).renderPdfDecision(MUNICIPALITY_ID, errandMock, TEMPLATE_ID);
+		verify(caseDataClientMock).postDecisionAttachment(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), eq(decisionId), attachmentMetadataCaptor.capture(), attachmentFileCaptor.capture());
+		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture(), localVariablesCaptor.capture());
+		verifyNoInteractions(failureHandlerMock, camundaClientMock);
+
+		assertThat(mapCaptor.getValue()).containsOnlyKeys(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE);
+		assertThat(localVariablesCaptor.getValue())
+			.containsOnlyKeys("completedStep_createDecision", "completedStepActivityInstance_createDecision")
+			.containsValues((Object) null);
+		assertAttachmentParts(attachmentMetadataCaptor.getValue(), attachmentFileCaptor.getValue(), filename);
+	}
+
+	@Test
+	void executeRecordsCreatedDecisionWhenAttachmentFails() {
+		// Setup
+		final var filename = "filename";
+		final var processEngineStakeholder = createStakeholder(new Random().nextLong(), ROLE_ADMINISTRATOR, "Process", "Engine");
+		final var decisionId = new Random().nextLong();
+		final var ledgerCaptor = ArgumentCaptor.forClass(IdempotencyLedger.class);
+
+		// Mock
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getId()).thenReturn(ERRAND_ID);
+		when(errandMock.getStakeholders()).thenReturn(List.of(processEngineStakeholder));
+		when(caseDataClientMock.patchNewDecision(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), any())).thenReturn(ResponseEntity.created(URI.create("url/to/created/id/" + decisionId)).build());
+		when(caseDataClientMock.postDecisionAttachment(any(), any(), any(), any(), any(), any())).thenThrow(new IllegalStateException("Attachment failed"));
+		when(messagingServiceMock.renderPdfDecision(MUNICIPALITY_ID, errandMock, TEMPLATE_ID)).thenReturn(new RenderResponse().output(BASE64_CONTENT));
+		when(textProviderMock.getDenialTexts(MUNICIPALITY_ID)).thenReturn(denialTextPropertiesMock);
+		when(textProviderMock.getCommonTexts(MUNICIPALITY_ID)).thenReturn(commonTextPropertiesMock);
+		when(commonTextPropertiesMock.getFilename()).thenReturn(filename);
+		when(denialTextPropertiesMock.getTemplateId()).thenReturn(TEMPLATE_ID);
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Verify and assert
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Attachment failed"), ledgerCaptor.capture());
+		verify(externalTaskServiceMock, never()).complete(any(ExternalTask.class), any(), any());
+		assertThat(ledgerCaptor.getValue().toLocalVariables())
+			.containsOnlyKeys("completedStep_createDecision", "completedStepActivityInstance_createDecision")
+			.containsEntry("completedStep_createDecision", decisionId);
+	}
+
 	@Test
 	void executeProcessEngineStakeholderCreationDoesNotReturnId() {
 		// Mock to simulate case data not returning stakeholder id upon creation
@@ -306,7 +399,8 @@ class AutomaticDenialDecisionTaskWorkerTest {
 		verify(caseDataClientMock, never()).patchNewDecision(eq(MUNICIPALITY_ID), eq(NAMESPACE), any(), any());
 		verify(externalTaskServiceMock, never()).complete(any());
 		verify(externalTaskServiceMock, never()).complete(any(), any());
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, "Bad Gateway: CaseData integration did not return any location for created stakeholder");
+		verify(externalTaskServiceMock, never()).complete(any(), any(), any());
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Bad Gateway: CaseData integration did not return any location for created stakeholder"), any(IdempotencyLedger.class));
 		verify(externalTaskMock).getId();
 		verifyNoInteractions(camundaClientMock, textProviderMock);
 	}
@@ -337,7 +431,8 @@ class AutomaticDenialDecisionTaskWorkerTest {
 		verify(caseDataClientMock, never()).patchNewDecision(eq(MUNICIPALITY_ID), eq(NAMESPACE), any(), any());
 		verify(externalTaskServiceMock, never()).complete(any());
 		verify(externalTaskServiceMock, never()).complete(any(), any());
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, "Bad Gateway: CaseData integration did not return any location for created stakeholder");
+		verify(externalTaskServiceMock, never()).complete(any(), any(), any());
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Bad Gateway: CaseData integration did not return any location for created stakeholder"), any(IdempotencyLedger.class));
 		verify(externalTaskMock).getId();
 		verifyNoInteractions(camundaClientMock, textProviderMock);
 
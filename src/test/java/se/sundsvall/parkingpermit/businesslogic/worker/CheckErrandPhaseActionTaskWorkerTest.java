@@ -42,6 +42,7 @@ import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_MUNICIPALITY
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_NAMESPACE;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_PHASE_ACTION;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_REQUEST_ID;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_TASK_PRIORITY;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_UPDATE_AVAILABLE;
 import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_DISPLAY_PHASE;
 import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_PHASE_ACTION;
@@ -55,6 +56,8 @@ import static se.sundsvall.parkingpermit.Constants.PHASE_ACTION_UNKNOWN;
 import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_CANCELED;
 import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_COMPLETED;
 import static se.sundsvall.parkingpermit.Constants.PHASE_STATUS_WAITING;
+import static se.sundsvall.parkingpermit.Constants.TASK_PRIORITY_AUTOMATIC;
+import static se.sundsvall.parkingpermit.Constants.TASK_PRIORITY_DEFAULT;
 
 @ExtendWith(MockitoExtension.class)
 class CheckErrandPhaseActionTaskWorkerTest {
@@ -113,6 +116,7 @@ class CheckErrandPhaseActionTaskWorkerTest {
 
 		final var variables = new HashMap<String, Object>();
 		variables.put(CAMUNDA_VARIABLE_PHASE_ACTION, PHASE_ACTION_UNKNOWN);
+		variables.put(CAMUNDA_VARIABLE_TASK_PRIORITY, TASK_PRIORITY_DEFAULT);
 
 		// Mock
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
@@ -161,6 +165,7 @@ class CheckErrandPhaseActionTaskWorkerTest {
 
 		final var variables = new HashMap<String, Object>();
 		variables.put(CAMUNDA_VARIABLE_PHASE_ACTION, PHASE_ACTION_UNKNOWN);
+		variables.put(CAMUNDA_VARIABLE_TASK_PRIORITY, TASK_PRIORITY_DEFAULT);
 
 		// Mock
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
@@ -198,6 +203,7 @@ class CheckErrandPhaseActionTaskWorkerTest {
 
 		final var variables = new HashMap<String, Object>();
 		variables.put(CAMUNDA_VARIABLE_PHASE_ACTION, phaseAction);
+		variables.put(CAMUNDA_VARIABLE_TASK_PRIORITY, PHASE_ACTION_AUTOMATIC.equals(phaseAction) ? TASK_PRIORITY_AUTOMATIC : TASK_PRIORITY_DEFAULT);
 
 		// Mock
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
@@ -0,0 +1,155 @@
+package se.sundsvall.parkingpermit.businesslogic.worker;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.stereotype.Component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.RETURNS_MOCKS;
+import static org.mockito.Mockito.mock;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_CASE_NUMBER;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_MUNICIPALITY_ID;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_NAMESPACE;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_REQUEST_ID;
+
+/**
+ * Runs every worker against a task that only answers the variables the worker declares through {@link TaskVariables},
+ * and fails on any read of another variable or ledger checkpoint. The integrations of the workers are mocks returning
+ * empty values or mocks, so the reads checked are those on the paths that such responses lead the workers through.
+ */
+class TaskVariablesTest {
+
+	private static final Map<String, Object> VARIABLE_VALUES = Map.of(
+		CAMUNDA_VARIABLE_REQUEST_ID, "requestId",
+		CAMUNDA_VARIABLE_MUNICIPALITY_ID, "2281",
+		CAMUNDA_VARIABLE_NAMESPACE, "SBK_PARKING_PERMIT",
+		CAMUNDA_VARIABLE_CASE_NUMBER, 1L);
+
+	@Test
+	void findWorkers() {
+		assertThat(workers()).isNotEmpty();
+	}
+
+	@Timeout(10)
+	@ParameterizedTest
+	@MethodSource("workers")
+	void workerReadsOnlyDeclaredVariables(Class<? extends AbstractTaskWorker> workerClass) throws Exception {
+		// Arrange
+		final var worker = createWorker(workerClass);
+		final var variableNames = worker.getVariableNames();
+		final var undeclaredReads = ConcurrentHashMap.<String>newKeySet();
+		final var externalTask = externalTask(variableNames, undeclaredReads);
+
+		// Act
+		worker.execute(externalTask, mock(ExternalTaskService.class));
+
+		// Assert
+		assertThat(undeclaredReads)
+			.as("Variables read by %s without being declared by its @TaskVariables annotation", workerClass.getSimpleName())
+			.isEmpty();
+	}
+
+	private static Stream<Class<? extends AbstractTaskWorker>> workers() {
+		final var provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.addIncludeFilter(new AssignableTypeFilter(AbstractTaskWorker.class));
+
+		// Only the workers registered as beans, not those extending the abstract worker in tests
+		return provider.findCandidateComponents(AbstractTaskWorker.class.getPackageName()).stream()
+			.map(BeanDefinition::getBeanClassName)
+			.map(TaskVariablesTest::toWorkerClass)
+			.filter(workerClass -> workerClass.isAnnotationPresent(Component.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends AbstractTaskWorker> toWorkerClass(String className) {
+		try {
+			return (Class<? extends AbstractTaskWorker>) Class.forName(className);
+		} catch (final ClassNotFoundException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static AbstractTaskWorker createWorker(Class<? extends AbstractTaskWorker> workerClass) throws Exception {
+		final var constructor = Arrays.stream(workerClass.getDeclaredConstructors())
+			.max(Comparator.comparingInt(Constructor::getParameterCount))
+			.orElseThrow();
+		constructor.setAccessible(true);
+
+		final var arguments = Arrays.stream(constructor.getParameterTypes())
+			.map(type -> mock(type, RETURNS_MOCKS))
+			.toArray();
+		return (AbstractTaskWorker) constructor.newInstance(arguments);
+	}
+
+	private static ExternalTask externalTask(List<String> variableNames, Set<String> undeclaredReads) {
+		return mock(ExternalTask.class, invocation -> switch (invocation.getMethod().getName()) {
+			case "getVariable" -> read(invocation.getArgument(0), variableNames, undeclaredReads);
+			case "getVariableTyped" -> {
+				read(invocation.getArgument(0), variableNames, undeclaredReads);
+				yield null;
+			}
+			case "getAllVariables" -> new DeclaredVariables(variableNames, undeclaredReads);
+			case "getId" -> "taskId";
+			case "getActivityInstanceId" -> "activityInstanceId";
+			case "getProcessInstanceId" -> "processInstanceId";
+			case "getTopicName" -> "topic";
+			default -> RETURNS_DEFAULTS.answer(invocation);
+		});
+	}
+
+	private static Object read(Object variableName, List<String> variableNames, Set<String> undeclaredReads) {
+		if (!variableNames.contains(variableName)) {
+			undeclaredReads.add(String.valueOf(variableName));
+		}
+		return VARIABLE_VALUES.get(variableName);
+	}
+
+	/**
+	 * The variables of a task without any checkpoints, recording reads of variables not declared by the worker.
+	 */
+	private static final class DeclaredVariables extends HashMap<String, Object> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient List<String> variableNames;
+		private final transient Set<String> undeclaredReads;
+
+		private DeclaredVariables(List<String> variableNames, Set<String> undeclaredReads) {
+			this.variableNames = variableNames;
+			this.undeclaredReads = undeclaredReads;
+		}
+
+		@Override
+		public Object get(Object key) {
+			return read(key, variableNames, undeclaredReads);
+		}
+
+		@Override
+		public Object getOrDefault(Object key, Object defaultValue) {
+			final var value = get(key);
+			return value == null ? defaultValue : value;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+	}
+}
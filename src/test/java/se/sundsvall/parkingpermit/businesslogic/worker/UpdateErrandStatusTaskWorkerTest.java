@@ -1,6 +1,5 @@
 package se.sundsvall.parkingpermit.businesslogic.worker;
 
-import generated.se.sundsvall.casedata.Errand;
 import generated.se.sundsvall.casedata.Status;
 import org.camunda.bpm.client.spring.annotation.ExternalTaskSubscription;
 import org.camunda.bpm.client.task.ExternalTask;
@@ -17,6 +16,7 @@ import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandSummary;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.temporal.ChronoUnit.SECONDS;
@@ -56,9 +56,6 @@ class UpdateErrandStatusTaskWorkerTest {
 	@Mock
 	private FailureHandler failureHandlerMock;
 
-	@Mock
-	private Errand errandMock;
-
 	@InjectMocks
 	private UpdateErrandStatusTaskWorker worker;
 
@@ -81,8 +78,7 @@ class UpdateErrandStatusTaskWorkerTest {
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
-		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
-		when(errandMock.getId()).thenReturn(ERRAND_ID);
+		when(caseDataClientMock.getErrandSummaryById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(new ErrandSummary(ERRAND_ID, null, null, null, null));
 		when(externalTaskMock.getVariable("status")).thenReturn(status);
 		when(externalTaskMock.getVariable("statusDescription")).thenReturn(statusDescription);
 
@@ -94,7 +90,7 @@ class UpdateErrandStatusTaskWorkerTest {
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
-		verify(caseDataClientMock).getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID);
+		verify(caseDataClientMock).getErrandSummaryById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID);
 		verify(caseDataClientMock).patchStatus(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), statusCaptor.capture());
 		verify(externalTaskServiceMock).complete(externalTaskMock);
 		verifyNoInteractions(camundaClientMock, failureHandlerMock);
@@ -116,8 +112,7 @@ class UpdateErrandStatusTaskWorkerTest {
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
-		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
-		when(errandMock.getId()).thenReturn(ERRAND_ID);
+		when(caseDataClientMock.getErrandSummaryById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(new ErrandSummary(ERRAND_ID, null, null, null, null));
 		when(externalTaskMock.getVariable("status")).thenReturn(status);
 		when(externalTaskMock.getVariable("statusDescription")).thenReturn(statusDescription);
 		when(caseDataClientMock.patchStatus(eq(MUNICIPALITY_ID), eq(NAMESPACE), any(), any())).thenThrow(problem);
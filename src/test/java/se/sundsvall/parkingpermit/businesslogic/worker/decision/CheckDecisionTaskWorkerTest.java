@@ -13,7 +13,6 @@ import org.camunda.bpm.client.exception.EngineException;
 import org.camunda.bpm.client.exception.RestException;
 import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
-import org.joda.time.DateTime;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -24,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.util.ControlMessageTimer;
 import se.sundsvall.parkingpermit.util.SimplifiedServiceTextProperties;
 import se.sundsvall.parkingpermit.util.TextProvider;
 
@@ -73,6 +73,7 @@ class CheckDecisionTaskWorkerTest {
 	private static final String NAMESPACE = "SBK_PARKING_PERMIT";
 	private static final String PROCESS_INSTANCE_ID = "processInstanceId";
 	private static final String KEY_PHASE_ACTION = "process.phaseAction";
+	private static final Date CONTROL_MESSAGE_TIME = new Date();
 
 	@Mock
 	private CamundaClient camundaClientMock;
@@ -98,6 +99,9 @@ class CheckDecisionTaskWorkerTest {
 	@Mock
 	private FailureHandler failureHandlerMock;
 
+	@Mock
+	private ControlMessageTimer controlMessageTimerMock;
+
 	@InjectMocks
 	private CheckDecisionTaskWorker worker;
 
@@ -127,6 +131,7 @@ class CheckDecisionTaskWorkerTest {
 		when(errandMock.getStatuses()).thenReturn(List.of(status));
 		when(textProviderMock.getSimplifiedServiceTexts(MUNICIPALITY_ID)).thenReturn(simplifiedServiceTextPropertiesMock);
 		when(simplifiedServiceTextPropertiesMock.getDelay()).thenReturn("P1D");
+		when(controlMessageTimerMock.getControlMessageTime(eq(MUNICIPALITY_ID), any(), any(Decision.class), eq("P1D"))).thenReturn(CONTROL_MESSAGE_TIME);
 
 		// Act
 		worker.execute(externalTaskMock, externalTaskServiceMock);
@@ -135,8 +140,7 @@ class CheckDecisionTaskWorkerTest {
 		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture());
 		assertThat(mapCaptor.getValue()).containsEntry(CAMUNDA_VARIABLE_FINAL_DECISION, true)
 			.containsEntry(CAMUNDA_VARIABLE_IS_APPROVED, true);
-		assertThat(mapCaptor.getValue().get(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE)).isInstanceOf(Date.class);
-		assertThat(((Date) mapCaptor.getValue().get(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE))).isCloseTo(DateTime.now().plusDays(1).toDate(), 1000);
+		assertThat(mapCaptor.getValue()).containsEntry(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE, CONTROL_MESSAGE_TIME);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
@@ -169,6 +173,7 @@ class CheckDecisionTaskWorkerTest {
 		when(errandMock.getExtraParameters()).thenReturn(List.of(new ExtraParameter(KEY_PHASE_ACTION).addValuesItem("COMPLETE")));
 		when(textProviderMock.getSimplifiedServiceTexts(MUNICIPALITY_ID)).thenReturn(simplifiedServiceTextPropertiesMock);
 		when(simplifiedServiceTextPropertiesMock.getDelay()).thenReturn("P1D");
+		when(controlMessageTimerMock.getControlMessageTime(eq(MUNICIPALITY_ID), any(), any(Decision.class), eq("P1D"))).thenReturn(CONTROL_MESSAGE_TIME);
 
 		// Act
 		worker.execute(externalTaskMock, externalTaskServiceMock);
@@ -177,8 +182,7 @@ class CheckDecisionTaskWorkerTest {
 		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture());
 		assertThat(mapCaptor.getValue()).containsEntry(CAMUNDA_VARIABLE_FINAL_DECISION, true)
 			.containsEntry(CAMUNDA_VARIABLE_IS_APPROVED, false);
-		assertThat(mapCaptor.getValue().get(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE)).isInstanceOf(Date.class);
-		assertThat(((Date) mapCaptor.getValue().get(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE))).isCloseTo(DateTime.now().plusDays(1).toDate(), 1000);
+		assertThat(mapCaptor.getValue()).containsEntry(CAMUNDA_VARIABLE_TIME_TO_SEND_CONTROL_MESSAGE, CONTROL_MESSAGE_TIME);
 
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
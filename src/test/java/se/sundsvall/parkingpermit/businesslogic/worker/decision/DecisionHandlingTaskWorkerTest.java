@@ -11,6 +11,7 @@ import generated.se.sundsvall.supportmanagement.ContactChannel;
 import generated.se.sundsvall.supportmanagement.ErrandLabel;
 import generated.se.sundsvall.supportmanagement.Label;
 import generated.se.sundsvall.templating.RenderResponse;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,6 +28,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.IdempotencyLedger;
+import se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 import se.sundsvall.parkingpermit.service.MessagingService;
@@ -41,10 +44,12 @@ import static generated.se.sundsvall.casedata.Decision.DecisionOutcomeEnum.REJEC
 import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.FINAL;
 import static generated.se.sundsvall.casedata.Stakeholder.TypeEnum.PERSON;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -71,6 +76,7 @@ class DecisionHandlingTaskWorkerTest {
 	private static final String ERRAND_NUMBER = "ErrandNumber";
 	private static final String MUNICIPALITY_ID = "2281";
 	private static final String NAMESPACE = "SBK_PARKING_PERMIT";
+	private static final String ACTIVITY_INSTANCE_ID = "activityInstanceId";
 
 	@Mock
 	private CamundaClient camundaClientMock;
@@ -111,6 +117,9 @@ class DecisionHandlingTaskWorkerTest {
 	@Mock
 	private FailureHandler failureHandlerMock;
 
+	@Mock
+	private LockHeartbeat lockHeartbeatMock;
+
 	@InjectMocks
 	private DecisionHandlingTaskWorker worker;
 
@@ -120,6 +129,9 @@ class DecisionHandlingTaskWorkerTest {
 	@Captor
 	private ArgumentCaptor<generated.se.sundsvall.supportmanagement.Errand> supportManagementErrandCaptor;
 
+	@Captor
+	private ArgumentCaptor<IdempotencyLedger> ledgerCaptor;
+
 	@Test
 	void executeWhenDecisionIsApprovedAndSendDigital() {
 
@@ -150,7 +162,9 @@ class DecisionHandlingTaskWorkerTest {
 		worker.execute(externalTaskMock, externalTaskServiceMock);
 
 		// Assert and verify
-		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture());
+		verify(lockHeartbeatMock).start(externalTaskMock, externalTaskServiceMock);
+		verify(lockHeartbeatMock).isLockLost(externalTaskMock);
+		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture(), eq(Map.of()));
 		assertThat(mapCaptor.getValue()).containsEntry(CAMUNDA_VARIABLE_MESSAGE_ID, messageUUID.toString());
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
@@ -227,7 +241,7 @@ class DecisionHandlingTaskWorkerTest {
 		worker.execute(externalTaskMock, externalTaskServiceMock);
 
 		// Assert and verify
-		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture());
+		verify(externalTaskServiceMock).complete(any(ExternalTask.class), mapCaptor.capture(), eq(Map.of()));
 		assertThat(mapCaptor.getValue()).containsEntry(CAMUNDA_VARIABLE_MESSAGE_ID, messageUUID.toString());
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
@@ -301,7 +315,7 @@ class DecisionHandlingTaskWorkerTest {
 		worker.execute(externalTaskMock, externalTaskServiceMock);
 
 		// Assert and verify
-		verify(externalTaskServiceMock).complete(any(ExternalTask.class));
+		verify(externalTaskServiceMock).complete(any(ExternalTask.class), eq(Map.of()), eq(Map.of()));
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
@@ -347,7 +361,7 @@ class DecisionHandlingTaskWorkerTest {
 		worker.execute(externalTaskMock, externalTaskServiceMock);
 
 		// Assert and verify
-		verify(externalTaskServiceMock).complete(any(ExternalTask.class));
+		verify(externalTaskServiceMock).complete(any(ExternalTask.class), eq(Map.of()), eq(Map.of()));
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
@@ -375,6 +389,7 @@ class DecisionHandlingTaskWorkerTest {
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(externalTaskMock.getActivityInstanceId()).thenReturn(ACTIVITY_INSTANCE_ID);
 		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
 		when(errandMock.getDecisions()).thenReturn(List.of(createFinalDecision(APPROVAL)));
 		when(errandMock.getStakeholders()).thenReturn(createApplicantAndAdministratorStakeholder());
@@ -386,13 +401,13 @@ class DecisionHandlingTaskWorkerTest {
 		when(supportManagementServiceMock.createErrand(eq(MUNICIPALITY_ID), eq(SM_NAMESPACE_CONTACTANGE), any())).thenReturn(Optional.of(smErrandId));
 		when(supportManagementServiceMock.getMetadataLabels(MUNICIPALITY_ID, SM_NAMESPACE_CONTACTANGE)).thenReturn(createLabels());
 
-		doThrow(thrownException).when(externalTaskServiceMock).complete(any(), anyMap());
+		doThrow(thrownException).when(externalTaskServiceMock).complete(any(), anyMap(), anyMap());
 
 		// Act
 		worker.execute(externalTaskMock, externalTaskServiceMock);
 
 		// Assert and verify
-		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(CAMUNDA_VARIABLE_MESSAGE_ID, messageUUID.toString()));
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(CAMUNDA_VARIABLE_MESSAGE_ID, messageUUID.toString()), Map.of());
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
@@ -400,9 +415,86 @@ class DecisionHandlingTaskWorkerTest {
 		verify(caseDataClientMock).getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID);
 		verify(messagingServiceMock).renderPdfDecision(MUNICIPALITY_ID, errandMock, templateIdentifier);
 		verify(messagingServiceMock).sendDecisionMessage(MUNICIPALITY_ID, errandMock, pdf, true);
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, thrownException.getMessage());
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq(thrownException.getMessage()), ledgerCaptor.capture());
 		verify(supportManagementServiceMock).getMetadataLabels(MUNICIPALITY_ID, SM_NAMESPACE_CONTACTANGE);
 		verifyNoMoreInteractions(camundaClientMock, messagingServiceMock);
+
+		// The decision has been sent and must not be sent again when the task is retried
+		assertThat(ledgerCaptor.getValue().toLocalVariables())
+			.containsOnly(
+				entry("completedStep_sendDigitalMail", messageUUID.toString()),
+				entry("completedStepActivityInstance_sendDigitalMail", ACTIVITY_INSTANCE_ID),
+				entry("completedStep_createCardErrand", null),
+				entry("completedStepActivityInstance_createCardErrand", ACTIVITY_INSTANCE_ID));
+	}
+
+	@Test
+	void executeWhenLockIsLost() {
+
+		// Arrange
+		final var pdf = new RenderResponse();
+		final var extraParameters = List.of(new ExtraParameter().key(CASEDATA_KEY_APPLICATION_APPLICANT_CAPACITY).values(List.of("PASSENGER")));
+		final var templateIdentifier = "sbk.rph.decision.passenger.approval";
+
+		when(externalTaskMock.getId()).thenReturn("taskId");
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getDecisions()).thenReturn(List.of(createFinalDecision(APPROVAL)));
+		when(errandMock.getExtraParameters()).thenReturn(extraParameters);
+		when(messagingServiceMock.renderPdfDecision(MUNICIPALITY_ID, errandMock, templateIdentifier)).thenReturn(pdf);
+		when(lockHeartbeatMock.isLockLost(externalTaskMock)).thenReturn(true);
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Lock of task with id taskId has been lost"), any(IdempotencyLedger.class));
+		verify(messagingServiceMock).renderPdfDecision(MUNICIPALITY_ID, errandMock, templateIdentifier);
+		verify(externalTaskServiceMock, never()).complete(any(), any(), any());
+		verifyNoMoreInteractions(messagingServiceMock);
+		verifyNoInteractions(supportManagementServiceMock);
+	}
+
+	@Test
+	void executeSkipsStepsCompletedByPreviousExecution() {
+
+		// Arrange
+		final var pdf = new RenderResponse();
+		final var messageId = UUID.randomUUID().toString();
+		final var extraParameters = List.of(new ExtraParameter().key(CASEDATA_KEY_APPLICATION_APPLICANT_CAPACITY).values(List.of("PASSENGER")));
+		final var templateIdentifier = "sbk.rph.decision.passenger.approval";
+		final var completedSteps = new HashMap<String, Object>();
+		completedSteps.put("completedStep_sendDigitalMail", messageId);
+		completedSteps.put("completedStepActivityInstance_sendDigitalMail", ACTIVITY_INSTANCE_ID);
+		completedSteps.put("completedStep_createCardErrand", null);
+		completedSteps.put("completedStepActivityInstance_createCardErrand", ACTIVITY_INSTANCE_ID);
+		final var clearedSteps = new HashMap<String, Object>();
+		completedSteps.keySet().forEach(name -> clearedSteps.put(name, null));
+
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(externalTaskMock.getActivityInstanceId()).thenReturn(ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getAllVariables()).thenReturn(completedSteps);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getDecisions()).thenReturn(List.of(createFinalDecision(APPROVAL)));
+		when(errandMock.getExtraParameters()).thenReturn(extraParameters);
+		when(textProviderMock.getCommonTexts(MUNICIPALITY_ID)).thenReturn(commonTextPropertiesMock);
+		when(commonTextPropertiesMock.getSendDigitalMail()).thenReturn(true);
+		when(messagingServiceMock.renderPdfDecision(MUNICIPALITY_ID, errandMock, templateIdentifier)).thenReturn(pdf);
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(CAMUNDA_VARIABLE_MESSAGE_ID, messageId), clearedSteps);
+		verify(messagingServiceMock).renderPdfDecision(MUNICIPALITY_ID, errandMock, templateIdentifier);
+		verifyNoMoreInteractions(camundaClientMock, messagingServiceMock);
+		verifyNoInteractions(supportManagementServiceMock, failureHandlerMock);
 	}
 
 	private Decision createFinalDecision(DecisionOutcomeEnum decisionOutcome) {
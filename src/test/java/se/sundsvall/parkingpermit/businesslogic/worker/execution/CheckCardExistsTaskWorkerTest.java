@@ -1,7 +1,6 @@
 package se.sundsvall.parkingpermit.businesslogic.worker.execution;
 
 import generated.se.sundsvall.camunda.VariableValueDto;
-import generated.se.sundsvall.casedata.Errand;
 import generated.se.sundsvall.casedata.ExtraParameter;
 import java.util.List;
 import java.util.Map;
@@ -18,6 +17,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
+import se.sundsvall.parkingpermit.integration.casedata.model.ErrandSummary;
 
 import static java.util.Collections.emptyList;
 import static org.mockito.ArgumentMatchers.any;
@@ -64,14 +64,12 @@ class CheckCardExistsTaskWorkerTest {
 	@Test
 	void executeWhenCardExists() {
 		// Arrange
-		final var errand = new Errand()
-			.id(ERRAND_ID)
-			.extraParameters(List.of(new ExtraParameter("artefact.permit.number").addValuesItem(PERMIT_NUMBER)));
+		final var errand = new ErrandSummary(ERRAND_ID, null, null, null, List.of(new ExtraParameter("artefact.permit.number").addValuesItem(PERMIT_NUMBER)));
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
-		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errand);
+		when(caseDataClientMock.getErrandSummaryById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errand);
 		when(externalTaskMock.getProcessInstanceId()).thenReturn(PROCESS_INSTANCE_ID);
 
 		// Act
@@ -90,14 +88,12 @@ class CheckCardExistsTaskWorkerTest {
 	@Test
 	void executeWhenCardNotExists() {
 		// Arrange
-		final var errand = new Errand()
-			.id(ERRAND_ID)
-			.extraParameters(emptyList());
+		final var errand = new ErrandSummary(ERRAND_ID, null, null, null, emptyList());
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
-		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errand);
+		when(caseDataClientMock.getErrandSummaryById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errand);
 		when(externalTaskMock.getProcessInstanceId()).thenReturn(PROCESS_INSTANCE_ID);
 
 		// Act
@@ -116,14 +112,12 @@ class CheckCardExistsTaskWorkerTest {
 	@Test
 	void executeThrowsException() {
 		// Arrange
-		final var errand = new Errand()
-			.id(ERRAND_ID)
-			.extraParameters(List.of(new ExtraParameter("artefact.permit.number").addValuesItem(PERMIT_NUMBER)));
+		final var errand = new ErrandSummary(ERRAND_ID, null, null, null, List.of(new ExtraParameter("artefact.permit.number").addValuesItem(PERMIT_NUMBER)));
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
-		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errand);
+		when(caseDataClientMock.getErrandSummaryById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errand);
 		when(externalTaskMock.getProcessInstanceId()).thenReturn(PROCESS_INSTANCE_ID);
 
 		final var thrownException = new EngineException("TestException", new RestException("message", "type", 1));
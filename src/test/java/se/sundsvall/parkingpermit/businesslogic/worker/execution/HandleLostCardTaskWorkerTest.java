@@ -6,7 +6,9 @@ import generated.se.sundsvall.casedata.Note;
 import generated.se.sundsvall.casedata.PatchErrand;
 import generated.se.sundsvall.casedata.Stakeholder;
 import generated.se.sundsvall.partyassets.Asset;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.camunda.bpm.client.exception.EngineException;
 import org.camunda.bpm.client.exception.RestException;
 import org.camunda.bpm.client.task.ExternalTask;
@@ -19,6 +21,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.IdempotencyLedger;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 import se.sundsvall.parkingpermit.service.PartyAssetsService;
 
@@ -52,6 +55,7 @@ class HandleLostCardTaskWorkerTest {
 	private static final long ERRAND_ID = 123L;
 	private static final String MUNICIPALITY_ID = "2281";
 	private static final String NAMESPACE = "SBK_PARKING_PERMIT";
+	private static final String ACTIVITY_INSTANCE_ID = "activityInstanceId";
 
 	@Mock
 	private CaseDataClient caseDataClientMock;
@@ -112,7 +116,7 @@ class HandleLostCardTaskWorkerTest {
 		verify(partyAssetsServiceMock).updateAssetWithNewStatus(MUNICIPALITY_ID, idOfAsset, BLOCKED, "LOST");
 		verify(caseDataClientMock).patchErrand(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), patchErrandArgumentCaptor.capture());
 		verify(caseDataClientMock).addNoteToErrand(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), noteArgumentCaptor.capture());
-		verify(externalTaskServiceMock).complete(externalTaskMock);
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(), Map.of());
 
 		assertThat(patchErrandArgumentCaptor.getValue().getExtraParameters()).hasSize(1).extracting(ExtraParameter::getKey, ExtraParameter::getValues)
 			.containsExactly(tuple(CASEDATA_KEY_ARTEFACT_LOST_PERMIT_NUMBER, List.of(assetId)));
@@ -126,6 +130,82 @@ class HandleLostCardTaskWorkerTest {
 		verifyNoInteractions(failureHandlerMock);
 	}
 
+	@Test
+	void executeDoesNotModifyErrand() {
+		// Arrange
+		final var personId = "PersonId";
+		final var assetId = "AssetId";
+		final var idOfAsset = "idOfAsset";
+		final var stakeholder = new Stakeholder().personId(personId).addRolesItem(ROLE_APPLICANT);
+		final var assetParkingPermit = new Asset().id(idOfAsset).assetId(assetId).status(ACTIVE).type(PARTY_ASSET_TYPE);
+		final var otherParameter = new ExtraParameter().key("other").values(List.of("value"));
+		final var lostPermitNumber = new ExtraParameter().id("parameterId").key(CASEDATA_KEY_ARTEFACT_LOST_PERMIT_NUMBER).displayName("Lost permit").values(List.of("OldAssetId"));
+
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getCaseType()).thenReturn(CASE_TYPE_LOST_PARKING_PERMIT);
+		when(errandMock.getStakeholders()).thenReturn(List.of(stakeholder));
+		when(errandMock.getId()).thenReturn(ERRAND_ID);
+		when(errandMock.getExtraParameters()).thenReturn(List.of(otherParameter, lostPermitNumber));
+		when(partyAssetsServiceMock.getAssets(MUNICIPALITY_ID, personId, PARTY_ASSET_STATUS_ACTIVE)).thenReturn(List.of(assetParkingPermit));
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(caseDataClientMock).patchErrand(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), patchErrandArgumentCaptor.capture());
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(), Map.of());
+
+		assertThat(patchErrandArgumentCaptor.getValue().getExtraParameters()).containsExactly(otherParameter,
+			new ExtraParameter().id("parameterId").key(CASEDATA_KEY_ARTEFACT_LOST_PERMIT_NUMBER).displayName("Lost permit").values(List.of(assetId)));
+		assertThat(lostPermitNumber.getValues()).containsExactly("OldAssetId");
+		verifyNoInteractions(failureHandlerMock);
+	}
+
+	@Test
+	void executeSkipsStepsCompletedByPreviousExecution() {
+		// Arrange
+		final var personId = "PersonId";
+		final var assetId = "AssetId";
+		final var idOfAsset = "idOfAsset";
+		final var stakeholder = new Stakeholder().personId(personId).addRolesItem(ROLE_APPLICANT);
+		final var blockedAsset = new Asset().id(idOfAsset).assetId(assetId).status(BLOCKED).type(PARTY_ASSET_TYPE);
+		final var otherBlockedAsset = new Asset().id("otherIdOfAsset").assetId("otherAssetId").status(BLOCKED).type(PARTY_ASSET_TYPE);
+		final var completedSteps = new HashMap<String, Object>();
+		completedSteps.put("completedStep_blockAsset", idOfAsset);
+		completedSteps.put("completedStepActivityInstance_blockAsset", ACTIVITY_INSTANCE_ID);
+		completedSteps.put("completedStep_patchErrand", null);
+		completedSteps.put("completedStepActivityInstance_patchErrand", ACTIVITY_INSTANCE_ID);
+		final var clearedSteps = new HashMap<String, Object>();
+		completedSteps.keySet().forEach(name -> clearedSteps.put(name, null));
+
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(externalTaskMock.getActivityInstanceId()).thenReturn(ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getAllVariables()).thenReturn(completedSteps);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getCaseType()).thenReturn(CASE_TYPE_LOST_PARKING_PERMIT);
+		when(errandMock.getStakeholders()).thenReturn(List.of(stakeholder));
+		when(errandMock.getId()).thenReturn(ERRAND_ID);
+		when(partyAssetsServiceMock.getAssets(MUNICIPALITY_ID, personId, BLOCKED.getValue())).thenReturn(List.of(otherBlockedAsset, blockedAsset));
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(partyAssetsServiceMock).getAssets(MUNICIPALITY_ID, personId, BLOCKED.getValue());
+		verify(caseDataClientMock).addNoteToErrand(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), noteArgumentCaptor.capture());
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(), clearedSteps);
+
+		assertThat(noteArgumentCaptor.getValue().getText()).isEqualTo("The asset with ID idOfAsset has been blocked.");
+		verifyNoMoreInteractions(caseDataClientMock, partyAssetsServiceMock, externalTaskServiceMock);
+		verifyNoInteractions(failureHandlerMock);
+	}
+
 	@Test
 	void executeThrowsException() {
 		// Arrange
@@ -150,9 +230,9 @@ class HandleLostCardTaskWorkerTest {
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, thrownException.getMessage());
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq(thrownException.getMessage()), any(IdempotencyLedger.class));
 		verify(externalTaskMock).getId();
 		verify(externalTaskMock).getBusinessKey();
-		verify(externalTaskServiceMock, never()).complete(externalTaskMock);
+		verify(externalTaskServiceMock, never()).complete(any(), any(), any());
 	}
 }
@@ -3,7 +3,7 @@ package se.sundsvall.parkingpermit.businesslogic.worker.execution;
 import generated.se.sundsvall.casedata.Errand;
 import generated.se.sundsvall.casedata.Status;
 import java.time.OffsetDateTime;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.camunda.bpm.client.exception.EngineException;
 import org.camunda.bpm.client.exception.RestException;
 import org.camunda.bpm.client.task.ExternalTask;
@@ -18,13 +18,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.LockHeartbeat;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
-import se.sundsvall.parkingpermit.service.RpaService;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.parkingpermit.service.RpaQueueItemAggregator;
 
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -54,7 +59,7 @@ class OrderCardTaskWorkerTest {
 	private CaseDataClient caseDataClientMock;
 
 	@Mock
-	private RpaService rpaServiceMock;
+	private RpaQueueItemAggregator rpaQueueItemAggregatorMock;
 
 	@Mock
 	private ExternalTask externalTaskMock;
@@ -65,6 +70,12 @@ class OrderCardTaskWorkerTest {
 	@Mock
 	private FailureHandler failureHandlerMock;
 
+	@Mock
+	private LockHeartbeat lockHeartbeatMock;
+
+	@Mock
+	private LockHeartbeat.Beat beatMock;
+
 	@Captor
 	private ArgumentCaptor<Status> statusArgumentCaptor;
 
@@ -84,16 +95,20 @@ class OrderCardTaskWorkerTest {
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
 		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
 		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errand);
+		when(rpaQueueItemAggregatorMock.submit(MUNICIPALITY_ID, QUEUE_PARKING_PERMITS, ERRAND_ID)).thenReturn(CompletableFuture.completedFuture(null));
+		when(lockHeartbeatMock.start(externalTaskMock, externalTaskServiceMock)).thenReturn(beatMock);
 
 		// Act
 		worker.execute(externalTaskMock, externalTaskServiceMock);
 
 		// Assert and verify
-		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
+		verify(externalTaskMock, times(2)).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
-		verify(externalTaskMock, times(2)).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
-		verify(rpaServiceMock).addQueueItems(List.of(QUEUE_PARKING_PERMITS), ERRAND_ID, MUNICIPALITY_ID);
+		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
+		verify(lockHeartbeatMock, times(2)).start(externalTaskMock, externalTaskServiceMock);
+		verify(beatMock, times(2)).close();
+		verify(rpaQueueItemAggregatorMock).submit(MUNICIPALITY_ID, QUEUE_PARKING_PERMITS, ERRAND_ID);
 		verify(caseDataClientMock).patchStatus(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), statusArgumentCaptor.capture());
 		verify(externalTaskServiceMock).complete(externalTaskMock);
 		assertThat(statusArgumentCaptor.getValue().getStatusType()).isEqualTo(CASEDATA_STATUS_DECISION_EXECUTED);
@@ -116,7 +131,7 @@ class OrderCardTaskWorkerTest {
 		final var thrownException = new EngineException("TestException", new RestException("message", "type", 1));
 
 		// Mock
-		doThrow(thrownException).when(rpaServiceMock).addQueueItems(any(), any(), any());
+		doThrow(thrownException).when(rpaQueueItemAggregatorMock).submit(anyString(), anyString(), anyLong());
 
 		// Act
 		worker.execute(externalTaskMock, externalTaskServiceMock);
@@ -131,4 +146,83 @@ class OrderCardTaskWorkerTest {
 		verify(externalTaskMock).getBusinessKey();
 		verify(externalTaskServiceMock, never()).complete(externalTaskMock);
 	}
+
+	@Test
+	void executeWhenQueueItemFails() {
+		// Arrange
+		final var errand = new Errand().id(ERRAND_ID).caseType(CASE_TYPE_PARKING_PERMIT);
+		final var problem = Problem.valueOf(BAD_GATEWAY, "Failed to add queue item for case 123: Invalid request");
+
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errand);
+		when(rpaQueueItemAggregatorMock.submit(MUNICIPALITY_ID, QUEUE_PARKING_PERMITS, ERRAND_ID)).thenReturn(CompletableFuture.failedFuture(problem));
+		when(lockHeartbeatMock.start(externalTaskMock, externalTaskServiceMock)).thenReturn(beatMock);
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, problem.getMessage());
+		verify(externalTaskServiceMock, never()).complete(externalTaskMock);
+		verify(caseDataClientMock, never()).patchStatus(any(), any(), any(), any());
+	}
+
+	@Test
+	void executeCompletesWhenQueueItemsHaveBeenAdded() {
+		// Arrange
+		final var errand = new Errand().id(ERRAND_ID).caseType(CASE_TYPE_PARKING_PERMIT);
+		final var added = new CompletableFuture<Void>();
+
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errand);
+		when(rpaQueueItemAggregatorMock.submit(MUNICIPALITY_ID, QUEUE_PARKING_PERMITS, ERRAND_ID)).thenReturn(added);
+		when(lockHeartbeatMock.start(externalTaskMock, externalTaskServiceMock)).thenReturn(beatMock);
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(externalTaskServiceMock, never()).complete(externalTaskMock);
+		verify(beatMock).close();
+		verifyNoInteractions(failureHandlerMock);
+
+		added.complete(null);
+
+		// The lock is held until the task has been completed
+		verify(beatMock, times(2)).close();
+
+		verify(caseDataClientMock).patchStatus(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), any(Status.class));
+		verify(externalTaskServiceMock).complete(externalTaskMock);
+		verifyNoInteractions(failureHandlerMock);
+	}
+
+	@Test
+	void executeWhenLockIsLost() {
+		// Arrange
+		final var errand = new Errand().id(ERRAND_ID).caseType(CASE_TYPE_PARKING_PERMIT);
+
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errand);
+		when(rpaQueueItemAggregatorMock.submit(MUNICIPALITY_ID, QUEUE_PARKING_PERMITS, ERRAND_ID)).thenReturn(CompletableFuture.completedFuture(null));
+		when(lockHeartbeatMock.start(externalTaskMock, externalTaskServiceMock)).thenReturn(beatMock);
+		when(beatMock.isLockLost()).thenReturn(true);
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(externalTaskServiceMock, never()).complete(externalTaskMock);
+		verify(caseDataClientMock, never()).patchStatus(any(), any(), any(), any());
+		verify(beatMock, times(2)).close();
+		verifyNoInteractions(failureHandlerMock);
+	}
 }
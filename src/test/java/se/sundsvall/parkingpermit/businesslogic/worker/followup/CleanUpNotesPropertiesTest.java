@@ -0,0 +1,31 @@
+package se.sundsvall.parkingpermit.businesslogic.worker.followup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.parkingpermit.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
+
+@SpringBootTest(classes = Application.class, webEnvironment = MOCK)
+@ActiveProfiles("junit")
+class CleanUpNotesPropertiesTest {
+
+	@Autowired
+	private CleanUpNotesProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.maxConcurrentDeletions()).isEqualTo(3);
+	}
+
+	@Test
+	void invalidMaxConcurrentDeletions() {
+		assertThatThrownBy(() -> new CleanUpNotesProperties(0))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Max concurrent deletions must be at least 1");
+	}
+}
@@ -2,19 +2,27 @@ package se.sundsvall.parkingpermit.businesslogic.worker.followup;
 
 import generated.se.sundsvall.casedata.Note;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
 import org.camunda.bpm.client.exception.EngineException;
 import org.camunda.bpm.client.exception.RestException;
 import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import se.sundsvall.dept44.requestid.RequestId;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 
 import static generated.se.sundsvall.casedata.NoteType.INTERNAL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -34,6 +42,7 @@ class CleanUpNotesTaskWorkerTest {
 	private static final String VARIABLE_CASE_NUMBER = "caseNumber";
 	private static final String VARIABLE_REQUEST_ID = "requestId";
 	private static final String VARIABLE_MUNICIPALITY_ID = "municipalityId";
+	private static final int MAX_CONCURRENT_DELETIONS = 2;
 
 	@Mock
 	private CaseDataClient caseDataClientMock;
@@ -47,9 +56,13 @@ class CleanUpNotesTaskWorkerTest {
 	@Mock
 	private FailureHandler failureHandlerMock;
 
-	@InjectMocks
 	private CleanUpNotesTaskWorker worker;
 
+	@BeforeEach
+	void setup() {
+		worker = new CleanUpNotesTaskWorker(null, caseDataClientMock, failureHandlerMock, new CleanUpNotesProperties(MAX_CONCURRENT_DELETIONS));
+	}
+
 	@Test
 	void execute() {
 		// Arrange
@@ -97,9 +110,42 @@ class CleanUpNotesTaskWorkerTest {
 		verify(externalTaskMock).getVariable(VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(VARIABLE_MUNICIPALITY_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, thrownException.getMessage());
+		// The remaining note is deleted although the deletion of the first one fails
+		verify(caseDataClientMock).deleteNoteById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID, 2L);
+		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, "Bad Gateway: Failed to delete 1 of 2 internal notes: " + thrownException.getMessage());
 		verify(externalTaskMock).getId();
 		verify(externalTaskMock).getBusinessKey();
 		verify(externalTaskServiceMock, never()).complete(externalTaskMock);
 	}
+
+	@Test
+	void executeDeletesConcurrentlyWithinLimit() {
+		// Arrange
+		final var notes = LongStream.rangeClosed(1, 10).mapToObj(id -> new Note().id(id).noteType(INTERNAL)).toList();
+		final var inFlight = new AtomicInteger();
+		final var maxInFlight = new AtomicInteger();
+		final var requestIds = new ConcurrentLinkedQueue<String>();
+		when(externalTaskMock.getVariable(VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(caseDataClientMock.getNotesByErrandId(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID, INTERNAL.getValue())).thenReturn(notes);
+		when(caseDataClientMock.deleteNoteById(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), anyLong())).thenAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			requestIds.add(RequestId.get());
+			Thread.sleep(20);
+			inFlight.decrementAndGet();
+			return ResponseEntity.noContent().build();
+		});
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		notes.forEach(note -> verify(caseDataClientMock).deleteNoteById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID, note.getId()));
+		verify(externalTaskServiceMock).complete(externalTaskMock);
+		verifyNoInteractions(failureHandlerMock);
+		assertThat(maxInFlight.get()).isBetween(1, MAX_CONCURRENT_DELETIONS);
+		assertThat(requestIds).hasSize(notes.size()).containsOnly(REQUEST_ID);
+	}
 }
@@ -14,7 +14,9 @@ import generated.se.sundsvall.casedata.Status;
 import generated.se.sundsvall.templating.RenderResponse;
 import java.net.URI;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.camunda.bpm.client.exception.EngineException;
 import org.camunda.bpm.client.exception.RestException;
@@ -32,6 +34,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import se.sundsvall.parkingpermit.businesslogic.handler.FailureHandler;
+import se.sundsvall.parkingpermit.businesslogic.handler.IdempotencyLedger;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 import se.sundsvall.parkingpermit.service.MessagingService;
 import tools.jackson.databind.ObjectMapper;
@@ -69,6 +72,7 @@ import static se.sundsvall.parkingpermit.Constants.CASEDATA_KEY_PHASE_ACTION;
 import static se.sundsvall.parkingpermit.Constants.CASEDATA_STATUS_CASE_DECIDED;
 import static se.sundsvall.parkingpermit.Constants.CATEGORY_BESLUT;
 import static se.sundsvall.parkingpermit.Constants.PHASE_ACTION_AUTOMATIC;
+import static se.sundsvall.parkingpermit.businesslogic.util.BusinessRulesUtil.toRuleEngineResponseVariable;
 
 @ExtendWith(MockitoExtension.class)
 class ConstructDecisionTaskWorkerTest {
@@ -79,6 +83,7 @@ class ConstructDecisionTaskWorkerTest {
 	private static final String NAMESPACE = "SBK_PARKING_PERMIT";
 	private static final long DECISION_ID = 456L;
 	private static final String BASE64_CONTENT = "ZmlsZW91dHB1dCBhcyBiYXNlNjQgc3RyaW5n";
+	private static final String ACTIVITY_INSTANCE_ID = "activityInstanceId";
 
 	@Mock
 	private CaseDataClient caseDataClientMock;
@@ -232,11 +237,177 @@ class ConstructDecisionTaskWorkerTest {
 			verify(caseDataClientMock, never()).postDecisionAttachment(anyString(), anyString(), anyLong(), anyLong(), any(), any());
 		}
 
-		verify(externalTaskServiceMock).complete(externalTaskMock);
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(), Map.of());
 		verifyNoMoreInteractions(caseDataClientMock);
 		verifyNoInteractions(failureHandlerMock);
 	}
 
+	@Test
+	void executeResumesFromCheckpoints() {
+
+		// Arrange
+		final var ruleEngineResponse = createRuleEngineResponse(FAIL.name());
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE)).thenReturn(ruleEngineResponse);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		final var previousVariables = Map.<String, Object>of(
+			"completedStep_createDecision", DECISION_ID,
+			"completedStepActivityInstance_createDecision", ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getActivityInstanceId()).thenReturn(ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getAllVariables()).thenReturn(previousVariables);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getId()).thenReturn(ERRAND_ID);
+		when(errandMock.getMunicipalityId()).thenReturn(MUNICIPALITY_ID);
+		when(errandMock.getNamespace()).thenReturn(NAMESPACE);
+		when(errandMock.getStakeholders()).thenReturn(List.of(new Stakeholder().roles(List.of("ADMINISTRATOR"))));
+		when(errandMock.getExtraParameters()).thenReturn(List.of(new ExtraParameter(CASEDATA_KEY_PHASE_ACTION).values(List.of(PHASE_ACTION_AUTOMATIC))));
+		// The decision created by the previous execution is the latest decision of the errand
+		when(errandMock.getDecisions()).thenReturn(List.of(new Decision()
+			.decisionOutcome(REJECTION)
+			.decisionType(FINAL)
+			.description("Beslut är avslag. Description1, description2 och description3.").version(0)));
+		// The document is not checkpointed, but rendered again
+		when(messagingServiceMock.renderPdfDecision(eq(MUNICIPALITY_ID), eq(errandMock), anyString())).thenReturn(new RenderResponse().output(BASE64_CONTENT));
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(caseDataClientMock).getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID);
+		verify(caseDataClientMock).postDecisionAttachment(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), eq(DECISION_ID),
+			attachmentMetadataCaptor.capture(), attachmentFileCaptor.capture());
+		verify(caseDataClientMock).patchStatus(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), any(Status.class));
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(), toClearedVariables(previousVariables));
+		assertThat(attachmentFileCaptor.getValue().getData()).isEqualTo(Base64.getDecoder().decode(BASE64_CONTENT));
+		verifyNoMoreInteractions(caseDataClientMock);
+		verifyNoInteractions(failureHandlerMock);
+	}
+
+	@Test
+	void executeIgnoresCheckpointsOfPreviousLoopIteration() {
+
+		// Arrange
+		final var ruleEngineResponse = createRuleEngineResponse(FAIL.name());
+		final var previousDecisionId = 111L;
+		// Checkpoints stored on the subprocess by the task when it was completed in a previous iteration of the investigation
+		final var previousVariables = Map.<String, Object>of(
+			"completedStep_createDecision", previousDecisionId,
+			"completedStepActivityInstance_createDecision", "previousActivityInstanceId",
+			"completedStep_addDecisionAttachment", "",
+			"completedStepActivityInstance_addDecisionAttachment", "previousActivityInstanceId");
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE)).thenReturn(ruleEngineResponse);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(externalTaskMock.getActivityInstanceId()).thenReturn(ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getAllVariables()).thenReturn(previousVariables);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getId()).thenReturn(ERRAND_ID);
+		when(errandMock.getMunicipalityId()).thenReturn(MUNICIPALITY_ID);
+		when(errandMock.getNamespace()).thenReturn(NAMESPACE);
+		when(errandMock.getStakeholders()).thenReturn(List.of(new Stakeholder().roles(List.of("ADMINISTRATOR"))));
+		when(errandMock.getExtraParameters()).thenReturn(List.of(new ExtraParameter(CASEDATA_KEY_PHASE_ACTION).values(List.of(PHASE_ACTION_AUTOMATIC))));
+		// The decision created in the previous iteration is the latest decision of the errand
+		when(errandMock.getDecisions()).thenReturn(List.of(new Decision()
+			.decisionOutcome(APPROVAL)
+			.decisionType(FINAL)
+			.description("Beslut är bifall.").version(0)));
+		when(messagingServiceMock.renderPdfDecision(eq(MUNICIPALITY_ID), eq(errandMock), anyString())).thenReturn(new RenderResponse().output(BASE64_CONTENT));
+		when(caseDataClientMock.patchNewDecision(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), any()))
+			.thenReturn(ResponseEntity.created(URI.create("url/to/created/id/" + DECISION_ID)).build());
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(caseDataClientMock).getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID);
+		verify(caseDataClientMock).patchNewDecision(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), decisionArgumentCaptor.capture());
+		verify(caseDataClientMock).postDecisionAttachment(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), eq(DECISION_ID), any(), any());
+		verify(caseDataClientMock).patchStatus(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), any(Status.class));
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(), toClearedVariables(previousVariables));
+		assertThat(decisionArgumentCaptor.getValue().getDecisionOutcome()).isEqualTo(REJECTION);
+		assertThat(decisionArgumentCaptor.getValue().getVersion()).isEqualTo(1);
+		verifyNoMoreInteractions(caseDataClientMock);
+		verifyNoInteractions(failureHandlerMock);
+	}
+
+	@Test
+	void executeCheckpointsStepsWhenStatusUpdateFails() {
+
+		// Arrange
+		final var ruleEngineResponse = createRuleEngineResponse(FAIL.name());
+		final var ledgerCaptor = ArgumentCaptor.forClass(IdempotencyLedger.class);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE)).thenReturn(ruleEngineResponse);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getId()).thenReturn(ERRAND_ID);
+		when(errandMock.getMunicipalityId()).thenReturn(MUNICIPALITY_ID);
+		when(errandMock.getNamespace()).thenReturn(NAMESPACE);
+		when(errandMock.getStakeholders()).thenReturn(List.of(new Stakeholder().roles(List.of("ADMINISTRATOR"))));
+		when(errandMock.getExtraParameters()).thenReturn(List.of(new ExtraParameter(CASEDATA_KEY_PHASE_ACTION).values(List.of(PHASE_ACTION_AUTOMATIC))));
+		when(errandMock.getDecisions()).thenReturn(emptyList());
+		when(messagingServiceMock.renderPdfDecision(eq(MUNICIPALITY_ID), eq(errandMock), anyString())).thenReturn(new RenderResponse().output(BASE64_CONTENT));
+		when(caseDataClientMock.patchNewDecision(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), any()))
+			.thenReturn(ResponseEntity.created(URI.create("url/to/created/id/" + DECISION_ID)).build());
+		when(caseDataClientMock.patchStatus(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), any())).thenThrow(new IllegalStateException("Status failed"));
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Status failed"), ledgerCaptor.capture());
+		verify(externalTaskServiceMock, never()).complete(externalTaskMock, Map.of(), Map.of());
+		assertThat(ledgerCaptor.getValue().toLocalVariables())
+			.containsOnlyKeys("completedStep_createDecision", "completedStepActivityInstance_createDecision",
+				"completedStep_addDecisionAttachment", "completedStepActivityInstance_addDecisionAttachment")
+			.containsEntry("completedStep_createDecision", DECISION_ID);
+	}
+
+	@Test
+	void executeDoesNotRenderDocumentWhenAttachmentIsUploaded() {
+
+		// Arrange
+		final var ruleEngineResponse = createRuleEngineResponse(FAIL.name());
+		final var previousVariables = new HashMap<String, Object>();
+		previousVariables.put("completedStep_createDecision", DECISION_ID);
+		previousVariables.put("completedStepActivityInstance_createDecision", ACTIVITY_INSTANCE_ID);
+		previousVariables.put("completedStep_addDecisionAttachment", null);
+		previousVariables.put("completedStepActivityInstance_addDecisionAttachment", ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE)).thenReturn(ruleEngineResponse);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(externalTaskMock.getActivityInstanceId()).thenReturn(ACTIVITY_INSTANCE_ID);
+		when(externalTaskMock.getAllVariables()).thenReturn(previousVariables);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getId()).thenReturn(ERRAND_ID);
+		when(errandMock.getMunicipalityId()).thenReturn(MUNICIPALITY_ID);
+		when(errandMock.getNamespace()).thenReturn(NAMESPACE);
+		when(errandMock.getStakeholders()).thenReturn(List.of(new Stakeholder().roles(List.of("ADMINISTRATOR"))));
+		when(errandMock.getExtraParameters()).thenReturn(List.of(new ExtraParameter(CASEDATA_KEY_PHASE_ACTION).values(List.of(PHASE_ACTION_AUTOMATIC))));
+		when(errandMock.getDecisions()).thenReturn(List.of(new Decision()
+			.decisionOutcome(REJECTION)
+			.decisionType(FINAL)
+			.description("Beslut är avslag. Description1, description2 och description3.").version(0)));
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(caseDataClientMock).getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID);
+		verify(caseDataClientMock).patchStatus(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), any(Status.class));
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(), toClearedVariables(previousVariables));
+		verifyNoMoreInteractions(caseDataClientMock);
+		verifyNoInteractions(messagingServiceMock, failureHandlerMock);
+	}
+
 	@Test
 	void executeWhenLatestDecisionIsEqual() {
 
@@ -257,7 +428,7 @@ class ConstructDecisionTaskWorkerTest {
 		worker.execute(externalTaskMock, externalTaskServiceMock);
 
 		// Verify
-		verify(externalTaskServiceMock).complete(externalTaskMock);
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(), Map.of());
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
@@ -268,6 +439,36 @@ class ConstructDecisionTaskWorkerTest {
 		verifyNoInteractions(failureHandlerMock);
 	}
 
+	@Test
+	void executeWithRuleEngineResponseStoredAsJson() {
+
+		// Arrange
+		final var ruleEngineResponse = new RuleEngineResponse()
+			.addResultsItem(new Result().value(ResultValue.NOT_APPLICABLE))
+			.addResultsItem(createRuleEngineResponse(FAIL.name()).getResults().getFirst());
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE)).thenReturn(toRuleEngineResponseVariable(ruleEngineResponse));
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(errandMock.getNamespace()).thenReturn(NAMESPACE);
+		when(errandMock.getDecisions()).thenReturn(emptyList());
+
+		// Act
+		worker.execute(externalTaskMock, externalTaskServiceMock);
+
+		// Assert and verify
+		verify(caseDataClientMock).patchNewDecision(eq(MUNICIPALITY_ID), eq(NAMESPACE), eq(ERRAND_ID), decisionArgumentCaptor.capture());
+		assertThat(decisionArgumentCaptor.getValue().getDecisionType()).isEqualTo(RECOMMENDED);
+		assertThat(decisionArgumentCaptor.getValue().getDecisionOutcome()).isEqualTo(REJECTION);
+		assertThat(decisionArgumentCaptor.getValue().getDescription()).isEqualTo("Rekommenderat beslut är avslag. Description1, description2 och description3.");
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(), Map.of());
+		verify(caseDataClientMock).getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID);
+		verifyNoMoreInteractions(caseDataClientMock);
+		verifyNoInteractions(failureHandlerMock);
+	}
+
 	@Test
 	void executeThrowsExceptionWhenNoPassOrFail() {
 
@@ -285,13 +486,13 @@ class ConstructDecisionTaskWorkerTest {
 		worker.execute(externalTaskMock, externalTaskServiceMock);
 
 		// Assert and verify
-		verify(externalTaskServiceMock, never()).complete(externalTaskMock);
+		verify(externalTaskServiceMock, never()).complete(externalTaskMock, Map.of(), Map.of());
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, "Conflict: No applicable result found in rule engine response");
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Conflict: No applicable result found in rule engine response"), any(IdempotencyLedger.class));
 		verify(caseDataClientMock).getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID);
 		verifyNoMoreInteractions(caseDataClientMock);
 	}
@@ -313,13 +514,13 @@ class ConstructDecisionTaskWorkerTest {
 		worker.execute(externalTaskMock, externalTaskServiceMock);
 
 		// Assert and verify
-		verify(externalTaskServiceMock, never()).complete(externalTaskMock);
+		verify(externalTaskServiceMock, never()).complete(externalTaskMock, Map.of(), Map.of());
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, "Bad Request: No results found in rule engine response");
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Bad Request: No results found in rule engine response"), any(IdempotencyLedger.class));
 		verify(caseDataClientMock).getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID);
 		verifyNoMoreInteractions(caseDataClientMock);
 
@@ -341,13 +542,13 @@ class ConstructDecisionTaskWorkerTest {
 		worker.execute(externalTaskMock, externalTaskServiceMock);
 
 		// Assert and verify
-		verify(externalTaskServiceMock, never()).complete(externalTaskMock);
+		verify(externalTaskServiceMock, never()).complete(externalTaskMock, Map.of(), Map.of());
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, "Bad Request: No rule engine response found");
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Bad Request: No rule engine response found"), any(IdempotencyLedger.class));
 		verify(caseDataClientMock).getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID);
 		verifyNoMoreInteractions(caseDataClientMock);
 	}
@@ -367,7 +568,7 @@ class ConstructDecisionTaskWorkerTest {
 		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
 		when(errandMock.getDecisions()).thenReturn(emptyList());
 
-		doThrow(thrownException).when(externalTaskServiceMock).complete(externalTaskMock);
+		doThrow(thrownException).when(externalTaskServiceMock).complete(externalTaskMock, Map.of(), Map.of());
 
 		// Act
 		worker.execute(externalTaskMock, externalTaskServiceMock);
@@ -378,7 +579,7 @@ class ConstructDecisionTaskWorkerTest {
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_CASE_NUMBER);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
-		verify(externalTaskServiceMock).complete(externalTaskMock);
+		verify(externalTaskServiceMock).complete(externalTaskMock, Map.of(), Map.of());
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
 	}
 
@@ -407,7 +608,7 @@ class ConstructDecisionTaskWorkerTest {
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, "Conflict: No disability duration found in errand");
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Conflict: No disability duration found in errand"), any(IdempotencyLedger.class));
 	}
 
 	@Test
@@ -437,7 +638,7 @@ class ConstructDecisionTaskWorkerTest {
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, "Bad Request: No valid validity period found");
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Bad Request: No valid validity period found"), any(IdempotencyLedger.class));
 	}
 
 	@Test
@@ -466,11 +667,17 @@ class ConstructDecisionTaskWorkerTest {
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_NAMESPACE);
 		verify(externalTaskMock).getVariable(CAMUNDA_VARIABLE_REQUEST_ID);
-		verify(failureHandlerMock).handleException(externalTaskServiceMock, externalTaskMock, "Text cannot be parsed to a Period");
+		verify(failureHandlerMock).handleException(eq(externalTaskServiceMock), eq(externalTaskMock), eq("Text cannot be parsed to a Period"), any(IdempotencyLedger.class));
 	}
 
 	private RuleEngineResponse createRuleEngineResponse(String resultValue) {
 		return new RuleEngineResponse().addResultsItem(new Result().value(ResultValue.fromValue(resultValue))
 			.details(List.of(new ResultDetail().description("description1"), new ResultDetail().description("description2"), new ResultDetail().description("description3"))));
 	}
+
+	private static Map<String, Object> toClearedVariables(Map<String, Object> variables) {
+		final var clearedVariables = new HashMap<String, Object>();
+		variables.keySet().forEach(name -> clearedVariables.put(name, null));
+		return clearedVariables;
+	}
 }
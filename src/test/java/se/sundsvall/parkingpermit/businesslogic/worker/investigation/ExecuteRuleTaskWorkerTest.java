@@ -1,10 +1,13 @@
 package se.sundsvall.parkingpermit.businesslogic.worker.investigation;
 
+import generated.se.sundsvall.businessrules.Result;
+import generated.se.sundsvall.businessrules.ResultDetail;
 import generated.se.sundsvall.businessrules.RuleEngineRequest;
 import generated.se.sundsvall.businessrules.RuleEngineResponse;
 import generated.se.sundsvall.casedata.Attachment;
 import generated.se.sundsvall.casedata.Errand;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.camunda.bpm.client.exception.EngineException;
 import org.camunda.bpm.client.exception.RestException;
@@ -12,6 +15,8 @@ import org.camunda.bpm.client.task.ExternalTask;
 import org.camunda.bpm.client.task.ExternalTaskService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -22,6 +27,10 @@ import se.sundsvall.parkingpermit.integration.businessrules.BusinessRulesClient;
 import se.sundsvall.parkingpermit.integration.businessrules.mapper.BusinessRulesMapper;
 import se.sundsvall.parkingpermit.integration.casedata.CaseDataClient;
 
+import static generated.se.sundsvall.businessrules.ResultValue.FAIL;
+import static generated.se.sundsvall.businessrules.ResultValue.NOT_APPLICABLE;
+import static generated.se.sundsvall.businessrules.ResultValue.PASS;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
@@ -36,6 +45,7 @@ import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_MUNICIPALITY
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_NAMESPACE;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_REQUEST_ID;
 import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE;
+import static se.sundsvall.parkingpermit.businesslogic.util.BusinessRulesUtil.fromRuleEngineResponseVariable;
 
 @ExtendWith(MockitoExtension.class)
 class ExecuteRuleTaskWorkerTest {
@@ -63,6 +73,9 @@ class ExecuteRuleTaskWorkerTest {
 	@Mock
 	private FailureHandler failureHandlerMock;
 
+	@Captor
+	private ArgumentCaptor<Map<String, Object>> variablesCaptor;
+
 	@InjectMocks
 	private ExecuteRulesTaskWorker worker;
 
@@ -103,6 +116,38 @@ class ExecuteRuleTaskWorkerTest {
 		verifyNoMoreInteractions(caseDataClientMock, businessRulesClientMock, errandMock, externalTaskMock);
 	}
 
+	@Test
+	void executeBusinessLogicStoresApplicableResultAsJson() {
+
+		// Arrange
+		final var applicableResult = new Result().value(PASS).rule("rule").details(List.of(new ResultDetail().origin("origin").evaluationValue(true).description("description")));
+		final var ruleEngineResponse = new RuleEngineResponse()
+			.context("PARKING_PERMIT")
+			.results(List.of(new Result().value(NOT_APPLICABLE).rule("otherRule"), applicableResult, new Result().value(FAIL).rule("thirdRule")));
+		final var ruleEngineRequest = new RuleEngineRequest();
+		final var attachmentList = new ArrayList<Attachment>();
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_REQUEST_ID)).thenReturn(REQUEST_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_CASE_NUMBER)).thenReturn(ERRAND_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_MUNICIPALITY_ID)).thenReturn(MUNICIPALITY_ID);
+		when(externalTaskMock.getVariable(CAMUNDA_VARIABLE_NAMESPACE)).thenReturn(NAMESPACE);
+		when(caseDataClientMock.getErrandById(MUNICIPALITY_ID, NAMESPACE, ERRAND_ID)).thenReturn(errandMock);
+		when(caseDataClientMock.getErrandAttachments(any(), any(), any())).thenReturn(attachmentList);
+		when(businessRulesClientMock.runRuleEngine(any(), any())).thenReturn(ruleEngineResponse);
+
+		// Act
+		try (MockedStatic<BusinessRulesMapper> mapper = Mockito.mockStatic(BusinessRulesMapper.class)) {
+			mapper.when(() -> BusinessRulesMapper.toRuleEngineRequest(any(), any())).thenReturn(ruleEngineRequest);
+			worker.execute(externalTaskMock, externalTaskServiceMock);
+		}
+
+		// Assert and verify
+		verify(externalTaskServiceMock).complete(eq(externalTaskMock), variablesCaptor.capture());
+		assertThat(variablesCaptor.getValue().get(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE)).isInstanceOf(String.class);
+		assertThat(fromRuleEngineResponseVariable(variablesCaptor.getValue().get(CAMUNDA_VARIABLE_RULE_ENGINE_RESPONSE)))
+			.isEqualTo(new RuleEngineResponse().context("PARKING_PERMIT").results(List.of(applicableResult)));
+		verifyNoInteractions(failureHandlerMock);
+	}
+
 	@Test
 	void executeThrowsException() {
 
@@ -11,12 +11,12 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.oauth2.client.registration.ClientRegistration;
-import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import se.sundsvall.dept44.configuration.feign.FeignMultiCustomizer;
 import se.sundsvall.dept44.configuration.feign.decoder.ProblemErrorDecoder;
+import se.sundsvall.parkingpermit.integration.oauth2.OAuth2TokenManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static se.sundsvall.parkingpermit.integration.businessrules.configuration.BusinessRulesConfiguration.CLIENT_ID;
@@ -25,10 +25,7 @@ import static se.sundsvall.parkingpermit.integration.businessrules.configuration
 class BusinessRulesConfigurationTest {
 
 	@Mock
-	private ClientRegistrationRepository clientRepositoryMock;
-
-	@Mock
-	private ClientRegistration clientRegistrationMock;
+	private OAuth2TokenManager oAuth2TokenManagerMock;
 
 	@Mock
 	private BusinessRulesProperties propertiesMock;
@@ -50,13 +47,12 @@ class BusinessRulesConfigurationTest {
 
 		when(propertiesMock.connectTimeout()).thenReturn(connectTimeout);
 		when(propertiesMock.readTimeout()).thenReturn(readTimeout);
-		when(clientRepositoryMock.findByRegistrationId(CLIENT_ID)).thenReturn(clientRegistrationMock);
 
 		// Mock static FeignMultiCustomizer to enable spy and to verify that static method is being called
 		try (MockedStatic<FeignMultiCustomizer> feignMultiCustomizerMock = Mockito.mockStatic(FeignMultiCustomizer.class)) {
 			feignMultiCustomizerMock.when(FeignMultiCustomizer::create).thenReturn(feignMultiCustomizerSpy);
 
-			configuration.feignBuilderCustomizer(clientRepositoryMock, propertiesMock);
+			configuration.feignBuilderCustomizer(oAuth2TokenManagerMock, propertiesMock);
 
 			feignMultiCustomizerMock.verify(FeignMultiCustomizer::create);
 		}
@@ -64,10 +60,9 @@ class BusinessRulesConfigurationTest {
 		// Verifications
 		verify(propertiesMock).connectTimeout();
 		verify(propertiesMock).readTimeout();
-		verify(clientRepositoryMock).findByRegistrationId(CLIENT_ID);
 		verify(feignMultiCustomizerSpy).withErrorDecoder(errorDecoderCaptor.capture());
 		verify(feignMultiCustomizerSpy).withRequestTimeoutsInSeconds(connectTimeout, readTimeout);
-		verify(feignMultiCustomizerSpy).withRetryableOAuth2InterceptorForClientRegistration(clientRegistrationMock);
+		verify(feignMultiCustomizerSpy).withCustomizer(any());
 		verify(feignMultiCustomizerSpy).composeCustomizersToOne();
 
 		// Assert ErrorDecoder
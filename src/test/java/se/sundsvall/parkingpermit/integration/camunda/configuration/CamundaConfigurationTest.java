@@ -1,5 +1,6 @@
 package se.sundsvall.parkingpermit.integration.camunda.configuration;
 
+import feign.Client;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -12,8 +13,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cloud.openfeign.FeignBuilderCustomizer;
 import se.sundsvall.dept44.configuration.feign.FeignMultiCustomizer;
 import se.sundsvall.dept44.configuration.feign.decoder.ProblemErrorDecoder;
+import se.sundsvall.parkingpermit.integration.http.HttpClientPoolProperties;
+import se.sundsvall.parkingpermit.integration.http.PooledHttpClientFactory;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static se.sundsvall.parkingpermit.integration.camunda.configuration.CamundaConfiguration.CLIENT_ID;
@@ -33,23 +37,37 @@ class CamundaConfigurationTest {
 	@Mock
 	private CamundaProperties propertiesMock;
 
+	@Mock
+	private HttpClientPoolProperties poolPropertiesMock;
+
+	@Mock
+	private PooledHttpClientFactory pooledHttpClientFactoryMock;
+
+	@Mock
+	private Client clientMock;
+
 	@Test
 	void testFeignBuilderCustomizer() {
 		final var configuration = new CamundaConfiguration();
 
 		when(propertiesMock.connectTimeout()).thenReturn(1);
 		when(propertiesMock.readTimeout()).thenReturn(2);
+		when(propertiesMock.pool()).thenReturn(poolPropertiesMock);
+		when(pooledHttpClientFactoryMock.create(CLIENT_ID, poolPropertiesMock)).thenReturn(clientMock);
 		when(feignMultiCustomizerSpy.composeCustomizersToOne()).thenReturn(feignBuilderCustomizerMock);
 
 		try (MockedStatic<FeignMultiCustomizer> feignMultiCustomizerMock = Mockito.mockStatic(FeignMultiCustomizer.class)) {
 			feignMultiCustomizerMock.when(FeignMultiCustomizer::create).thenReturn(feignMultiCustomizerSpy);
 
-			final var customizer = configuration.feignBuilderCustomizer(propertiesMock);
+			final var customizer = configuration.feignBuilderCustomizer(propertiesMock, pooledHttpClientFactoryMock);
 
 			verify(feignMultiCustomizerSpy).withErrorDecoder(errorDecoderCaptor.capture());
 			verify(propertiesMock).connectTimeout();
 			verify(propertiesMock).readTimeout();
 			verify(feignMultiCustomizerSpy).withRequestTimeoutsInSeconds(1, 2);
+			verify(propertiesMock).pool();
+			verify(pooledHttpClientFactoryMock).create(CLIENT_ID, poolPropertiesMock);
+			verify(feignMultiCustomizerSpy).withCustomizer(any());
 			verify(feignMultiCustomizerSpy).composeCustomizersToOne();
 
 			assertThat(errorDecoderCaptor.getValue()).hasFieldOrPropertyWithValue("integrationName", CLIENT_ID);
@@ -0,0 +1,59 @@
+package se.sundsvall.parkingpermit.integration.camunda.deployment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.health.contributor.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.parkingpermit.integration.camunda.deployment.DeploymentHealthIndicator.DETAIL_FAILED_ATTEMPTS;
+import static se.sundsvall.parkingpermit.integration.camunda.deployment.DeploymentHealthIndicator.DETAIL_LAST_FAILURE;
+
+@ExtendWith(MockitoExtension.class)
+class DeploymentHealthIndicatorTest {
+
+	@Mock
+	private TenantAwareAutoDeployment deploymentMock;
+
+	@InjectMocks
+	private DeploymentHealthIndicator healthIndicator;
+
+	@Test
+	void healthWhenDeployed() {
+		when(deploymentMock.isDeployed()).thenReturn(true);
+
+		final var health = healthIndicator.health();
+
+		assertThat(health.getStatus()).isEqualTo(Status.UP);
+		assertThat(health.getDetails()).isEmpty();
+	}
+
+	@Test
+	void healthWhenDeploymentPending() {
+		when(deploymentMock.isDeployed()).thenReturn(false);
+		when(deploymentMock.getFailedAttempts()).thenReturn(0);
+
+		final var health = healthIndicator.health();
+
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+		assertThat(health.getDetails()).containsOnly(entry(DETAIL_FAILED_ATTEMPTS, 0));
+	}
+
+	@Test
+	void healthWhenDeploymentFailed() {
+		when(deploymentMock.isDeployed()).thenReturn(false);
+		when(deploymentMock.getFailedAttempts()).thenReturn(3);
+		when(deploymentMock.getLastFailure()).thenReturn("Connection refused");
+
+		final var health = healthIndicator.health();
+
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+		assertThat(health.getDetails())
+			.containsEntry(DETAIL_FAILED_ATTEMPTS, 3)
+			.containsEntry(DETAIL_LAST_FAILURE, "Connection refused");
+	}
+}
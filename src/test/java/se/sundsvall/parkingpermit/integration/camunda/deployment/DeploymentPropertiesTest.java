@@ -1,5 +1,6 @@
 package se.sundsvall.parkingpermit.integration.camunda.deployment;
 
+import java.time.Duration;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,11 +33,20 @@ class DeploymentPropertiesTest {
 
 		assertThat(props.getProcesses())
 			.isNull();
+		assertThat(props.isAutoDeployEnabled()).isTrue();
+		assertThat(props.isStartExternalTaskClient()).isTrue();
+		assertThat(props.getRetryInitialBackoff()).isEqualTo(Duration.ofSeconds(1));
+		assertThat(props.getRetryMaxBackoff()).isEqualTo(Duration.ofMinutes(1));
+		assertThat(props.getRetryBackoffMultiplier()).isEqualTo(2);
 	}
 
 	@Test
 	void verifyExternalConfiguration() {
 		assertThat(deploymentProperties.isAutoDeployEnabled()).isFalse();
+		assertThat(deploymentProperties.isStartExternalTaskClient()).isFalse();
+		assertThat(deploymentProperties.getRetryInitialBackoff()).isEqualTo(Duration.ofSeconds(2));
+		assertThat(deploymentProperties.getRetryMaxBackoff()).isEqualTo(Duration.ofSeconds(30));
+		assertThat(deploymentProperties.getRetryBackoffMultiplier()).isEqualTo(1.5);
 		assertThat(deploymentProperties.getProcesses()).hasSize(2)
 			.extracting(
 				ProcessArchive::name,
@@ -71,9 +81,17 @@ class DeploymentPropertiesTest {
 
 		final DeploymentProperties props = new DeploymentProperties();
 		props.setAutoDeployEnabled(autoDeploy);
+		props.setStartExternalTaskClient(false);
+		props.setRetryInitialBackoff(Duration.ofMillis(100));
+		props.setRetryMaxBackoff(Duration.ofSeconds(10));
+		props.setRetryBackoffMultiplier(3);
 		props.setProcesses(List.of(processArchive));
 
 		assertThat(props.isAutoDeployEnabled()).isFalse();
+		assertThat(props.isStartExternalTaskClient()).isFalse();
+		assertThat(props.getRetryInitialBackoff()).isEqualTo(Duration.ofMillis(100));
+		assertThat(props.getRetryMaxBackoff()).isEqualTo(Duration.ofSeconds(10));
+		assertThat(props.getRetryBackoffMultiplier()).isEqualTo(3);
 		assertThat(props.getProcesses())
 			.isNotNull()
 			.containsExactly(processArchive);
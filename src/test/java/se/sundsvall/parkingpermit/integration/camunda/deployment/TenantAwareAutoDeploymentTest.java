@@ -1,8 +1,14 @@
 package se.sundsvall.parkingpermit.integration.camunda.deployment;
 
 import feign.form.FormData;
+import generated.se.sundsvall.camunda.DeploymentDto;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.camunda.bpm.client.ExternalTaskClient;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -10,23 +16,36 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
 import se.sundsvall.parkingpermit.integration.camunda.deployment.DeploymentProperties.ProcessArchive;
+import se.sundsvall.parkingpermit.integration.camunda.deployment.TenantAwareAutoDeployment.DeploymentResource;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.util.DigestUtils.md5DigestAsHex;
+import static se.sundsvall.parkingpermit.integration.camunda.deployment.TenantAwareAutoDeployment.FIELD_DEPLOYMENT_NAME;
+import static se.sundsvall.parkingpermit.integration.camunda.deployment.TenantAwareAutoDeployment.FIELD_DEPLOYMENT_SOURCE;
+import static se.sundsvall.parkingpermit.integration.camunda.deployment.TenantAwareAutoDeployment.FIELD_DEPLOY_CHANGED_ONLY;
+import static se.sundsvall.parkingpermit.integration.camunda.deployment.TenantAwareAutoDeployment.FIELD_ENABLE_DUPLICATE_FILTERING;
+import static se.sundsvall.parkingpermit.integration.camunda.deployment.TenantAwareAutoDeployment.FIELD_TENANT_ID;
 
 @ExtendWith(MockitoExtension.class)
 class TenantAwareAutoDeploymentTest {
@@ -54,11 +73,17 @@ class TenantAwareAutoDeploymentTest {
 	@Mock
 	private Resource resourceMock;
 
+	@Mock
+	private ObjectProvider<ExternalTaskClient> externalTaskClientProviderMock;
+
+	@Mock
+	private ExternalTaskClient externalTaskClientMock;
+
 	@InjectMocks
 	private TenantAwareAutoDeployment tenantAwareAutoDeployment;
 
 	@Captor
-	private ArgumentCaptor<FormData> formDataCaptor;
+	private ArgumentCaptor<Map<String, ?>> formCaptor;
 
 	@Test
 	void autoDeployDisabled() {
@@ -138,8 +163,9 @@ class TenantAwareAutoDeploymentTest {
 	void autoDeployEnabledWithDefinedProcessAndMatchingDeploymentResources() throws IOException {
 		final var name = "name";
 		final var tenant = "tenant";
-		final var deploymentName = name + " (" + tenant + ") - " + PROCESSMODEL_FILE;
+		final var deploymentName = name + " (" + tenant + ")";
 		final var processFile = new ClassPathResource(PROCESSMODEL_PATH + PROCESSMODEL_FILE);
+		final var expectedSource = TenantAwareAutoDeployment.toDeploymentSource(List.of(new DeploymentResource(PROCESSMODEL_FILE, processFile.getContentAsByteArray())));
 
 		when(deploymentPropertiesMock.isAutoDeployEnabled()).thenReturn(true);
 		when(deploymentPropertiesMock.getProcesses()).thenReturn(List.of(processArchiveMock));
@@ -157,11 +183,129 @@ class TenantAwareAutoDeploymentTest {
 		verify(resourcePatternResolverMock).getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_BPMN);
 		verify(resourcePatternResolverMock).getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_DMN);
 		verify(resourcePatternResolverMock).getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_FORM);
-		verify(deploymentApiMock).deploy(eq(tenant), eq(PROCESSMODEL_FILE), eq(true), eq(true), eq(deploymentName), isNull(), formDataCaptor.capture());
+		verify(deploymentApiMock).getDeployments(expectedSource, null, tenant);
+		verify(deploymentApiMock).createDeployment(formCaptor.capture());
+		verifyNoMoreInteractions(deploymentApiMock);
+
+		final var form = formCaptor.getValue();
+		assertThat(form).containsEntry(FIELD_DEPLOYMENT_NAME, deploymentName)
+			.containsEntry(FIELD_DEPLOYMENT_SOURCE, expectedSource)
+			.containsEntry(FIELD_DEPLOY_CHANGED_ONLY, "true")
+			.containsEntry(FIELD_ENABLE_DUPLICATE_FILTERING, "true")
+			.containsEntry(FIELD_TENANT_ID, tenant)
+			.hasSize(6);
 
 		// The file name has to keep the extension, since the deployer uses it to recognize the resource type
-		assertThat(formDataCaptor.getValue().getFileName()).isEqualTo(PROCESSMODEL_FILE);
-		assertThat(formDataCaptor.getValue().getData()).isEqualTo(processFile.getContentAsByteArray());
+		assertThat(form.get(PROCESSMODEL_FILE)).isInstanceOfSatisfying(FormData.class, formData -> {
+			assertThat(formData.getFileName()).isEqualTo(PROCESSMODEL_FILE);
+			assertThat(formData.getData()).isEqualTo(processFile.getContentAsByteArray());
+		});
+	}
+
+	@Test
+	void autoDeployEnabledWithAllResourcesInOneDeployment() throws IOException {
+		final var bpmnResourceMock = mock(Resource.class);
+		final var dmnResourceMock = mock(Resource.class);
+		final var formResourceMock = mock(Resource.class);
+
+		when(deploymentPropertiesMock.isAutoDeployEnabled()).thenReturn(true);
+		when(deploymentPropertiesMock.getProcesses()).thenReturn(List.of(processArchiveMock));
+		when(processArchiveMock.name()).thenReturn("name");
+		when(resourcePatternResolverMock.getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_BPMN)).thenReturn(new Resource[] {
+			bpmnResourceMock
+		});
+		when(resourcePatternResolverMock.getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_DMN)).thenReturn(new Resource[] {
+			dmnResourceMock
+		});
+		when(resourcePatternResolverMock.getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_FORM)).thenReturn(new Resource[] {
+			formResourceMock
+		});
+		when(bpmnResourceMock.getFilename()).thenReturn("process.bpmn");
+		when(bpmnResourceMock.getInputStream()).thenReturn(new ByteArrayInputStream("bpmn".getBytes()));
+		when(dmnResourceMock.getFilename()).thenReturn(null);
+		when(dmnResourceMock.getInputStream()).thenReturn(new ByteArrayInputStream("dmn".getBytes()));
+		when(formResourceMock.getFilename()).thenReturn("task.form");
+		when(formResourceMock.getInputStream()).thenReturn(new ByteArrayInputStream("form".getBytes()));
+
+		tenantAwareAutoDeployment.deployCamundaResources();
+
+		verify(deploymentApiMock).getDeployments(any(), isNull(), isNull());
+		verify(deploymentApiMock).createDeployment(formCaptor.capture());
+		verifyNoMoreInteractions(deploymentApiMock);
+
+		// Resources without a file name are named by the md5 hash of the content
+		assertThat(formCaptor.getValue()).containsKeys("process.bpmn", md5DigestAsHex("dmn".getBytes()) + ".dmn", "task.form")
+			.doesNotContainKey(FIELD_TENANT_ID);
+	}
+
+	@Test
+	void autoDeployEnabledWithUnchangedResources() throws IOException {
+		final var processFile = new ClassPathResource(PROCESSMODEL_PATH + PROCESSMODEL_FILE);
+
+		when(deploymentPropertiesMock.isAutoDeployEnabled()).thenReturn(true);
+		when(deploymentPropertiesMock.getProcesses()).thenReturn(List.of(processArchiveMock));
+		when(processArchiveMock.tenant()).thenReturn("tenant");
+		when(processArchiveMock.name()).thenReturn("name");
+		when(resourcePatternResolverMock.getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_BPMN)).thenReturn(new Resource[] {
+			resourceMock
+		});
+		when(resourceMock.getFilename()).thenReturn(PROCESSMODEL_FILE);
+		when(resourceMock.getInputStream()).thenReturn(processFile.getInputStream());
+		when(deploymentApiMock.getDeployments(any(), any(), any())).thenReturn(List.of(new DeploymentDto()));
+
+		tenantAwareAutoDeployment.deployCamundaResources();
+
+		verify(deploymentApiMock).getDeployments(any(), isNull(), eq("tenant"));
+		verify(deploymentApiMock, never()).createDeployment(any());
+		verifyNoMoreInteractions(deploymentApiMock);
+	}
+
+	@Test
+	void autoDeployEnabledWithSeveralProcessArchives() throws IOException {
+		final var otherProcessArchiveMock = mock(ProcessArchive.class);
+		final var otherResourceMock = mock(Resource.class);
+		final var otherPattern = "classpath*:other/*.bpmn";
+
+		when(deploymentPropertiesMock.isAutoDeployEnabled()).thenReturn(true);
+		when(deploymentPropertiesMock.getProcesses()).thenReturn(List.of(processArchiveMock, otherProcessArchiveMock));
+		when(processArchiveMock.tenant()).thenReturn("tenant1");
+		when(processArchiveMock.name()).thenReturn("name1");
+		when(otherProcessArchiveMock.tenant()).thenReturn("tenant2");
+		when(otherProcessArchiveMock.name()).thenReturn("name2");
+		when(otherProcessArchiveMock.bpmnResourcePattern()).thenReturn(otherPattern);
+		when(resourcePatternResolverMock.getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_BPMN)).thenReturn(new Resource[] {
+			resourceMock
+		});
+		when(resourcePatternResolverMock.getResources(otherPattern)).thenReturn(new Resource[] {
+			otherResourceMock
+		});
+		when(resourceMock.getFilename()).thenReturn("process1.bpmn");
+		when(resourceMock.getInputStream()).thenReturn(new ByteArrayInputStream("process1".getBytes()));
+		when(otherResourceMock.getFilename()).thenReturn("process2.bpmn");
+		when(otherResourceMock.getInputStream()).thenReturn(new ByteArrayInputStream("process2".getBytes()));
+
+		tenantAwareAutoDeployment.deployCamundaResources();
+
+		verify(deploymentApiMock).getDeployments(any(), isNull(), eq("tenant1"));
+		verify(deploymentApiMock).getDeployments(any(), isNull(), eq("tenant2"));
+		verify(deploymentApiMock, times(2)).createDeployment(formCaptor.capture());
+		verifyNoMoreInteractions(deploymentApiMock);
+		assertThat(formCaptor.getAllValues()).extracting(form -> form.get(FIELD_TENANT_ID)).containsExactlyInAnyOrder("tenant1", "tenant2");
+	}
+
+	@Test
+	void toDeploymentSourceIsDeterministicAndContentSensitive() {
+		final var resources = List.of(new DeploymentResource("a.bpmn", "a".getBytes()), new DeploymentResource("b.dmn", "b".getBytes()));
+
+		final var source = TenantAwareAutoDeployment.toDeploymentSource(resources);
+
+		assertThat(source).startsWith("sha256:").hasSize(71);
+		assertThat(TenantAwareAutoDeployment.toDeploymentSource(List.of(new DeploymentResource("a.bpmn", "a".getBytes()), new DeploymentResource("b.dmn", "b".getBytes()))))
+			.isEqualTo(source);
+		assertThat(TenantAwareAutoDeployment.toDeploymentSource(List.of(new DeploymentResource("a.bpmn", "a".getBytes()), new DeploymentResource("b.dmn", "c".getBytes()))))
+			.isNotEqualTo(source);
+		assertThat(TenantAwareAutoDeployment.toDeploymentSource(List.of(new DeploymentResource("a.bpmn", "a".getBytes()), new DeploymentResource("c.dmn", "b".getBytes()))))
+			.isNotEqualTo(source);
 	}
 
 	@Test
@@ -188,7 +332,7 @@ class TenantAwareAutoDeploymentTest {
 		when(deploymentPropertiesMock.isAutoDeployEnabled()).thenReturn(true);
 		when(deploymentPropertiesMock.getProcesses()).thenReturn(List.of(processArchiveMock));
 		when(processArchiveMock.name()).thenReturn(name);
-		when(deploymentApiMock.deploy(any(), any(), anyBoolean(), anyBoolean(), any(), any(), any())).thenThrow(originException);
+		when(deploymentApiMock.createDeployment(any())).thenThrow(originException);
 		when(resourcePatternResolverMock.getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_BPMN)).thenReturn(new Resource[] {
 			resourceMock
 		});
@@ -198,8 +342,99 @@ class TenantAwareAutoDeploymentTest {
 		final var exception = assertThrows(DeploymentException.class, () -> tenantAwareAutoDeployment.deployCamundaResources());
 
 		verify(resourcePatternResolverMock).getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_BPMN);
-		verify(deploymentApiMock).deploy(any(), any(), anyBoolean(), anyBoolean(), any(), any(), any());
+		verify(deploymentApiMock).getDeployments(any(), isNull(), isNull());
+		verify(deploymentApiMock).createDeployment(any());
 		verifyNoMoreInteractions(resourcePatternResolverMock, deploymentApiMock);
 		assertThat(exception.getCause()).isEqualTo(originException);
 	}
+
+	@Test
+	void deployWithRetrySucceedsAndStartsExternalTaskClient() {
+		when(deploymentPropertiesMock.isAutoDeployEnabled()).thenReturn(false);
+		when(deploymentPropertiesMock.isStartExternalTaskClient()).thenReturn(true);
+		doAnswer(invocation -> {
+			final Consumer<ExternalTaskClient> consumer = invocation.getArgument(0);
+			consumer.accept(externalTaskClientMock);
+			return null;
+		}).when(externalTaskClientProviderMock).ifAvailable(any());
+
+		tenantAwareAutoDeployment.deployWithRetry();
+
+		assertThat(tenantAwareAutoDeployment.isDeployed()).isTrue();
+		assertThat(tenantAwareAutoDeployment.getFailedAttempts()).isZero();
+		assertThat(tenantAwareAutoDeployment.getLastFailure()).isNull();
+		verify(externalTaskClientMock).start();
+	}
+
+	@Test
+	void deployWithRetryDoesNotStartExternalTaskClientWhenDisabled() {
+		when(deploymentPropertiesMock.isAutoDeployEnabled()).thenReturn(false);
+		when(deploymentPropertiesMock.isStartExternalTaskClient()).thenReturn(false);
+
+		tenantAwareAutoDeployment.deployWithRetry();
+
+		assertThat(tenantAwareAutoDeployment.isDeployed()).isTrue();
+		verifyNoInteractions(externalTaskClientProviderMock);
+	}
+
+	@Test
+	void deployWithRetryRetriesWithBackoffUntilDeployed() throws IOException {
+		when(deploymentPropertiesMock.isAutoDeployEnabled()).thenReturn(true);
+		when(deploymentPropertiesMock.isStartExternalTaskClient()).thenReturn(true);
+		when(deploymentPropertiesMock.getRetryInitialBackoff()).thenReturn(Duration.ofMillis(1));
+		when(deploymentPropertiesMock.getRetryMaxBackoff()).thenReturn(Duration.ofMillis(2));
+		when(deploymentPropertiesMock.getRetryBackoffMultiplier()).thenReturn(2.0);
+		when(deploymentPropertiesMock.getProcesses()).thenReturn(List.of(processArchiveMock));
+		when(processArchiveMock.name()).thenReturn("name");
+		when(resourcePatternResolverMock.getResources(DEFAULT_PATTERN_PREFIX + FILETYPE_BPMN)).thenReturn(new Resource[] {
+			resourceMock
+		});
+		when(resourceMock.getFilename()).thenReturn(PROCESSMODEL_FILE);
+		when(resourceMock.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream("content".getBytes()));
+		when(deploymentApiMock.getDeployments(any(), any(), any()))
+			.thenThrow(new RuntimeException("Engine unavailable"))
+			.thenThrow(new RuntimeException("Engine still unavailable"))
+			.thenReturn(List.of(new DeploymentDto()));
+
+		tenantAwareAutoDeployment.deployWithRetry();
+
+		assertThat(tenantAwareAutoDeployment.isDeployed()).isTrue();
+		assertThat(tenantAwareAutoDeployment.getFailedAttempts()).isEqualTo(2);
+		assertThat(tenantAwareAutoDeployment.getLastFailure()).isNull();
+		verify(deploymentApiMock, times(3)).getDeployments(any(), isNull(), isNull());
+		verify(externalTaskClientProviderMock).ifAvailable(any());
+	}
+
+	@Test
+	void deployWithRetryGivesUpOnInvalidConfiguration() {
+		when(deploymentPropertiesMock.isAutoDeployEnabled()).thenReturn(true);
+		when(deploymentPropertiesMock.getRetryInitialBackoff()).thenReturn(Duration.ofMillis(1));
+		when(deploymentPropertiesMock.getProcesses()).thenReturn(List.of(processArchiveMock));
+
+		tenantAwareAutoDeployment.deployWithRetry();
+
+		assertThat(tenantAwareAutoDeployment.isDeployed()).isFalse();
+		assertThat(tenantAwareAutoDeployment.getFailedAttempts()).isZero();
+		assertThat(tenantAwareAutoDeployment.getLastFailure()).isEqualTo("Processname must be set");
+		verifyNoInteractions(deploymentApiMock, externalTaskClientProviderMock);
+	}
+
+	@Test
+	void onApplicationStartedDeploysInBackgroundAndStopInterruptsRetries() {
+		when(deploymentPropertiesMock.isAutoDeployEnabled()).thenReturn(true);
+		when(deploymentPropertiesMock.getRetryInitialBackoff()).thenReturn(Duration.ofMinutes(1));
+		when(deploymentPropertiesMock.getProcesses()).thenThrow(new RuntimeException("Failure"));
+
+		tenantAwareAutoDeployment.onApplicationStarted();
+
+		await().atMost(5, SECONDS).until(() -> tenantAwareAutoDeployment.getFailedAttempts() == 1);
+		assertThat(tenantAwareAutoDeployment.isDeployed()).isFalse();
+		assertThat(tenantAwareAutoDeployment.getLastFailure()).isEqualTo("Failure");
+
+		tenantAwareAutoDeployment.stop();
+
+		verify(deploymentPropertiesMock).getProcesses();
+		assertThat(tenantAwareAutoDeployment.getFailedAttempts()).isEqualTo(1);
+		verifyNoInteractions(deploymentApiMock, externalTaskClientProviderMock);
+	}
 }
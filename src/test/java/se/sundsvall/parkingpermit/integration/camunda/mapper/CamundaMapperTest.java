@@ -21,13 +21,14 @@ class CamundaMapperTest {
 		final var municipalityId = "2281";
 		final var namespace = "namespace";
 		final var caseNumber = new Random().nextLong();
+		final var shard = 2;
 
 		if (isEmpty(RequestId.get())) {
 			RequestId.init();
 		}
 
 		// Act
-		final var dto = CamundaMapper.toStartProcessInstanceDto(municipalityId, namespace, caseNumber);
+		final var dto = CamundaMapper.toStartProcessInstanceDto(municipalityId, namespace, caseNumber, shard);
 
 		// Assert
 		assertThat(dto.getBusinessKey()).isEqualTo(String.valueOf(caseNumber));
@@ -43,7 +44,13 @@ class CamundaMapperTest {
 				.value(caseNumber)),
 			entry(CAMUNDA_VARIABLE_REQUEST_ID, new VariableValueDto()
 				.type(ValueType.STRING.getName())
-				.value(RequestId.get())));
+				.value(RequestId.get())),
+			entry(CAMUNDA_VARIABLE_SHARD, new VariableValueDto()
+				.type(ValueType.INTEGER.getName())
+				.value(shard)),
+			entry(CAMUNDA_VARIABLE_TASK_PRIORITY, new VariableValueDto()
+				.type(ValueType.LONG.getName())
+				.value(TASK_PRIORITY_DEFAULT)));
 	}
 
 	@Test
@@ -65,4 +72,18 @@ class CamundaMapperTest {
 		assertThat(dto.getDeletions()).isNullOrEmpty();
 		assertThat(dto.getModifications()).hasSize(1).containsExactly(entry(key, value));
 	}
+
+	@Test
+	void toCorrelationMessageDto() {
+		final var messageName = "messageName";
+		final var processInstanceId = "processInstanceId";
+
+		final var dto = CamundaMapper.toCorrelationMessageDto(messageName, processInstanceId);
+
+		assertThat(dto.getMessageName()).isEqualTo(messageName);
+		assertThat(dto.getProcessInstanceId()).isEqualTo(processInstanceId);
+		assertThat(dto.getAll()).isTrue();
+		assertThat(dto.getBusinessKey()).isNull();
+		assertThat(dto.getProcessVariables()).isNullOrEmpty();
+	}
 }
@@ -0,0 +1,172 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.util.List;
+import java.util.Map;
+import org.camunda.bpm.client.spring.SpringTopicSubscription;
+import org.camunda.bpm.client.spring.event.SubscriptionInitializedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakerAwareSubscriptionManagerTest {
+
+	private static final String TOPIC_DEPENDING_ON_TEMPLATING = "TemplatingTopic";
+	private static final String TOPIC_DEPENDING_ON_CASEDATA_ONLY = "CaseDataTopic";
+
+	@Mock
+	private SpringTopicSubscription templatingSubscriptionMock;
+
+	@Mock
+	private SpringTopicSubscription caseDataSubscriptionMock;
+
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+
+	private CircuitBreakerAwareSubscriptionManager manager;
+
+	@BeforeEach
+	void setup() {
+		circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+		manager = new CircuitBreakerAwareSubscriptionManager(circuitBreakerRegistry,
+			new SubscriptionDependencyProperties(List.of("casedata"), Map.of(TOPIC_DEPENDING_ON_TEMPLATING, List.of("templating"))));
+	}
+
+	@Test
+	void pauseAndResumeTopicWhenCircuitBreakerChangesState() {
+		// Arrange
+		initializeSubscriptions();
+
+		// Act and assert
+		circuitBreakerRegistry.circuitBreaker("templating").transitionToOpenState();
+		assertThat(manager.isPaused(TOPIC_DEPENDING_ON_TEMPLATING)).isTrue();
+		assertThat(manager.isPaused(TOPIC_DEPENDING_ON_CASEDATA_ONLY)).isFalse();
+
+		circuitBreakerRegistry.circuitBreaker("templating").transitionToHalfOpenState();
+		assertThat(manager.isPaused(TOPIC_DEPENDING_ON_TEMPLATING)).isFalse();
+
+		// Verify
+		verify(templatingSubscriptionMock).close();
+		verify(templatingSubscriptionMock).open();
+		verifyNoMoreSubscriptionInteractions();
+	}
+
+	@Test
+	void pauseAllTopicsWhenCommonDependencyIsOpen() {
+		// Arrange
+		initializeSubscriptions();
+
+		// Act
+		circuitBreakerRegistry.circuitBreaker("casedata").transitionToOpenState();
+
+		// Assert and verify
+		assertThat(manager.isPaused(TOPIC_DEPENDING_ON_TEMPLATING)).isTrue();
+		assertThat(manager.isPaused(TOPIC_DEPENDING_ON_CASEDATA_ONLY)).isTrue();
+		verify(templatingSubscriptionMock).close();
+		verify(caseDataSubscriptionMock).close();
+		verifyNoMoreSubscriptionInteractions();
+	}
+
+	@Test
+	void keepTopicPausedWhileAnyDependencyIsOpen() {
+		// Arrange
+		initializeSubscriptions();
+		circuitBreakerRegistry.circuitBreaker("casedata").transitionToOpenState();
+		circuitBreakerRegistry.circuitBreaker("templating").transitionToOpenState();
+
+		// Act
+		circuitBreakerRegistry.circuitBreaker("casedata").transitionToHalfOpenState();
+
+		// Assert and verify
+		assertThat(manager.isPaused(TOPIC_DEPENDING_ON_TEMPLATING)).isTrue();
+		assertThat(manager.isPaused(TOPIC_DEPENDING_ON_CASEDATA_ONLY)).isFalse();
+		verify(templatingSubscriptionMock, times(1)).close();
+		verify(caseDataSubscriptionMock).close();
+		verify(caseDataSubscriptionMock).open();
+		verifyNoMoreSubscriptionInteractions();
+	}
+
+	@Test
+	void pauseTopicWhenCircuitBreakerIsOpenAtInitialization() {
+		// Arrange
+		circuitBreakerRegistry.circuitBreaker("templating").transitionToForcedOpenState();
+
+		// Act
+		initializeSubscriptions();
+
+		// Assert and verify
+		assertThat(manager.isPaused(TOPIC_DEPENDING_ON_TEMPLATING)).isTrue();
+		assertThat(manager.isPaused(TOPIC_DEPENDING_ON_CASEDATA_ONLY)).isFalse();
+		verify(templatingSubscriptionMock).close();
+		verifyNoMoreSubscriptionInteractions();
+	}
+
+	@Test
+	void reopenOpenSubscription() {
+		// Arrange
+		when(caseDataSubscriptionMock.getTopicName()).thenReturn(TOPIC_DEPENDING_ON_CASEDATA_ONLY);
+		when(caseDataSubscriptionMock.isOpen()).thenReturn(true);
+
+		// Act
+		manager.reopen(caseDataSubscriptionMock);
+
+		// Verify
+		final var inOrder = inOrder(caseDataSubscriptionMock);
+		inOrder.verify(caseDataSubscriptionMock).close();
+		inOrder.verify(caseDataSubscriptionMock).open();
+	}
+
+	@Test
+	void leaveClosedSubscriptionClosedOnReopen() {
+		// Arrange
+		when(caseDataSubscriptionMock.getTopicName()).thenReturn(TOPIC_DEPENDING_ON_CASEDATA_ONLY);
+		when(caseDataSubscriptionMock.isOpen()).thenReturn(false);
+
+		// Act
+		manager.reopen(caseDataSubscriptionMock);
+
+		// Verify
+		verify(caseDataSubscriptionMock, never()).close();
+		verify(caseDataSubscriptionMock, never()).open();
+	}
+
+	@Test
+	void leavePausedSubscriptionClosedOnReopen() {
+		// Arrange
+		initializeSubscriptions();
+		circuitBreakerRegistry.circuitBreaker("templating").transitionToOpenState();
+
+		// Act
+		manager.reopen(templatingSubscriptionMock);
+
+		// Assert and verify
+		assertThat(manager.isPaused(TOPIC_DEPENDING_ON_TEMPLATING)).isTrue();
+		verify(templatingSubscriptionMock).close();
+		verify(templatingSubscriptionMock, never()).open();
+		verify(templatingSubscriptionMock, never()).isOpen();
+	}
+
+	private void initializeSubscriptions() {
+		when(templatingSubscriptionMock.getTopicName()).thenReturn(TOPIC_DEPENDING_ON_TEMPLATING);
+		when(caseDataSubscriptionMock.getTopicName()).thenReturn(TOPIC_DEPENDING_ON_CASEDATA_ONLY);
+
+		manager.onSubscriptionInitialized(new SubscriptionInitializedEvent(templatingSubscriptionMock));
+		manager.onSubscriptionInitialized(new SubscriptionInitializedEvent(caseDataSubscriptionMock));
+	}
+
+	private void verifyNoMoreSubscriptionInteractions() {
+		verify(templatingSubscriptionMock, times(2)).getTopicName();
+		verify(caseDataSubscriptionMock, times(2)).getTopicName();
+		verifyNoMoreInteractions(templatingSubscriptionMock, caseDataSubscriptionMock);
+	}
+}
@@ -0,0 +1,82 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import generated.se.sundsvall.camunda.VariableInstanceDto;
+import generated.se.sundsvall.camunda.VariableValueDto;
+import java.util.List;
+import org.camunda.bpm.engine.variable.type.ValueType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_CASE_NUMBER;
+import static se.sundsvall.parkingpermit.Constants.CAMUNDA_VARIABLE_SHARD;
+import static se.sundsvall.parkingpermit.Constants.TENANTID_TEMPLATE;
+
+@ExtendWith(MockitoExtension.class)
+class ShardAssignmentTest {
+
+	@Mock
+	private CamundaClient camundaClientMock;
+
+	@Test
+	void assignShardToUnassignedProcessInstancesOfShard() {
+		// Arrange
+		final var shardAssignment = new ShardAssignment(camundaClientMock, new ShardingProperties(true, 2, 1));
+
+		when(camundaClientMock.getVariableInstances(CAMUNDA_VARIABLE_SHARD, TENANTID_TEMPLATE)).thenReturn(List.of(
+			variable("assigned", 1)));
+		when(camundaClientMock.getVariableInstances(CAMUNDA_VARIABLE_CASE_NUMBER, TENANTID_TEMPLATE)).thenReturn(List.of(
+			variable("assigned", 101L),
+			variable("unassigned", 103L),
+			variable("unassignedOfOtherShard", 104L)));
+
+		// Act
+		shardAssignment.assignMissingShards();
+
+		// Verify
+		verify(camundaClientMock).getVariableInstances(CAMUNDA_VARIABLE_SHARD, TENANTID_TEMPLATE);
+		verify(camundaClientMock).getVariableInstances(CAMUNDA_VARIABLE_CASE_NUMBER, TENANTID_TEMPLATE);
+		verify(camundaClientMock).setProcessInstanceVariable("unassigned", CAMUNDA_VARIABLE_SHARD, new VariableValueDto().type(ValueType.INTEGER.getName()).value(1));
+		verifyNoMoreInteractions(camundaClientMock);
+	}
+
+	@Test
+	void doNothingWhenShardingIsDisabled() {
+		// Arrange
+		final var shardAssignment = new ShardAssignment(camundaClientMock, new ShardingProperties(false, 1, 0));
+
+		// Act
+		shardAssignment.assignMissingShards();
+
+		// Verify
+		verifyNoInteractions(camundaClientMock);
+	}
+
+	@Test
+	void continueWhenAssignmentFails() {
+		// Arrange
+		final var shardAssignment = new ShardAssignment(camundaClientMock, new ShardingProperties(true, 2, 0));
+
+		when(camundaClientMock.getVariableInstances(CAMUNDA_VARIABLE_SHARD, TENANTID_TEMPLATE)).thenThrow(new IllegalStateException("Service Unavailable"));
+
+		// Act
+		shardAssignment.assignMissingShards();
+
+		// Verify
+		verify(camundaClientMock).getVariableInstances(CAMUNDA_VARIABLE_SHARD, TENANTID_TEMPLATE);
+		verifyNoMoreInteractions(camundaClientMock);
+	}
+
+	private static VariableInstanceDto variable(String processInstanceId, Object value) {
+		final var variable = new VariableInstanceDto();
+		variable.setProcessInstanceId(processInstanceId);
+		variable.setValue(value);
+		return variable;
+	}
+}
@@ -0,0 +1,57 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.parkingpermit.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
+
+@SpringBootTest(classes = Application.class, webEnvironment = MOCK)
+@ActiveProfiles("junit")
+class ShardingPropertiesTest {
+
+	@Autowired
+	private ShardingProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isFalse();
+		assertThat(properties.shardCount()).isEqualTo(4);
+		assertThat(properties.shard()).isEqualTo(1);
+	}
+
+	@Test
+	void shardFor() {
+		final var bean = new ShardingProperties(true, 3, 0);
+
+		assertThat(bean.shardFor(0L)).isZero();
+		assertThat(bean.shardFor(4L)).isEqualTo(1);
+		assertThat(bean.shardFor(5L)).isEqualTo(2);
+		assertThat(bean.shardFor(-1L)).isEqualTo(2);
+	}
+
+	@Test
+	void singleShard() {
+		final var bean = new ShardingProperties(false, 1, 0);
+
+		assertThat(bean.shardFor(123L)).isZero();
+	}
+
+	@Test
+	void invalidShardCount() {
+		assertThatThrownBy(() -> new ShardingProperties(true, 0, 0))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Shard count must be at least 1");
+	}
+
+	@Test
+	void invalidShard() {
+		assertThatThrownBy(() -> new ShardingProperties(true, 2, 2))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Shard must be between 0 and 1");
+	}
+}
@@ -0,0 +1,91 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import java.util.Map;
+import org.camunda.bpm.client.spring.SpringTopicSubscription;
+import org.camunda.bpm.client.spring.event.SubscriptionInitializedEvent;
+import org.camunda.bpm.client.spring.impl.subscription.SpringTopicSubscriptionImpl;
+import org.camunda.bpm.client.spring.impl.subscription.SubscriptionConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShardingSubscriptionConfigurerTest {
+
+	@Mock
+	private SpringTopicSubscriptionImpl subscriptionMock;
+
+	@Mock
+	private SpringTopicSubscription otherSubscriptionMock;
+
+	@Mock
+	private CircuitBreakerAwareSubscriptionManager subscriptionManagerMock;
+
+	@Test
+	void applyShardFilterAndReopenSubscription() {
+		// Arrange
+		final var configuration = new SubscriptionConfiguration();
+		configuration.setProcessVariables(Map.of("other", "value"));
+		final var configurer = new ShardingSubscriptionConfigurer(new ShardingProperties(true, 3, 2), subscriptionManagerMock);
+
+		when(subscriptionMock.getSubscriptionConfiguration()).thenReturn(configuration);
+
+		// Act
+		configurer.onSubscriptionInitialized(new SubscriptionInitializedEvent(subscriptionMock));
+
+		// Assert and verify
+		assertThat(configuration.getProcessVariables()).containsOnly(Map.entry("other", "value"), Map.entry("shard", 2));
+		verify(subscriptionManagerMock).reopen(subscriptionMock);
+		verify(subscriptionMock, never()).close();
+		verify(subscriptionMock, never()).open();
+	}
+
+	@Test
+	void applyShardFilterWithoutConfiguredProcessVariables() {
+		// Arrange
+		final var configuration = new SubscriptionConfiguration();
+		final var configurer = new ShardingSubscriptionConfigurer(new ShardingProperties(true, 2, 0), subscriptionManagerMock);
+
+		when(subscriptionMock.getSubscriptionConfiguration()).thenReturn(configuration);
+
+		// Act
+		configurer.onSubscriptionInitialized(new SubscriptionInitializedEvent(subscriptionMock));
+
+		// Assert and verify
+		assertThat(configuration.getProcessVariables()).containsOnly(Map.entry("shard", 0));
+		verify(subscriptionManagerMock).reopen(subscriptionMock);
+	}
+
+	@Test
+	void doNothingWhenShardingIsDisabled() {
+		// Arrange
+		final var configurer = new ShardingSubscriptionConfigurer(new ShardingProperties(false, 1, 0), subscriptionManagerMock);
+
+		// Act
+		configurer.onSubscriptionInitialized(new SubscriptionInitializedEvent(subscriptionMock));
+
+		// Verify
+		verifyNoInteractions(subscriptionMock, subscriptionManagerMock);
+	}
+
+	@Test
+	void ignoreUnknownSubscriptionType() {
+		// Arrange
+		final var configurer = new ShardingSubscriptionConfigurer(new ShardingProperties(true, 2, 1), subscriptionManagerMock);
+
+		// Act
+		configurer.onSubscriptionInitialized(new SubscriptionInitializedEvent(otherSubscriptionMock));
+
+		// Verify
+		verifyNoInteractions(subscriptionManagerMock);
+		verify(otherSubscriptionMock, never()).open();
+		verify(otherSubscriptionMock, never()).close();
+	}
+}
@@ -0,0 +1,37 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.parkingpermit.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
+
+@SpringBootTest(classes = Application.class, webEnvironment = MOCK)
+@ActiveProfiles("junit")
+class SubscriptionDependencyPropertiesTest {
+
+	@Autowired
+	private SubscriptionDependencyProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.commonDependencies()).containsExactly("casedata");
+		assertThat(properties.dependencies()).hasSize(16);
+		assertThat(properties.dependenciesForTopic("DecisionHandlingTask")).containsExactly("casedata", "templating", "messaging", "support-management");
+		assertThat(properties.dependenciesForTopic("UpdateErrandStatusTask")).containsExactly("casedata");
+		assertThat(properties.allDependencies()).containsExactlyInAnyOrder("casedata", "templating", "camunda", "partyassets", "relation", "messaging", "support-management", "businessrules", "rpa", "citizen");
+	}
+
+	@Test
+	void testNullValues() {
+		final var bean = new SubscriptionDependencyProperties(null, null);
+
+		assertThat(bean.commonDependencies()).isEmpty();
+		assertThat(bean.dependencies()).isEmpty();
+		assertThat(bean.dependenciesForTopic("topic")).isEmpty();
+		assertThat(bean.allDependencies()).isEmpty();
+	}
+}
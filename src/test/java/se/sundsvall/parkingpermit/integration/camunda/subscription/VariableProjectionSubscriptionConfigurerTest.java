@@ -0,0 +1,123 @@
+package se.sundsvall.parkingpermit.integration.camunda.subscription;
+
+import java.util.List;
+import org.camunda.bpm.client.spring.SpringTopicSubscription;
+import org.camunda.bpm.client.spring.event.SubscriptionInitializedEvent;
+import org.camunda.bpm.client.spring.impl.subscription.SpringTopicSubscriptionImpl;
+import org.camunda.bpm.client.spring.impl.subscription.SubscriptionConfiguration;
+import org.camunda.bpm.client.task.ExternalTaskHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.parkingpermit.businesslogic.worker.AbstractTaskWorker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VariableProjectionSubscriptionConfigurerTest {
+
+	@Mock
+	private SpringTopicSubscriptionImpl subscriptionMock;
+
+	@Mock
+	private SpringTopicSubscription otherSubscriptionMock;
+
+	@Mock
+	private AbstractTaskWorker workerMock;
+
+	@Mock
+	private ExternalTaskHandler otherHandlerMock;
+
+	@Mock
+	private CircuitBreakerAwareSubscriptionManager subscriptionManagerMock;
+
+	private VariableProjectionSubscriptionConfigurer configurer;
+
+	@BeforeEach
+	void setup() {
+		configurer = new VariableProjectionSubscriptionConfigurer(subscriptionManagerMock);
+	}
+
+	@Test
+	void applyVariableNamesAndReopenSubscription() {
+		// Arrange
+		final var configuration = new SubscriptionConfiguration();
+		configuration.setVariableNames(List.of("configured", "caseNumber"));
+
+		when(subscriptionMock.getExternalTaskHandler()).thenReturn(workerMock);
+		when(subscriptionMock.getSubscriptionConfiguration()).thenReturn(configuration);
+		when(workerMock.getVariableNames()).thenReturn(List.of("requestId", "caseNumber", "phase"));
+
+		// Act
+		configurer.onSubscriptionInitialized(new SubscriptionInitializedEvent(subscriptionMock));
+
+		// Assert and verify
+		assertThat(configuration.getVariableNames()).containsExactly("requestId", "caseNumber", "phase", "configured");
+		verify(subscriptionManagerMock).reopen(subscriptionMock);
+		verify(subscriptionMock, never()).close();
+		verify(subscriptionMock, never()).open();
+	}
+
+	@Test
+	void applyVariableNamesWithoutConfiguredVariableNames() {
+		// Arrange
+		final var configuration = new SubscriptionConfiguration();
+
+		when(subscriptionMock.getExternalTaskHandler()).thenReturn(workerMock);
+		when(subscriptionMock.getSubscriptionConfiguration()).thenReturn(configuration);
+		when(workerMock.getVariableNames()).thenReturn(List.of("requestId"));
+
+		// Act
+		configurer.onSubscriptionInitialized(new SubscriptionInitializedEvent(subscriptionMock));
+
+		// Assert and verify
+		assertThat(configuration.getVariableNames()).containsExactly("requestId");
+		verify(subscriptionManagerMock).reopen(subscriptionMock);
+	}
+
+	@Test
+	void failWhenWorkerDoesNotDeclareVariables() {
+		// Arrange
+		final var event = new SubscriptionInitializedEvent(subscriptionMock);
+
+		when(subscriptionMock.getExternalTaskHandler()).thenReturn(workerMock);
+		when(workerMock.getVariableNames()).thenThrow(new IllegalStateException("Worker Worker does not declare the variables it reads"));
+
+		// Act and assert
+		assertThatThrownBy(() -> configurer.onSubscriptionInitialized(event))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("Worker Worker does not declare the variables it reads");
+		verifyNoInteractions(subscriptionManagerMock);
+	}
+
+	@Test
+	void ignoreHandlerOfOtherType() {
+		// Arrange
+		when(subscriptionMock.getExternalTaskHandler()).thenReturn(otherHandlerMock);
+
+		// Act
+		configurer.onSubscriptionInitialized(new SubscriptionInitializedEvent(subscriptionMock));
+
+		// Verify
+		verify(subscriptionMock, never()).getSubscriptionConfiguration();
+		verifyNoInteractions(subscriptionManagerMock);
+	}
+
+	@Test
+	void ignoreUnknownSubscriptionType() {
+		// Act
+		configurer.onSubscriptionInitialized(new SubscriptionInitializedEvent(otherSubscriptionMock));
+
+		// Verify
+		verifyNoInteractions(subscriptionManagerMock);
+		verify(otherSubscriptionMock, never()).open();
+		verify(otherSubscriptionMock, never()).close();
+	}
+}
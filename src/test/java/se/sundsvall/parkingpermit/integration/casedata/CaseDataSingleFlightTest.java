@@ -0,0 +1,176 @@
+package se.sundsvall.parkingpermit.integration.casedata;
+
+import generated.se.sundsvall.casedata.Errand;
+import generated.se.sundsvall.casedata.ExtraParameter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static se.sundsvall.parkingpermit.integration.casedata.CaseDataSingleFlight.METRIC_CALLS;
+import static se.sundsvall.parkingpermit.integration.casedata.CaseDataSingleFlight.OUTCOME_COLLAPSED;
+import static se.sundsvall.parkingpermit.integration.casedata.CaseDataSingleFlight.OUTCOME_EXECUTED;
+import static se.sundsvall.parkingpermit.integration.casedata.CaseDataSingleFlight.TAG_OPERATION;
+import static se.sundsvall.parkingpermit.integration.casedata.CaseDataSingleFlight.TAG_OUTCOME;
+
+class CaseDataSingleFlightTest {
+
+	private static final String OPERATION = "getErrandById";
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String NAMESPACE = "SBK_PARKING_PERMIT";
+	private static final TypeReference<String> STRING_TYPE = new TypeReference<>() {};
+	private static final TypeReference<Errand> ERRAND_TYPE = new TypeReference<>() {};
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger requests = new AtomicInteger();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private SimpleMeterRegistry meterRegistry;
+	private CaseDataSingleFlight singleFlight;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		singleFlight = new CaseDataSingleFlight(meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	void collapseConcurrentIdenticalReads() {
+		// Arrange
+		final var first = CompletableFuture.supplyAsync(() -> singleFlight.get(OPERATION, this::blockingRequest, STRING_TYPE, MUNICIPALITY_ID, NAMESPACE, 1L), executor);
+		await().atMost(5, SECONDS).until(() -> requests.get() == 1);
+
+		// Act
+		final var second = CompletableFuture.supplyAsync(() -> singleFlight.get(OPERATION, this::blockingRequest, STRING_TYPE, MUNICIPALITY_ID, NAMESPACE, 1L), executor);
+		await().atMost(5, SECONDS).until(() -> count(OUTCOME_COLLAPSED) == 1);
+		release.countDown();
+
+		// Assert
+		assertThat(first.join()).isEqualTo("response-1").isEqualTo(second.join());
+		assertThat(requests).hasValue(1);
+		assertThat(count(OUTCOME_EXECUTED)).isEqualTo(1);
+	}
+
+	@Test
+	void handOutCopiesOfSharedResponse() {
+		// Arrange
+		final var errand = new Errand().id(1L).extraParameters(List.of(new ExtraParameter("key").values(List.of("value"))));
+		final var first = CompletableFuture.supplyAsync(() -> singleFlight.get(OPERATION, () -> {
+			blockingRequest();
+			return errand;
+		}, ERRAND_TYPE, MUNICIPALITY_ID, NAMESPACE, 1L), executor);
+		await().atMost(5, SECONDS).until(() -> requests.get() == 1);
+
+		// Act
+		final var second = CompletableFuture.supplyAsync(() -> singleFlight.get(OPERATION, () -> errand, ERRAND_TYPE, MUNICIPALITY_ID, NAMESPACE, 1L), executor);
+		await().atMost(5, SECONDS).until(() -> count(OUTCOME_COLLAPSED) == 1);
+		release.countDown();
+
+		// Assert
+		final var firstErrand = first.join();
+		final var secondErrand = second.join();
+		assertThat(firstErrand).isEqualTo(errand).isNotSameAs(errand).isNotSameAs(secondErrand);
+		assertThat(secondErrand).isEqualTo(errand).isNotSameAs(errand);
+		assertThat(firstErrand.getExtraParameters()).isNotSameAs(secondErrand.getExtraParameters());
+		assertThat(requests).hasValue(1);
+	}
+
+	@Test
+	void returnResponseThatIsNotSharedAsItIs() {
+		// Arrange
+		final var errand = new Errand().id(1L);
+
+		// Act
+		final var result = singleFlight.get(OPERATION, () -> errand, ERRAND_TYPE, MUNICIPALITY_ID, NAMESPACE, 1L);
+
+		// Assert
+		assertThat(result).isSameAs(errand);
+		assertThat(count(OUTCOME_EXECUTED)).isEqualTo(1);
+	}
+
+	@Test
+	void executeConcurrentReadsWithDifferentArguments() {
+		// Arrange
+		final var first = CompletableFuture.supplyAsync(() -> singleFlight.get(OPERATION, this::blockingRequest, STRING_TYPE, MUNICIPALITY_ID, NAMESPACE, 1L), executor);
+		await().atMost(5, SECONDS).until(() -> requests.get() == 1);
+
+		// Act
+		final var second = CompletableFuture.supplyAsync(() -> singleFlight.get(OPERATION, this::blockingRequest, STRING_TYPE, MUNICIPALITY_ID, NAMESPACE, 2L), executor);
+		await().atMost(5, SECONDS).until(() -> requests.get() == 2);
+		release.countDown();
+
+		// Assert
+		assertThat(first.join()).isEqualTo("response-1");
+		assertThat(second.join()).isEqualTo("response-2");
+		assertThat(count(OUTCOME_EXECUTED)).isEqualTo(2);
+		assertThat(count(OUTCOME_COLLAPSED)).isZero();
+	}
+
+	@Test
+	void executeSequentialReads() {
+		// Act
+		final var first = singleFlight.get(OPERATION, () -> "response-" + requests.incrementAndGet(), STRING_TYPE, MUNICIPALITY_ID, NAMESPACE, null);
+		final var second = singleFlight.get(OPERATION, () -> "response-" + requests.incrementAndGet(), STRING_TYPE, MUNICIPALITY_ID, NAMESPACE, null);
+
+		// Assert
+		assertThat(first).isEqualTo("response-1");
+		assertThat(second).isEqualTo("response-2");
+		assertThat(count(OUTCOME_EXECUTED)).isEqualTo(2);
+	}
+
+	@Test
+	void failCollapsedReadsWithExceptionOfRequest() {
+		// Arrange
+		final var failure = new IllegalStateException("Bad Gateway");
+		final var first = CompletableFuture.runAsync(() -> singleFlight.get(OPERATION, () -> {
+			blockingRequest();
+			throw failure;
+		}, STRING_TYPE, MUNICIPALITY_ID, NAMESPACE, 1L), executor);
+		await().atMost(5, SECONDS).until(() -> requests.get() == 1);
+
+		// Act
+		final var second = CompletableFuture.runAsync(() -> singleFlight.get(OPERATION, this::blockingRequest, STRING_TYPE, MUNICIPALITY_ID, NAMESPACE, 1L), executor);
+		await().atMost(5, SECONDS).until(() -> count(OUTCOME_COLLAPSED) == 1);
+		release.countDown();
+
+		// Assert
+		assertThatThrownBy(first::join).hasCause(failure);
+		assertThatThrownBy(second::join).hasCause(failure);
+		assertThat(requests).hasValue(1);
+
+		// A new read is executed once the failed request has completed
+		assertThat(singleFlight.get(OPERATION, () -> "response", STRING_TYPE, MUNICIPALITY_ID, NAMESPACE, 1L)).isEqualTo("response");
+	}
+
+	private String blockingRequest() {
+		final var request = requests.incrementAndGet();
+		try {
+			release.await();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return "response-" + request;
+	}
+
+	private double count(String outcome) {
+		final var counter = meterRegistry.find(METRIC_CALLS).tag(TAG_OPERATION, OPERATION).tag(TAG_OUTCOME, outcome).counter();
+		return counter == null ? 0 : counter.count();
+	}
+}
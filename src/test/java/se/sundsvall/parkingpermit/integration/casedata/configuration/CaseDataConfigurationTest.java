@@ -1,5 +1,6 @@
 package se.sundsvall.parkingpermit.integration.casedata.configuration;
 
+import feign.Client;
 import feign.codec.ErrorDecoder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,12 +12,15 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.oauth2.client.registration.ClientRegistration;
-import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import se.sundsvall.dept44.configuration.feign.FeignMultiCustomizer;
 import se.sundsvall.dept44.configuration.feign.decoder.ProblemErrorDecoder;
+import se.sundsvall.parkingpermit.integration.http.HttpClientPoolProperties;
+import se.sundsvall.parkingpermit.integration.http.PooledHttpClientFactory;
+import se.sundsvall.parkingpermit.integration.oauth2.OAuth2TokenManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static se.sundsvall.parkingpermit.integration.casedata.configuration.CaseDataConfiguration.CLIENT_ID;
@@ -25,13 +29,19 @@ import static se.sundsvall.parkingpermit.integration.casedata.configuration.Case
 class CaseDataConfigurationTest {
 
 	@Mock
-	private ClientRegistrationRepository clientRepositoryMock;
+	private OAuth2TokenManager oAuth2TokenManagerMock;
 
 	@Mock
-	private ClientRegistration clientRegistrationMock;
+	private CaseDataProperties propertiesMock;
 
 	@Mock
-	private CaseDataProperties propertiesMock;
+	private HttpClientPoolProperties poolPropertiesMock;
+
+	@Mock
+	private PooledHttpClientFactory pooledHttpClientFactoryMock;
+
+	@Mock
+	private Client clientMock;
 
 	@Spy
 	private FeignMultiCustomizer feignMultiCustomizerSpy;
@@ -50,13 +60,14 @@ class CaseDataConfigurationTest {
 
 		when(propertiesMock.connectTimeout()).thenReturn(connectTimeout);
 		when(propertiesMock.readTimeout()).thenReturn(readTimeout);
-		when(clientRepositoryMock.findByRegistrationId(CLIENT_ID)).thenReturn(clientRegistrationMock);
+		when(propertiesMock.pool()).thenReturn(poolPropertiesMock);
+		when(pooledHttpClientFactoryMock.create(CLIENT_ID, poolPropertiesMock)).thenReturn(clientMock);
 
 		// Mock static FeignMultiCustomizer to enable spy and to verify that static method is being called
 		try (MockedStatic<FeignMultiCustomizer> feignMultiCustomizerMock = Mockito.mockStatic(FeignMultiCustomizer.class)) {
 			feignMultiCustomizerMock.when(FeignMultiCustomizer::create).thenReturn(feignMultiCustomizerSpy);
 
-			configuration.feignBuilderCustomizer(clientRepositoryMock, propertiesMock);
+			configuration.feignBuilderCustomizer(oAuth2TokenManagerMock, propertiesMock, pooledHttpClientFactoryMock);
 
 			feignMultiCustomizerMock.verify(FeignMultiCustomizer::create);
 		}
@@ -64,10 +75,11 @@ class CaseDataConfigurationTest {
 		// Verifications
 		verify(propertiesMock).connectTimeout();
 		verify(propertiesMock).readTimeout();
-		verify(clientRepositoryMock).findByRegistrationId(CLIENT_ID);
+		verify(propertiesMock).pool();
+		verify(pooledHttpClientFactoryMock).create(CLIENT_ID, poolPropertiesMock);
 		verify(feignMultiCustomizerSpy).withErrorDecoder(errorDecoderCaptor.capture());
 		verify(feignMultiCustomizerSpy).withRequestTimeoutsInSeconds(connectTimeout, readTimeout);
-		verify(feignMultiCustomizerSpy).withRetryableOAuth2InterceptorForClientRegistration(clientRegistrationMock);
+		verify(feignMultiCustomizerSpy, times(2)).withCustomizer(any());
 		verify(feignMultiCustomizerSpy).composeCustomizersToOne();
 
 		// Assert ErrorDecoder
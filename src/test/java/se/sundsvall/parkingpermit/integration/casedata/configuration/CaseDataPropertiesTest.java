@@ -1,5 +1,6 @@
 package se.sundsvall.parkingpermit.integration.casedata.configuration;
 
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -20,5 +21,9 @@ class CaseDataPropertiesTest {
 	void testProperties() {
 		assertThat(properties.connectTimeout()).isEqualTo(5);
 		assertThat(properties.readTimeout()).isEqualTo(20);
+		assertThat(properties.pool().maxConnections()).isEqualTo(50);
+		assertThat(properties.pool().keepAlive()).isEqualTo(Duration.ofSeconds(30));
+		assertThat(properties.pool().idleEviction()).isEqualTo(Duration.ofMinutes(1));
+		assertThat(properties.pool().timeToLive()).isEqualTo(Duration.ofMinutes(5));
 	}
 }
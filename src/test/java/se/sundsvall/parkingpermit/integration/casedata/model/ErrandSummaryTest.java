@@ -0,0 +1,46 @@
+package se.sundsvall.parkingpermit.integration.casedata.model;
+
+import generated.se.sundsvall.casedata.ExtraParameter;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrandSummaryTest {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	@Test
+	void deserializeIgnoresUndeclaredAttributes() {
+		final var json = """
+			{
+			  "id": 123,
+			  "errandNumber": "PRH-2024-000001",
+			  "caseType": "PARKING_PERMIT",
+			  "phase": "Actualization",
+			  "externalCaseId": "456",
+			  "stakeholders": [{ "id": 1, "roles": ["APPLICANT"], "addresses": [{ "city": "Sundsvall" }] }],
+			  "decisions": [{ "decisionType": "FINAL", "law": [{ "heading": "heading", "sfs": "sfs" }] }],
+			  "notes": [{ "id": 1, "text": "text" }],
+			  "statuses": [{ "statusType": "Ärende inkommit" }],
+			  "extraParameters": [{ "key": "artefact.permit.number", "values": ["12345"] }]
+			}
+			""";
+
+		final var result = OBJECT_MAPPER.readValue(json, ErrandSummary.class);
+
+		assertThat(result.id()).isEqualTo(123L);
+		assertThat(result.caseType()).isEqualTo("PARKING_PERMIT");
+		assertThat(result.phase()).isEqualTo("Actualization");
+		assertThat(result.externalCaseId()).isEqualTo("456");
+		assertThat(result.extraParameters()).containsExactly(new ExtraParameter("artefact.permit.number").addValuesItem("12345"));
+	}
+
+	@Test
+	void missingExtraParametersDefaultsToEmptyList() {
+		final var result = OBJECT_MAPPER.readValue("{\"id\": 1}", ErrandSummary.class);
+
+		assertThat(result.id()).isEqualTo(1L);
+		assertThat(result.extraParameters()).isNotNull().isEmpty();
+	}
+}
@@ -0,0 +1,139 @@
+package se.sundsvall.parkingpermit.integration.casedata.model;
+
+import generated.se.sundsvall.casedata.Decision;
+import generated.se.sundsvall.casedata.Errand;
+import generated.se.sundsvall.casedata.ExtraParameter;
+import generated.se.sundsvall.casedata.Stakeholder;
+import generated.se.sundsvall.casedata.Status;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.FINAL;
+import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.PROPOSED;
+import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.RECOMMENDED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ErrandViewTest {
+
+	@Test
+	void attributes() {
+		final var errand = new Errand().id(1L).errandNumber("PRH-2024-000001").namespace("namespace").externalCaseId("externalCaseId").phase("Beslut");
+
+		final var errandView = ErrandView.of(errand);
+
+		assertThat(errandView.getId()).isEqualTo(1L);
+		assertThat(errandView.getErrandNumber()).isEqualTo("PRH-2024-000001");
+		assertThat(errandView.getNamespace()).isEqualTo("namespace");
+		assertThat(errandView.getExternalCaseId()).isEqualTo("externalCaseId");
+		assertThat(errandView.getPhase()).isEqualTo("Beslut");
+	}
+
+	@Test
+	void findExtraParameterValue() {
+		final var errand = new Errand().extraParameters(List.of(
+			new ExtraParameter("key1").addValuesItem("value1").addValuesItem("value2"),
+			new ExtraParameter("key1").addValuesItem("duplicate"),
+			new ExtraParameter("key2").values(List.of()),
+			new ExtraParameter("key3")));
+
+		final var errandView = ErrandView.of(errand);
+
+		assertThat(errandView.findExtraParameterValue("key1")).hasValue("value1");
+		assertThat(errandView.findExtraParameterValue("key2")).isEmpty();
+		assertThat(errandView.findExtraParameterValue("key3")).isEmpty();
+		assertThat(errandView.findExtraParameterValue("unknown")).isEmpty();
+		assertThat(errandView.getExtraParameterValues("key1")).containsExactly("value1", "value2");
+		assertThat(errandView.getExtraParameterValues("key2")).isEmpty();
+		assertThat(errandView.getExtraParameterValues("unknown")).isEmpty();
+	}
+
+	@Test
+	void stakeholdersByRole() {
+		final var applicant = new Stakeholder().personId("applicant").roles(List.of("APPLICANT", "DRIVER"));
+		final var administrator = new Stakeholder().personId("administrator").roles(List.of("ADMINISTRATOR"));
+		final var driver = new Stakeholder().personId("driver").roles(List.of("DRIVER", "DRIVER"));
+		final var noRoles = new Stakeholder().personId("noRoles").roles(null);
+
+		final var errandView = ErrandView.of(new Errand().stakeholders(List.of(applicant, administrator, driver, noRoles)));
+
+		assertThat(errandView.findStakeholder("APPLICANT")).containsSame(applicant);
+		assertThat(errandView.getStakeholders("DRIVER")).containsExactly(applicant, driver);
+		assertThat(errandView.getStakeholders("ADMINISTRATOR")).containsExactly(administrator);
+		assertThat(errandView.getStakeholders("UNKNOWN")).isEmpty();
+		assertThat(errandView.findStakeholder("UNKNOWN")).isEmpty();
+	}
+
+	@Test
+	void decisionsByType() {
+		final var finalDecision = new Decision().id(1L).decisionType(FINAL);
+		final var proposedDecision1 = new Decision().id(2L).decisionType(PROPOSED);
+		final var proposedDecision2 = new Decision().id(3L).decisionType(PROPOSED);
+		final var untypedDecision = new Decision().id(4L);
+
+		final var errandView = ErrandView.of(new Errand().decisions(List.of(finalDecision, proposedDecision1, proposedDecision2, untypedDecision)));
+
+		assertThat(errandView.findDecision(FINAL)).containsSame(finalDecision);
+		assertThat(errandView.getDecisions(PROPOSED)).containsExactly(proposedDecision1, proposedDecision2);
+		assertThat(errandView.getDecisions(RECOMMENDED)).isEmpty();
+		assertThat(errandView.findDecision(RECOMMENDED)).isEmpty();
+	}
+
+	@Test
+	void statusesByType() {
+		final var errandView = ErrandView.of(new Errand().statuses(List.of(new Status().statusType("Beslutad"), new Status())));
+
+		assertThat(errandView.hasStatus("Beslutad")).isTrue();
+		assertThat(errandView.hasStatus("Ärende avslutat")).isFalse();
+	}
+
+	@Test
+	void emptyErrand() {
+		final var errandView = ErrandView.of(new Errand());
+
+		assertThat(errandView.findExtraParameterValue("key")).isEmpty();
+		assertThat(errandView.getStakeholders("APPLICANT")).isEmpty();
+		assertThat(errandView.getDecisions(FINAL)).isEmpty();
+		assertThat(errandView.hasStatus("Beslutad")).isFalse();
+	}
+
+	@Test
+	void indexesAreUnmodifiable() {
+		final var errandView = ErrandView.of(new Errand()
+			.extraParameters(List.of(new ExtraParameter("key").values(new ArrayList<>(List.of("value")))))
+			.stakeholders(List.of(new Stakeholder().roles(List.of("APPLICANT"))))
+			.decisions(List.of(new Decision().decisionType(FINAL))));
+
+		final var values = errandView.getExtraParameterValues("key");
+		final var stakeholders = errandView.getStakeholders("APPLICANT");
+		final var decisions = errandView.getDecisions(FINAL);
+		final var stakeholder = new Stakeholder();
+		final var decision = new Decision();
+
+		assertThatThrownBy(() -> values.add("other")).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> stakeholders.add(stakeholder)).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> decisions.add(decision)).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	void changesToErrandAreNotReflected() {
+		final var values = new ArrayList<>(List.of("value"));
+		final var errand = new Errand().id(1L).extraParameters(new ArrayList<>(List.of(new ExtraParameter("key").values(values))));
+
+		final var errandView = ErrandView.of(errand);
+		values.set(0, "changed");
+		errand.setId(2L);
+		errand.getExtraParameters().clear();
+
+		assertThat(errandView.getId()).isEqualTo(1L);
+		assertThat(errandView.findExtraParameterValue("key")).hasValue("value");
+	}
+
+	@Test
+	void nullErrand() {
+		assertThatThrownBy(() -> ErrandView.of(null))
+			.isInstanceOf(NullPointerException.class)
+			.hasMessage("errand must not be null");
+	}
+}
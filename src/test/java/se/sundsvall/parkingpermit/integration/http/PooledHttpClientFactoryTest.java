@@ -0,0 +1,45 @@
+package se.sundsvall.parkingpermit.integration.http;
+
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.parkingpermit.integration.http.PooledHttpClientFactory.METRIC_CONNECTIONS;
+import static se.sundsvall.parkingpermit.integration.http.PooledHttpClientFactory.METRIC_MAX_CONNECTIONS;
+import static se.sundsvall.parkingpermit.integration.http.PooledHttpClientFactory.TAG_CLIENT;
+import static se.sundsvall.parkingpermit.integration.http.PooledHttpClientFactory.TAG_STATE;
+
+class PooledHttpClientFactoryTest {
+
+	@Test
+	void create() throws Exception {
+		// Arrange
+		final var meterRegistry = new SimpleMeterRegistry();
+		final var factory = new PooledHttpClientFactory(meterRegistry);
+		final var properties = new HttpClientPoolProperties(15, Duration.ofSeconds(10), Duration.ofSeconds(20), Duration.ofMinutes(1));
+
+		// Act
+		final var client = factory.create("clientId", properties);
+
+		// Assert
+		assertThat(client).isInstanceOf(ApacheHttp5Client.class);
+		assertThat(meterRegistry.get(METRIC_MAX_CONNECTIONS).tag(TAG_CLIENT, "clientId").gauge().value()).isEqualTo(15);
+		assertThat(meterRegistry.get(METRIC_CONNECTIONS).tags(TAG_CLIENT, "clientId", TAG_STATE, "leased").gauge().value()).isZero();
+		assertThat(meterRegistry.get(METRIC_CONNECTIONS).tags(TAG_CLIENT, "clientId", TAG_STATE, "pending").gauge().value()).isZero();
+		assertThat(meterRegistry.get(METRIC_CONNECTIONS).tags(TAG_CLIENT, "clientId", TAG_STATE, "available").gauge().value()).isZero();
+
+		factory.destroy();
+	}
+
+	@Test
+	void defaultPoolProperties() {
+		final var properties = new HttpClientPoolProperties(0, null, null, null);
+
+		assertThat(properties.maxConnections()).isEqualTo(20);
+		assertThat(properties.keepAlive()).isEqualTo(Duration.ofSeconds(30));
+		assertThat(properties.idleEviction()).isEqualTo(Duration.ofSeconds(60));
+		assertThat(properties.timeToLive()).isEqualTo(Duration.ofMinutes(5));
+	}
+}
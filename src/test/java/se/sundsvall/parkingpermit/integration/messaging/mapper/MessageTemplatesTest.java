@@ -0,0 +1,128 @@
+package se.sundsvall.parkingpermit.integration.messaging.mapper;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.parkingpermit.integration.messaging.mapper.MessageTemplates.SupportInfo;
+import se.sundsvall.parkingpermit.integration.messaging.mapper.MessageTemplates.Text;
+import se.sundsvall.parkingpermit.util.ApprovalTextProperties;
+import se.sundsvall.parkingpermit.util.CommonTextProperties;
+import se.sundsvall.parkingpermit.util.DenialTextProperties;
+import se.sundsvall.parkingpermit.util.SimplifiedServiceTextProperties;
+import se.sundsvall.parkingpermit.util.TextProperties;
+
+import static java.nio.charset.Charset.defaultCharset;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageTemplatesTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Test
+	void get() {
+		// Arrange
+		final var commonTexts = new CommonTextProperties();
+		commonTexts.setDepartment("department");
+		commonTexts.setFilename("filename");
+		commonTexts.setContactInfoEmail("email");
+		commonTexts.setContactInfoPhonenumber("phonenumber");
+		commonTexts.setContactInfoText("text");
+		commonTexts.setContactInfoUrl("url");
+		final var approvalTexts = new ApprovalTextProperties();
+		approvalTexts.setSubject("approvalSubject");
+		approvalTexts.setHtmlBody("<p>approval</p>");
+		final var denialTexts = new DenialTextProperties();
+		denialTexts.setSubject("denialSubject");
+		denialTexts.setMessage("denialMessage");
+		denialTexts.setHtmlBody("<p>denial</p>");
+		final var simplifiedServiceTexts = new SimplifiedServiceTextProperties();
+		simplifiedServiceTexts.setSubject("simplifiedServiceSubject");
+		simplifiedServiceTexts.setPlainBody("simplifiedServicePlainBody");
+		simplifiedServiceTexts.setHtmlBody("<p>simplified service åäö</p>");
+
+		final var textProperties = new TextProperties();
+		textProperties.setCommons(Map.of(MUNICIPALITY_ID, commonTexts));
+		textProperties.setApprovals(Map.of(MUNICIPALITY_ID, approvalTexts));
+		textProperties.setDenials(Map.of(MUNICIPALITY_ID, denialTexts));
+		textProperties.setSimplifiedServices(Map.of(MUNICIPALITY_ID, simplifiedServiceTexts));
+
+		// Act
+		final var template = new MessageTemplates(textProperties).get(MUNICIPALITY_ID);
+
+		// Assert
+		assertThat(template.department()).isEqualTo("department");
+		assertThat(template.filename()).isEqualTo("filename");
+		assertThat(template.supportInfo()).isEqualTo(new SupportInfo("email", "phonenumber", "text", "url"));
+		assertThat(template.approval()).isEqualTo(new Text("approvalSubject", null, encode("<p>approval</p>")));
+		assertThat(template.denial()).isEqualTo(new Text("denialSubject", "denialMessage", encode("<p>denial</p>")));
+		assertThat(template.simplifiedService()).isEqualTo(new Text("simplifiedServiceSubject", "simplifiedServicePlainBody", encode("<p>simplified service åäö</p>")));
+	}
+
+	@Test
+	void getIsNotAffectedByLaterChangesOfProperties() {
+		// Arrange
+		final var denialTexts = new DenialTextProperties();
+		denialTexts.setSubject("subject");
+		final var denials = new HashMap<String, DenialTextProperties>();
+		denials.put(MUNICIPALITY_ID, denialTexts);
+		final var textProperties = new TextProperties();
+		textProperties.setDenials(denials);
+		final var messageTemplates = new MessageTemplates(textProperties);
+
+		// Act
+		denialTexts.setSubject("changedSubject");
+		denials.put("2260", new DenialTextProperties());
+
+		// Assert
+		assertThat(messageTemplates.get(MUNICIPALITY_ID).denial().subject()).isEqualTo("subject");
+		assertThatThrownBy(() -> messageTemplates.get("2260")).isInstanceOf(Problem.class);
+	}
+
+	@Test
+	void getWhenTextsArePartiallyConfigured() {
+		// Arrange
+		final var denialTexts = new DenialTextProperties();
+		denialTexts.setSubject("subject");
+		final var textProperties = new TextProperties();
+		textProperties.setDenials(Map.of(MUNICIPALITY_ID, denialTexts));
+
+		// Act
+		final var template = new MessageTemplates(textProperties).get(MUNICIPALITY_ID);
+
+		// Assert
+		assertThat(template.denial()).isEqualTo(new Text("subject", null, null));
+		assertThatThrownBy(template::department)
+			.isInstanceOf(Problem.class)
+			.hasMessage("Internal Server Error: No common texts are configured for municipality '2281'");
+		assertThatThrownBy(template::supportInfo)
+			.isInstanceOf(Problem.class)
+			.hasMessage("Internal Server Error: No common texts are configured for municipality '2281'");
+		assertThatThrownBy(template::approval)
+			.isInstanceOf(Problem.class)
+			.hasMessage("Internal Server Error: No approval texts are configured for municipality '2281'");
+		assertThatThrownBy(template::simplifiedService)
+			.isInstanceOf(Problem.class)
+			.hasMessage("Internal Server Error: No simplified service texts are configured for municipality '2281'");
+	}
+
+	@Test
+	void getForUnknownMunicipality() {
+		// Arrange
+		final var messageTemplates = new MessageTemplates(new TextProperties());
+
+		// Act and assert
+		assertThatThrownBy(() -> messageTemplates.get(MUNICIPALITY_ID))
+			.isInstanceOf(Problem.class)
+			.hasMessage("Internal Server Error: No message texts are configured for municipality '2281'");
+		assertThatThrownBy(() -> messageTemplates.get(null))
+			.isInstanceOf(Problem.class)
+			.hasMessage("Internal Server Error: No message texts are configured for municipality 'null'");
+	}
+
+	private static String encode(final String value) {
+		return Base64.getEncoder().encodeToString(value.getBytes(defaultCharset()));
+	}
+}
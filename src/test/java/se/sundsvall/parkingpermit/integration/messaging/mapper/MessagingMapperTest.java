@@ -16,17 +16,16 @@ import generated.se.sundsvall.messaging.WebMessageParty;
 import generated.se.sundsvall.templating.RenderResponse;
 import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.parkingpermit.util.ApprovalTextProperties;
 import se.sundsvall.parkingpermit.util.CommonTextProperties;
 import se.sundsvall.parkingpermit.util.DenialTextProperties;
 import se.sundsvall.parkingpermit.util.SimplifiedServiceTextProperties;
-import se.sundsvall.parkingpermit.util.TextProvider;
+import se.sundsvall.parkingpermit.util.TextProperties;
 
 import static generated.se.sundsvall.casedata.Decision.DecisionOutcomeEnum.APPROVAL;
 import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.FINAL;
@@ -34,16 +33,11 @@ import static generated.se.sundsvall.messaging.LetterAttachment.ContentTypeEnum.
 import static generated.se.sundsvall.messaging.WebMessageRequest.OepInstanceEnum.EXTERNAL;
 import static java.nio.charset.Charset.defaultCharset;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.LIST;
 import static org.assertj.core.groups.Tuple.tuple;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoInteractions;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
-import static org.mockito.Mockito.when;
 import static se.sundsvall.parkingpermit.Constants.MESSAGING_KEY_FLOW_INSTANCE_ID;
 
-@ExtendWith(MockitoExtension.class)
 class MessagingMapperTest {
 
 	private static final UUID PARTY_ID = UUID.randomUUID();
@@ -61,33 +55,45 @@ class MessagingMapperTest {
 	private static final String CONTACTINFO_URL = "contactinfoUrl";
 	private static final String MUNICIPALITY_ID = "2281";
 
-	@Mock
-	private CommonTextProperties commonTextPropertiesMock;
-
-	@Mock
-	private DenialTextProperties denialTextPropertiesMock;
-
-	@Mock
-	private ApprovalTextProperties approvalTextPropertiesMock;
-
-	@Mock
-	private SimplifiedServiceTextProperties simplifiedServiceTextPropertiesMock;
-
-	@Mock
-	private TextProvider textProviderMock;
-
-	@InjectMocks
 	private MessagingMapper messagingMapper;
 
+	@BeforeEach
+	void setup() {
+		final var commonTexts = new CommonTextProperties();
+		commonTexts.setDepartment(DEPARTMENT);
+		commonTexts.setFilename(FILENAME);
+		commonTexts.setContactInfoEmail(CONTACTINFO_EMAIL);
+		commonTexts.setContactInfoPhonenumber(CONTACTINFO_PHONENUMBER);
+		commonTexts.setContactInfoText(CONTACTINFO_TEXT);
+		commonTexts.setContactInfoUrl(CONTACTINFO_URL);
+
+		final var approvalTexts = new ApprovalTextProperties();
+		approvalTexts.setSubject(SUBJECT);
+		approvalTexts.setHtmlBody(BODY);
+
+		final var denialTexts = new DenialTextProperties();
+		denialTexts.setMessage(MESSAGE);
+		denialTexts.setSubject(SUBJECT);
+		denialTexts.setHtmlBody(BODY);
+
+		final var simplifiedServiceTexts = new SimplifiedServiceTextProperties();
+		simplifiedServiceTexts.setPlainBody(MESSAGE);
+		simplifiedServiceTexts.setSubject(SUBJECT);
+		simplifiedServiceTexts.setHtmlBody(BODY);
+
+		final var textProperties = new TextProperties();
+		textProperties.setCommons(Map.of(MUNICIPALITY_ID, commonTexts));
+		textProperties.setApprovals(Map.of(MUNICIPALITY_ID, approvalTexts));
+		textProperties.setDenials(Map.of(MUNICIPALITY_ID, denialTexts));
+		textProperties.setSimplifiedServices(Map.of(MUNICIPALITY_ID, simplifiedServiceTexts));
+
+		messagingMapper = new MessagingMapper(new MessageTemplates(textProperties));
+	}
+
 	@Test
 	void toWebMessageRequestDenial() {
 		final var externalCaseId = "externalCaseId";
 
-		when(textProviderMock.getDenialTexts(MUNICIPALITY_ID)).thenReturn(denialTextPropertiesMock);
-		when(textProviderMock.getCommonTexts(MUNICIPALITY_ID)).thenReturn(commonTextPropertiesMock);
-		when(commonTextPropertiesMock.getFilename()).thenReturn(FILENAME);
-		when(denialTextPropertiesMock.getMessage()).thenReturn(MESSAGE);
-
 		final var request = messagingMapper.toWebMessageRequestDenial(RENDER_RESPONSE, PARTY_ID.toString(), externalCaseId,
 			MUNICIPALITY_ID);
 
@@ -105,12 +111,6 @@ class MessagingMapperTest {
 				OUTPUT,
 				FILENAME,
 				APPLICATION_PDF.getValue()));
-
-		verify(textProviderMock).getDenialTexts(MUNICIPALITY_ID);
-		verify(textProviderMock).getCommonTexts(MUNICIPALITY_ID);
-		verify(commonTextPropertiesMock).getFilename();
-		verify(denialTextPropertiesMock).getMessage();
-		verifyNoMoreInteractions(commonTextPropertiesMock);
 	}
 
 	@Test
@@ -118,8 +118,6 @@ class MessagingMapperTest {
 		final var externalCaseId = "externalCaseId";
 		final var decisionDescription = "decisionDescription";
 		final var decision = new Decision().decisionType(FINAL).decisionOutcome(APPROVAL).description(decisionDescription);
-		when(textProviderMock.getCommonTexts(MUNICIPALITY_ID)).thenReturn(commonTextPropertiesMock);
-		when(commonTextPropertiesMock.getFilename()).thenReturn(FILENAME);
 
 		final var request = messagingMapper.toWebMessageRequestDecision(RENDER_RESPONSE, PARTY_ID.toString(), externalCaseId,
 			MUNICIPALITY_ID, decision);
@@ -138,18 +136,12 @@ class MessagingMapperTest {
 				OUTPUT,
 				FILENAME,
 				APPLICATION_PDF.getValue()));
-
-		verify(commonTextPropertiesMock).getFilename();
-		verifyNoInteractions(approvalTextPropertiesMock, simplifiedServiceTextPropertiesMock);
 	}
 
 	@Test
 	void toWebMessageRequestSimplifiedService() {
 		final var externalCaseId = "externalCaseId";
 
-		when(textProviderMock.getSimplifiedServiceTexts(MUNICIPALITY_ID)).thenReturn(simplifiedServiceTextPropertiesMock);
-		when(simplifiedServiceTextPropertiesMock.getPlainBody()).thenReturn(MESSAGE);
-
 		final var request = messagingMapper.toWebMessageRequestSimplifiedService(PARTY_ID.toString(), externalCaseId, MUNICIPALITY_ID);
 
 		assertThat(request.getParty()).isNotNull().extracting(WebMessageParty::getPartyId, WebMessageParty::getExternalReferences).containsExactly(
@@ -158,25 +150,10 @@ class MessagingMapperTest {
 		assertThat(request.getOepInstance()).isEqualTo(EXTERNAL);
 		assertThat(request.getMessage()).isEqualTo(MESSAGE);
 		assertThat(request.getAttachments()).isNull();
-
-		verify(textProviderMock).getSimplifiedServiceTexts(MUNICIPALITY_ID);
-		verify(simplifiedServiceTextPropertiesMock).getPlainBody();
-		verifyNoMoreInteractions(commonTextPropertiesMock);
 	}
 
 	@Test
 	void toLetterRequestDenial() {
-		when(textProviderMock.getCommonTexts(MUNICIPALITY_ID)).thenReturn(commonTextPropertiesMock);
-		when(textProviderMock.getDenialTexts(MUNICIPALITY_ID)).thenReturn(denialTextPropertiesMock);
-		when(commonTextPropertiesMock.getContactInfoEmail()).thenReturn(CONTACTINFO_EMAIL);
-		when(commonTextPropertiesMock.getContactInfoPhonenumber()).thenReturn(CONTACTINFO_PHONENUMBER);
-		when(commonTextPropertiesMock.getContactInfoText()).thenReturn(CONTACTINFO_TEXT);
-		when(commonTextPropertiesMock.getContactInfoUrl()).thenReturn(CONTACTINFO_URL);
-		when(commonTextPropertiesMock.getDepartment()).thenReturn(DEPARTMENT);
-		when(denialTextPropertiesMock.getSubject()).thenReturn(SUBJECT);
-		when(denialTextPropertiesMock.getHtmlBody()).thenReturn(BODY);
-		when(commonTextPropertiesMock.getFilename()).thenReturn(FILENAME);
-
 		final var request = messagingMapper.toLetterRequestDenial(RENDER_RESPONSE, PARTY_ID.toString(), MUNICIPALITY_ID);
 
 		assertThat(request.getSubject()).isEqualTo(SUBJECT);
@@ -207,17 +184,6 @@ class MessagingMapperTest {
 				APPLICATION_PDF,
 				DeliveryModeEnum.ANY,
 				FILENAME));
-
-		verify(textProviderMock, times(6)).getCommonTexts(MUNICIPALITY_ID);
-		verify(textProviderMock, times(2)).getDenialTexts(MUNICIPALITY_ID);
-		verify(commonTextPropertiesMock).getContactInfoEmail();
-		verify(commonTextPropertiesMock).getContactInfoPhonenumber();
-		verify(commonTextPropertiesMock).getContactInfoText();
-		verify(commonTextPropertiesMock).getContactInfoUrl();
-		verify(commonTextPropertiesMock).getDepartment();
-		verify(denialTextPropertiesMock).getHtmlBody();
-		verify(commonTextPropertiesMock).getFilename();
-		verify(denialTextPropertiesMock).getSubject();
 	}
 
 	@Test
@@ -226,15 +192,6 @@ class MessagingMapperTest {
 		final var contentType = LetterAttachment.ContentTypeEnum.APPLICATION_PDF;
 		final var deliveryMode = LetterAttachment.DeliveryModeEnum.ANY;
 		final var attachments = List.of(new LetterAttachment().filename(fileName).contentType(contentType).deliveryMode(deliveryMode));
-		when(textProviderMock.getCommonTexts(MUNICIPALITY_ID)).thenReturn(commonTextPropertiesMock);
-		when(textProviderMock.getSimplifiedServiceTexts(MUNICIPALITY_ID)).thenReturn(simplifiedServiceTextPropertiesMock);
-		when(commonTextPropertiesMock.getContactInfoEmail()).thenReturn(CONTACTINFO_EMAIL);
-		when(commonTextPropertiesMock.getContactInfoPhonenumber()).thenReturn(CONTACTINFO_PHONENUMBER);
-		when(commonTextPropertiesMock.getContactInfoText()).thenReturn(CONTACTINFO_TEXT);
-		when(commonTextPropertiesMock.getContactInfoUrl()).thenReturn(CONTACTINFO_URL);
-		when(commonTextPropertiesMock.getDepartment()).thenReturn(DEPARTMENT);
-		when(simplifiedServiceTextPropertiesMock.getSubject()).thenReturn(SUBJECT);
-		when(simplifiedServiceTextPropertiesMock.getHtmlBody()).thenReturn(BODY);
 
 		final var request = messagingMapper.toLetterRequestSimplifiedService(PARTY_ID.toString(), MUNICIPALITY_ID, attachments);
 
@@ -264,30 +221,10 @@ class MessagingMapperTest {
 				fileName,
 				contentType,
 				deliveryMode));
-
-		verify(textProviderMock, times(5)).getCommonTexts(MUNICIPALITY_ID);
-		verify(textProviderMock, times(2)).getSimplifiedServiceTexts(MUNICIPALITY_ID);
-		verify(commonTextPropertiesMock).getContactInfoEmail();
-		verify(commonTextPropertiesMock).getContactInfoPhonenumber();
-		verify(commonTextPropertiesMock).getContactInfoText();
-		verify(commonTextPropertiesMock).getContactInfoUrl();
-		verify(commonTextPropertiesMock).getDepartment();
-		verify(simplifiedServiceTextPropertiesMock).getHtmlBody();
-		verify(simplifiedServiceTextPropertiesMock).getSubject();
 	}
 
 	@Test
 	void toDigitalMailRequestSimplifiedService() {
-		when(textProviderMock.getCommonTexts(MUNICIPALITY_ID)).thenReturn(commonTextPropertiesMock);
-		when(textProviderMock.getSimplifiedServiceTexts(MUNICIPALITY_ID)).thenReturn(simplifiedServiceTextPropertiesMock);
-		when(commonTextPropertiesMock.getContactInfoEmail()).thenReturn(CONTACTINFO_EMAIL);
-		when(commonTextPropertiesMock.getContactInfoPhonenumber()).thenReturn(CONTACTINFO_PHONENUMBER);
-		when(commonTextPropertiesMock.getContactInfoText()).thenReturn(CONTACTINFO_TEXT);
-		when(commonTextPropertiesMock.getContactInfoUrl()).thenReturn(CONTACTINFO_URL);
-		when(commonTextPropertiesMock.getDepartment()).thenReturn(DEPARTMENT);
-		when(simplifiedServiceTextPropertiesMock.getSubject()).thenReturn(SUBJECT);
-		when(simplifiedServiceTextPropertiesMock.getHtmlBody()).thenReturn(BODY);
-
 		final var request = messagingMapper.toDigitalMailRequestSimplifiedService(PARTY_ID.toString(), MUNICIPALITY_ID);
 
 		assertThat(request.getSubject()).isEqualTo(SUBJECT);
@@ -308,32 +245,10 @@ class MessagingMapperTest {
 		assertThat(request.getParty()).isNotNull().extracting(DigitalMailParty::getPartyIds).asInstanceOf(LIST).containsExactly(PARTY_ID);
 		assertThat(request.getDepartment()).isEqualTo(DEPARTMENT);
 		assertThat(request.getAttachments()).isNull();
-		verify(textProviderMock, times(5)).getCommonTexts(MUNICIPALITY_ID);
-		verify(textProviderMock, times(2)).getSimplifiedServiceTexts(MUNICIPALITY_ID);
-		verify(commonTextPropertiesMock).getContactInfoEmail();
-		verify(commonTextPropertiesMock).getContactInfoPhonenumber();
-		verify(commonTextPropertiesMock).getContactInfoText();
-		verify(commonTextPropertiesMock).getContactInfoUrl();
-		verify(commonTextPropertiesMock).getDepartment();
-		verify(simplifiedServiceTextPropertiesMock).getHtmlBody();
-		verify(simplifiedServiceTextPropertiesMock).getSubject();
 	}
 
 	@Test
 	void toDigitalMailRequestApproval() {
-		// Arrange
-		when(textProviderMock.getApprovalTexts(MUNICIPALITY_ID)).thenReturn(approvalTextPropertiesMock);
-		when(approvalTextPropertiesMock.getHtmlBody()).thenReturn(BODY);
-		when(approvalTextPropertiesMock.getSubject()).thenReturn(SUBJECT);
-
-		when(textProviderMock.getCommonTexts(MUNICIPALITY_ID)).thenReturn(commonTextPropertiesMock);
-		when(commonTextPropertiesMock.getDepartment()).thenReturn(DEPARTMENT);
-		when(commonTextPropertiesMock.getContactInfoEmail()).thenReturn(CONTACTINFO_EMAIL);
-		when(commonTextPropertiesMock.getContactInfoPhonenumber()).thenReturn(CONTACTINFO_PHONENUMBER);
-		when(commonTextPropertiesMock.getContactInfoText()).thenReturn(CONTACTINFO_TEXT);
-		when(commonTextPropertiesMock.getContactInfoUrl()).thenReturn(CONTACTINFO_URL);
-		when(commonTextPropertiesMock.getFilename()).thenReturn(FILENAME);
-
 		// Act
 		final var request = messagingMapper.toDigitalMailRequest(RENDER_RESPONSE, PARTY_ID.toString(), MUNICIPALITY_ID, true);
 
@@ -362,7 +277,13 @@ class MessagingMapperTest {
 				FILENAME));
 		assertThat(request.getParty()).isNotNull().extracting(DigitalMailParty::getPartyIds).asInstanceOf(LIST).containsExactly(PARTY_ID);
 		assertThat(request.getDepartment()).isEqualTo(DEPARTMENT);
+	}
 
-		verifyNoMoreInteractions(textProviderMock, commonTextPropertiesMock);
+	@Test
+	void toLetterRequestSimplifiedServiceForUnknownMunicipality() {
+		// Act and assert
+		assertThatThrownBy(() -> messagingMapper.toLetterRequestSimplifiedService(PARTY_ID.toString(), "unknown", List.of()))
+			.isInstanceOf(Problem.class)
+			.hasMessage("Internal Server Error: No message texts are configured for municipality 'unknown'");
 	}
 }
@@ -0,0 +1,47 @@
+package se.sundsvall.parkingpermit.integration.oauth2;
+
+import feign.RequestTemplate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+@ExtendWith(MockitoExtension.class)
+class OAuth2TokenInterceptorTest {
+
+	private static final String REGISTRATION_ID = "registrationId";
+
+	@Mock
+	private OAuth2TokenManager tokenManagerMock;
+
+	@Test
+	void apply() {
+		// Arrange
+		final var interceptor = new OAuth2TokenInterceptor(tokenManagerMock, REGISTRATION_ID);
+		final var template = new RequestTemplate();
+		template.header(AUTHORIZATION, "Bearer old-token");
+		when(tokenManagerMock.getToken(REGISTRATION_ID)).thenReturn("token");
+
+		// Act
+		interceptor.apply(template);
+
+		// Assert and verify
+		assertThat(template.headers().get(AUTHORIZATION)).containsExactly("Bearer token");
+		verify(tokenManagerMock).getToken(REGISTRATION_ID);
+		verifyNoMoreInteractions(tokenManagerMock);
+	}
+
+	@Test
+	void removeToken() {
+		new OAuth2TokenInterceptor(tokenManagerMock, REGISTRATION_ID).removeToken();
+
+		verify(tokenManagerMock).invalidate(REGISTRATION_ID);
+		verifyNoMoreInteractions(tokenManagerMock);
+	}
+}
@@ -0,0 +1,250 @@
+package se.sundsvall.parkingpermit.integration.oauth2;
+
+import feign.Feign;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import se.sundsvall.dept44.configuration.feign.retryer.ActionRetryer;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.oauth2.core.AuthorizationGrantType.CLIENT_CREDENTIALS;
+import static se.sundsvall.parkingpermit.integration.oauth2.OAuth2TokenManager.METRIC_TOKEN_FETCH;
+import static se.sundsvall.parkingpermit.integration.oauth2.OAuth2TokenManager.TAG_OUTCOME;
+import static se.sundsvall.parkingpermit.integration.oauth2.OAuth2TokenManager.TAG_REGISTRATION;
+
+@ExtendWith(MockitoExtension.class)
+class OAuth2TokenManagerTest {
+
+	private static final String REGISTRATION_ID = "registrationId";
+	private static final String OTHER_REGISTRATION_ID = "otherRegistrationId";
+
+	@Mock
+	private ClientRegistrationRepository clientRegistrationRepositoryMock;
+
+	@Mock
+	private OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClientMock;
+
+	@Mock
+	private Feign.Builder builderMock;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private OAuth2TokenManager tokenManager;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		tokenManager = new OAuth2TokenManager(clientRegistrationRepositoryMock, tokenResponseClientMock, new TokenManagerProperties(Duration.ofMinutes(2), Duration.ofSeconds(15)), meterRegistry);
+	}
+
+	@AfterEach
+	void shutdown() {
+		tokenManager.shutdown();
+	}
+
+	@Test
+	void getTokenFetchesOnceAndSharesToken() {
+		// Arrange
+		when(clientRegistrationRepositoryMock.findByRegistrationId(REGISTRATION_ID)).thenReturn(clientRegistration());
+		when(tokenResponseClientMock.getTokenResponse(any())).thenReturn(tokenResponse("token", Duration.ofHours(1)));
+
+		// Act
+		final var first = tokenManager.getToken(REGISTRATION_ID);
+		final var second = tokenManager.getToken(REGISTRATION_ID);
+
+		// Assert and verify
+		assertThat(first).isEqualTo("token");
+		assertThat(second).isEqualTo("token");
+		assertThat(meterRegistry.get(METRIC_TOKEN_FETCH).tags(TAG_REGISTRATION, REGISTRATION_ID, TAG_OUTCOME, "success").timer().count()).isOne();
+		verify(tokenResponseClientMock).getTokenResponse(isA(OAuth2ClientCredentialsGrantRequest.class));
+		verifyNoMoreInteractions(tokenResponseClientMock);
+	}
+
+	@Test
+	void invalidateForcesNewFetch() {
+		// Arrange
+		when(clientRegistrationRepositoryMock.findByRegistrationId(REGISTRATION_ID)).thenReturn(clientRegistration());
+		when(tokenResponseClientMock.getTokenResponse(any()))
+			.thenReturn(tokenResponse("token-1", Duration.ofHours(1)))
+			.thenReturn(tokenResponse("token-2", Duration.ofHours(1)));
+
+		// Act
+		final var first = tokenManager.getToken(REGISTRATION_ID);
+		tokenManager.invalidate(REGISTRATION_ID);
+		final var second = tokenManager.getToken(REGISTRATION_ID);
+
+		// Assert
+		assertThat(first).isEqualTo("token-1");
+		assertThat(second).isEqualTo("token-2");
+	}
+
+	@Test
+	void refreshTokensRefreshesTokensAboutToExpire() {
+		// Arrange
+		tokenManager.customize(REGISTRATION_ID, builderMock);
+		when(clientRegistrationRepositoryMock.findByRegistrationId(REGISTRATION_ID)).thenReturn(clientRegistration());
+		when(tokenResponseClientMock.getTokenResponse(any()))
+			.thenReturn(tokenResponse("token-1", Duration.ofMinutes(1)))
+			.thenReturn(tokenResponse("token-2", Duration.ofHours(1)));
+
+		// Act
+		tokenManager.refreshTokens();
+		tokenManager.refreshTokens();
+		tokenManager.refreshTokens();
+
+		// Assert and verify
+		assertThat(tokenManager.getToken(REGISTRATION_ID)).isEqualTo("token-2");
+		verify(tokenResponseClientMock, times(2)).getTokenResponse(any());
+	}
+
+	@Test
+	void refreshTokensKeepsTokenOnFailure() {
+		// Arrange
+		tokenManager.customize(REGISTRATION_ID, builderMock);
+		when(clientRegistrationRepositoryMock.findByRegistrationId(REGISTRATION_ID)).thenReturn(clientRegistration());
+		when(tokenResponseClientMock.getTokenResponse(any()))
+			.thenReturn(tokenResponse("token", Duration.ofMinutes(1)))
+			.thenThrow(new IllegalStateException("Token endpoint unavailable"));
+
+		// Act
+		tokenManager.refreshTokens();
+		tokenManager.refreshTokens();
+
+		// Assert
+		assertThat(tokenManager.getToken(REGISTRATION_ID)).isEqualTo("token");
+		assertThat(meterRegistry.get(METRIC_TOKEN_FETCH).tags(TAG_REGISTRATION, REGISTRATION_ID, TAG_OUTCOME, "failure").timer().count()).isOne();
+	}
+
+	@Test
+	void getTokenDoesNotWaitForFetchOfOtherRegistration() {
+		// Arrange
+		final var release = new CountDownLatch(1);
+		when(clientRegistrationRepositoryMock.findByRegistrationId(REGISTRATION_ID)).thenReturn(clientRegistration(REGISTRATION_ID));
+		when(clientRegistrationRepositoryMock.findByRegistrationId(OTHER_REGISTRATION_ID)).thenReturn(clientRegistration(OTHER_REGISTRATION_ID));
+		when(tokenResponseClientMock.getTokenResponse(any())).thenAnswer(invocation -> {
+			if (OTHER_REGISTRATION_ID.equals(invocation.<OAuth2ClientCredentialsGrantRequest>getArgument(0).getClientRegistration().getRegistrationId())) {
+				release.await();
+			}
+			return tokenResponse("token", Duration.ofHours(1));
+		});
+		final var blocked = CompletableFuture.supplyAsync(() -> tokenManager.getToken(OTHER_REGISTRATION_ID));
+
+		try {
+			// Act and assert
+			assertThat(CompletableFuture.supplyAsync(() -> tokenManager.getToken(REGISTRATION_ID))).succeedsWithin(5, SECONDS).isEqualTo("token");
+			assertThat(blocked).isNotDone();
+		} finally {
+			release.countDown();
+		}
+		assertThat(blocked).succeedsWithin(5, SECONDS).isEqualTo("token");
+	}
+
+	@Test
+	void configureTasksSchedulesRefreshAtRefreshInterval() {
+		// Arrange
+		final var taskRegistrar = new ScheduledTaskRegistrar();
+
+		// Act
+		tokenManager.configureTasks(taskRegistrar);
+
+		// Assert
+		assertThat(taskRegistrar.getFixedDelayTaskList()).singleElement().satisfies(task -> {
+			assertThat(task.getIntervalDuration()).isEqualTo(Duration.ofSeconds(15));
+			assertThat(task.getInitialDelayDuration()).isZero();
+		});
+	}
+
+	@Test
+	void triggerRefreshRunsRefreshOnRefreshThread() {
+		// Arrange
+		final var release = new CountDownLatch(1);
+		final var refreshThread = new AtomicReference<String>();
+		tokenManager.customize(REGISTRATION_ID, builderMock);
+		when(clientRegistrationRepositoryMock.findByRegistrationId(REGISTRATION_ID)).thenReturn(clientRegistration());
+		when(tokenResponseClientMock.getTokenResponse(any())).thenAnswer(invocation -> {
+			refreshThread.set(Thread.currentThread().getName());
+			release.await();
+			return tokenResponse("token", Duration.ofHours(1));
+		});
+
+		try {
+			// Act
+			tokenManager.triggerRefresh();
+			await().atMost(5, SECONDS).until(() -> refreshThread.get() != null);
+
+			// A trigger while the refresh is running is skipped instead of waiting for it
+			tokenManager.triggerRefresh();
+		} finally {
+			release.countDown();
+		}
+
+		// Assert and verify
+		assertThat(refreshThread).hasValue("oauth2-token-refresh");
+		await().atMost(5, SECONDS).until(() -> meterRegistry.find(METRIC_TOKEN_FETCH).timer() != null);
+		verify(tokenResponseClientMock).getTokenResponse(any());
+	}
+
+	@Test
+	void getTokenForUnknownRegistration() {
+		assertThatThrownBy(() -> tokenManager.getToken("unknown"))
+			.isInstanceOf(ThrowableProblem.class)
+			.hasMessage("Internal Server Error: No client registration found for id: unknown");
+
+		verifyNoInteractions(tokenResponseClientMock);
+	}
+
+	@Test
+	void customize() {
+		tokenManager.customize(REGISTRATION_ID, builderMock);
+
+		verify(builderMock).requestInterceptor(isA(OAuth2TokenInterceptor.class));
+		verify(builderMock).retryer(isA(ActionRetryer.class));
+		verifyNoMoreInteractions(builderMock);
+	}
+
+	private static ClientRegistration clientRegistration() {
+		return clientRegistration(REGISTRATION_ID);
+	}
+
+	private static ClientRegistration clientRegistration(String registrationId) {
+		return ClientRegistration.withRegistrationId(registrationId)
+			.authorizationGrantType(CLIENT_CREDENTIALS)
+			.clientId("clientId")
+			.clientSecret("clientSecret")
+			.tokenUri("http://token.url")
+			.build();
+	}
+
+	private static OAuth2AccessTokenResponse tokenResponse(String value, Duration expiresIn) {
+		return OAuth2AccessTokenResponse.withToken(value)
+			.tokenType(OAuth2AccessToken.TokenType.BEARER)
+			.expiresIn(expiresIn.toSeconds())
+			.build();
+	}
+}
@@ -0,0 +1,52 @@
+package se.sundsvall.parkingpermit.integration.partyassets.configuration;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.parkingpermit.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
+
+@SpringBootTest(classes = Application.class, webEnvironment = MOCK)
+@ActiveProfiles("junit")
+class PartyAssetsCachePropertiesTest {
+
+	@Autowired
+	private PartyAssetsCacheProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.timeToLive()).isEqualTo(Duration.ofSeconds(30));
+		assertThat(properties.maxSize()).isEqualTo(50);
+	}
+
+	@Test
+	void testDefaultValues() {
+		final var bean = new PartyAssetsCacheProperties(null, null);
+
+		assertThat(bean.timeToLive()).isEqualTo(Duration.ofMinutes(1));
+		assertThat(bean.maxSize()).isEqualTo(1000);
+	}
+
+	@Test
+	void negativeTimeToLive() {
+		final var timeToLive = Duration.ofSeconds(-1);
+
+		assertThatThrownBy(() -> new PartyAssetsCacheProperties(timeToLive, 10))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Cache time to live must not be negative");
+	}
+
+	@Test
+	void invalidMaxSize() {
+		final var timeToLive = Duration.ofSeconds(30);
+
+		assertThatThrownBy(() -> new PartyAssetsCacheProperties(timeToLive, 0))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Cache max size must be at least 1");
+	}
+}
@@ -9,14 +9,12 @@ import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cloud.openfeign.FeignBuilderCustomizer;
-import org.springframework.security.oauth2.client.registration.ClientRegistration;
-import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import se.sundsvall.dept44.configuration.feign.FeignMultiCustomizer;
 import se.sundsvall.dept44.configuration.feign.decoder.ProblemErrorDecoder;
+import se.sundsvall.parkingpermit.integration.oauth2.OAuth2TokenManager;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static se.sundsvall.parkingpermit.integration.relation.configuration.RelationConfiguration.CLIENT_ID;
@@ -24,10 +22,7 @@ import static se.sundsvall.parkingpermit.integration.relation.configuration.Rela
 @ExtendWith(MockitoExtension.class)
 class RelationConfigurationTest {
 	@Mock
-	private ClientRegistrationRepository clientRegistrationRepositoryMock;
-
-	@Mock
-	private ClientRegistration clientRegistrationMock;
+	private OAuth2TokenManager oAuth2TokenManagerMock;
 
 	@Spy
 	private FeignMultiCustomizer feignMultiCustomizerSpy;
@@ -42,7 +37,6 @@ class RelationConfigurationTest {
 	void testFeignBuilderCustomizer() {
 		final var configuration = new RelationConfiguration();
 
-		when(clientRegistrationRepositoryMock.findByRegistrationId(any())).thenReturn(clientRegistrationMock);
 		when(propertiesMock.connectTimeout()).thenReturn(1);
 		when(propertiesMock.readTimeout()).thenReturn(2);
 		when(feignMultiCustomizerSpy.composeCustomizersToOne()).thenReturn(feignBuilderCustomizerMock);
@@ -50,13 +44,12 @@ class RelationConfigurationTest {
 		try (final MockedStatic<FeignMultiCustomizer> feignMultiCustomizerMock = Mockito.mockStatic(FeignMultiCustomizer.class)) {
 			feignMultiCustomizerMock.when(FeignMultiCustomizer::create).thenReturn(feignMultiCustomizerSpy);
 
-			final var customizer = configuration.feignBuilderCustomizer(clientRegistrationRepositoryMock, propertiesMock);
+			final var customizer = configuration.feignBuilderCustomizer(oAuth2TokenManagerMock, propertiesMock);
 
 			final ArgumentCaptor<ProblemErrorDecoder> errorDecoderCaptor = ArgumentCaptor.forClass(ProblemErrorDecoder.class);
 
 			verify(feignMultiCustomizerSpy).withErrorDecoder(errorDecoderCaptor.capture());
-			verify(clientRegistrationRepositoryMock).findByRegistrationId(CLIENT_ID);
-			verify(feignMultiCustomizerSpy).withRetryableOAuth2InterceptorForClientRegistration(same(clientRegistrationMock));
+			verify(feignMultiCustomizerSpy).withCustomizer(any());
 			verify(propertiesMock).connectTimeout();
 			verify(propertiesMock).readTimeout();
 			verify(feignMultiCustomizerSpy).withRequestTimeoutsInSeconds(1, 2);
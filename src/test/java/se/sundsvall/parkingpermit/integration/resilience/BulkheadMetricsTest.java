@@ -0,0 +1,40 @@
+package se.sundsvall.parkingpermit.integration.resilience;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static se.sundsvall.parkingpermit.integration.resilience.BulkheadMetrics.METRIC_REJECTED_CALLS;
+import static se.sundsvall.parkingpermit.integration.resilience.BulkheadMetrics.TAG_NAME;
+
+class BulkheadMetricsTest {
+
+	@Test
+	void rejectedCallsOfExistingAndAddedBulkheads() {
+		// Arrange
+		final var meterRegistry = new SimpleMeterRegistry();
+		final var bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+			.maxConcurrentCalls(1)
+			.maxWaitDuration(Duration.ZERO)
+			.build());
+		final var existing = bulkheadRegistry.bulkhead("existing");
+
+		// Act
+		new BulkheadMetrics(bulkheadRegistry, meterRegistry);
+		final var added = bulkheadRegistry.bulkhead("added");
+
+		existing.executeRunnable(() -> {});
+		added.acquirePermission();
+		assertThatThrownBy(added::acquirePermission).isInstanceOf(BulkheadFullException.class);
+
+		// Assert
+		assertThat(meterRegistry.get(METRIC_REJECTED_CALLS).tags(TAG_NAME, "existing").counter().count()).isZero();
+		assertThat(meterRegistry.get(METRIC_REJECTED_CALLS).tags(TAG_NAME, "added").counter().count()).isOne();
+		assertThat(meterRegistry.getMeters()).hasSize(2);
+	}
+}
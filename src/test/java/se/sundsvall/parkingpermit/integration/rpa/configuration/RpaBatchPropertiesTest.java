@@ -0,0 +1,63 @@
+package se.sundsvall.parkingpermit.integration.rpa.configuration;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.parkingpermit.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
+
+@SpringBootTest(classes = Application.class, webEnvironment = MOCK)
+@ActiveProfiles("junit")
+class RpaBatchPropertiesTest {
+
+	@Autowired
+	private RpaBatchProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.window()).isEqualTo(Duration.ofMillis(200));
+		assertThat(properties.maxSize()).isEqualTo(10);
+		assertThat(properties.concurrency()).isEqualTo(3);
+	}
+
+	@Test
+	void testDefaultValues() {
+		final var bean = new RpaBatchProperties(null, null, null);
+
+		assertThat(bean.window()).isEqualTo(Duration.ofMillis(500));
+		assertThat(bean.maxSize()).isEqualTo(100);
+		assertThat(bean.concurrency()).isEqualTo(2);
+	}
+
+	@Test
+	void negativeWindow() {
+		final var window = Duration.ofMillis(-1);
+
+		assertThatThrownBy(() -> new RpaBatchProperties(window, 10, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Batch window must not be negative");
+	}
+
+	@Test
+	void invalidMaxSize() {
+		final var window = Duration.ofMillis(200);
+
+		assertThatThrownBy(() -> new RpaBatchProperties(window, 0, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Batch max size must be at least 1");
+	}
+
+	@Test
+	void invalidConcurrency() {
+		final var window = Duration.ofMillis(200);
+
+		assertThatThrownBy(() -> new RpaBatchProperties(window, 10, 0))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Batch concurrency must be at least 1");
+	}
+}
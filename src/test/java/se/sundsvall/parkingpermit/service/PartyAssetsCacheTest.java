@@ -0,0 +1,237 @@
+package se.sundsvall.parkingpermit.service;
+
+import generated.se.sundsvall.partyassets.Asset;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.parkingpermit.integration.partyassets.configuration.PartyAssetsCacheProperties;
+import se.sundsvall.parkingpermit.service.PartyAssetsCache.Key;
+
+import static generated.se.sundsvall.partyassets.Status.ACTIVE;
+import static generated.se.sundsvall.partyassets.Status.BLOCKED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.parkingpermit.service.PartyAssetsCache.METRIC_EVICTIONS;
+import static se.sundsvall.parkingpermit.service.PartyAssetsCache.METRIC_GETS;
+import static se.sundsvall.parkingpermit.service.PartyAssetsCache.METRIC_INVALIDATIONS;
+import static se.sundsvall.parkingpermit.service.PartyAssetsCache.METRIC_SIZE;
+import static se.sundsvall.parkingpermit.service.PartyAssetsCache.TAG_RESULT;
+
+class PartyAssetsCacheTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String PARTY_ID = "partyId";
+	private static final String OTHER_PARTY_ID = "otherPartyId";
+	private static final Key ACTIVE_KEY = new Key(MUNICIPALITY_ID, PARTY_ID, "ACTIVE", null);
+	private static final Key BLOCKED_KEY = new Key(MUNICIPALITY_ID, PARTY_ID, "BLOCKED", null);
+	private static final Key OTHER_PARTY_KEY = new Key(MUNICIPALITY_ID, OTHER_PARTY_ID, "ACTIVE", null);
+
+	private final AtomicInteger loads = new AtomicInteger();
+	private final MutableClock clock = new MutableClock();
+	private SimpleMeterRegistry meterRegistry;
+	private PartyAssetsCache cache;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new PartyAssetsCache(new PartyAssetsCacheProperties(Duration.ofMinutes(1), 2), meterRegistry, clock);
+	}
+
+	@Test
+	void getCachesLookup() {
+		// Arrange
+		final var assets = List.of(new Asset().id("1").partyId(PARTY_ID));
+
+		// Act
+		final var first = cache.get(ACTIVE_KEY, loader(assets));
+		final var second = cache.get(ACTIVE_KEY, loader(assets));
+
+		// Assert
+		assertThat(first).isEqualTo(assets);
+		assertThat(second).isEqualTo(assets);
+		assertThat(loads).hasValue(1);
+		assertThat(gets("hit")).isEqualTo(1);
+		assertThat(gets("miss")).isEqualTo(1);
+		assertThat(meterRegistry.get(METRIC_SIZE).gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void getReturnsCopiesOfCachedAssets() {
+		// Arrange
+		final var asset = new Asset().id("1").partyId(PARTY_ID).status(ACTIVE).additionalParameters(Map.of("key", "value"));
+		final var first = cache.get(ACTIVE_KEY, loader(List.of(asset)));
+
+		// Act
+		first.getFirst().status(BLOCKED);
+		asset.statusReason("LOST");
+		final var second = cache.get(ACTIVE_KEY, loader(List.of()));
+
+		// Assert
+		assertThat(second).singleElement().satisfies(cached -> {
+			assertThat(cached).isNotSameAs(first.getFirst()).isNotSameAs(asset);
+			assertThat(cached.getStatus()).isEqualTo(ACTIVE);
+			assertThat(cached.getStatusReason()).isNull();
+			assertThat(cached.getAdditionalParameters()).containsExactly(Map.entry("key", "value"));
+		});
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void getWhenLoaderReturnsNull() {
+		// Act
+		final var result = cache.get(ACTIVE_KEY, loader(null));
+
+		// Assert
+		assertThat(result).isEmpty();
+		assertThat(cache.get(ACTIVE_KEY, loader(null))).isEmpty();
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void getAfterTimeToLive() {
+		// Arrange
+		cache.get(ACTIVE_KEY, loader(List.of()));
+
+		// Act
+		clock.advance(Duration.ofMinutes(1));
+		cache.get(ACTIVE_KEY, loader(List.of()));
+
+		// Assert
+		assertThat(loads).hasValue(2);
+		assertThat(gets("miss")).isEqualTo(2);
+	}
+
+	@Test
+	void getWhenDisabled() {
+		// Arrange
+		cache = new PartyAssetsCache(new PartyAssetsCacheProperties(Duration.ZERO, 2), new SimpleMeterRegistry(), clock);
+
+		// Act
+		cache.get(ACTIVE_KEY, loader(List.of()));
+		cache.get(ACTIVE_KEY, loader(List.of()));
+
+		// Assert
+		assertThat(loads).hasValue(2);
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void getEvictsLeastRecentlyUsed() {
+		// Arrange
+		cache.get(ACTIVE_KEY, loader(List.of()));
+		cache.get(BLOCKED_KEY, loader(List.of()));
+		cache.get(ACTIVE_KEY, loader(List.of()));
+
+		// Act
+		cache.get(OTHER_PARTY_KEY, loader(List.of()));
+
+		// Assert
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(meterRegistry.get(METRIC_EVICTIONS).counter().count()).isEqualTo(1);
+		cache.get(ACTIVE_KEY, loader(List.of()));
+		assertThat(loads).hasValue(3);
+		cache.get(BLOCKED_KEY, loader(List.of()));
+		assertThat(loads).hasValue(4);
+	}
+
+	@Test
+	void invalidateParty() {
+		// Arrange
+		cache.get(ACTIVE_KEY, loader(List.of()));
+		cache.get(OTHER_PARTY_KEY, loader(List.of()));
+
+		// Act
+		cache.invalidateParty(MUNICIPALITY_ID, PARTY_ID);
+
+		// Assert
+		assertThat(cache.size()).isEqualTo(1);
+		cache.get(OTHER_PARTY_KEY, loader(List.of()));
+		assertThat(loads).hasValue(2);
+		assertThat(meterRegistry.get(METRIC_INVALIDATIONS).counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void invalidateAssetOfCachedParty() {
+		// Arrange
+		cache.get(ACTIVE_KEY, loader(List.of(new Asset().id("1").partyId(PARTY_ID))));
+		cache.get(OTHER_PARTY_KEY, loader(List.of(new Asset().id("2").partyId(OTHER_PARTY_ID))));
+
+		// Act
+		cache.invalidateAsset(MUNICIPALITY_ID, "1");
+
+		// Assert
+		assertThat(cache.size()).isEqualTo(1);
+		cache.get(OTHER_PARTY_KEY, loader(List.of()));
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void invalidateAssetOfUnknownParty() {
+		// Arrange
+		cache.get(BLOCKED_KEY, loader(List.of()));
+		cache.get(new Key("2260", PARTY_ID, "ACTIVE", null), loader(List.of()));
+
+		// Act
+		cache.invalidateAsset(MUNICIPALITY_ID, "1");
+
+		// Assert
+		assertThat(cache.size()).isEqualTo(1);
+		cache.get(BLOCKED_KEY, loader(List.of()));
+		assertThat(loads).hasValue(3);
+	}
+
+	@Test
+	void getDoesNotStoreLookupLoadedDuringInvalidation() {
+		// Act
+		cache.get(ACTIVE_KEY, () -> {
+			loads.incrementAndGet();
+			cache.invalidateParty(MUNICIPALITY_ID, PARTY_ID);
+			return List.of();
+		});
+
+		// Assert
+		assertThat(cache.size()).isZero();
+	}
+
+	private Supplier<List<Asset>> loader(List<Asset> assets) {
+		return () -> {
+			loads.incrementAndGet();
+			return assets;
+		};
+	}
+
+	private double gets(String result) {
+		return meterRegistry.get(METRIC_GETS).tag(TAG_RESULT, result).counter().count();
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant instant = Instant.parse("2026-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.of("UTC");
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
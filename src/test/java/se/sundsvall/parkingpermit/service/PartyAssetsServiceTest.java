@@ -7,24 +7,29 @@ import generated.se.sundsvall.casedata.Stakeholder;
 import generated.se.sundsvall.partyassets.Asset;
 import generated.se.sundsvall.partyassets.AssetCreateRequest;
 import generated.se.sundsvall.partyassets.AssetUpdateRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import se.sundsvall.parkingpermit.integration.partyassets.PartyAssetsClient;
+import se.sundsvall.parkingpermit.integration.partyassets.configuration.PartyAssetsCacheProperties;
 
 import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.FINAL;
 import static generated.se.sundsvall.casedata.Decision.DecisionTypeEnum.PROPOSED;
 import static generated.se.sundsvall.casedata.Stakeholder.TypeEnum.PERSON;
 import static generated.se.sundsvall.partyassets.Status.ACTIVE;
+import static generated.se.sundsvall.partyassets.Status.BLOCKED;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -55,9 +60,13 @@ class PartyAssetsServiceTest {
 	@Captor
 	private ArgumentCaptor<AssetUpdateRequest> assetUpdateRequestArgumentCaptor;
 
-	@InjectMocks
 	private PartyAssetsService partyAssetsService;
 
+	@BeforeEach
+	void setup() {
+		partyAssetsService = new PartyAssetsService(partyAssetsClientMock, new PartyAssetsCacheProperties(Duration.ofMinutes(1), 10), new SimpleMeterRegistry());
+	}
+
 	@Test
 	void createAsset() {
 
@@ -152,6 +161,63 @@ class PartyAssetsServiceTest {
 		verifyNoInteractions(partyAssetsClientMock, responseEntityMock);
 	}
 
+	@Test
+	void getAssetsByPartyIdIsCached() {
+		// Arrange
+		final var partyId = "partyId";
+		final var assets = List.of(new Asset().id("1").assetId("assetId").partyId(partyId).status(ACTIVE));
+
+		when(partyAssetsClientMock.getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE)).thenReturn(responseEntityMock);
+		when(responseEntityMock.getBody()).thenReturn(assets);
+
+		// Act
+		partyAssetsService.getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE);
+		final var result = partyAssetsService.getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE);
+
+		// Assert
+		assertThat(result).isEqualTo(assets);
+		verify(partyAssetsClientMock).getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE);
+	}
+
+	@Test
+	void updateAssetWithNewStatusInvalidatesCachedAssets() {
+		// Arrange
+		final var partyId = "partyId";
+		final var assets = List.of(new Asset().id("1").assetId("assetId").partyId(partyId).status(ACTIVE));
+
+		when(partyAssetsClientMock.getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE)).thenReturn(responseEntityMock);
+		when(responseEntityMock.getBody()).thenReturn(assets);
+		partyAssetsService.getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE);
+
+		// Act
+		partyAssetsService.updateAssetWithNewStatus(MUNICIPALITY_ID, "1", BLOCKED, "reason");
+		partyAssetsService.getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE);
+
+		// Assert
+		verify(partyAssetsClientMock).updateAsset(eq(MUNICIPALITY_ID), eq("1"), assetUpdateRequestArgumentCaptor.capture());
+		assertThat(assetUpdateRequestArgumentCaptor.getValue().getStatus()).isEqualTo(BLOCKED);
+		assertThat(assetUpdateRequestArgumentCaptor.getValue().getStatusReason()).isEqualTo("reason");
+		verify(partyAssetsClientMock, times(2)).getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE);
+	}
+
+	@Test
+	void createAssetInvalidatesCachedAssets() {
+		// Arrange
+		final var errand = createErrand();
+		final var partyId = getStakeholder(errand, ROLE_APPLICANT).getPersonId();
+
+		when(partyAssetsClientMock.getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE)).thenReturn(responseEntityMock);
+		when(responseEntityMock.getBody()).thenReturn(List.of());
+		partyAssetsService.getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE);
+
+		// Act
+		partyAssetsService.createAsset(MUNICIPALITY_ID, NAMESPACE, errand);
+		partyAssetsService.getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE);
+
+		// Assert
+		verify(partyAssetsClientMock, times(2)).getAssets(MUNICIPALITY_ID, partyId, PARTY_ASSET_STATUS_ACTIVE);
+	}
+
 	private static Errand createErrand() {
 		return new Errand()
 			.id(Long.valueOf(ERRAND_ID))
@@ -1,5 +1,6 @@
 package se.sundsvall.parkingpermit.service;
 
+import generated.se.sundsvall.camunda.CorrelationMessageDto;
 import generated.se.sundsvall.camunda.PatchVariablesDto;
 import generated.se.sundsvall.camunda.ProcessInstanceDto;
 import generated.se.sundsvall.camunda.ProcessInstanceWithVariablesDto;
@@ -19,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import se.sundsvall.dept44.requestid.RequestId;
 import se.sundsvall.parkingpermit.integration.camunda.CamundaClient;
+import se.sundsvall.parkingpermit.integration.camunda.subscription.ShardingProperties;
 
 import static java.util.Optional.empty;
 import static java.util.UUID.randomUUID;
@@ -27,6 +29,7 @@ import static org.assertj.core.groups.Tuple.tuple;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -39,6 +42,12 @@ class ProcessServiceTest {
 	@Mock
 	private CamundaClient camundaClientMock;
 
+	@Mock
+	private ShardingProperties shardingPropertiesMock;
+
+	@Mock
+	private UpdateMessageProperties updateMessagePropertiesMock;
+
 	@InjectMocks
 	private ProcessService processService;
 
@@ -48,6 +57,9 @@ class ProcessServiceTest {
 	@Captor
 	private ArgumentCaptor<PatchVariablesDto> updateProcessArgumentCaptor;
 
+	@Captor
+	private ArgumentCaptor<CorrelationMessageDto> correlationMessageArgumentCaptor;
+
 	@Test
 	void startProcess() {
 
@@ -62,6 +74,7 @@ class ProcessServiceTest {
 		final var processInstance = new ProcessInstanceWithVariablesDto().id(uuid);
 
 		when(camundaClientMock.startProcessWithTenant(any(), any(), any())).thenReturn(processInstance);
+		when(shardingPropertiesMock.shardFor(caseNumber)).thenReturn(1);
 
 		// Mock static RequestId to enable spy and to verify that static method is being called
 		try (MockedStatic<RequestId> requestIdMock = mockStatic(RequestId.class)) {
@@ -75,15 +88,17 @@ class ProcessServiceTest {
 		verify(camundaClientMock).startProcessWithTenant(eq(process), eq(tenant), startProcessArgumentCaptor.capture());
 		verifyNoMoreInteractions(camundaClientMock);
 		assertThat(startProcessArgumentCaptor.getValue().getBusinessKey()).isEqualTo(String.valueOf(caseNumber));
-		assertThat(startProcessArgumentCaptor.getValue().getVariables()).hasSize(4)
-			.containsKeys("municipalityId", "namespace", "caseNumber", "requestId")
-			.extractingByKeys("municipalityId", "namespace", "caseNumber", "requestId")
+		assertThat(startProcessArgumentCaptor.getValue().getVariables()).hasSize(6)
+			.containsKeys("municipalityId", "namespace", "caseNumber", "requestId", "shard", "taskPriority")
+			.extractingByKeys("municipalityId", "namespace", "caseNumber", "requestId", "shard", "taskPriority")
 			.extracting(VariableValueDto::getType, VariableValueDto::getValue)
 			.contains(
 				tuple(ValueType.STRING.getName(), municipalityId),
 				tuple(ValueType.STRING.getName(), namespace),
 				tuple(ValueType.LONG.getName(), caseNumber),
-				tuple(ValueType.STRING.getName(), logId));
+				tuple(ValueType.STRING.getName(), logId),
+				tuple(ValueType.INTEGER.getName(), 1),
+				tuple(ValueType.LONG.getName(), 0L));
 	}
 
 	@Test
@@ -120,6 +135,35 @@ class ProcessServiceTest {
 				tuple(ValueType.STRING.getName(), logId));
 	}
 
+	@Test
+	void updateProcessWithUpdateMessage() {
+
+		// Arrange
+		final var municipalityId = "2281";
+		final var namespace = "SBK_PARKING_PERMIT";
+		final var uuid = randomUUID().toString();
+
+		when(camundaClientMock.getProcessInstance(any())).thenReturn(Optional.of(new ProcessInstanceDto()));
+		when(updateMessagePropertiesMock.enabled()).thenReturn(true);
+
+		// Act
+		processService.updateProcess(municipalityId, namespace, uuid);
+
+		// Assert
+		final var inOrder = inOrder(camundaClientMock);
+		inOrder.verify(camundaClientMock).getProcessInstance(uuid);
+		inOrder.verify(camundaClientMock).setProcessInstanceVariables(eq(uuid), updateProcessArgumentCaptor.capture());
+		inOrder.verify(camundaClientMock).correlateMessage(correlationMessageArgumentCaptor.capture());
+		verifyNoMoreInteractions(camundaClientMock);
+		assertThat(updateProcessArgumentCaptor.getValue().getModifications())
+			.extractingByKey("updateAvailable")
+			.extracting(VariableValueDto::getType, VariableValueDto::getValue)
+			.containsExactly(ValueType.BOOLEAN.getName(), true);
+		assertThat(correlationMessageArgumentCaptor.getValue().getMessageName()).isEqualTo("updateAvailableMessage");
+		assertThat(correlationMessageArgumentCaptor.getValue().getProcessInstanceId()).isEqualTo(uuid);
+		assertThat(correlationMessageArgumentCaptor.getValue().getAll()).isTrue();
+	}
+
 	@Test
 	void updateProcessNotFound() {
 
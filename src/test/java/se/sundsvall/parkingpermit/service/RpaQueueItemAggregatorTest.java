@@ -0,0 +1,148 @@
+package se.sundsvall.parkingpermit.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.parkingpermit.integration.rpa.configuration.RpaBatchProperties;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+@ExtendWith(MockitoExtension.class)
+class RpaQueueItemAggregatorTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String OTHER_MUNICIPALITY_ID = "2260";
+	private static final String QUEUE_NAME = "ParkingPermits";
+
+	@Mock
+	private RpaService rpaServiceMock;
+
+	private RpaQueueItemAggregator aggregator;
+
+	@AfterEach
+	void tearDown() {
+		aggregator.shutdown();
+	}
+
+	@Test
+	void submitCoalescesItemsWithinWindow() {
+		// Arrange
+		aggregator = new RpaQueueItemAggregator(rpaServiceMock, new RpaBatchProperties(Duration.ofMillis(200), 10, 2));
+		when(rpaServiceMock.bulkAddQueueItems(QUEUE_NAME, List.of(1L, 2L, 3L), MUNICIPALITY_ID)).thenReturn(Map.of());
+
+		// Act
+		final var futures = List.of(
+			aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 1L),
+			aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 2L),
+			aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 3L));
+
+		// Assert and verify
+		futures.forEach(future -> assertThat(future).succeedsWithin(5, SECONDS));
+		verify(rpaServiceMock).bulkAddQueueItems(QUEUE_NAME, List.of(1L, 2L, 3L), MUNICIPALITY_ID);
+		verifyNoMoreInteractions(rpaServiceMock);
+	}
+
+	@Test
+	void submitCompletesFuturesOnSenderThreads() {
+		// Arrange
+		aggregator = new RpaQueueItemAggregator(rpaServiceMock, new RpaBatchProperties(Duration.ofMillis(200), 10, 2));
+		when(rpaServiceMock.bulkAddQueueItems(QUEUE_NAME, List.of(1L), MUNICIPALITY_ID)).thenReturn(Map.of());
+
+		// Act
+		final var callbackThread = aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 1L)
+			.thenApply(result -> Thread.currentThread().getName());
+
+		// Assert
+		assertThat(callbackThread).succeedsWithin(5, SECONDS)
+			.asString()
+			.startsWith("rpa-batch-send-");
+	}
+
+	@Test
+	void submitSendsBatchWhenMaxSizeIsReached() {
+		// Arrange
+		aggregator = new RpaQueueItemAggregator(rpaServiceMock, new RpaBatchProperties(Duration.ofMinutes(10), 2, 2));
+		when(rpaServiceMock.bulkAddQueueItems(QUEUE_NAME, List.of(1L, 2L), MUNICIPALITY_ID)).thenReturn(Map.of());
+
+		// Act
+		final var first = aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 1L);
+		final var second = aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 2L);
+		final var third = aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 3L);
+
+		// Assert and verify
+		assertThat(first).succeedsWithin(5, SECONDS);
+		assertThat(second).succeedsWithin(5, SECONDS);
+		assertThat(third).isNotDone();
+		verify(rpaServiceMock).bulkAddQueueItems(QUEUE_NAME, List.of(1L, 2L), MUNICIPALITY_ID);
+		verifyNoMoreInteractions(rpaServiceMock);
+	}
+
+	@Test
+	void submitBatchesPerMunicipality() {
+		// Arrange
+		aggregator = new RpaQueueItemAggregator(rpaServiceMock, new RpaBatchProperties(Duration.ofMillis(200), 10, 2));
+		when(rpaServiceMock.bulkAddQueueItems(QUEUE_NAME, List.of(1L, 3L), MUNICIPALITY_ID)).thenReturn(Map.of());
+		when(rpaServiceMock.bulkAddQueueItems(QUEUE_NAME, List.of(2L), OTHER_MUNICIPALITY_ID)).thenReturn(Map.of());
+
+		// Act
+		final var futures = List.of(
+			aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 1L),
+			aggregator.submit(OTHER_MUNICIPALITY_ID, QUEUE_NAME, 2L),
+			aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 3L));
+
+		// Assert and verify
+		futures.forEach(future -> assertThat(future).succeedsWithin(5, SECONDS));
+		verify(rpaServiceMock).bulkAddQueueItems(QUEUE_NAME, List.of(1L, 3L), MUNICIPALITY_ID);
+		verify(rpaServiceMock).bulkAddQueueItems(QUEUE_NAME, List.of(2L), OTHER_MUNICIPALITY_ID);
+		verifyNoMoreInteractions(rpaServiceMock);
+	}
+
+	@Test
+	void submitWhenItemFails() {
+		// Arrange
+		aggregator = new RpaQueueItemAggregator(rpaServiceMock, new RpaBatchProperties(Duration.ofMillis(200), 10, 2));
+		when(rpaServiceMock.bulkAddQueueItems(QUEUE_NAME, List.of(1L, 2L), MUNICIPALITY_ID)).thenReturn(Map.of(2L, "Invalid request"));
+
+		// Act
+		final var succeeded = aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 1L);
+		final var failed = aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 2L);
+
+		// Assert
+		assertThat(succeeded).succeedsWithin(5, SECONDS);
+		assertThatThrownBy(() -> failed.get(5, SECONDS))
+			.hasCauseInstanceOf(ThrowableProblem.class)
+			.cause()
+			.hasFieldOrPropertyWithValue("status", BAD_GATEWAY)
+			.hasMessage("Bad Gateway: Failed to add queue item for case 2: Invalid request");
+	}
+
+	@Test
+	void submitWhenBatchFails() {
+		// Arrange
+		final var problem = Problem.valueOf(INTERNAL_SERVER_ERROR, "No folder ID found for municipality ID: " + MUNICIPALITY_ID);
+		aggregator = new RpaQueueItemAggregator(rpaServiceMock, new RpaBatchProperties(Duration.ofMillis(200), 10, 2));
+		when(rpaServiceMock.bulkAddQueueItems(QUEUE_NAME, List.of(1L, 2L), MUNICIPALITY_ID)).thenThrow(problem);
+
+		// Act
+		final var futures = List.of(
+			aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 1L),
+			aggregator.submit(MUNICIPALITY_ID, QUEUE_NAME, 2L));
+
+		// Assert
+		futures.forEach(future -> assertThatThrownBy(() -> future.get(5, SECONDS)).hasCause(problem));
+	}
+}
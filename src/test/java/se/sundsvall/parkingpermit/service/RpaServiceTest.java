@@ -1,6 +1,10 @@
 package se.sundsvall.parkingpermit.service;
 
+import generated.se.sundsvall.rpa.BulkOperationResponseDtoOfFailedQueueItemDto;
+import generated.se.sundsvall.rpa.FailedQueueItemDto;
+import generated.se.sundsvall.rpa.QueueItemDataDto;
 import generated.se.sundsvall.rpa.QueuesAddQueueItemParameters;
+import generated.se.sundsvall.rpa.QueuesBulkAddQueueItemsParameters;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -18,13 +22,20 @@ import se.sundsvall.dept44.problem.ThrowableProblem;
 import se.sundsvall.parkingpermit.integration.rpa.RpaClient;
 import se.sundsvall.parkingpermit.integration.rpa.configuration.RpaProperties;
 
+import static generated.se.sundsvall.rpa.FailedQueueItemDto.ErrorCodeEnum.DUPLICATE_REFERENCE;
+import static generated.se.sundsvall.rpa.FailedQueueItemDto.ErrorCodeEnum.INVALID_REQUEST;
+import static generated.se.sundsvall.rpa.QueuesBulkAddQueueItemsParameters.CommitTypeEnum.PROCESS_ALL_INDEPENDENTLY;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 
@@ -42,6 +53,9 @@ class RpaServiceTest {
 	@Captor
 	private ArgumentCaptor<QueuesAddQueueItemParameters> queueArgumentCaptor;
 
+	@Captor
+	private ArgumentCaptor<QueuesBulkAddQueueItemsParameters> bulkArgumentCaptor;
+
 	@InjectMocks
 	private RpaService rpaService;
 
@@ -121,4 +135,81 @@ class RpaServiceTest {
 		assertThat(exception.getStatus()).isEqualTo(INTERNAL_SERVER_ERROR);
 		assertThat(exception.getDetail()).isEqualTo("No folder ID found for municipality ID: " + MUNICIPALITY_ID);
 	}
+
+	@Test
+	void bulkAddQueueItems() {
+		// Arrange
+		final var caseIds = List.of(1L, 2L, 3L);
+		when(rpaPropertiesMock.folderIds()).thenReturn(Map.of(MUNICIPALITY_ID, FOLDER_ID));
+		when(rpaClientMock.bulkAddQueueItems(eq(FOLDER_ID), bulkArgumentCaptor.capture())).thenReturn(new BulkOperationResponseDtoOfFailedQueueItemDto().success(true));
+
+		// Act
+		final var failures = rpaService.bulkAddQueueItems("Queue-1", caseIds, MUNICIPALITY_ID);
+
+		// Assert and verify
+		assertThat(failures).isEmpty();
+		assertThat(bulkArgumentCaptor.getValue().getQueueName()).isEqualTo("Queue-1");
+		assertThat(bulkArgumentCaptor.getValue().getCommitType()).isEqualTo(PROCESS_ALL_INDEPENDENTLY);
+		assertThat(bulkArgumentCaptor.getValue().getQueueItems())
+			.extracting(QueueItemDataDto::getName, QueueItemDataDto::getReference)
+			.containsExactly(
+				tuple("Queue-1", "1"),
+				tuple("Queue-1", "2"),
+				tuple("Queue-1", "3"));
+		verify(rpaClientMock, never()).addQueueItem(any(), any());
+	}
+
+	@Test
+	void bulkAddQueueItemsWithSingleCase() {
+		// Arrange
+		when(rpaPropertiesMock.folderIds()).thenReturn(Map.of(MUNICIPALITY_ID, FOLDER_ID));
+
+		// Act
+		final var failures = rpaService.bulkAddQueueItems("Queue-1", List.of(1L), MUNICIPALITY_ID);
+
+		// Assert and verify
+		assertThat(failures).isEmpty();
+		verify(rpaClientMock).addQueueItem(eq(FOLDER_ID), queueArgumentCaptor.capture());
+		assertThat(queueArgumentCaptor.getValue().getItemData().getName()).isEqualTo("Queue-1");
+		assertThat(queueArgumentCaptor.getValue().getItemData().getReference()).isEqualTo("1");
+		verify(rpaClientMock, never()).bulkAddQueueItems(any(), any());
+	}
+
+	@Test
+	void bulkAddQueueItemsWithFailedItems() {
+		// Arrange
+		final var caseIds = List.of(1L, 2L, 3L);
+		final var response = new BulkOperationResponseDtoOfFailedQueueItemDto()
+			.success(false)
+			.failedItems(List.of(
+				new FailedQueueItemDto().ordinal(0).errorCode(DUPLICATE_REFERENCE).errorMessage("Duplicate Reference"),
+				new FailedQueueItemDto().ordinal(2).errorCode(INVALID_REQUEST).errorMessage("Invalid request")));
+		when(rpaPropertiesMock.folderIds()).thenReturn(Map.of(MUNICIPALITY_ID, FOLDER_ID));
+		when(rpaClientMock.bulkAddQueueItems(eq(FOLDER_ID), any())).thenReturn(response);
+
+		// Act
+		final var failures = rpaService.bulkAddQueueItems("Queue-1", caseIds, MUNICIPALITY_ID);
+
+		// Assert
+		assertThat(failures).containsExactly(Map.entry(3L, "Invalid request"));
+	}
+
+	@Test
+	void bulkAddQueueItemsWithUnknownFailedItem() {
+		// Arrange
+		final var caseIds = List.of(1L, 2L);
+		final var response = new BulkOperationResponseDtoOfFailedQueueItemDto()
+			.success(false)
+			.message("Bulk operation failed")
+			.failedItems(List.of(new FailedQueueItemDto().errorCode(INVALID_REQUEST)));
+		when(rpaPropertiesMock.folderIds()).thenReturn(Map.of(MUNICIPALITY_ID, FOLDER_ID));
+		when(rpaClientMock.bulkAddQueueItems(eq(FOLDER_ID), any())).thenReturn(response);
+
+		// Act
+		final var e = assertThrows(ThrowableProblem.class, () -> rpaService.bulkAddQueueItems("Queue-1", caseIds, MUNICIPALITY_ID));
+
+		// Assert
+		assertThat(e.getStatus()).isEqualTo(BAD_GATEWAY);
+		assertThat(e.getDetail()).isEqualTo("Bulk add of queue items failed: Bulk operation failed");
+	}
 }
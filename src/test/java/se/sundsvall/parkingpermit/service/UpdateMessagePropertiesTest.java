@@ -0,0 +1,23 @@
+package se.sundsvall.parkingpermit.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.parkingpermit.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
+
+@SpringBootTest(classes = Application.class, webEnvironment = MOCK)
+@ActiveProfiles("junit")
+class UpdateMessagePropertiesTest {
+
+	@Autowired
+	private UpdateMessageProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isTrue();
+	}
+}
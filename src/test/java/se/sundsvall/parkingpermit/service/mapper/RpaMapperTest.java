@@ -1,12 +1,16 @@
 package se.sundsvall.parkingpermit.service.mapper;
 
 import generated.se.sundsvall.rpa.QueueItemDataDto;
+import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import static generated.se.sundsvall.rpa.QueuesBulkAddQueueItemsParameters.CommitTypeEnum.PROCESS_ALL_INDEPENDENTLY;
 import static java.util.Collections.emptyMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static se.sundsvall.parkingpermit.service.mapper.RpaMapper.toQueuesAddQueueItemParameters;
+import static se.sundsvall.parkingpermit.service.mapper.RpaMapper.toQueuesBulkAddQueueItemsParameters;
 
 class RpaMapperTest {
 
@@ -32,4 +36,28 @@ class RpaMapperTest {
 			.extracting(QueueItemDataDto::getName, QueueItemDataDto::getReference, QueueItemDataDto::getSpecificContent)
 			.containsExactlyInAnyOrder(queueName, String.valueOf(id), emptyMap());
 	}
+
+	@Test
+	@DisplayName("Should return a QueuesBulkAddQueueItemsParameters instance without items")
+	void testBulkWithNull() {
+		final var bean = toQueuesBulkAddQueueItemsParameters(null, null);
+
+		assertThat(bean.getQueueName()).isNull();
+		assertThat(bean.getCommitType()).isEqualTo(PROCESS_ALL_INDEPENDENTLY);
+		assertThat(bean.getQueueItems()).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Should return a QueuesBulkAddQueueItemsParameters instance with one item per case")
+	void testBulkWithValues() {
+		final var queueName = "queueName";
+
+		final var bean = toQueuesBulkAddQueueItemsParameters(queueName, List.of(456L, 789L));
+
+		assertThat(bean.getQueueName()).isEqualTo(queueName);
+		assertThat(bean.getCommitType()).isEqualTo(PROCESS_ALL_INDEPENDENTLY);
+		assertThat(bean.getQueueItems())
+			.extracting(QueueItemDataDto::getName, QueueItemDataDto::getReference)
+			.containsExactly(tuple(queueName, "456"), tuple(queueName, "789"));
+	}
 }
@@ -0,0 +1,70 @@
+package se.sundsvall.parkingpermit.util;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.parkingpermit.Application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
+
+@SpringBootTest(classes = Application.class, webEnvironment = MOCK)
+@ActiveProfiles("junit")
+class ControlMessageTimerPropertiesTest {
+
+	@Autowired
+	private ControlMessageTimerProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isTrue();
+		assertThat(properties.jitterWindow()).isEqualTo(Duration.ofHours(1));
+		assertThat(properties.businessHoursStart()).isEqualTo(LocalTime.of(7, 30));
+		assertThat(properties.businessHoursEnd()).isEqualTo(LocalTime.of(16, 0));
+		assertThat(properties.jitterWindows()).containsExactly(Map.entry("2281", Duration.ofHours(3)));
+		assertThat(properties.jitterWindowFor("2281")).isEqualTo(Duration.ofHours(3));
+		assertThat(properties.jitterWindowFor("2260")).isEqualTo(Duration.ofHours(1));
+		assertThat(properties.zone()).isEqualTo(ZoneId.of("Europe/Helsinki"));
+	}
+
+	@Test
+	void testDefaultValues() {
+		final var bean = new ControlMessageTimerProperties(false, null, null, null, null, null);
+
+		assertThat(bean.enabled()).isFalse();
+		assertThat(bean.jitterWindow()).isEqualTo(Duration.ofHours(2));
+		assertThat(bean.businessHoursStart()).isEqualTo(LocalTime.of(8, 0));
+		assertThat(bean.businessHoursEnd()).isEqualTo(LocalTime.of(17, 0));
+		assertThat(bean.jitterWindows()).isEmpty();
+		assertThat(bean.zone()).isEqualTo(ZoneId.of("Europe/Stockholm"));
+	}
+
+	@Test
+	void negativeJitterWindow() {
+		final var jitterWindow = Duration.ofMinutes(-1);
+		final var jitterWindows = Map.of("2281", jitterWindow);
+
+		assertThatThrownBy(() -> new ControlMessageTimerProperties(true, jitterWindow, null, null, null, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Jitter window must not be negative");
+		assertThatThrownBy(() -> new ControlMessageTimerProperties(true, null, null, null, jitterWindows, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Jitter window must not be negative");
+	}
+
+	@Test
+	void invalidBusinessHours() {
+		final var start = LocalTime.of(17, 0);
+		final var end = LocalTime.of(8, 0);
+
+		assertThatThrownBy(() -> new ControlMessageTimerProperties(true, null, start, end, null, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Business hours must start before they end");
+	}
+}
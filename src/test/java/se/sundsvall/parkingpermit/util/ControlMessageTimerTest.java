@@ -0,0 +1,130 @@
+package se.sundsvall.parkingpermit.util;
+
+import generated.se.sundsvall.casedata.Decision;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ControlMessageTimerTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String OTHER_MUNICIPALITY_ID = "2260";
+	private static final String DELAY = "P1D";
+	private static final LocalDate DECISION_DATE = LocalDate.of(2026, 3, 2);
+	private static final LocalDate DUE_DATE = DECISION_DATE.plusDays(1);
+	private static final ZoneId ZONE = ZoneId.of("Europe/Stockholm");
+
+	private final ControlMessageTimer timer = new ControlMessageTimer(new ControlMessageTimerProperties(true, Duration.ofHours(2), LocalTime.of(8, 0), LocalTime.of(17, 0),
+		Map.of(OTHER_MUNICIPALITY_ID, Duration.ofMinutes(30)), ZONE));
+
+	@Test
+	void getControlMessageTimeWhenDisabled() {
+		// Arrange
+		final var disabledTimer = new ControlMessageTimer(new ControlMessageTimerProperties(false, null, null, null, null, null));
+
+		// Act
+		final var result = disabledTimer.getControlMessageTime(MUNICIPALITY_ID, 1L, decisionAt(LocalTime.of(3, 0)), DELAY);
+
+		// Assert
+		assertThat(result).isEqualTo(dueAt(LocalTime.of(3, 0)));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+		"10:00, 10:00, 12:00",
+		"03:00, 08:00, 10:00",
+		"16:30, 16:30, 17:00"
+	})
+	void getControlMessageTimeIsSpreadWithinWindow(LocalTime decidedAt, LocalTime earliest, LocalTime latest) {
+		// Act
+		final var results = LongStream.rangeClosed(1, 100)
+			.mapToObj(errandId -> timer.getControlMessageTime(MUNICIPALITY_ID, errandId, decisionAt(decidedAt), DELAY))
+			.toList();
+
+		// Assert
+		assertThat(results).allSatisfy(result -> assertThat(result).isBetween(dueAt(earliest), dueAt(latest)));
+		assertThat(results.stream().collect(toSet())).hasSizeGreaterThan(10);
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+		"17:00",
+		"20:00",
+		"23:30"
+	})
+	void getControlMessageTimeAfterBusinessHoursIsSpreadFromNextBusinessHours(LocalTime decidedAt) {
+		// Act
+		final var results = LongStream.rangeClosed(1, 100)
+			.mapToObj(errandId -> timer.getControlMessageTime(MUNICIPALITY_ID, errandId, decisionAt(decidedAt), DELAY))
+			.toList();
+
+		// Assert
+		assertThat(results).allSatisfy(result -> assertThat(result).isBetween(at(DUE_DATE.plusDays(1), LocalTime.of(8, 0)), at(DUE_DATE.plusDays(1), LocalTime.of(10, 0))));
+		assertThat(results.stream().collect(toSet())).hasSizeGreaterThan(10);
+	}
+
+	@Test
+	void getControlMessageTimeInZoneOfBusinessHours() {
+		// Arrange
+		final var decision = new Decision().created(ZonedDateTime.of(DECISION_DATE, LocalTime.of(3, 0), ZONE).withZoneSameInstant(ZoneId.of("UTC")).toOffsetDateTime());
+
+		// Act
+		final var result = timer.getControlMessageTime(MUNICIPALITY_ID, null, decision, DELAY);
+
+		// Assert
+		assertThat(result).isEqualTo(dueAt(LocalTime.of(8, 0)));
+	}
+
+	@Test
+	void getControlMessageTimeIsSameForSameErrand() {
+		// Act
+		final var first = timer.getControlMessageTime(MUNICIPALITY_ID, 123L, decisionAt(LocalTime.of(10, 0)), DELAY);
+		final var second = timer.getControlMessageTime(MUNICIPALITY_ID, 123L, decisionAt(LocalTime.of(10, 0)), DELAY);
+
+		// Assert
+		assertThat(first).isEqualTo(second);
+	}
+
+	@Test
+	void getControlMessageTimeWithJitterWindowOfMunicipality() {
+		// Act
+		final var results = LongStream.rangeClosed(1, 100)
+			.mapToObj(errandId -> timer.getControlMessageTime(OTHER_MUNICIPALITY_ID, errandId, decisionAt(LocalTime.of(10, 0)), DELAY))
+			.toList();
+
+		// Assert
+		assertThat(results).allSatisfy(result -> assertThat(result).isBetween(dueAt(LocalTime.of(10, 0)), dueAt(LocalTime.of(10, 30))));
+	}
+
+	@Test
+	void getControlMessageTimeWithoutErrandId() {
+		// Act
+		final var result = timer.getControlMessageTime(MUNICIPALITY_ID, null, decisionAt(LocalTime.of(3, 0)), DELAY);
+
+		// Assert
+		assertThat(result).isEqualTo(dueAt(LocalTime.of(8, 0)));
+	}
+
+	private static Decision decisionAt(LocalTime time) {
+		return new Decision().created(ZonedDateTime.of(DECISION_DATE, time, ZONE).toOffsetDateTime());
+	}
+
+	private static Date dueAt(LocalTime time) {
+		return at(DUE_DATE, time);
+	}
+
+	private static Date at(LocalDate date, LocalTime time) {
+		return Date.from(ZonedDateTime.of(date, time, ZONE).toInstant());
+	}
+}